@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provides access to the version corpora which are shipped along with the benchmarks.
+ *
+ * <p>The corpora mimic the version lists of popular Maven Central artifacts and thus contain a
+ * realistic mix of release, pre-release, snapshot and metadata versions.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class Corpus {
+
+  private Corpus() {
+  }
+
+  /**
+   * Retrieves a list of Java runtime version strings.
+   *
+   * @return the versions.
+   */
+  public static String[] javaVersions() {
+    return load("/java-versions.txt");
+  }
+
+  /**
+   * Retrieves a list of version ranges in interval notation.
+   *
+   * @return the ranges.
+   */
+  public static String[] ranges() {
+    return load("/ranges.txt");
+  }
+
+  /**
+   * Retrieves a list of semantic version strings.
+   *
+   * @return the versions.
+   */
+  public static String[] versions() {
+    return load("/versions.txt");
+  }
+
+  /**
+   * Loads a newline delimited corpus from the class path.
+   *
+   * @param resource the resource path.
+   * @return the corpus entries.
+   */
+  private static String[] load(String resource) {
+    InputStream inputStream = Corpus.class.getResourceAsStream(resource);
+    if (inputStream == null) {
+      throw new IllegalStateException("No such corpus: " + resource);
+    }
+
+    List<String> entries = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          entries.add(line);
+        }
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Cannot read corpus: " + resource, ex);
+    }
+
+    return entries.toArray(new String[0]);
+  }
+}
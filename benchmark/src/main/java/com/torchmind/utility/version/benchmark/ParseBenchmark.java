@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.benchmark;
+
+import com.torchmind.utility.version.VersionRange;
+import com.torchmind.utility.version.semantic.JavaVersion;
+import com.torchmind.utility.version.semantic.ParseResult;
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of parsing versions and version ranges.
+ *
+ * <p>Each invocation parses a single corpus entry (cycling through the entire corpus) in order to
+ * report the cost per parsed string.</p>
+ *
+ * @author Johannes Donath
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+  private String[] javaVersions;
+  private String[] ranges;
+  private String[] versions;
+
+  private int javaVersionIndex;
+  private int rangeIndex;
+  private int versionIndex;
+
+  private final ParseResult result = new ParseResult();
+
+  @Setup
+  public void setup() {
+    this.javaVersions = Corpus.javaVersions();
+    this.ranges = Corpus.ranges();
+    this.versions = Corpus.versions();
+  }
+
+  @Benchmark
+  public JavaVersion parseJavaVersion() {
+    if (this.javaVersionIndex == this.javaVersions.length) {
+      this.javaVersionIndex = 0;
+    }
+
+    return JavaVersion.of(this.javaVersions[this.javaVersionIndex++]);
+  }
+
+  @Benchmark
+  public VersionRange<SemanticVersion> parseRange() {
+    if (this.rangeIndex == this.ranges.length) {
+      this.rangeIndex = 0;
+    }
+
+    return SemanticVersion.range(this.ranges[this.rangeIndex++]);
+  }
+
+  @Benchmark
+  public SemanticVersion parseVersion() {
+    if (this.versionIndex == this.versions.length) {
+      this.versionIndex = 0;
+    }
+
+    return SemanticVersion.of(this.versions[this.versionIndex++]);
+  }
+
+  @Benchmark
+  public long tryParseVersion() {
+    if (this.versionIndex == this.versions.length) {
+      this.versionIndex = 0;
+    }
+
+    SemanticVersion.tryParse(this.versions[this.versionIndex++], this.result);
+    return this.result.pack();
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.benchmark;
+
+import com.torchmind.utility.version.VersionRange;
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import com.torchmind.utility.version.semantic.VersionRangeMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of matching versions against version ranges.
+ *
+ * @author Johannes Donath
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeBenchmark {
+
+  private List<SemanticVersion> versions;
+  private List<VersionRange<SemanticVersion>> ranges;
+  private List<VersionRangeMatcher> matchers;
+
+  private int versionIndex;
+  private int rangeIndex;
+
+  @Setup
+  public void setup() {
+    this.versions = new ArrayList<>();
+    for (String version : Corpus.versions()) {
+      this.versions.add(SemanticVersion.of(version));
+    }
+
+    // ranges are built from ordered corpus pairs in order to guarantee that a realistic share of
+    // versions is actually matched
+    this.ranges = new ArrayList<>();
+    for (int i = 0; i < this.versions.size(); i += 7) {
+      SemanticVersion first = this.versions.get(i);
+      SemanticVersion second = this.versions.get((i * 13 + 5) % this.versions.size());
+
+      this.ranges.add(VersionRange.<SemanticVersion>builder()
+          .startBound(first.olderThan(second) ? first : second)
+          .startInclusive(i % 2 == 0)
+          .endBound(first.olderThan(second) ? second : first)
+          .endInclusive(i % 3 == 0)
+          .build());
+    }
+
+    this.matchers = new ArrayList<>();
+    for (VersionRange<SemanticVersion> range : this.ranges) {
+      this.matchers.add(VersionRangeMatcher.compile(range));
+    }
+  }
+
+  private VersionRange<SemanticVersion> nextRange() {
+    if (this.rangeIndex == this.ranges.size()) {
+      this.rangeIndex = 0;
+    }
+
+    return this.ranges.get(this.rangeIndex++);
+  }
+
+  @Benchmark
+  public boolean compiledMatches() {
+    if (this.versionIndex == this.versions.size()) {
+      this.versionIndex = 0;
+    }
+    if (this.rangeIndex == this.matchers.size()) {
+      this.rangeIndex = 0;
+    }
+
+    return this.matchers.get(this.rangeIndex++).test(this.versions.get(this.versionIndex++));
+  }
+
+  @Benchmark
+  public boolean matches() {
+    if (this.versionIndex == this.versions.size()) {
+      this.versionIndex = 0;
+    }
+
+    return this.nextRange().matches(this.versions.get(this.versionIndex++));
+  }
+
+  @Benchmark
+  public Set<SemanticVersion> matching() {
+    return this.nextRange().matching(this.versions);
+  }
+}
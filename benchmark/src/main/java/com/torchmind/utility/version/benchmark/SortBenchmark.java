@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.benchmark;
+
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import com.torchmind.utility.version.semantic.VersionSorter;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of sorting large arrays of versions via comparison and radix sort.
+ *
+ * <p>Each invocation sorts a fresh copy of a shuffled array which is assembled by repeating the
+ * corpus until the desired size is reached.</p>
+ *
+ * @author Johannes Donath
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortBenchmark {
+
+  @Param({"100000", "1000000"})
+  private int size;
+
+  private SemanticVersion[] versions;
+
+  @Setup
+  public void setup() {
+    String[] corpus = Corpus.versions();
+    Random random = new Random(0);
+
+    this.versions = new SemanticVersion[this.size];
+    for (int i = 0; i < this.size; ++i) {
+      this.versions[i] = SemanticVersion.of(corpus[random.nextInt(corpus.length)]);
+    }
+  }
+
+  @Benchmark
+  public SemanticVersion[] comparisonSort() {
+    SemanticVersion[] copy = this.versions.clone();
+    Arrays.sort(copy);
+    return copy;
+  }
+
+  @Benchmark
+  public SemanticVersion[] parallelRadixSort() {
+    SemanticVersion[] copy = this.versions.clone();
+    VersionSorter.parallelSort(copy);
+    return copy;
+  }
+
+  @Benchmark
+  public SemanticVersion[] radixSort() {
+    SemanticVersion[] copy = this.versions.clone();
+    VersionSorter.sort(copy);
+    return copy;
+  }
+}
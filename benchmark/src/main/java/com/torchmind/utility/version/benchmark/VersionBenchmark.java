@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.benchmark;
+
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of comparing, hashing and formatting versions.
+ *
+ * <p>Each invocation operates on a single pair of corpus entries (cycling through a shuffled copy
+ * of the corpus) so that results reflect a realistic mix of equal and differing versions.</p>
+ *
+ * @author Johannes Donath
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionBenchmark {
+
+  private SemanticVersion[] versions;
+  private SemanticVersion[] others;
+  private int index;
+
+  @Setup
+  public void setup() {
+    String[] corpus = Corpus.versions();
+
+    this.versions = new SemanticVersion[corpus.length];
+    this.others = new SemanticVersion[corpus.length];
+
+    for (int i = 0; i < corpus.length; ++i) {
+      this.versions[i] = SemanticVersion.of(corpus[i]);
+
+      // every pair is offset by a fixed stride while every fourth pair consists of equal (but not
+      // identical) instances in order to exercise the full comparison path
+      this.others[i] = SemanticVersion.of(corpus[(i % 4 == 0 ? i : (i * 31 + 7) % corpus.length)]);
+    }
+  }
+
+  private int next() {
+    if (this.index == this.versions.length) {
+      this.index = 0;
+    }
+
+    return this.index++;
+  }
+
+  @Benchmark
+  public int compareTo() {
+    int i = this.next();
+    return this.versions[i].compareTo(this.others[i]);
+  }
+
+  @Benchmark
+  public boolean equals() {
+    int i = this.next();
+    return this.versions[i].equals(this.others[i]);
+  }
+
+  @Benchmark
+  public int hashCode() {
+    return this.versions[this.next()].hashCode();
+  }
+
+  @Benchmark
+  public String toString() {
+    return this.versions[this.next()].toString();
+  }
+}
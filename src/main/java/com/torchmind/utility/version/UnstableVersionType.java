@@ -35,6 +35,8 @@ public enum UnstableVersionType {
   RELEASE_CANDIDATE("rc");
 
   private static final Map<String, UnstableVersionType> aliasMap;
+  private static final String[] aliasNames;
+  private static final UnstableVersionType[] aliasTypes;
 
   static {
     Map<String, UnstableVersionType> map = new HashMap<>();
@@ -50,6 +52,17 @@ public enum UnstableVersionType {
     }
 
     aliasMap = Collections.unmodifiableMap(map);
+
+    // region lookups walk flat copies of the alias table in order to avoid allocating iterators or
+    // key strings for every lookup
+    aliasNames = new String[map.size()];
+    aliasTypes = new UnstableVersionType[map.size()];
+
+    int i = 0;
+    for (Map.Entry<String, UnstableVersionType> entry : map.entrySet()) {
+      aliasNames[i] = entry.getKey();
+      aliasTypes[i++] = entry.getValue();
+    }
   }
 
   private final String[] aliases;
@@ -68,4 +81,37 @@ public enum UnstableVersionType {
   public static UnstableVersionType byAlias(@Nullable String alias) {
     return aliasMap.getOrDefault(alias, UNKNOWN);
   }
+
+  /**
+   * Retrieves the version type of an identifier located within a region of a character sequence
+   * without copying the region.
+   *
+   * @param sequence the sequence.
+   * @param start the index of the first character (inclusive).
+   * @param end the index of the last character (exclusive).
+   * @return The version type.
+   */
+  @NonNull
+  public static UnstableVersionType byAlias(@NonNull CharSequence sequence, int start, int end) {
+    int length = end - start;
+
+    for (int i = 0; i < aliasNames.length; ++i) {
+      String alias = aliasNames[i];
+
+      if (alias.length() != length) {
+        continue;
+      }
+
+      int j = 0;
+      while (j < length && alias.charAt(j) == sequence.charAt(start + j)) {
+        ++j;
+      }
+
+      if (j == length) {
+        return aliasTypes[i];
+      }
+    }
+
+    return UNKNOWN;
+  }
 }
@@ -0,0 +1,447 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Provides a bounded, thread safe cache which interns parsed representations (such as versions)
+ * by their raw string.
+ *
+ * <p>Repeated lookups of the same string return the very same (canonical) instance thus permitting
+ * consumers to skip repeated parsing as well as to benefit from identity checks within {@code
+ * equals} implementations. For instance:</p>
+ *
+ * <pre>
+ * VersionCache&lt;SemanticVersion&gt; cache = VersionCache.&lt;SemanticVersion&gt;builder()
+ *     .parser(SemanticVersion::of)
+ *     .maximumSize(4096)
+ *     .build();
+ *
+ * SemanticVersion version = cache.of("1.0.0");
+ * </pre>
+ *
+ * <p>Entries are distributed among a number of independently locked segments, each of which
+ * evicts entries in accordance with the configured {@link EvictionPolicy} once its share of the
+ * maximum size has been reached.</p>
+ *
+ * @param <V> the cached value type.
+ * @author Johannes Donath
+ */
+public final class VersionCache<V> {
+
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final Function<? super String, ? extends V> parser;
+  private final Segment<V>[] segments;
+  private final int segmentMask;
+
+  private VersionCache(@NonNull Function<? super String, ? extends V> parser, int maximumSize,
+      @NonNull EvictionPolicy evictionPolicy, int concurrencyLevel) {
+    this.parser = parser;
+
+    int segmentCount = 1;
+    while (segmentCount < concurrencyLevel && (segmentCount << 1) <= maximumSize) {
+      segmentCount <<= 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    Segment<V>[] segments = (Segment<V>[]) new Segment<?>[segmentCount];
+    this.segments = segments;
+    this.segmentMask = segmentCount - 1;
+
+    // the maximum size is distributed evenly among all segments (with the remainder being assigned
+    // to the first segments) so that the cache as a whole never exceeds its bounds
+    for (int i = 0; i < segmentCount; ++i) {
+      int capacity = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+      this.segments[i] = new Segment<>(capacity, evictionPolicy, this.evictions);
+    }
+  }
+
+  /**
+   * Retrieves a new {@link Builder}.
+   *
+   * @param <V> the cached value type.
+   * @return the builder.
+   */
+  @NonNull
+  public static <V> Builder<V> builder() {
+    return (new Builder<>());
+  }
+
+  /**
+   * Removes all entries from this cache.
+   */
+  public void clear() {
+    for (Segment<V> segment : this.segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  /**
+   * Retrieves the canonical instance for a string (parsing and caching it if necessary).
+   *
+   * @param value the raw string.
+   * @return the canonical instance.
+   * @throws RuntimeException when the string cannot be parsed (exceptions raised by the parser
+   * are passed on and the string is not cached).
+   */
+  @NonNull
+  public V of(@NonNull String value) {
+    Segment<V> segment = this.segment(value);
+
+    V cached;
+    synchronized (segment) {
+      cached = segment.get(value);
+    }
+
+    if (cached != null) {
+      this.hits.increment();
+      return cached;
+    }
+
+    // parsing happens outside of the segment lock in order to prevent expensive parser invocations
+    // from blocking unrelated lookups. When multiple threads race for the same string, the first
+    // inserted instance wins and is returned to all of them.
+    this.misses.increment();
+    V parsed = this.parser.apply(value);
+
+    synchronized (segment) {
+      cached = segment.putIfAbsent(value, parsed);
+    }
+
+    return (cached != null ? cached : parsed);
+  }
+
+  /**
+   * Retrieves the amount of entries which are currently cached.
+   *
+   * @return the amount of entries.
+   */
+  public int size() {
+    int size = 0;
+
+    for (Segment<V> segment : this.segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+
+    return size;
+  }
+
+  /**
+   * Retrieves a snapshot of the statistics which have been recorded by this cache.
+   *
+   * @return the statistics.
+   */
+  @NonNull
+  public Statistics statistics() {
+    return new Statistics(this.hits.sum(), this.misses.sum(), this.evictions.sum());
+  }
+
+  /**
+   * Selects the segment which is responsible for a certain string.
+   *
+   * @param value the string.
+   * @return the segment.
+   */
+  @NonNull
+  private Segment<V> segment(@NonNull String value) {
+    int hash = value.hashCode();
+    return this.segments[(hash ^ (hash >>> 16)) & this.segmentMask];
+  }
+
+  /**
+   * Provides a list of supported eviction policies.
+   */
+  public enum EvictionPolicy {
+
+    /**
+     * Evicts the entry which has been inserted first.
+     */
+    FIRST_IN_FIRST_OUT,
+
+    /**
+     * Evicts the entry which has not been accessed for the longest period of time.
+     */
+    LEAST_RECENTLY_USED
+  }
+
+  /**
+   * Represents a point in time snapshot of the statistics recorded by a cache.
+   */
+  public static final class Statistics {
+
+    private final long evictions;
+    private final long hits;
+    private final long misses;
+
+    private Statistics(long hits, long misses, long evictions) {
+      this.hits = hits;
+      this.misses = misses;
+      this.evictions = evictions;
+    }
+
+    /**
+     * Retrieves the amount of entries which have been evicted.
+     *
+     * @return the amount of evictions.
+     */
+    public long evictions() {
+      return this.evictions;
+    }
+
+    /**
+     * Retrieves the ratio of lookups which have been answered from the cache.
+     *
+     * @return the ratio (between zero and one) or one if no lookups have been performed.
+     */
+    public double hitRate() {
+      long requests = this.requests();
+      return (requests == 0 ? 1.0 : (double) this.hits / requests);
+    }
+
+    /**
+     * Retrieves the amount of lookups which have been answered from the cache.
+     *
+     * @return the amount of hits.
+     */
+    public long hits() {
+      return this.hits;
+    }
+
+    /**
+     * Retrieves the amount of lookups which required a string to be parsed.
+     *
+     * @return the amount of misses.
+     */
+    public long misses() {
+      return this.misses;
+    }
+
+    /**
+     * Retrieves the total amount of lookups.
+     *
+     * @return the amount of lookups.
+     */
+    public long requests() {
+      return this.hits + this.misses;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public String toString() {
+      return "Statistics{hits=" + this.hits + ", misses=" + this.misses + ", evictions="
+          + this.evictions + "}";
+    }
+  }
+
+  /**
+   * Provides a factory for {@link VersionCache} instances.
+   *
+   * @param <V> the cached value type.
+   */
+  public static final class Builder<V> {
+
+    private int concurrencyLevel;
+    private EvictionPolicy evictionPolicy;
+    private int maximumSize;
+    private Function<? super String, ? extends V> parser;
+
+    private Builder() {
+      this.reset();
+    }
+
+    /**
+     * Builds an instance of {@link VersionCache} and resets the builder.
+     *
+     * @return the cache.
+     * @throws IllegalStateException when no parser has been specified.
+     */
+    @NonNull
+    public VersionCache<V> build() throws IllegalStateException {
+      if (this.parser == null) {
+        throw new IllegalStateException("Missing parser");
+      }
+
+      try {
+        return (new VersionCache<>(this.parser, this.maximumSize, this.evictionPolicy,
+            this.concurrencyLevel));
+      } finally {
+        this.reset();
+      }
+    }
+
+    /**
+     * Retrieves the expected amount of concurrently accessing threads.
+     *
+     * @return the concurrency level.
+     */
+    public int concurrencyLevel() {
+      return this.concurrencyLevel;
+    }
+
+    /**
+     * Sets the expected amount of concurrently accessing threads (which determines the amount of
+     * independently locked segments).
+     *
+     * @param concurrencyLevel the concurrency level.
+     * @return the builder.
+     * @throws IllegalArgumentException when the level is smaller than one.
+     */
+    @NonNull
+    public Builder<V> concurrencyLevel(int concurrencyLevel) throws IllegalArgumentException {
+      if (concurrencyLevel < 1) {
+        throw new IllegalArgumentException("Concurrency level must be positive");
+      }
+
+      this.concurrencyLevel = concurrencyLevel;
+      return this;
+    }
+
+    /**
+     * Retrieves the eviction policy.
+     *
+     * @return the policy.
+     */
+    @NonNull
+    public EvictionPolicy evictionPolicy() {
+      return this.evictionPolicy;
+    }
+
+    /**
+     * Sets the eviction policy.
+     *
+     * @param evictionPolicy the policy.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<V> evictionPolicy(@NonNull EvictionPolicy evictionPolicy) {
+      this.evictionPolicy = evictionPolicy;
+      return this;
+    }
+
+    /**
+     * Retrieves the maximum amount of cached entries.
+     *
+     * @return the maximum size.
+     */
+    public int maximumSize() {
+      return this.maximumSize;
+    }
+
+    /**
+     * Sets the maximum amount of cached entries.
+     *
+     * @param maximumSize the maximum size.
+     * @return the builder.
+     * @throws IllegalArgumentException when the size is smaller than one.
+     */
+    @NonNull
+    public Builder<V> maximumSize(int maximumSize) throws IllegalArgumentException {
+      if (maximumSize < 1) {
+        throw new IllegalArgumentException("Maximum size must be positive");
+      }
+
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * Retrieves the parser.
+     *
+     * @return the parser.
+     */
+    @Nullable
+    public Function<? super String, ? extends V> parser() {
+      return this.parser;
+    }
+
+    /**
+     * Sets the parser which converts raw strings into their cached representation.
+     *
+     * @param parser the parser.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<V> parser(@Nullable Function<? super String, ? extends V> parser) {
+      this.parser = parser;
+      return this;
+    }
+
+    /**
+     * Resets the builder instance.
+     *
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<V> reset() {
+      this.concurrencyLevel = Runtime.getRuntime().availableProcessors();
+      this.evictionPolicy = EvictionPolicy.LEAST_RECENTLY_USED;
+      this.maximumSize = 1024;
+      this.parser = null;
+      return this;
+    }
+  }
+
+  /**
+   * Represents a single independently locked portion of the cache.
+   *
+   * <p>All accesses are expected to be synchronized on the segment itself.</p>
+   *
+   * @param <V> the cached value type.
+   */
+  private static final class Segment<V> extends LinkedHashMap<String, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+    private final transient LongAdder evictions;
+
+    private Segment(int capacity, @NonNull EvictionPolicy evictionPolicy,
+        @NonNull LongAdder evictions) {
+      super(16, 0.75f, evictionPolicy == EvictionPolicy.LEAST_RECENTLY_USED);
+      this.capacity = capacity;
+      this.evictions = evictions;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+      if (this.size() > this.capacity) {
+        this.evictions.increment();
+        return true;
+      }
+
+      return false;
+    }
+  }
+}
@@ -18,13 +18,21 @@ package com.torchmind.utility.version;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Represents a range between two versions.
  *
+ * <p>Either bound may be omitted (represented by {@code null}) in which case the range extends
+ * infinitely in the respective direction. Infinite bounds never include a version of their own
+ * and are skipped entirely when matching versions (for instance {@code [1.0,)} merely compares
+ * against its starting bound).</p>
+ *
  * @param <T> the version type.
  * @author Johannes Donath
  */
@@ -35,13 +43,50 @@ public final class VersionRange<T extends Version<T>> {
   private final T startBound;
   private final boolean startInclusive;
 
-  private VersionRange(@NonNull T startBound, boolean startInclusive, @NonNull T endBound,
+  private VersionRange(@Nullable T startBound, boolean startInclusive, @Nullable T endBound,
       boolean endInclusive) {
     this.startBound = startBound;
-    this.startInclusive = startInclusive;
+    this.startInclusive = startInclusive && startBound != null;
 
     this.endBound = endBound;
-    this.endInclusive = endInclusive;
+    this.endInclusive = endInclusive && endBound != null;
+  }
+
+  /**
+   * Retrieves a range which contains all versions.
+   *
+   * @param <T> the version type.
+   * @return the range.
+   */
+  @NonNull
+  public static <T extends Version<T>> VersionRange<T> any() {
+    return (new VersionRange<>(null, false, null, false));
+  }
+
+  /**
+   * Retrieves a range which contains all versions which are newer than or equal to {@code
+   * version}.
+   *
+   * @param version the starting bound.
+   * @param <T> the version type.
+   * @return the range.
+   */
+  @NonNull
+  public static <T extends Version<T>> VersionRange<T> atLeast(@NonNull T version) {
+    return (new VersionRange<>(version, true, null, false));
+  }
+
+  /**
+   * Retrieves a range which contains all versions which are older than or equal to {@code
+   * version}.
+   *
+   * @param version the ending bound.
+   * @param <T> the version type.
+   * @return the range.
+   */
+  @NonNull
+  public static <T extends Version<T>> VersionRange<T> atMost(@NonNull T version) {
+    return (new VersionRange<>(null, false, version, true));
   }
 
   /**
@@ -72,11 +117,36 @@ public final class VersionRange<T extends Version<T>> {
   }
 
   /**
-   * Retrieves the ending bound.
+   * Retrieves a range which contains all versions which are newer than {@code version}.
+   *
+   * @param version the starting bound.
+   * @param <T> the version type.
+   * @return the range.
+   */
+  @NonNull
+  public static <T extends Version<T>> VersionRange<T> greaterThan(@NonNull T version) {
+    return (new VersionRange<>(version, false, null, false));
+  }
+
+  /**
+   * Retrieves a range which contains all versions which are older than {@code version}.
    *
-   * @return the ending version.
+   * @param version the ending bound.
+   * @param <T> the version type.
+   * @return the range.
    */
   @NonNull
+  public static <T extends Version<T>> VersionRange<T> lessThan(@NonNull T version) {
+    return (new VersionRange<>(null, false, version, false));
+  }
+
+  /**
+   * Retrieves the ending bound.
+   *
+   * @return the ending version or {@code null} if the range extends infinitely towards newer
+   * versions.
+   */
+  @Nullable
   public T endBound() {
     return this.endBound;
   }
@@ -84,11 +154,11 @@ public final class VersionRange<T extends Version<T>> {
   /**
    * Creates a mutated copy of this range with {@code endBound} as it's ending bound.
    *
-   * @param endBound the ending version.
+   * @param endBound the ending version or {@code null} to remove the bound.
    * @return the mutated copy.
    */
   @NonNull
-  public VersionRange<T> endBound(@NonNull T endBound) {
+  public VersionRange<T> endBound(@Nullable T endBound) {
     return builder(this).endBound(endBound).build();
   }
 
@@ -113,21 +183,44 @@ public final class VersionRange<T extends Version<T>> {
     return builder(this).endInclusive(value).build();
   }
 
+  /**
+   * Checks whether this range is bounded in both directions.
+   *
+   * @return {@code true} if bounded, {@code false} if it extends infinitely in at least one
+   * direction.
+   */
+  public boolean bounded() {
+    return this.startBound != null && this.endBound != null;
+  }
+
   /**
    * Checks whether {@code version} is part of this range.
    *
+   * <p>Each present bound is compared exactly once while infinite bounds are skipped. {@code
+   * null} is never part of a range.</p>
+   *
    * @param version the version.
    * @return {@code true} if part of this set, {@code false} otherwise.
    */
   public boolean matches(@Nullable T version) {
-    if (!this.startInclusive && this.startBound.equals(version)) {
+    if (version == null) {
       return false;
     }
-    if (!this.endInclusive && this.endBound.equals(version)) {
-      return false;
+
+    if (this.startBound != null) {
+      int comparison = this.startBound.compareTo(version);
+
+      if (comparison > 0 || (comparison == 0 && !this.startInclusive)) {
+        return false;
+      }
     }
 
-    return !this.startBound.newerThan(version) && !this.endBound.olderThan(version);
+    if (this.endBound != null) {
+      int comparison = this.endBound.compareTo(version);
+      return comparison > 0 || (comparison == 0 && this.endInclusive);
+    }
+
+    return true;
   }
 
   /**
@@ -144,11 +237,98 @@ public final class VersionRange<T extends Version<T>> {
   }
 
   /**
-   * Retrieves the starting bound.
+   * Retrieves a view of all elements within a sorted list that match this range.
    *
-   * @return the starting version.
+   * <p>The bounds of the matching region are located via binary search (thus requiring {@code
+   * versions} to be sorted in ascending order and to permit random access in order to complete in
+   * logarithmic time). The returned list is backed by {@code versions} and does not copy any of its
+   * elements.</p>
+   *
+   * @param versions the sorted list.
+   * @return the matching view.
+   */
+  @NonNull
+  public List<T> matchingSorted(@NonNull List<T> versions) {
+    int fromIndex = this.startIndex(versions);
+    return versions.subList(fromIndex, this.endIndex(versions, fromIndex));
+  }
+
+  /**
+   * Retrieves a view of all elements within a sorted array that match this range.
+   *
+   * @param versions the sorted array.
+   * @return the matching view.
+   * @see #matchingSorted(List)
    */
   @NonNull
+  public List<T> matchingSorted(@NonNull T[] versions) {
+    return this.matchingSorted(Arrays.asList(versions));
+  }
+
+  /**
+   * Locates the index of the first element within a sorted list that does not precede this range.
+   *
+   * @param versions the sorted list.
+   * @return the index.
+   */
+  private int startIndex(@NonNull List<T> versions) {
+    if (this.startBound == null) {
+      return 0;
+    }
+
+    int low = 0;
+    int high = versions.size();
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      int comparison = this.startBound.compareTo(versions.get(middle));
+
+      if (comparison > 0 || (comparison == 0 && !this.startInclusive)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
+
+  /**
+   * Locates the index of the first element within a sorted list that succeeds this range.
+   *
+   * @param versions the sorted list.
+   * @param fromIndex the index of the first element to consider.
+   * @return the index.
+   */
+  private int endIndex(@NonNull List<T> versions, int fromIndex) {
+    if (this.endBound == null) {
+      return versions.size();
+    }
+
+    int low = fromIndex;
+    int high = versions.size();
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      int comparison = this.endBound.compareTo(versions.get(middle));
+
+      if (comparison > 0 || (comparison == 0 && this.endInclusive)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
+
+  /**
+   * Retrieves the starting bound.
+   *
+   * @return the starting version or {@code null} if the range extends infinitely towards older
+   * versions.
+   */
+  @Nullable
   public T startBound() {
     return this.startBound;
   }
@@ -156,11 +336,11 @@ public final class VersionRange<T extends Version<T>> {
   /**
    * Creates a mutated copy of this range with {@code startBound} as it's starting bound.
    *
-   * @param startBound the starting version.
+   * @param startBound the starting version or {@code null} to remove the bound.
    * @return the mutated copy.
    */
   @NonNull
-  public VersionRange<T> startBound(@NonNull T startBound) {
+  public VersionRange<T> startBound(@Nullable T startBound) {
     return builder(this).startBound(startBound).build();
   }
 
@@ -189,7 +369,6 @@ public final class VersionRange<T extends Version<T>> {
    * {@inheritDoc}
    */
   @Override
-  @SuppressWarnings("unchecked")
   public boolean equals(Object object) {
     if (this == object) {
       return true;
@@ -198,10 +377,7 @@ public final class VersionRange<T extends Version<T>> {
       return false;
     }
 
-    if (!this.startBound.getClass().equals(((VersionRange<?>) object).startBound.getClass())) {
-      return false;
-    }
-    VersionRange<T> that = (VersionRange<T>) object;
+    VersionRange<?> that = (VersionRange<?>) object;
 
     if (this.startInclusive != that.startInclusive) {
       return false;
@@ -211,7 +387,8 @@ public final class VersionRange<T extends Version<T>> {
       return false;
     }
 
-    return this.startBound.equals(that.startBound) && this.endBound.equals(that.endBound);
+    return Objects.equals(this.startBound, that.startBound) && Objects
+        .equals(this.endBound, that.endBound);
   }
 
   /**
@@ -219,13 +396,22 @@ public final class VersionRange<T extends Version<T>> {
    */
   @Override
   public int hashCode() {
-    int result = this.startBound.hashCode();
-    result = 31 * result + this.endBound.hashCode();
+    int result = Objects.hashCode(this.startBound);
+    result = 31 * result + Objects.hashCode(this.endBound);
     result = 31 * result + (this.startInclusive ? 1 : 0);
     result = 31 * result + (this.endInclusive ? 1 : 0);
     return result;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return (this.startInclusive ? "[" : "(") + (this.startBound != null ? this.startBound : "")
+        + "," + (this.endBound != null ? this.endBound : "") + (this.endInclusive ? "]" : ")");
+  }
+
   /**
    * Provides a factory for {@link VersionRange} instances.
    *
@@ -244,19 +430,12 @@ public final class VersionRange<T extends Version<T>> {
     /**
      * Builds an instance of {@link VersionRange} and resets the builder.
      *
+     * <p>Bounds which have not been set are considered infinite (and thus never inclusive).</p>
+     *
      * @return the range.
-     * @throws java.lang.IllegalStateException when {@code startBound} or {@code endBound} are
-     * null.
      */
     @NonNull
-    public VersionRange<T> build() throws IllegalStateException {
-      if (this.startBound == null) {
-        throw new IllegalStateException("Missing starting bound");
-      }
-      if (this.endBound == null) {
-        throw new IllegalStateException("Missing ending bound");
-      }
-
+    public VersionRange<T> build() {
       try {
         return (new VersionRange<>(this.startBound, this.startInclusive, this.endBound,
             this.endInclusive));
@@ -278,7 +457,7 @@ public final class VersionRange<T extends Version<T>> {
     /**
      * Sets the ending bound.
      *
-     * @param endBound the bound.
+     * @param endBound the bound or {@code null} to extend the range infinitely.
      * @return the builder.
      */
     @NonNull
@@ -336,7 +515,7 @@ public final class VersionRange<T extends Version<T>> {
     /**
      * Sets the starting bound.
      *
-     * @param startBound the bound.
+     * @param startBound the bound or {@code null} to extend the range infinitely.
      * @return the builder.
      */
     @NonNull
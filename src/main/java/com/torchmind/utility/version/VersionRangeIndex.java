@@ -0,0 +1,459 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Provides an immutable index which maps version ranges to arbitrary payloads and efficiently
+ * locates all ranges which contain a given version or overlap a given range.
+ *
+ * <p>Ranges are stored in an array sorted by their starting bounds which doubles as an implicitly
+ * balanced interval tree (each sub-array is rooted at its middle element and augmented with the
+ * furthest reaching ending bound within it). Queries thus complete in {@code O(log n + k)} for
+ * typical inputs and skip all sub-trees which end before or start after the queried region.
+ * Unbounded ranges are supported and simply order before (or reach beyond) all bounded ranges.</p>
+ *
+ * <p>Instances are never modified once built and may thus be shared freely between concurrent
+ * readers. Updates are performed by copying an existing index into a new {@link Builder} via
+ * {@link #builder(VersionRangeIndex)} and publishing the resulting snapshot.</p>
+ *
+ * @param <T> the version type.
+ * @param <P> the payload type.
+ * @author Johannes Donath
+ */
+public final class VersionRangeIndex<T extends Version<T>, P> {
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static final VersionRangeIndex<?, ?> EMPTY = new VersionRangeIndex(new VersionRange[0],
+      new Object[0], new int[0]);
+
+  private final int[] maximumEnds;
+  private final Object[] payloads;
+  private final VersionRange<T>[] ranges;
+
+  private VersionRangeIndex(@NonNull VersionRange<T>[] ranges, @NonNull Object[] payloads,
+      @NonNull int[] maximumEnds) {
+    this.ranges = ranges;
+    this.payloads = payloads;
+    this.maximumEnds = maximumEnds;
+  }
+
+  /**
+   * Retrieves a new {@link Builder}.
+   *
+   * @param <T> the version type.
+   * @param <P> the payload type.
+   * @return the builder.
+   */
+  @NonNull
+  public static <T extends Version<T>, P> Builder<T, P> builder() {
+    return (new Builder<>());
+  }
+
+  /**
+   * Retrieves a new {@link Builder} which replicates all entries of {@code index}.
+   *
+   * @param index the index.
+   * @param <T> the version type.
+   * @param <P> the payload type.
+   * @return the builder.
+   */
+  @NonNull
+  public static <T extends Version<T>, P> Builder<T, P> builder(
+      @NonNull VersionRangeIndex<T, P> index) {
+    return VersionRangeIndex.<T, P>builder().putAll(index);
+  }
+
+  /**
+   * Retrieves an empty index.
+   *
+   * @param <T> the version type.
+   * @param <P> the payload type.
+   * @return the index.
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  public static <T extends Version<T>, P> VersionRangeIndex<T, P> empty() {
+    return (VersionRangeIndex<T, P>) EMPTY;
+  }
+
+  /**
+   * Compares the ending bounds of two ranges (inclusive bounds reach further than their exclusive
+   * counterparts).
+   */
+  private static <T extends Version<T>> int compareEnds(@NonNull VersionRange<T> range1,
+      @NonNull VersionRange<T> range2) {
+    if (range1.endBound() == null || range2.endBound() == null) {
+      return (range1.endBound() == null ? 1 : 0) - (range2.endBound() == null ? 1 : 0);
+    }
+
+    int comparison = Integer.signum(range1.endBound().compareTo(range2.endBound()));
+
+    if (comparison != 0 || range1.endInclusive() == range2.endInclusive()) {
+      return comparison;
+    }
+
+    return (range1.endInclusive() ? 1 : -1);
+  }
+
+  /**
+   * Compares the starting bounds of two ranges (inclusive bounds reach further than their
+   * exclusive counterparts).
+   */
+  private static <T extends Version<T>> int compareStarts(@NonNull VersionRange<T> range1,
+      @NonNull VersionRange<T> range2) {
+    if (range1.startBound() == null || range2.startBound() == null) {
+      return (range2.startBound() == null ? 1 : 0) - (range1.startBound() == null ? 1 : 0);
+    }
+
+    int comparison = Integer.signum(range1.startBound().compareTo(range2.startBound()));
+
+    if (comparison != 0 || range1.startInclusive() == range2.startInclusive()) {
+      return comparison;
+    }
+
+    return (range1.startInclusive() ? -1 : 1);
+  }
+
+  /**
+   * Checks whether the ending bound of {@code range} reaches {@code version} (where {@code null}
+   * refers to an infinite starting bound).
+   */
+  private static <T extends Version<T>> boolean endReaches(@NonNull VersionRange<T> range,
+      @Nullable T version, boolean inclusive) {
+    if (range.endBound() == null || version == null) {
+      return true;
+    }
+
+    int comparison = range.endBound().compareTo(version);
+    return comparison > 0 || (comparison == 0 && range.endInclusive() && inclusive);
+  }
+
+  /**
+   * Checks whether a range cannot possibly contain any version.
+   */
+  private static <T extends Version<T>> boolean isEmpty(@NonNull VersionRange<T> range) {
+    if (!range.bounded()) {
+      return false;
+    }
+
+    int comparison = range.startBound().compareTo(range.endBound());
+    return comparison > 0 || (comparison == 0 && !(range.startInclusive()
+        && range.endInclusive()));
+  }
+
+  /**
+   * Checks whether the starting bound of {@code range} reaches {@code version} (where {@code
+   * null} refers to an infinite ending bound).
+   */
+  private static <T extends Version<T>> boolean startReaches(@NonNull VersionRange<T> range,
+      @Nullable T version, boolean inclusive) {
+    if (range.startBound() == null || version == null) {
+      return true;
+    }
+
+    int comparison = range.startBound().compareTo(version);
+    return comparison < 0 || (comparison == 0 && range.startInclusive() && inclusive);
+  }
+
+  /**
+   * Retrieves the payloads of all ranges which contain {@code version}.
+   *
+   * @param version the version.
+   * @return the payloads (ordered by the starting bounds of their respective ranges).
+   */
+  @NonNull
+  public List<P> containing(@NonNull T version) {
+    List<P> result = new ArrayList<>();
+    this.containing(version, (range, payload) -> result.add(payload));
+    return result;
+  }
+
+  /**
+   * Passes all ranges which contain {@code version} along with their payloads to {@code
+   * consumer} (ordered by their starting bounds).
+   *
+   * @param version the version.
+   * @param consumer the consumer.
+   */
+  public void containing(@NonNull T version,
+      @NonNull BiConsumer<? super VersionRange<T>, ? super P> consumer) {
+    this.query(0, this.ranges.length, version, true, version, true, consumer);
+  }
+
+  /**
+   * Checks whether this index is empty.
+   *
+   * @return {@code true} if empty, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return this.ranges.length == 0;
+  }
+
+  /**
+   * Retrieves the payloads of all ranges which share at least one version with {@code range}.
+   *
+   * @param range the range.
+   * @return the payloads (ordered by the starting bounds of their respective ranges).
+   */
+  @NonNull
+  public List<P> overlapping(@NonNull VersionRange<T> range) {
+    List<P> result = new ArrayList<>();
+    this.overlapping(range, (r, payload) -> result.add(payload));
+    return result;
+  }
+
+  /**
+   * Passes all ranges which share at least one version with {@code range} along with their
+   * payloads to {@code consumer} (ordered by their starting bounds).
+   *
+   * @param range the range.
+   * @param consumer the consumer.
+   */
+  public void overlapping(@NonNull VersionRange<T> range,
+      @NonNull BiConsumer<? super VersionRange<T>, ? super P> consumer) {
+    if (isEmpty(range)) {
+      return;
+    }
+
+    this.query(0, this.ranges.length, range.startBound(), range.startInclusive(),
+        range.endBound(), range.endInclusive(), consumer);
+  }
+
+  /**
+   * Retrieves the payload of an entry.
+   *
+   * @param index the entry index.
+   * @return the payload.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of entries.
+   */
+  @SuppressWarnings("unchecked")
+  public P payload(int index) {
+    return (P) this.payloads[index];
+  }
+
+  /**
+   * Retrieves the range of an entry.
+   *
+   * @param index the entry index.
+   * @return the range.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of entries.
+   */
+  @NonNull
+  public VersionRange<T> range(int index) {
+    return this.ranges[index];
+  }
+
+  /**
+   * Retrieves an unmodifiable view of all ranges within this index (ordered by their starting
+   * bounds).
+   *
+   * @return the ranges.
+   */
+  @NonNull
+  public List<VersionRange<T>> ranges() {
+    return Collections.unmodifiableList(Arrays.asList(this.ranges));
+  }
+
+  /**
+   * Retrieves the amount of entries within this index.
+   *
+   * @return the amount of entries.
+   */
+  public int size() {
+    return this.ranges.length;
+  }
+
+  /**
+   * Walks the sub-tree which is rooted at the center of {@code [fromIndex, toIndex)} and reports
+   * all ranges which overlap the queried region.
+   */
+  @SuppressWarnings("unchecked")
+  private void query(int fromIndex, int toIndex, @Nullable T startBound, boolean startInclusive,
+      @Nullable T endBound, boolean endInclusive,
+      @NonNull BiConsumer<? super VersionRange<T>, ? super P> consumer) {
+    while (fromIndex < toIndex) {
+      int middle = (fromIndex + toIndex) >>> 1;
+
+      // none of the ranges within this sub-tree reach far enough to overlap the queried region
+      if (!endReaches(this.ranges[this.maximumEnds[middle]], startBound, startInclusive)) {
+        return;
+      }
+
+      this.query(fromIndex, middle, startBound, startInclusive, endBound, endInclusive, consumer);
+
+      // ranges are sorted by their starting bounds thus permitting us to skip the right sub-tree
+      // entirely as soon as its root starts after the queried region
+      VersionRange<T> range = this.ranges[middle];
+      if (!startReaches(range, endBound, endInclusive)) {
+        return;
+      }
+
+      if (endReaches(range, startBound, startInclusive)) {
+        consumer.accept(range, (P) this.payloads[middle]);
+      }
+
+      fromIndex = middle + 1;
+    }
+  }
+
+  /**
+   * Provides a factory for {@link VersionRangeIndex} instances.
+   *
+   * @param <T> the version type.
+   * @param <P> the payload type.
+   */
+  public static final class Builder<T extends Version<T>, P> {
+
+    private final List<P> payloads = new ArrayList<>();
+    private final List<VersionRange<T>> ranges = new ArrayList<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Builds an immutable snapshot of all entries and resets the builder.
+     *
+     * @return the index.
+     */
+    @NonNull
+    public VersionRangeIndex<T, P> build() {
+      try {
+        int size = this.ranges.size();
+
+        if (size == 0) {
+          return VersionRangeIndex.empty();
+        }
+
+        // entries are ordered by their starting bounds while the original insertion order is
+        // retained for equal bounds (Arrays.sort is stable for object arrays)
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; ++i) {
+          order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compareStarts(this.ranges.get(a), this.ranges.get(b)));
+
+        @SuppressWarnings("unchecked")
+        VersionRange<T>[] ranges = (VersionRange<T>[]) new VersionRange<?>[size];
+        Object[] payloads = new Object[size];
+        for (int i = 0; i < size; ++i) {
+          ranges[i] = this.ranges.get(order[i]);
+          payloads[i] = this.payloads.get(order[i]);
+        }
+
+        int[] maximumEnds = new int[size];
+        augment(ranges, maximumEnds, 0, size);
+
+        return (new VersionRangeIndex<>(ranges, payloads, maximumEnds));
+      } finally {
+        this.reset();
+      }
+    }
+
+    /**
+     * Computes the index of the furthest reaching range within each sub-tree.
+     *
+     * @return the index of the furthest reaching range within {@code [fromIndex, toIndex)}.
+     */
+    private static <T extends Version<T>> int augment(@NonNull VersionRange<T>[] ranges,
+        @NonNull int[] maximumEnds, int fromIndex, int toIndex) {
+      int middle = (fromIndex + toIndex) >>> 1;
+      int maximum = middle;
+
+      if (fromIndex < middle) {
+        int left = augment(ranges, maximumEnds, fromIndex, middle);
+
+        if (compareEnds(ranges[left], ranges[maximum]) > 0) {
+          maximum = left;
+        }
+      }
+      if (middle + 1 < toIndex) {
+        int right = augment(ranges, maximumEnds, middle + 1, toIndex);
+
+        if (compareEnds(ranges[right], ranges[maximum]) > 0) {
+          maximum = right;
+        }
+      }
+
+      maximumEnds[middle] = maximum;
+      return maximum;
+    }
+
+    /**
+     * Appends an entry unless its range is empty.
+     *
+     * @param range the range.
+     * @param payload the payload.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<T, P> put(@NonNull VersionRange<T> range, P payload) {
+      // ranges which cannot possibly contain any version are never reported by queries and are
+      // thus omitted from the index entirely
+      if (isEmpty(range)) {
+        return this;
+      }
+
+      this.ranges.add(range);
+      this.payloads.add(payload);
+      return this;
+    }
+
+    /**
+     * Appends all entries of {@code index}.
+     *
+     * @param index the index.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<T, P> putAll(@NonNull VersionRangeIndex<T, ? extends P> index) {
+      for (int i = 0; i < index.size(); ++i) {
+        this.put(index.range(i), index.payload(i));
+      }
+
+      return this;
+    }
+
+    /**
+     * Resets the builder to its initial state.
+     *
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<T, P> reset() {
+      this.ranges.clear();
+      this.payloads.clear();
+      return this;
+    }
+
+    /**
+     * Retrieves the amount of entries which have been appended so far.
+     *
+     * @return the amount of entries.
+     */
+    public int size() {
+      return this.ranges.size();
+    }
+  }
+}
@@ -0,0 +1,828 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents an immutable set of versions which is expressed as a union of disjoint intervals.
+ *
+ * <p>Intervals are normalized upon construction (they are sorted by their starting bound while
+ * overlapping and adjacent intervals are merged) and may extend infinitely in either direction
+ * (for instance as a result of {@link #complement()}). As a result of the normalization, checking
+ * whether a version is part of a set merely requires a binary search over its interval bounds.</p>
+ *
+ * @param <T> the version type.
+ * @author Johannes Donath
+ */
+public final class VersionRangeSet<T extends Version<T>> {
+
+  private static final VersionRangeSet<?> ALL = new VersionRangeSet<>(new Object[]{null},
+      new boolean[]{false}, new Object[]{null}, new boolean[]{false});
+  private static final VersionRangeSet<?> EMPTY = new VersionRangeSet<>(new Object[0],
+      new boolean[0], new Object[0], new boolean[0]);
+
+  private final Object[] endBounds;
+  private final boolean[] endInclusive;
+  private final Object[] startBounds;
+  private final boolean[] startInclusive;
+
+  // lazily computed and cached (racy single-check idiom) as sets are frequently used as keys
+  private int hash;
+
+  private VersionRangeSet(@NonNull Object[] startBounds, @NonNull boolean[] startInclusive,
+      @NonNull Object[] endBounds, @NonNull boolean[] endInclusive) {
+    this.startBounds = startBounds;
+    this.startInclusive = startInclusive;
+    this.endBounds = endBounds;
+    this.endInclusive = endInclusive;
+  }
+
+  /**
+   * Retrieves a set which contains all versions.
+   *
+   * @param <T> the version type.
+   * @return the set.
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  public static <T extends Version<T>> VersionRangeSet<T> all() {
+    return (VersionRangeSet<T>) ALL;
+  }
+
+  /**
+   * Retrieves a new {@link Builder}.
+   *
+   * @param <T> the version type.
+   * @return the builder.
+   */
+  @NonNull
+  public static <T extends Version<T>> Builder<T> builder() {
+    return (new Builder<>());
+  }
+
+  /**
+   * Retrieves a set which contains all versions which are newer than or equal to {@code
+   * version}.
+   *
+   * @param version the lower bound.
+   * @param <T> the version type.
+   * @return the set.
+   */
+  @NonNull
+  public static <T extends Version<T>> VersionRangeSet<T> atLeast(@NonNull T version) {
+    return new VersionRangeSet<>(new Object[]{version}, new boolean[]{true}, new Object[]{null},
+        new boolean[]{false});
+  }
+
+  /**
+   * Retrieves a set which contains all versions which are older than or equal to {@code
+   * version}.
+   *
+   * @param version the upper bound.
+   * @param <T> the version type.
+   * @return the set.
+   */
+  @NonNull
+  public static <T extends Version<T>> VersionRangeSet<T> atMost(@NonNull T version) {
+    return new VersionRangeSet<>(new Object[]{null}, new boolean[]{false}, new Object[]{version},
+        new boolean[]{true});
+  }
+
+  /**
+   * Retrieves an empty set.
+   *
+   * @param <T> the version type.
+   * @return the set.
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  public static <T extends Version<T>> VersionRangeSet<T> empty() {
+    return (VersionRangeSet<T>) EMPTY;
+  }
+
+  /**
+   * Retrieves a set which contains exactly one version.
+   *
+   * @param version the version.
+   * @param <T> the version type.
+   * @return the set.
+   */
+  @NonNull
+  public static <T extends Version<T>> VersionRangeSet<T> exactly(@NonNull T version) {
+    return new VersionRangeSet<>(new Object[]{version}, new boolean[]{true},
+        new Object[]{version}, new boolean[]{true});
+  }
+
+  /**
+   * Retrieves a set which contains all versions which are newer than {@code version}.
+   *
+   * @param version the lower bound.
+   * @param <T> the version type.
+   * @return the set.
+   */
+  @NonNull
+  public static <T extends Version<T>> VersionRangeSet<T> greaterThan(@NonNull T version) {
+    return new VersionRangeSet<>(new Object[]{version}, new boolean[]{false}, new Object[]{null},
+        new boolean[]{false});
+  }
+
+  /**
+   * Retrieves a set which contains all versions which are older than {@code version}.
+   *
+   * @param version the upper bound.
+   * @param <T> the version type.
+   * @return the set.
+   */
+  @NonNull
+  public static <T extends Version<T>> VersionRangeSet<T> lessThan(@NonNull T version) {
+    return new VersionRangeSet<>(new Object[]{null}, new boolean[]{false}, new Object[]{version},
+        new boolean[]{false});
+  }
+
+  /**
+   * Creates a set which contains all versions which are matched by at least one of the passed
+   * ranges.
+   *
+   * @param ranges the ranges.
+   * @param <T> the version type.
+   * @return the set.
+   */
+  @NonNull
+  @SafeVarargs
+  public static <T extends Version<T>> VersionRangeSet<T> of(@NonNull VersionRange<T>... ranges) {
+    Intervals<T> intervals = new Intervals<>(ranges.length);
+
+    for (VersionRange<T> range : ranges) {
+      intervals.add(range.startBound(), range.startInclusive(), range.endBound(),
+          range.endInclusive());
+    }
+
+    return intervals.normalize();
+  }
+
+  /**
+   * Creates a set which contains all versions which are matched by at least one of the passed
+   * ranges.
+   *
+   * @param ranges the ranges.
+   * @param <T> the version type.
+   * @return the set.
+   */
+  @NonNull
+  public static <T extends Version<T>> VersionRangeSet<T> of(
+      @NonNull Collection<VersionRange<T>> ranges) {
+    Intervals<T> intervals = new Intervals<>(ranges.size());
+
+    for (VersionRange<T> range : ranges) {
+      intervals.add(range.startBound(), range.startInclusive(), range.endBound(),
+          range.endInclusive());
+    }
+
+    return intervals.normalize();
+  }
+
+  /**
+   * Compares two version bounds where {@code null} refers to an infinite bound.
+   *
+   * @param version1 the first bound.
+   * @param version2 the second bound.
+   * @param infinity the value which is returned when the first bound is infinite.
+   * @param <T> the version type.
+   * @return a negative value, zero or a positive value.
+   */
+  private static <T extends Version<T>> int compare(@Nullable T version1, @Nullable T version2,
+      int infinity) {
+    if (version1 == null) {
+      return (version2 == null ? 0 : infinity);
+    }
+    if (version2 == null) {
+      return -infinity;
+    }
+
+    return Integer.signum(version1.compareTo(version2));
+  }
+
+  /**
+   * Compares two ending bounds (where {@code null} refers to positive infinity and inclusive
+   * bounds extend further than their exclusive counterparts).
+   */
+  private static <T extends Version<T>> int compareEnds(@Nullable T version1, boolean inclusive1,
+      @Nullable T version2, boolean inclusive2) {
+    int comparison = compare(version1, version2, 1);
+
+    if (comparison != 0 || version1 == null || inclusive1 == inclusive2) {
+      return comparison;
+    }
+
+    return (inclusive1 ? 1 : -1);
+  }
+
+  /**
+   * Compares two starting bounds (where {@code null} refers to negative infinity and inclusive
+   * bounds extend further than their exclusive counterparts).
+   */
+  private static <T extends Version<T>> int compareStarts(@Nullable T version1,
+      boolean inclusive1, @Nullable T version2, boolean inclusive2) {
+    int comparison = compare(version1, version2, -1);
+
+    if (comparison != 0 || version1 == null || inclusive1 == inclusive2) {
+      return comparison;
+    }
+
+    return (inclusive1 ? -1 : 1);
+  }
+
+  /**
+   * Creates a set which contains all versions which are not part of this set.
+   *
+   * @return the complement.
+   */
+  @NonNull
+  public VersionRangeSet<T> complement() {
+    int size = this.size();
+
+    if (size == 0) {
+      return all();
+    }
+
+    Intervals<T> intervals = new Intervals<>(size + 1);
+
+    if (this.startBounds[0] != null) {
+      intervals.add(null, false, this.startBound(0), !this.startInclusive[0]);
+    }
+
+    for (int i = 1; i < size; ++i) {
+      intervals.add(this.endBound(i - 1), !this.endInclusive[i - 1], this.startBound(i),
+          !this.startInclusive[i]);
+    }
+
+    if (this.endBounds[size - 1] != null) {
+      intervals.add(this.endBound(size - 1), !this.endInclusive[size - 1], null, false);
+    }
+
+    return intervals.toSet();
+  }
+
+  /**
+   * Creates a set which contains all versions which are part of this set but not of {@code
+   * other}.
+   *
+   * @param other the other set.
+   * @return the difference.
+   */
+  @NonNull
+  public VersionRangeSet<T> difference(@NonNull VersionRangeSet<T> other) {
+    if (this.isEmpty() || other.isEmpty()) {
+      return this;
+    }
+
+    return this.intersection(other.complement());
+  }
+
+  /**
+   * Retrieves the ending bound of an interval.
+   *
+   * @param index the interval index.
+   * @return the bound or {@code null} if the interval extends infinitely.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of intervals.
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public T endBound(int index) {
+    return (T) this.endBounds[index];
+  }
+
+  /**
+   * Checks whether the ending bound of an interval is part of the set.
+   *
+   * @param index the interval index.
+   * @return {@code true} if part of the set, {@code false} otherwise.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of intervals.
+   */
+  public boolean endInclusive(int index) {
+    return this.endInclusive[index];
+  }
+
+  /**
+   * Creates a set which contains all versions which are part of this set as well as of {@code
+   * other}.
+   *
+   * @param other the other set.
+   * @return the intersection.
+   */
+  @NonNull
+  public VersionRangeSet<T> intersection(@NonNull VersionRangeSet<T> other) {
+    if (this.isEmpty() || other == ALL) {
+      return this;
+    }
+    if (other.isEmpty() || this == ALL) {
+      return other;
+    }
+
+    // both sets are walked simultaneously while each step emits the overlap of the two current
+    // intervals (if any) and advances the interval which ends first
+    Intervals<T> intervals = new Intervals<>(this.size() + other.size());
+    int i = 0;
+    int j = 0;
+
+    while (i < this.size() && j < other.size()) {
+      T startBound;
+      boolean startInclusive;
+
+      if (compareStarts(this.startBound(i), this.startInclusive[i], other.startBound(j),
+          other.startInclusive[j]) >= 0) {
+        startBound = this.startBound(i);
+        startInclusive = this.startInclusive[i];
+      } else {
+        startBound = other.startBound(j);
+        startInclusive = other.startInclusive[j];
+      }
+
+      T endBound;
+      boolean endInclusive;
+      boolean advanceThis;
+
+      if (compareEnds(this.endBound(i), this.endInclusive[i], other.endBound(j),
+          other.endInclusive[j]) <= 0) {
+        endBound = this.endBound(i);
+        endInclusive = this.endInclusive[i];
+        advanceThis = true;
+      } else {
+        endBound = other.endBound(j);
+        endInclusive = other.endInclusive[j];
+        advanceThis = false;
+      }
+
+      intervals.add(startBound, startInclusive, endBound, endInclusive);
+
+      if (advanceThis) {
+        ++i;
+      } else {
+        ++j;
+      }
+    }
+
+    return intervals.toSet();
+  }
+
+  /**
+   * Checks whether this set is empty.
+   *
+   * @return {@code true} if empty, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return this.startBounds.length == 0;
+  }
+
+  /**
+   * Checks whether {@code version} is part of this set.
+   *
+   * @param version the version.
+   * @return {@code true} if part of this set, {@code false} otherwise.
+   */
+  public boolean matches(@NonNull T version) {
+    // locate the last interval which starts at or before the version as it is the only interval
+    // which may possibly contain it
+    int low = 0;
+    int high = this.startBounds.length;
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      T startBound = this.startBound(middle);
+
+      int comparison = (startBound == null ? -1 : startBound.compareTo(version));
+      if (comparison < 0 || (comparison == 0 && this.startInclusive[middle])) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    if (low == 0) {
+      return false;
+    }
+
+    T endBound = this.endBound(low - 1);
+    if (endBound == null) {
+      return true;
+    }
+
+    int comparison = endBound.compareTo(version);
+    return comparison > 0 || (comparison == 0 && this.endInclusive[low - 1]);
+  }
+
+  /**
+   * Retrieves an interval of this set as a range.
+   *
+   * @param index the interval index.
+   * @return the range (which may extend infinitely in either direction).
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of intervals.
+   */
+  @NonNull
+  public VersionRange<T> range(int index) {
+    return VersionRange.<T>builder()
+        .startBound(this.startBound(index))
+        .startInclusive(this.startInclusive(index))
+        .endBound(this.endBound(index))
+        .endInclusive(this.endInclusive(index))
+        .build();
+  }
+
+  /**
+   * Retrieves all intervals of this set as ranges.
+   *
+   * @return an unmodifiable list of ranges (ordered by their starting bounds).
+   */
+  @NonNull
+  public List<VersionRange<T>> ranges() {
+    int size = this.size();
+
+    List<VersionRange<T>> ranges = new ArrayList<>(size);
+    for (int i = 0; i < size; ++i) {
+      ranges.add(this.range(i));
+    }
+
+    return Collections.unmodifiableList(ranges);
+  }
+
+  /**
+   * Retrieves the amount of disjoint intervals within this set.
+   *
+   * @return the amount of intervals.
+   */
+  public int size() {
+    return this.startBounds.length;
+  }
+
+  /**
+   * Retrieves the starting bound of an interval.
+   *
+   * @param index the interval index.
+   * @return the bound or {@code null} if the interval extends infinitely.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of intervals.
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public T startBound(int index) {
+    return (T) this.startBounds[index];
+  }
+
+  /**
+   * Checks whether the starting bound of an interval is part of the set.
+   *
+   * @param index the interval index.
+   * @return {@code true} if part of the set, {@code false} otherwise.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of intervals.
+   */
+  public boolean startInclusive(int index) {
+    return this.startInclusive[index];
+  }
+
+  /**
+   * Creates a set which contains all versions which are part of this set or of {@code other}.
+   *
+   * @param other the other set.
+   * @return the union.
+   */
+  @NonNull
+  public VersionRangeSet<T> union(@NonNull VersionRangeSet<T> other) {
+    if (other.isEmpty() || this == ALL) {
+      return this;
+    }
+    if (this.isEmpty() || other == ALL) {
+      return other;
+    }
+
+    // as both sets are already sorted they are merged by their starting bounds which permits the
+    // normalization to skip sorting
+    Intervals<T> intervals = new Intervals<>(this.size() + other.size());
+    int i = 0;
+    int j = 0;
+
+    while (i < this.size() || j < other.size()) {
+      boolean takeThis = j == other.size() || (i < this.size()
+          && compareStarts(this.startBound(i), this.startInclusive[i], other.startBound(j),
+          other.startInclusive[j]) <= 0);
+
+      if (takeThis) {
+        intervals.add(this.startBound(i), this.startInclusive[i], this.endBound(i),
+            this.endInclusive[i]);
+        ++i;
+      } else {
+        intervals.add(other.startBound(j), other.startInclusive[j], other.endBound(j),
+            other.endInclusive[j]);
+        ++j;
+      }
+    }
+
+    return intervals.merge();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (object == null || this.getClass() != object.getClass()) {
+      return false;
+    }
+
+    VersionRangeSet<?> that = (VersionRangeSet<?>) object;
+    return Arrays.equals(this.startBounds, that.startBounds)
+        && Arrays.equals(this.startInclusive, that.startInclusive)
+        && Arrays.equals(this.endBounds, that.endBounds)
+        && Arrays.equals(this.endInclusive, that.endInclusive);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int hashCode() {
+    int result = this.hash;
+
+    if (result == 0) {
+      result = Arrays.hashCode(this.startBounds);
+      result = 31 * result + Arrays.hashCode(this.startInclusive);
+      result = 31 * result + Arrays.hashCode(this.endBounds);
+      result = 31 * result + Arrays.hashCode(this.endInclusive);
+      this.hash = result;
+    }
+
+    return result;
+  }
+
+  /**
+   * Retrieves a string representation of this set in interval notation (for instance {@code
+   * [1.0,2.0),[3.0,)}).
+   *
+   * @return the string.
+   */
+  @NonNull
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+
+    for (int i = 0; i < this.size(); ++i) {
+      if (i != 0) {
+        builder.append(',');
+      }
+
+      builder.append(this.startInclusive[i] ? '[' : '(');
+      if (this.startBounds[i] != null) {
+        builder.append(this.startBounds[i]);
+      }
+      builder.append(',');
+      if (this.endBounds[i] != null) {
+        builder.append(this.endBounds[i]);
+      }
+      builder.append(this.endInclusive[i] ? ']' : ')');
+    }
+
+    return builder.toString();
+  }
+
+  /**
+   * Provides a factory for {@link VersionRangeSet} instances which are assembled from individual
+   * (and possibly unbounded) intervals.
+   *
+   * @param <T> the version type.
+   */
+  public static final class Builder<T extends Version<T>> {
+
+    private Intervals<T> intervals = new Intervals<>(4);
+
+    private Builder() {
+    }
+
+    /**
+     * Adds an interval to the set.
+     *
+     * <p>A {@code null} bound refers to an infinite bound in the respective direction. Empty
+     * intervals (where the starting bound succeeds the ending bound) are ignored.</p>
+     *
+     * @param startBound the starting bound.
+     * @param startInclusive whether the starting version is part of the interval.
+     * @param endBound the ending bound.
+     * @param endInclusive whether the ending version is part of the interval.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<T> add(@Nullable T startBound, boolean startInclusive, @Nullable T endBound,
+        boolean endInclusive) {
+      this.intervals.add(startBound, startInclusive, endBound, endInclusive);
+      return this;
+    }
+
+    /**
+     * Adds a range to the set.
+     *
+     * @param range the range.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<T> add(@NonNull VersionRange<T> range) {
+      return this.add(range.startBound(), range.startInclusive(), range.endBound(),
+          range.endInclusive());
+    }
+
+    /**
+     * Builds a set which contains all versions which are part of at least one of the added
+     * intervals and resets the builder.
+     *
+     * @return the set.
+     */
+    @NonNull
+    public VersionRangeSet<T> build() {
+      try {
+        return this.intervals.normalize();
+      } finally {
+        this.reset();
+      }
+    }
+
+    /**
+     * Resets the builder instance.
+     *
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<T> reset() {
+      this.intervals = new Intervals<>(4);
+      return this;
+    }
+
+    /**
+     * Retrieves the amount of (non-empty) intervals which have been added so far.
+     *
+     * @return the amount of intervals.
+     */
+    public int size() {
+      return this.intervals.size;
+    }
+  }
+
+  /**
+   * Provides a growable buffer of intervals which is used to assemble sets.
+   *
+   * @param <T> the version type.
+   */
+  private static final class Intervals<T extends Version<T>> {
+
+    private Object[] endBounds;
+    private boolean[] endInclusive;
+    private int size;
+    private Object[] startBounds;
+    private boolean[] startInclusive;
+
+    private Intervals(int capacity) {
+      capacity = Math.max(1, capacity);
+
+      this.startBounds = new Object[capacity];
+      this.startInclusive = new boolean[capacity];
+      this.endBounds = new Object[capacity];
+      this.endInclusive = new boolean[capacity];
+    }
+
+    /**
+     * Appends an interval unless it is empty.
+     */
+    private void add(@Nullable T startBound, boolean startInclusive, @Nullable T endBound,
+        boolean endInclusive) {
+      // infinite bounds never include their (non-existent) version
+      startInclusive &= startBound != null;
+      endInclusive &= endBound != null;
+
+      if (startBound != null && endBound != null) {
+        int comparison = Integer.signum(startBound.compareTo(endBound));
+
+        if (comparison > 0 || (comparison == 0 && !(startInclusive && endInclusive))) {
+          return;
+        }
+      }
+
+      if (this.size == this.startBounds.length) {
+        int capacity = this.size << 1;
+
+        this.startBounds = Arrays.copyOf(this.startBounds, capacity);
+        this.startInclusive = Arrays.copyOf(this.startInclusive, capacity);
+        this.endBounds = Arrays.copyOf(this.endBounds, capacity);
+        this.endInclusive = Arrays.copyOf(this.endInclusive, capacity);
+      }
+
+      this.startBounds[this.size] = startBound;
+      this.startInclusive[this.size] = startInclusive;
+      this.endBounds[this.size] = endBound;
+      this.endInclusive[this.size] = endInclusive;
+      ++this.size;
+    }
+
+    /**
+     * Merges overlapping and adjacent intervals (which are expected to be sorted by their
+     * starting bounds) and converts the result into a set.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    private VersionRangeSet<T> merge() {
+      if (this.size == 0) {
+        return VersionRangeSet.empty();
+      }
+
+      int target = 0;
+
+      for (int i = 1; i < this.size; ++i) {
+        T endBound = (T) this.endBounds[target];
+        T startBound = (T) this.startBounds[i];
+
+        boolean connected = endBound == null || startBound == null;
+        if (!connected) {
+          int comparison = Integer.signum(endBound.compareTo(startBound));
+          connected = comparison > 0 || (comparison == 0 && (this.endInclusive[target]
+              || this.startInclusive[i]));
+        }
+
+        if (connected) {
+          if (compareEnds((T) this.endBounds[i], this.endInclusive[i], endBound,
+              this.endInclusive[target]) > 0) {
+            this.endBounds[target] = this.endBounds[i];
+            this.endInclusive[target] = this.endInclusive[i];
+          }
+          continue;
+        }
+
+        ++target;
+        this.startBounds[target] = this.startBounds[i];
+        this.startInclusive[target] = this.startInclusive[i];
+        this.endBounds[target] = this.endBounds[i];
+        this.endInclusive[target] = this.endInclusive[i];
+      }
+
+      this.size = target + 1;
+      return this.toSet();
+    }
+
+    /**
+     * Sorts all intervals by their starting bounds and merges overlapping and adjacent intervals.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    private VersionRangeSet<T> normalize() {
+      Integer[] order = new Integer[this.size];
+      for (int i = 0; i < this.size; ++i) {
+        order[i] = i;
+      }
+
+      Arrays.sort(order, (a, b) -> compareStarts((T) this.startBounds[a], this.startInclusive[a],
+          (T) this.startBounds[b], this.startInclusive[b]));
+
+      Intervals<T> sorted = new Intervals<>(this.size);
+      for (Integer index : order) {
+        sorted.add((T) this.startBounds[index], this.startInclusive[index],
+            (T) this.endBounds[index], this.endInclusive[index]);
+      }
+
+      return sorted.merge();
+    }
+
+    /**
+     * Converts the buffer into a set (the intervals are expected to be normalized already).
+     */
+    @NonNull
+    private VersionRangeSet<T> toSet() {
+      if (this.size == 0) {
+        return VersionRangeSet.empty();
+      }
+      if (this.size == 1 && this.startBounds[0] == null && this.endBounds[0] == null) {
+        return VersionRangeSet.all();
+      }
+
+      return new VersionRangeSet<>(Arrays.copyOf(this.startBounds, this.size),
+          Arrays.copyOf(this.startInclusive, this.size), Arrays.copyOf(this.endBounds, this.size),
+          Arrays.copyOf(this.endInclusive, this.size));
+    }
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.resolver;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Represents the outcome of resolving multiple independent sets of requirements against a shared
+ * {@link Catalog}.
+ *
+ * <p>The individual outcomes (including their timings and memo table statistics) are available
+ * per root via {@link #resolutions()} while this object aggregates them across the entire
+ * batch.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class BatchResolution {
+
+  private final int cacheSize;
+  private final long durationNanos;
+  private final Map<String, Resolution> resolutions;
+
+  BatchResolution(@NonNull Map<String, Resolution> resolutions, int cacheSize,
+      long durationNanos) {
+    this.resolutions = Collections.unmodifiableMap(resolutions);
+    this.cacheSize = cacheSize;
+    this.durationNanos = durationNanos;
+  }
+
+  /**
+   * Retrieves the ratio of range operations which have been answered by the shared memo table
+   * across all roots.
+   *
+   * @return the ratio (between {@code 0} and {@code 1}) or {@code 0} if no operations have been
+   * memoized.
+   */
+  public double cacheHitRate() {
+    long hits = this.cacheHits();
+    long total = hits + this.cacheMisses();
+    return (total == 0 ? 0 : (double) hits / total);
+  }
+
+  /**
+   * Retrieves the amount of range operations which have been answered by the shared memo table
+   * across all roots.
+   *
+   * @return the amount of hits.
+   */
+  public long cacheHits() {
+    long hits = 0;
+    for (Resolution resolution : this.resolutions.values()) {
+      hits += resolution.cacheHits();
+    }
+    return hits;
+  }
+
+  /**
+   * Retrieves the amount of range operations which had to be computed across all roots.
+   *
+   * @return the amount of misses.
+   */
+  public long cacheMisses() {
+    long misses = 0;
+    for (Resolution resolution : this.resolutions.values()) {
+      misses += resolution.cacheMisses();
+    }
+    return misses;
+  }
+
+  /**
+   * Retrieves the amount of results which have been retained within the shared memo table upon
+   * completion of the batch.
+   *
+   * @return the amount of results.
+   */
+  public int cacheSize() {
+    return this.cacheSize;
+  }
+
+  /**
+   * Retrieves the amount of wall clock time which has been spent on the entire batch.
+   *
+   * @return the duration (in nanoseconds).
+   * @see #totalDurationNanos()
+   */
+  public long durationNanos() {
+    return this.durationNanos;
+  }
+
+  /**
+   * Retrieves the roots which could not be resolved.
+   *
+   * @return an unmodifiable set of roots (in the order in which they have been passed).
+   */
+  @NonNull
+  public Set<String> failures() {
+    Set<String> failures = new LinkedHashSet<>();
+    this.resolutions.forEach((root, resolution) -> {
+      if (!resolution.success()) {
+        failures.add(root);
+      }
+    });
+    return Collections.unmodifiableSet(failures);
+  }
+
+  /**
+   * Retrieves the outcome for a single root.
+   *
+   * @param root the root.
+   * @return the resolution or an empty optional if the root was not part of the batch.
+   */
+  @NonNull
+  public Optional<Resolution> resolution(@NonNull String root) {
+    return Optional.ofNullable(this.resolutions.get(root));
+  }
+
+  /**
+   * Retrieves the outcome for each root.
+   *
+   * @return an unmodifiable map of roots and their resolutions (in the order in which they have
+   * been passed).
+   */
+  @NonNull
+  public Map<String, Resolution> resolutions() {
+    return this.resolutions;
+  }
+
+  /**
+   * Retrieves the amount of roots within the batch.
+   *
+   * @return the amount of roots.
+   */
+  public int size() {
+    return this.resolutions.size();
+  }
+
+  /**
+   * Checks whether all roots have been resolved successfully.
+   *
+   * @return {@code true} if successful, {@code false} otherwise.
+   */
+  public boolean success() {
+    for (Resolution resolution : this.resolutions.values()) {
+      if (!resolution.success()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Retrieves the sum of the time which has been spent on each individual root.
+   *
+   * <p>When roots are resolved in parallel, this value typically exceeds the wall clock time
+   * reported by {@link #durationNanos()}.</p>
+   *
+   * @return the duration (in nanoseconds).
+   */
+  public long totalDurationNanos() {
+    long duration = 0;
+    for (Resolution resolution : this.resolutions.values()) {
+      duration += resolution.durationNanos();
+    }
+    return duration;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return "BatchResolution{"
+        + "size=" + this.resolutions.size()
+        + ", failures=" + this.failures()
+        + ", durationNanos=" + this.durationNanos
+        + ", cacheHitRate=" + this.cacheHitRate()
+        + ", cacheSize=" + this.cacheSize
+        + "}";
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.resolver;
+
+import com.torchmind.utility.version.VersionRangeSet;
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import com.torchmind.utility.version.semantic.VersionMap;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Provides an immutable catalog of artifacts, their available versions and the dependencies of
+ * each version.
+ *
+ * <p>Dependencies are expressed as a {@link VersionRangeSet} of acceptable versions per artifact.
+ * For instance:</p>
+ *
+ * <pre>
+ * Catalog catalog = Catalog.builder()
+ *     .add("app", SemanticVersion.of("1.0"), Collections.singletonMap("lib",
+ *         VersionRangeSet.of(SemanticVersion.range("[2.0,3.0)"))))
+ *     .add("lib", SemanticVersion.of("2.1"))
+ *     .build();
+ * </pre>
+ *
+ * @author Johannes Donath
+ */
+public final class Catalog {
+
+  private static final VersionMap<Map<String, VersionRangeSet<SemanticVersion>>> NONE =
+      VersionMap.empty();
+
+  private final Map<String, VersionMap<Map<String, VersionRangeSet<SemanticVersion>>>> artifacts;
+
+  private Catalog(
+      @NonNull Map<String, VersionMap<Map<String, VersionRangeSet<SemanticVersion>>>> artifacts) {
+    this.artifacts = artifacts;
+  }
+
+  /**
+   * Retrieves a new {@link Builder}.
+   *
+   * @return the builder.
+   */
+  @NonNull
+  public static Builder builder() {
+    return (new Builder());
+  }
+
+  /**
+   * Retrieves an unmodifiable set of all artifacts within this catalog.
+   *
+   * @return the artifacts.
+   */
+  @NonNull
+  public Set<String> artifacts() {
+    return Collections.unmodifiableSet(this.artifacts.keySet());
+  }
+
+  /**
+   * Checks whether this catalog contains a given artifact.
+   *
+   * @param artifact the artifact.
+   * @return {@code true} if present, {@code false} otherwise.
+   */
+  public boolean contains(@NonNull String artifact) {
+    return this.artifacts.containsKey(artifact);
+  }
+
+  /**
+   * Retrieves the dependencies of a given artifact version.
+   *
+   * @param artifact the artifact.
+   * @param version the version.
+   * @return an unmodifiable map of dependencies or {@code null} if no such version exists.
+   */
+  @Nullable
+  public Map<String, VersionRangeSet<SemanticVersion>> dependencies(@NonNull String artifact,
+      @NonNull SemanticVersion version) {
+    return this.versions(artifact).get(version);
+  }
+
+  /**
+   * Retrieves the amount of artifacts within this catalog.
+   *
+   * @return the amount of artifacts.
+   */
+  public int size() {
+    return this.artifacts.size();
+  }
+
+  /**
+   * Retrieves all versions of an artifact along with their dependencies.
+   *
+   * @param artifact the artifact.
+   * @return the versions (or an empty map if no such artifact exists).
+   */
+  @NonNull
+  public VersionMap<Map<String, VersionRangeSet<SemanticVersion>>> versions(
+      @NonNull String artifact) {
+    return this.artifacts.getOrDefault(artifact, NONE);
+  }
+
+  /**
+   * Provides a factory for {@link Catalog} instances.
+   */
+  public static final class Builder {
+
+    private final Map<String, VersionMap.Builder<Map<String, VersionRangeSet<SemanticVersion>>>>
+        artifacts = new LinkedHashMap<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Adds a version which does not declare any dependencies.
+     *
+     * @param artifact the artifact.
+     * @param version the version.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder add(@NonNull String artifact, @NonNull SemanticVersion version) {
+      return this.add(artifact, version, Collections.emptyMap());
+    }
+
+    /**
+     * Adds a version along with its dependencies.
+     *
+     * <p>When the same version is added multiple times, the last set of dependencies is
+     * retained.</p>
+     *
+     * @param artifact the artifact.
+     * @param version the version.
+     * @param dependencies the acceptable versions of each dependency.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder add(@NonNull String artifact, @NonNull SemanticVersion version,
+        @NonNull Map<String, VersionRangeSet<SemanticVersion>> dependencies) {
+      this.artifacts.computeIfAbsent(artifact, (k) -> VersionMap.builder())
+          .put(version, Collections.unmodifiableMap(new LinkedHashMap<>(dependencies)));
+      return this;
+    }
+
+    /**
+     * Builds an immutable catalog and resets the builder.
+     *
+     * @return the catalog.
+     */
+    @NonNull
+    public Catalog build() {
+      try {
+        Map<String, VersionMap<Map<String, VersionRangeSet<SemanticVersion>>>> artifacts =
+            new HashMap<>();
+        this.artifacts.forEach((artifact, builder) -> artifacts.put(artifact, builder.build()));
+
+        return (new Catalog(artifacts));
+      } finally {
+        this.reset();
+      }
+    }
+
+    /**
+     * Removes all artifacts from this builder.
+     *
+     * @return the builder.
+     */
+    @NonNull
+    public Builder reset() {
+      this.artifacts.clear();
+      return this;
+    }
+  }
+}
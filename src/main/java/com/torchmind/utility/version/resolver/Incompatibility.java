@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.resolver;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Represents a set of terms which must never be satisfied at the same time.
+ *
+ * @author Johannes Donath
+ */
+final class Incompatibility {
+
+  private final Incompatibility cause1;
+  private final Incompatibility cause2;
+  private final Kind kind;
+  private final List<Term> terms;
+
+  Incompatibility(@NonNull List<Term> terms, @NonNull Kind kind, @Nullable Incompatibility cause1,
+      @Nullable Incompatibility cause2) {
+    this.terms = terms;
+    this.kind = kind;
+    this.cause1 = cause1;
+    this.cause2 = cause2;
+  }
+
+  /**
+   * Generates a human readable explanation of how this incompatibility has been derived.
+   *
+   * @return the explanation.
+   */
+  @NonNull
+  String explain() {
+    StringBuilder builder = new StringBuilder();
+    Map<Incompatibility, Boolean> visited = new IdentityHashMap<>();
+    Deque<Incompatibility> stack = new ArrayDeque<>();
+
+    // derivations are walked iteratively (in post order) as their depth is only bounded by the
+    // amount of conflicts that have been encountered
+    stack.push(this);
+    while (!stack.isEmpty()) {
+      Incompatibility incompatibility = stack.peek();
+
+      if (incompatibility.kind != Kind.DERIVED) {
+        stack.pop();
+        continue;
+      }
+
+      Boolean emitted = visited.get(incompatibility);
+      if (emitted != null) {
+        stack.pop();
+
+        if (!emitted) {
+          visited.put(incompatibility, true);
+          builder.append("Because ").append(incompatibility.cause1).append(" and ")
+              .append(incompatibility.cause2).append(", ").append(incompatibility).append(".\n");
+        }
+        continue;
+      }
+
+      visited.put(incompatibility, false);
+      if (!visited.containsKey(incompatibility.cause2)) {
+        stack.push(incompatibility.cause2);
+      }
+      if (!visited.containsKey(incompatibility.cause1)) {
+        stack.push(incompatibility.cause1);
+      }
+    }
+
+    if (builder.length() == 0) {
+      builder.append(this).append(".\n");
+    }
+
+    return builder.toString();
+  }
+
+  @NonNull
+  Kind kind() {
+    return this.kind;
+  }
+
+  @NonNull
+  List<Term> terms() {
+    return this.terms;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    switch (this.kind) {
+      case ROOT:
+        return this.terms.get(0).negate() + " is required";
+      case NO_VERSIONS:
+        return "no versions of " + this.terms.get(0) + " are available";
+      case DEPENDENCY:
+        return this.terms.get(0) + " depends on " + this.terms.get(1).negate();
+      default:
+        if (this.terms.isEmpty()) {
+          return "version solving failed";
+        }
+        if (this.terms.size() == 1) {
+          return this.terms.get(0) + " is forbidden";
+        }
+
+        return this.terms.stream()
+            .map(Term::toString)
+            .collect(Collectors.joining(" and ", "", " are incompatible"));
+    }
+  }
+
+  /**
+   * Identifies the reason for which an incompatibility has been added.
+   */
+  enum Kind {
+
+    /**
+     * The root artifact is always selected.
+     */
+    ROOT,
+
+    /**
+     * No version within the range is known.
+     */
+    NO_VERSIONS,
+
+    /**
+     * A range of versions depends on another artifact.
+     */
+    DEPENDENCY,
+
+    /**
+     * The incompatibility has been derived from two other incompatibilities during conflict
+     * resolution.
+     */
+    DERIVED
+  }
+}
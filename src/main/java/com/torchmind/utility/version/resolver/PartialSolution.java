@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.resolver;
+
+import com.torchmind.utility.version.VersionRangeSet;
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Represents the sequence of decisions and derivations which have been made during resolution.
+ *
+ * @author Johannes Donath
+ */
+final class PartialSolution {
+
+  private final List<Assignment> assignments = new ArrayList<>();
+  private final Map<String, List<Assignment>> assignmentsByArtifact = new HashMap<>();
+  private final RangeCache cache;
+  private final Consumer<String> listener;
+  private final Map<String, SemanticVersion> decisions = new LinkedHashMap<>();
+  private final Set<String> pending = new LinkedHashSet<>();
+  private final Map<String, Term> terms = new HashMap<>();
+
+  private int decisionLevel;
+
+  /**
+   * Creates a new empty solution.
+   *
+   * @param cache the cache which memoizes range operations.
+   * @param listener the listener which is notified whenever the term of a pending artifact
+   * changes.
+   */
+  PartialSolution(@NonNull RangeCache cache, @NonNull Consumer<String> listener) {
+    this.cache = cache;
+    this.listener = listener;
+  }
+
+  /**
+   * Removes all assignments which have been made after a given decision level.
+   */
+  void backtrack(int decisionLevel) {
+    Set<String> artifacts = new HashSet<>();
+
+    while (!this.assignments.isEmpty()) {
+      Assignment assignment = this.assignments.get(this.assignments.size() - 1);
+      if (assignment.decisionLevel <= decisionLevel) {
+        break;
+      }
+
+      this.assignments.remove(this.assignments.size() - 1);
+      artifacts.add(assignment.term.artifact());
+
+      List<Assignment> assignments = this.assignmentsByArtifact.get(assignment.term.artifact());
+      assignments.remove(assignments.size() - 1);
+
+      if (assignment.decision) {
+        this.decisions.remove(assignment.term.artifact());
+      }
+    }
+
+    for (String artifact : artifacts) {
+      Term term = null;
+      for (Assignment assignment : this.assignmentsByArtifact.get(artifact)) {
+        term = (term == null ? assignment.term : term.intersect(assignment.term, this.cache));
+      }
+
+      if (term == null) {
+        this.terms.remove(artifact);
+        this.pending.remove(artifact);
+      } else {
+        this.terms.put(artifact, term);
+        this.updatePending(artifact, term);
+      }
+    }
+
+    this.decisionLevel = decisionLevel;
+  }
+
+  /**
+   * Selects a version of an artifact.
+   */
+  void decide(@NonNull String artifact, @NonNull SemanticVersion version) {
+    ++this.decisionLevel;
+
+    this.decisions.put(artifact, version);
+    this.assign(new Assignment(new Term(artifact, VersionRangeSet.exactly(version), true),
+        this.decisionLevel, this.assignments.size(), null));
+  }
+
+  /**
+   * Retrieves all decisions in the order in which they have been made.
+   */
+  @NonNull
+  Map<String, SemanticVersion> decisions() {
+    return this.decisions;
+  }
+
+  /**
+   * Records a term which has been derived from an incompatibility.
+   */
+  void derive(@NonNull Term term, @NonNull Incompatibility cause) {
+    this.assign(new Assignment(term, this.decisionLevel, this.assignments.size(), cause));
+  }
+
+  /**
+   * Retrieves all artifacts which are required but have not been selected yet (in the order in
+   * which they have been discovered).
+   */
+  @NonNull
+  Set<String> pending() {
+    return this.pending;
+  }
+
+  /**
+   * Computes the relation of a term to the current assignments.
+   */
+  @NonNull
+  Relation relation(@NonNull Term term) {
+    Term assigned = this.terms.get(term.artifact());
+    if (assigned == null) {
+      // artifacts without assignments may take any state (e.g. the term "not artifact none")
+      assigned = new Term(term.artifact(), VersionRangeSet.empty(), false);
+    }
+
+    if (assigned.satisfies(term, this.cache)) {
+      return Relation.SATISFIED;
+    }
+    if (assigned.disjoint(term, this.cache)) {
+      return Relation.CONTRADICTED;
+    }
+
+    return Relation.INCONCLUSIVE;
+  }
+
+  /**
+   * Locates the earliest assignment which (along with all of its predecessors) satisfies a term.
+   *
+   * @throws IllegalStateException when the term is not satisfied.
+   */
+  @NonNull
+  Assignment satisfier(@NonNull Term term) {
+    Term assigned = null;
+
+    for (Assignment assignment : this.assignmentsByArtifact.getOrDefault(term.artifact(),
+        Collections.emptyList())) {
+      assigned = (assigned == null ? assignment.term
+          : assigned.intersect(assignment.term, this.cache));
+
+      if (assigned.satisfies(term, this.cache)) {
+        return assignment;
+      }
+    }
+
+    throw new IllegalStateException("Term is not satisfied: " + term);
+  }
+
+  /**
+   * Retrieves the combined term of all assignments for an artifact.
+   */
+  @Nullable
+  Term term(@NonNull String artifact) {
+    return this.terms.get(artifact);
+  }
+
+  private void assign(@NonNull Assignment assignment) {
+    String artifact = assignment.term.artifact();
+
+    this.assignments.add(assignment);
+    this.assignmentsByArtifact.computeIfAbsent(artifact, (k) -> new ArrayList<>()).add(assignment);
+
+    Term term = this.terms.get(artifact);
+    term = (term == null ? assignment.term : term.intersect(assignment.term, this.cache));
+
+    this.terms.put(artifact, term);
+    this.updatePending(artifact, term);
+  }
+
+  private void updatePending(@NonNull String artifact, @NonNull Term term) {
+    if (term.positive() && !this.decisions.containsKey(artifact)) {
+      this.pending.add(artifact);
+      this.listener.accept(artifact);
+    } else {
+      this.pending.remove(artifact);
+    }
+  }
+
+  /**
+   * Describes the relation between a term and the current assignments.
+   */
+  enum Relation {
+    SATISFIED,
+    CONTRADICTED,
+    INCONCLUSIVE
+  }
+
+  /**
+   * Represents a single decision or derivation.
+   */
+  static final class Assignment {
+
+    final Incompatibility cause;
+    final boolean decision;
+    final int decisionLevel;
+    final int index;
+    final Term term;
+
+    private Assignment(@NonNull Term term, int decisionLevel, int index,
+        @Nullable Incompatibility cause) {
+      this.term = term;
+      this.decisionLevel = decisionLevel;
+      this.index = index;
+      this.cause = cause;
+      this.decision = cause == null;
+    }
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.resolver;
+
+import com.torchmind.utility.version.VersionRangeSet;
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
+
+/**
+ * Memoizes the results of set operations on version ranges.
+ *
+ * <p>Resolution repeatedly combines the same handful of dependency ranges while propagating
+ * constraints and thus benefits from caching these results rather than re-computing them on every
+ * visit.</p>
+ *
+ * <p>Caches created via {@link #concurrent()} store their results within concurrent maps which
+ * may be shared between multiple resolutions via {@link #fork()}. Each instance tracks its own
+ * hit and miss counts and is thus confined to a single thread.</p>
+ *
+ * @author Johannes Donath
+ */
+final class RangeCache {
+
+  private final Map<Key, VersionRangeSet<SemanticVersion>> differences;
+  private final Map<Key, VersionRangeSet<SemanticVersion>> intersections;
+  private final Map<Key, VersionRangeSet<SemanticVersion>> unions;
+
+  private long hits;
+  private long misses;
+
+  RangeCache() {
+    this(new HashMap<>(), new HashMap<>(), new HashMap<>());
+  }
+
+  private RangeCache(@NonNull Map<Key, VersionRangeSet<SemanticVersion>> differences,
+      @NonNull Map<Key, VersionRangeSet<SemanticVersion>> intersections,
+      @NonNull Map<Key, VersionRangeSet<SemanticVersion>> unions) {
+    this.differences = differences;
+    this.intersections = intersections;
+    this.unions = unions;
+  }
+
+  /**
+   * Creates a cache which is backed by concurrent maps.
+   */
+  @NonNull
+  static RangeCache concurrent() {
+    return (new RangeCache(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+        new ConcurrentHashMap<>()));
+  }
+
+  /**
+   * Creates a cache which shares the results of this cache but tracks its own statistics.
+   */
+  @NonNull
+  RangeCache fork() {
+    return (new RangeCache(this.differences, this.intersections, this.unions));
+  }
+
+  /**
+   * Retrieves the amount of operations which have been answered from the cache.
+   */
+  long hits() {
+    return this.hits;
+  }
+
+  /**
+   * Retrieves the amount of operations which had to be computed.
+   */
+  long misses() {
+    return this.misses;
+  }
+
+  /**
+   * Retrieves the total amount of results which are currently cached.
+   */
+  int size() {
+    return this.differences.size() + this.intersections.size() + this.unions.size();
+  }
+
+  /**
+   * Computes the set of versions which are contained in {@code set1} but not in {@code set2}.
+   */
+  @NonNull
+  VersionRangeSet<SemanticVersion> difference(@NonNull VersionRangeSet<SemanticVersion> set1,
+      @NonNull VersionRangeSet<SemanticVersion> set2) {
+    if (set1.isEmpty() || set2.isEmpty()) {
+      return set1;
+    }
+    if (set1 == set2) {
+      return VersionRangeSet.empty();
+    }
+
+    return this.compute(this.differences, set1, set2, VersionRangeSet::difference);
+  }
+
+  /**
+   * Computes the set of versions which are contained in both {@code set1} and {@code set2}.
+   */
+  @NonNull
+  VersionRangeSet<SemanticVersion> intersection(@NonNull VersionRangeSet<SemanticVersion> set1,
+      @NonNull VersionRangeSet<SemanticVersion> set2) {
+    if (set1 == set2 || set1.isEmpty()) {
+      return set1;
+    }
+    if (set2.isEmpty()) {
+      return set2;
+    }
+
+    return this.compute(this.intersections, set1, set2, VersionRangeSet::intersection);
+  }
+
+  /**
+   * Computes the set of versions which are contained in either {@code set1} or {@code set2}.
+   */
+  @NonNull
+  VersionRangeSet<SemanticVersion> union(@NonNull VersionRangeSet<SemanticVersion> set1,
+      @NonNull VersionRangeSet<SemanticVersion> set2) {
+    if (set1 == set2 || set2.isEmpty()) {
+      return set1;
+    }
+    if (set1.isEmpty()) {
+      return set2;
+    }
+
+    return this.compute(this.unions, set1, set2, VersionRangeSet::union);
+  }
+
+  @NonNull
+  private VersionRangeSet<SemanticVersion> compute(
+      @NonNull Map<Key, VersionRangeSet<SemanticVersion>> cache,
+      @NonNull VersionRangeSet<SemanticVersion> set1,
+      @NonNull VersionRangeSet<SemanticVersion> set2,
+      @NonNull BinaryOperator<VersionRangeSet<SemanticVersion>> operation) {
+    Key key = new Key(set1, set2);
+    VersionRangeSet<SemanticVersion> result = cache.get(key);
+
+    if (result != null) {
+      ++this.hits;
+      return result;
+    }
+
+    // concurrent callers may compute the same result at the same time which is harmless as both
+    // results are equal and the operations themselves are comparatively cheap
+    ++this.misses;
+    result = operation.apply(set1, set2);
+    cache.put(key, result);
+
+    return result;
+  }
+
+  /**
+   * Identifies the operands of a single operation.
+   */
+  private static final class Key {
+
+    private final int hash;
+    private final VersionRangeSet<SemanticVersion> set1;
+    private final VersionRangeSet<SemanticVersion> set2;
+
+    private Key(@NonNull VersionRangeSet<SemanticVersion> set1,
+        @NonNull VersionRangeSet<SemanticVersion> set2) {
+      this.set1 = set1;
+      this.set2 = set2;
+      this.hash = 31 * set1.hashCode() + set2.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object object) {
+      if (this == object) {
+        return true;
+      }
+      if (!(object instanceof Key)) {
+        return false;
+      }
+
+      Key key = (Key) object;
+      return this.hash == key.hash && Objects.equals(this.set1, key.set1)
+          && Objects.equals(this.set2, key.set2);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.resolver;
+
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Represents the outcome of a single resolution.
+ *
+ * <p>Successful resolutions provide the selected version of each required artifact while failed
+ * resolutions provide a human readable explanation of the conflict which rendered resolution
+ * impossible. Both carry statistics about the work that was required to reach the outcome.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class Resolution {
+
+  private final long cacheHits;
+  private final long cacheMisses;
+  private final int conflictCount;
+  private final int decisionCount;
+  private final long durationNanos;
+  private final String failure;
+  private final int incompatibilityCount;
+  private final Map<String, SemanticVersion> selection;
+
+  private Resolution(@Nullable Map<String, SemanticVersion> selection, @Nullable String failure,
+      int decisionCount, int conflictCount, int incompatibilityCount, long cacheHits,
+      long cacheMisses, long durationNanos) {
+    this.selection = selection;
+    this.failure = failure;
+    this.decisionCount = decisionCount;
+    this.conflictCount = conflictCount;
+    this.incompatibilityCount = incompatibilityCount;
+    this.cacheHits = cacheHits;
+    this.cacheMisses = cacheMisses;
+    this.durationNanos = durationNanos;
+  }
+
+  @NonNull
+  static Resolution failure(@NonNull String failure, int decisionCount, int conflictCount,
+      int incompatibilityCount, long cacheHits, long cacheMisses, long durationNanos) {
+    return (new Resolution(null, failure, decisionCount, conflictCount, incompatibilityCount,
+        cacheHits, cacheMisses, durationNanos));
+  }
+
+  @NonNull
+  static Resolution success(@NonNull Map<String, SemanticVersion> selection, int decisionCount,
+      int conflictCount, int incompatibilityCount, long cacheHits, long cacheMisses,
+      long durationNanos) {
+    return (new Resolution(Collections.unmodifiableMap(selection), null, decisionCount,
+        conflictCount, incompatibilityCount, cacheHits, cacheMisses, durationNanos));
+  }
+
+  /**
+   * Retrieves the ratio of range operations which have been answered by the memo table.
+   *
+   * @return the ratio (between {@code 0} and {@code 1}) or {@code 0} if no operations have been
+   * memoized.
+   */
+  public double cacheHitRate() {
+    long total = this.cacheHits + this.cacheMisses;
+    return (total == 0 ? 0 : (double) this.cacheHits / total);
+  }
+
+  /**
+   * Retrieves the amount of range operations which have been answered by the memo table.
+   *
+   * @return the amount of hits.
+   */
+  public long cacheHits() {
+    return this.cacheHits;
+  }
+
+  /**
+   * Retrieves the amount of range operations which had to be computed as their result was not
+   * yet known to the memo table.
+   *
+   * @return the amount of misses.
+   */
+  public long cacheMisses() {
+    return this.cacheMisses;
+  }
+
+  /**
+   * Retrieves the amount of conflicts which have been resolved.
+   *
+   * @return the amount of conflicts.
+   */
+  public int conflictCount() {
+    return this.conflictCount;
+  }
+
+  /**
+   * Retrieves the amount of versions which have been selected (including selections which have
+   * been revoked by backtracking).
+   *
+   * @return the amount of decisions.
+   */
+  public int decisionCount() {
+    return this.decisionCount;
+  }
+
+  /**
+   * Retrieves the amount of time which has been spent on this resolution.
+   *
+   * @return the duration (in nanoseconds).
+   */
+  public long durationNanos() {
+    return this.durationNanos;
+  }
+
+  /**
+   * Retrieves an explanation of the reason for which resolution has failed.
+   *
+   * @return the explanation or an empty optional if resolution was successful.
+   */
+  @NonNull
+  public Optional<String> failure() {
+    return Optional.ofNullable(this.failure);
+  }
+
+  /**
+   * Retrieves the amount of incompatibilities which have been considered (including learned
+   * incompatibilities).
+   *
+   * @return the amount of incompatibilities.
+   */
+  public int incompatibilityCount() {
+    return this.incompatibilityCount;
+  }
+
+  /**
+   * Retrieves the selected version of each required artifact.
+   *
+   * @return an unmodifiable map of artifacts and their versions (in the order in which they have
+   * been selected).
+   * @throws IllegalStateException when resolution has failed.
+   */
+  @NonNull
+  public Map<String, SemanticVersion> selection() throws IllegalStateException {
+    if (this.selection == null) {
+      throw new IllegalStateException("Resolution failed:\n" + this.failure);
+    }
+
+    return this.selection;
+  }
+
+  /**
+   * Checks whether resolution was successful.
+   *
+   * @return {@code true} if successful, {@code false} otherwise.
+   */
+  public boolean success() {
+    return this.selection != null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return "Resolution{"
+        + (this.selection != null ? "selection=" + this.selection : "failure=" + this.failure)
+        + ", decisionCount=" + this.decisionCount
+        + ", conflictCount=" + this.conflictCount
+        + ", incompatibilityCount=" + this.incompatibilityCount
+        + ", cacheHits=" + this.cacheHits
+        + ", cacheMisses=" + this.cacheMisses
+        + "}";
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.resolver;
+
+import com.torchmind.utility.version.VersionRangeSet;
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Provides a dependency resolver which selects a consistent set of versions from a {@link
+ * Catalog}.
+ *
+ * <p>Resolution is based on the PubGrub algorithm: Rather than exhaustively backtracking through
+ * all candidate versions, the resolver tracks incompatibilities (sets of terms which may never be
+ * satisfied at the same time), derives the root cause of each conflict it encounters and jumps
+ * straight back to the latest decision that contributed to it. Newer versions are preferred over
+ * older ones. For instance:</p>
+ *
+ * <pre>
+ * Resolution resolution = Resolver.builder()
+ *     .catalog(catalog)
+ *     .build()
+ *     .resolve("app", SemanticVersion.of("1.0"));
+ *
+ * if (!resolution.success()) {
+ *   log.error(resolution.failure().get());
+ * }
+ * </pre>
+ *
+ * <p>Independent sets of requirements (for instance the modules of a larger project) may be
+ * resolved in parallel via {@link #resolveAll(Map)} in which case all resolutions share a single
+ * memo table of range operations.</p>
+ *
+ * <p>Instances are immutable and may be shared between threads.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class Resolver {
+
+  /**
+   * Defines the name of the artifact which represents the requirements passed to {@link
+   * #resolve(Map)} within failure explanations.
+   */
+  public static final String ROOT = "<root>";
+
+  private static final SemanticVersion ROOT_VERSION = SemanticVersion.of("0.0");
+
+  private final Catalog catalog;
+
+  private Resolver(@NonNull Catalog catalog) {
+    this.catalog = catalog;
+  }
+
+  /**
+   * Retrieves a new {@link Builder}.
+   *
+   * @return the builder.
+   */
+  @NonNull
+  public static Builder builder() {
+    return (new Builder());
+  }
+
+  /**
+   * Retrieves the catalog from which versions are selected.
+   *
+   * @return the catalog.
+   */
+  @NonNull
+  public Catalog catalog() {
+    return this.catalog;
+  }
+
+  /**
+   * Resolves the dependencies of an artifact version within the catalog.
+   *
+   * <p>The root artifact is included within the selection.</p>
+   *
+   * @param artifact the artifact.
+   * @param version the version.
+   * @return the resolution.
+   * @throws IllegalArgumentException when the catalog does not contain the passed version.
+   */
+  @NonNull
+  public Resolution resolve(@NonNull String artifact, @NonNull SemanticVersion version)
+      throws IllegalArgumentException {
+    Map<String, VersionRangeSet<SemanticVersion>> dependencies = this.catalog
+        .dependencies(artifact, version);
+
+    if (dependencies == null) {
+      throw new IllegalArgumentException("No such version: " + artifact + " " + version);
+    }
+
+    return (new Solver(this.catalog, new RangeCache(), artifact, version, dependencies))
+        .solve(true);
+  }
+
+  /**
+   * Resolves a set of requirements.
+   *
+   * @param requirements the acceptable versions of each required artifact.
+   * @return the resolution.
+   */
+  @NonNull
+  public Resolution resolve(@NonNull Map<String, VersionRangeSet<SemanticVersion>> requirements) {
+    return (new Solver(this.catalog, new RangeCache(), ROOT, ROOT_VERSION, requirements))
+        .solve(false);
+  }
+
+  /**
+   * Resolves multiple independent sets of requirements using the common pool.
+   *
+   * @param roots the requirements of each root.
+   * @return the resolutions.
+   * @see #resolveAll(Map, ForkJoinPool)
+   */
+  @NonNull
+  public BatchResolution resolveAll(
+      @NonNull Map<String, Map<String, VersionRangeSet<SemanticVersion>>> roots) {
+    return this.resolveAll(roots, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Resolves multiple independent sets of requirements using the workers of a pool.
+   *
+   * <p>Each root is resolved as if passed to {@link #resolve(Map)} by a separate task while the
+   * results of range operations are shared among all tasks. As the roots of a batch typically
+   * depend on similar ranges, later resolutions will largely be answered from this memo
+   * table.</p>
+   *
+   * @param roots the requirements of each root.
+   * @param pool the pool.
+   * @return the resolutions.
+   */
+  @NonNull
+  public BatchResolution resolveAll(
+      @NonNull Map<String, Map<String, VersionRangeSet<SemanticVersion>>> roots,
+      @NonNull ForkJoinPool pool) {
+    long start = System.nanoTime();
+    RangeCache cache = RangeCache.concurrent();
+    List<Map<String, VersionRangeSet<SemanticVersion>>> requirements = new ArrayList<>(
+        roots.values());
+    Resolution[] resolutions = new Resolution[requirements.size()];
+
+    if (!requirements.isEmpty()) {
+      pool.invoke(new BatchAction(this.catalog, cache, requirements, resolutions, 0,
+          resolutions.length));
+    }
+
+    Map<String, Resolution> result = new LinkedHashMap<>();
+    int i = 0;
+    for (String root : roots.keySet()) {
+      result.put(root, resolutions[i++]);
+    }
+
+    return (new BatchResolution(result, cache.size(), System.nanoTime() - start));
+  }
+
+  /**
+   * Resolves a range of roots within a batch (forking one task per root).
+   */
+  private static final class BatchAction extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RangeCache cache;
+    private final Catalog catalog;
+    private final int fromIndex;
+    private final List<Map<String, VersionRangeSet<SemanticVersion>>> requirements;
+    private final Resolution[] resolutions;
+    private final int toIndex;
+
+    private BatchAction(@NonNull Catalog catalog, @NonNull RangeCache cache,
+        @NonNull List<Map<String, VersionRangeSet<SemanticVersion>>> requirements,
+        @NonNull Resolution[] resolutions, int fromIndex, int toIndex) {
+      this.catalog = catalog;
+      this.cache = cache;
+      this.requirements = requirements;
+      this.resolutions = resolutions;
+      this.fromIndex = fromIndex;
+      this.toIndex = toIndex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void compute() {
+      if (this.toIndex - this.fromIndex == 1) {
+        this.resolutions[this.fromIndex] = (new Solver(this.catalog, this.cache.fork(), ROOT,
+            ROOT_VERSION, this.requirements.get(this.fromIndex))).solve(false);
+        return;
+      }
+
+      int middle = (this.fromIndex + this.toIndex) >>> 1;
+      invokeAll(
+          new BatchAction(this.catalog, this.cache, this.requirements, this.resolutions,
+              this.fromIndex, middle),
+          new BatchAction(this.catalog, this.cache, this.requirements, this.resolutions, middle,
+              this.toIndex));
+    }
+  }
+
+  /**
+   * Provides a factory for {@link Resolver} instances.
+   */
+  public static final class Builder {
+
+    private Catalog catalog;
+
+    private Builder() {
+    }
+
+    /**
+     * Builds a new resolver and resets the builder.
+     *
+     * @return the resolver.
+     * @throws IllegalStateException when no catalog has been set.
+     */
+    @NonNull
+    public Resolver build() throws IllegalStateException {
+      try {
+        if (this.catalog == null) {
+          throw new IllegalStateException("Missing catalog");
+        }
+
+        return (new Resolver(this.catalog));
+      } finally {
+        this.reset();
+      }
+    }
+
+    /**
+     * Retrieves the catalog from which versions are selected.
+     *
+     * @return the catalog or {@code null} if none has been set.
+     */
+    @Nullable
+    public Catalog catalog() {
+      return this.catalog;
+    }
+
+    /**
+     * Sets the catalog from which versions are selected.
+     *
+     * @param catalog the catalog.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder catalog(@Nullable Catalog catalog) {
+      this.catalog = catalog;
+      return this;
+    }
+
+    /**
+     * Resets the builder to its default values.
+     *
+     * @return the builder.
+     */
+    @NonNull
+    public Builder reset() {
+      this.catalog = null;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,523 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.resolver;
+
+import com.torchmind.utility.version.VersionRange;
+import com.torchmind.utility.version.VersionRangeSet;
+import com.torchmind.utility.version.resolver.Incompatibility.Kind;
+import com.torchmind.utility.version.resolver.PartialSolution.Assignment;
+import com.torchmind.utility.version.resolver.PartialSolution.Relation;
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import com.torchmind.utility.version.semantic.VersionMap;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Implements the PubGrub version solving algorithm for a single root.
+ *
+ * <p>The solver alternates between unit propagation (deriving the consequences of all known
+ * incompatibilities) and decision making (selecting the newest permitted version of a required
+ * artifact). Whenever a conflict is encountered, a new incompatibility which describes its root
+ * cause is learned and the solver backjumps to the latest decision that contributed to it, thus
+ * never revisiting the same conflict twice.</p>
+ *
+ * <p>Solvers are stateful and may only be used for a single resolution.</p>
+ *
+ * @author Johannes Donath
+ */
+final class Solver {
+
+  /**
+   * Marks an incompatibility which is satisfied by the current partial solution.
+   */
+  private static final Term CONFLICT = new Term("", VersionRangeSet.empty(), true);
+
+  private final RangeCache cache;
+  private final Catalog catalog;
+  private final Map<String, Map<Integer, List<Incompatibility>>> dependencies = new HashMap<>();
+  private final Map<String, List<Incompatibility>> incompatibilities = new HashMap<>();
+  private final String root;
+  private final VersionMap<Map<String, VersionRangeSet<SemanticVersion>>> rootVersions;
+  private final PartialSolution solution;
+  private final Set<String> urgent = new LinkedHashSet<>();
+
+  private int conflictCount;
+  private int decisionCount;
+  private int incompatibilityCount;
+
+  Solver(@NonNull Catalog catalog, @NonNull RangeCache cache, @NonNull String root,
+      @NonNull SemanticVersion rootVersion,
+      @NonNull Map<String, VersionRangeSet<SemanticVersion>> rootDependencies) {
+    this.catalog = catalog;
+    this.cache = cache;
+    this.root = root;
+    this.rootVersions = VersionMap.<Map<String, VersionRangeSet<SemanticVersion>>>builder()
+        .put(rootVersion, rootDependencies)
+        .build();
+    this.solution = new PartialSolution(cache, (artifact) -> {
+      if (this.count(artifact) < 2) {
+        this.urgent.add(artifact);
+      }
+    });
+  }
+
+  /**
+   * Locates the index of the first version within an interval of a set.
+   */
+  private static int first(@NonNull VersionMap<?> versions,
+      @NonNull VersionRangeSet<SemanticVersion> set, int interval) {
+    SemanticVersion bound = set.startBound(interval);
+    if (bound == null) {
+      return 0;
+    }
+    if (!set.startInclusive(interval)) {
+      return versions.floorIndex(bound) + 1;
+    }
+
+    int index = versions.ceilingIndex(bound);
+    return (index == -1 ? versions.size() : index);
+  }
+
+  /**
+   * Locates the index of the last version within an interval of a set.
+   */
+  private static int last(@NonNull VersionMap<?> versions,
+      @NonNull VersionRangeSet<SemanticVersion> set, int interval) {
+    SemanticVersion bound = set.endBound(interval);
+    if (bound == null) {
+      return versions.size() - 1;
+    }
+    if (set.endInclusive(interval)) {
+      return versions.floorIndex(bound);
+    }
+
+    int index = versions.ceilingIndex(bound);
+    return (index == -1 ? versions.size() : index) - 1;
+  }
+
+  /**
+   * Executes the resolution.
+   *
+   * @param includeRoot whether the root artifact is part of the selection.
+   * @return the resolution.
+   */
+  @NonNull
+  Resolution solve(boolean includeRoot) {
+    long start = System.nanoTime();
+    SemanticVersion rootVersion = this.rootVersions.key(0);
+
+    this.add(new Incompatibility(Collections.singletonList(
+        new Term(this.root, VersionRangeSet.exactly(rootVersion), false)), Kind.ROOT, null, null));
+
+    String next = this.root;
+    while (next != null) {
+      Incompatibility failure = this.propagate(next);
+      if (failure != null) {
+        return Resolution.failure(failure.explain(), this.decisionCount, this.conflictCount,
+            this.incompatibilityCount, this.cache.hits(), this.cache.misses(),
+            System.nanoTime() - start);
+      }
+
+      next = this.choose();
+    }
+
+    Map<String, SemanticVersion> selection = new LinkedHashMap<>(this.solution.decisions());
+    if (!includeRoot) {
+      selection.remove(this.root);
+    }
+
+    return Resolution.success(selection, this.decisionCount, this.conflictCount,
+        this.incompatibilityCount, this.cache.hits(), this.cache.misses(),
+        System.nanoTime() - start);
+  }
+
+  private void add(@NonNull Incompatibility incompatibility) {
+    ++this.incompatibilityCount;
+
+    for (Term term : incompatibility.terms()) {
+      this.incompatibilities.computeIfAbsent(term.artifact(), (k) -> new ArrayList<>())
+          .add(incompatibility);
+    }
+  }
+
+  /**
+   * Selects the next required artifact and decides on its newest permitted version.
+   *
+   * @return the affected artifact or {@code null} if all required artifacts have been selected.
+   */
+  @Nullable
+  private String choose() {
+    String artifact = null;
+
+    // artifacts which permit at most a single version are preferred as they cannot cause any
+    // backtracking while the remaining artifacts are visited in the order of their discovery
+    Iterator<String> it = this.urgent.iterator();
+    while (it.hasNext()) {
+      String candidate = it.next();
+      it.remove();
+
+      if (this.solution.pending().contains(candidate) && this.count(candidate) < 2) {
+        artifact = candidate;
+        break;
+      }
+    }
+
+    if (artifact == null) {
+      it = this.solution.pending().iterator();
+      if (!it.hasNext()) {
+        return null;
+      }
+
+      artifact = it.next();
+    }
+
+    int index = this.latest(artifact);
+    Term term = this.solution.term(artifact);
+    if (index == -1) {
+      this.add(new Incompatibility(Collections.singletonList(term), Kind.NO_VERSIONS, null,
+          null));
+      return artifact;
+    }
+
+    VersionMap<Map<String, VersionRangeSet<SemanticVersion>>> versions = this.versions(artifact);
+    boolean conflict = false;
+
+    // versions which would immediately conflict with the current solution are not selected as
+    // propagating their dependencies will exclude them instead
+    for (Incompatibility incompatibility : this.dependencies(artifact, versions, index)) {
+      boolean satisfied = true;
+
+      for (Term dependency : incompatibility.terms()) {
+        if (!dependency.artifact().equals(artifact)
+            && this.solution.relation(dependency) != Relation.SATISFIED) {
+          satisfied = false;
+          break;
+        }
+      }
+
+      conflict |= satisfied;
+    }
+
+    if (!conflict) {
+      ++this.decisionCount;
+      this.solution.decide(artifact, versions.key(index));
+    }
+
+    return artifact;
+  }
+
+  /**
+   * Counts the versions which are permitted by the current term of an artifact (stopping once a
+   * second version has been encountered).
+   */
+  private int count(@NonNull String artifact) {
+    VersionMap<?> versions = this.versions(artifact);
+    VersionRangeSet<SemanticVersion> set = this.solution.term(artifact).range();
+    int count = 0;
+
+    for (int i = set.size() - 1; i >= 0 && count < 2; --i) {
+      count += Math.max(0, last(versions, set, i) - first(versions, set, i) + 1);
+    }
+
+    return count;
+  }
+
+  /**
+   * Retrieves the dependency incompatibilities of a given version (adding them to the known
+   * incompatibilities when they are first requested).
+   *
+   * <p>Each incompatibility covers the largest contiguous run of versions around the selected
+   * version which declares the same dependency so that a single conflict may exclude all of
+   * them at once.</p>
+   */
+  @NonNull
+  private List<Incompatibility> dependencies(@NonNull String artifact,
+      @NonNull VersionMap<Map<String, VersionRangeSet<SemanticVersion>>> versions, int index) {
+    Map<Integer, List<Incompatibility>> cache = this.dependencies.computeIfAbsent(artifact,
+        (k) -> new HashMap<>());
+
+    List<Incompatibility> incompatibilities = cache.get(index);
+    if (incompatibilities != null) {
+      return incompatibilities;
+    }
+
+    incompatibilities = new ArrayList<>();
+    for (Map.Entry<String, VersionRangeSet<SemanticVersion>> dependency : versions.value(index)
+        .entrySet()) {
+      if (dependency.getKey().equals(artifact)) {
+        continue;
+      }
+
+      int low = index;
+      while (low > 0 && Objects.equals(dependency.getValue(),
+          versions.value(low - 1).get(dependency.getKey()))) {
+        --low;
+      }
+
+      int high = index;
+      while (high < versions.size() - 1 && Objects.equals(dependency.getValue(),
+          versions.value(high + 1).get(dependency.getKey()))) {
+        ++high;
+      }
+
+      VersionRangeSet<SemanticVersion> range = (low == high
+          ? VersionRangeSet.exactly(versions.key(index))
+          : VersionRangeSet.of(VersionRange.<SemanticVersion>builder()
+              .startBound(versions.key(low))
+              .startInclusive(true)
+              .endBound(versions.key(high))
+              .endInclusive(true)
+              .build()));
+
+      List<Term> terms = new ArrayList<>(2);
+      terms.add(new Term(artifact, range, true));
+      terms.add(new Term(dependency.getKey(), dependency.getValue(), false));
+
+      Incompatibility incompatibility = new Incompatibility(terms, Kind.DEPENDENCY, null, null);
+      incompatibilities.add(incompatibility);
+      this.add(incompatibility);
+    }
+
+    cache.put(index, incompatibilities);
+    return incompatibilities;
+  }
+
+  /**
+   * Derives a new incompatibility from a conflicting incompatibility and the assignment that
+   * caused it.
+   */
+  @NonNull
+  private Incompatibility derive(@NonNull Incompatibility incompatibility, @NonNull Term term,
+      @NonNull Assignment satisfier, @Nullable Term difference) {
+    Map<String, Term> terms = new LinkedHashMap<>();
+
+    for (Term other : incompatibility.terms()) {
+      if (!other.artifact().equals(term.artifact())) {
+        this.merge(terms, other);
+      }
+    }
+    for (Term other : satisfier.cause.terms()) {
+      if (!other.artifact().equals(satisfier.term.artifact())) {
+        this.merge(terms, other);
+      }
+    }
+    if (difference != null) {
+      this.merge(terms, difference.negate());
+    }
+
+    // the root artifact is always selected and thus does not need to be stated explicitly
+    Term rootTerm = terms.get(this.root);
+    if (terms.size() != 1 && rootTerm != null && rootTerm.positive()) {
+      terms.remove(this.root);
+    }
+
+    return (new Incompatibility(new ArrayList<>(terms.values()), Kind.DERIVED, incompatibility,
+        satisfier.cause));
+  }
+
+  private boolean isTerminal(@NonNull Incompatibility incompatibility) {
+    List<Term> terms = incompatibility.terms();
+
+    return terms.isEmpty() || (terms.size() == 1 && terms.get(0).positive()
+        && terms.get(0).artifact().equals(this.root));
+  }
+
+  private void merge(@NonNull Map<String, Term> terms, @NonNull Term term) {
+    terms.merge(term.artifact(), term, (a, b) -> a.intersect(b, this.cache));
+  }
+
+  /**
+   * Locates the index of the newest version which is permitted by the current term of an
+   * artifact.
+   *
+   * @return the index or {@code -1} if no version is permitted.
+   */
+  private int latest(@NonNull String artifact) {
+    VersionMap<?> versions = this.versions(artifact);
+    VersionRangeSet<SemanticVersion> set = this.solution.term(artifact).range();
+
+    for (int i = set.size() - 1; i >= 0; --i) {
+      int last = last(versions, set, i);
+
+      if (last >= first(versions, set, i)) {
+        return last;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Derives the consequences of all incompatibilities which refer to a changed artifact.
+   *
+   * @return the incompatibility which renders resolution impossible or {@code null} if
+   * successful.
+   */
+  @Nullable
+  private Incompatibility propagate(@NonNull String artifact) {
+    Set<String> changed = new LinkedHashSet<>();
+    changed.add(artifact);
+
+    while (!changed.isEmpty()) {
+      String current = changed.iterator().next();
+      changed.remove(current);
+
+      List<Incompatibility> incompatibilities = this.incompatibilities.get(current);
+      if (incompatibilities == null) {
+        continue;
+      }
+
+      // newer incompatibilities are generally more specific and are thus visited first
+      for (int i = incompatibilities.size() - 1; i >= 0; --i) {
+        Incompatibility incompatibility = incompatibilities.get(i);
+        Term result = this.propagate(incompatibility);
+
+        if (result == CONFLICT) {
+          Incompatibility cause = this.resolve(incompatibility);
+          if (this.isTerminal(cause)) {
+            return cause;
+          }
+
+          result = this.propagate(cause);
+          changed.clear();
+          changed.add(result.artifact());
+          break;
+        }
+
+        if (result != null) {
+          changed.add(result.artifact());
+        }
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Derives the consequences of a single incompatibility.
+   *
+   * @return the derived term, {@link #CONFLICT} if the incompatibility is satisfied or {@code
+   * null} if nothing could be derived.
+   */
+  @Nullable
+  private Term propagate(@NonNull Incompatibility incompatibility) {
+    Term unsatisfied = null;
+
+    for (Term term : incompatibility.terms()) {
+      Relation relation = this.solution.relation(term);
+
+      if (relation == Relation.CONTRADICTED) {
+        return null;
+      }
+      if (relation == Relation.INCONCLUSIVE) {
+        if (unsatisfied != null) {
+          return null;
+        }
+
+        unsatisfied = term;
+      }
+    }
+
+    if (unsatisfied == null) {
+      return CONFLICT;
+    }
+
+    this.solution.derive(unsatisfied.negate(), incompatibility);
+    return unsatisfied;
+  }
+
+  /**
+   * Resolves a conflict by learning its root cause and backjumping to the latest decision which
+   * permits propagating it.
+   *
+   * @return the learned incompatibility (which is terminal if resolution is impossible).
+   */
+  @NonNull
+  private Incompatibility resolve(@NonNull Incompatibility incompatibility) {
+    ++this.conflictCount;
+    boolean learned = false;
+
+    while (!this.isTerminal(incompatibility)) {
+      Term mostRecentTerm = null;
+      Assignment mostRecentSatisfier = null;
+      Term difference = null;
+      int previousSatisfierLevel = 1;
+
+      for (Term term : incompatibility.terms()) {
+        Assignment satisfier = this.solution.satisfier(term);
+
+        if (mostRecentSatisfier == null) {
+          mostRecentTerm = term;
+          mostRecentSatisfier = satisfier;
+        } else if (mostRecentSatisfier.index < satisfier.index) {
+          previousSatisfierLevel = Math.max(previousSatisfierLevel,
+              mostRecentSatisfier.decisionLevel);
+          mostRecentTerm = term;
+          mostRecentSatisfier = satisfier;
+          difference = null;
+        } else {
+          previousSatisfierLevel = Math.max(previousSatisfierLevel, satisfier.decisionLevel);
+        }
+
+        if (mostRecentTerm == term) {
+          // the satisfier may be more specific than required in which case the remainder has to
+          // be satisfied by a previous assignment
+          difference = mostRecentSatisfier.term.difference(mostRecentTerm, this.cache);
+
+          if (difference.isEmpty()) {
+            difference = null;
+          } else {
+            previousSatisfierLevel = Math.max(previousSatisfierLevel,
+                this.solution.satisfier(difference.negate()).decisionLevel);
+          }
+        }
+      }
+
+      if (previousSatisfierLevel < mostRecentSatisfier.decisionLevel
+          || mostRecentSatisfier.decision) {
+        this.solution.backtrack(previousSatisfierLevel);
+
+        if (learned) {
+          this.add(incompatibility);
+        }
+        return incompatibility;
+      }
+
+      incompatibility = this.derive(incompatibility, mostRecentTerm, mostRecentSatisfier,
+          difference);
+      learned = true;
+    }
+
+    return incompatibility;
+  }
+
+  @NonNull
+  private VersionMap<Map<String, VersionRangeSet<SemanticVersion>>> versions(
+      @NonNull String artifact) {
+    return (artifact.equals(this.root) ? this.rootVersions : this.catalog.versions(artifact));
+  }
+}
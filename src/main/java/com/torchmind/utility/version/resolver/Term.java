@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.resolver;
+
+import com.torchmind.utility.version.VersionRangeSet;
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Represents a statement about the selected version of an artifact.
+ *
+ * <p>Positive terms state that the artifact is selected with a version within the range while
+ * negative terms state that the artifact is either not selected or selected with a version outside
+ * of the range.</p>
+ *
+ * @author Johannes Donath
+ */
+final class Term {
+
+  private final String artifact;
+  private final SemanticVersion point;
+  private final boolean positive;
+  private final VersionRangeSet<SemanticVersion> range;
+
+  Term(@NonNull String artifact, @NonNull VersionRangeSet<SemanticVersion> range,
+      boolean positive) {
+    this.artifact = artifact;
+    this.range = range;
+    this.positive = positive;
+    this.point = point(range);
+  }
+
+  /**
+   * Retrieves the only version within a set which consists of a single version.
+   *
+   * @return the version or {@code null} if the set contains more (or less) than one version.
+   */
+  @Nullable
+  private static SemanticVersion point(@NonNull VersionRangeSet<SemanticVersion> range) {
+    if (range.size() != 1 || !range.startInclusive(0) || !range.endInclusive(0)) {
+      return null;
+    }
+
+    SemanticVersion start = range.startBound(0);
+    SemanticVersion end = range.endBound(0);
+    return (start != null && end != null && start.compareTo(end) == 0 ? start : null);
+  }
+
+  @NonNull
+  String artifact() {
+    return this.artifact;
+  }
+
+  /**
+   * Computes a term which is satisfied when this term is satisfied but {@code term} is not.
+   */
+  @NonNull
+  Term difference(@NonNull Term term, @NonNull RangeCache cache) {
+    return this.intersect(term.negate(), cache);
+  }
+
+  /**
+   * Checks whether no selection can satisfy both this term and {@code term}.
+   */
+  boolean disjoint(@NonNull Term term, @NonNull RangeCache cache) {
+    if (this.positive && this.point != null) {
+      return term.range.matches(this.point) != term.positive;
+    }
+    if (this.positive) {
+      return (term.positive ? cache.intersection(this.range, term.range)
+          : cache.difference(this.range, term.range)).isEmpty();
+    }
+
+    return term.positive && cache.difference(term.range, this.range).isEmpty();
+  }
+
+  /**
+   * Computes a term which is satisfied when both this term and {@code term} are satisfied.
+   */
+  @NonNull
+  Term intersect(@NonNull Term term, @NonNull RangeCache cache) {
+    if (this.positive) {
+      return (new Term(this.artifact, (term.positive ? cache.intersection(this.range, term.range)
+          : cache.difference(this.range, term.range)), true));
+    }
+    if (term.positive) {
+      return (new Term(this.artifact, cache.difference(term.range, this.range), true));
+    }
+
+    return (new Term(this.artifact, cache.union(this.range, term.range), false));
+  }
+
+  /**
+   * Checks whether this term cannot be satisfied by any selection.
+   */
+  boolean isEmpty() {
+    return this.positive && this.range.isEmpty();
+  }
+
+  @NonNull
+  Term negate() {
+    return (new Term(this.artifact, this.range, !this.positive));
+  }
+
+  boolean positive() {
+    return this.positive;
+  }
+
+  @NonNull
+  VersionRangeSet<SemanticVersion> range() {
+    return this.range;
+  }
+
+  /**
+   * Checks whether every selection which satisfies this term also satisfies {@code term}.
+   */
+  boolean satisfies(@NonNull Term term, @NonNull RangeCache cache) {
+    if (this.positive && this.point != null) {
+      return term.range.matches(this.point) == term.positive;
+    }
+    if (this.positive) {
+      return (term.positive ? cache.difference(this.range, term.range)
+          : cache.intersection(this.range, term.range)).isEmpty();
+    }
+
+    return !term.positive && cache.difference(term.range, this.range).isEmpty();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    String range = (this.range.equals(VersionRangeSet.all()) ? "any version"
+        : this.range.toString());
+    return (this.positive ? "" : "not ") + this.artifact + " " + range;
+  }
+}
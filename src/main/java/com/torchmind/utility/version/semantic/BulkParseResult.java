@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Represents the outcome of a {@link BulkParser} operation.
+ *
+ * <p>Depending on the operation, results carry either materialized versions (see {@link
+ * BulkParser#parse(java.util.List)}) or packed versions (see {@link
+ * BulkParser#parsePacked(java.util.List)}) along with the error of each failed element. The
+ * backing arrays are exposed without copying in order to support very large inputs.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class BulkParseResult {
+
+  private static final ParseError[] ERRORS = ParseError.values();
+
+  private final byte[] errors;
+  private final int failureCount;
+  private final long[] packed;
+  private final SemanticVersion[] versions;
+
+  BulkParseResult(@Nullable SemanticVersion[] versions, @Nullable long[] packed,
+      @NonNull byte[] errors, int failureCount) {
+    this.versions = versions;
+    this.packed = packed;
+    this.errors = errors;
+    this.failureCount = failureCount;
+  }
+
+  /**
+   * Retrieves the error which caused an element to be rejected.
+   *
+   * @param index the element index.
+   * @return the error or {@code null} if the element was parsed successfully.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of elements.
+   */
+  @Nullable
+  public ParseError error(int index) {
+    int error = this.errors[index];
+    return (error == 0 ? null : ERRORS[error - 1]);
+  }
+
+  /**
+   * Retrieves the amount of elements which failed to parse.
+   *
+   * @return the amount of failures.
+   */
+  public int failureCount() {
+    return this.failureCount;
+  }
+
+  /**
+   * Checks whether this result carries packed versions.
+   *
+   * @return {@code true} if packed, {@code false} if materialized.
+   */
+  public boolean packed() {
+    return this.packed != null;
+  }
+
+  /**
+   * Retrieves the packed representation of an element.
+   *
+   * @param index the element index.
+   * @return the packed version or {@link PackedSemanticVersion#UNPACKABLE} if the element failed
+   * to parse or does not fit within the packed representation.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of elements.
+   */
+  public long packed(int index) {
+    if (this.packed != null) {
+      return this.packed[index];
+    }
+
+    SemanticVersion version = this.versions[index];
+    return (version == null ? PackedSemanticVersion.UNPACKABLE
+        : PackedSemanticVersion.tryPack(version));
+  }
+
+  /**
+   * Retrieves the backing array of packed versions.
+   *
+   * @return the packed versions.
+   * @throws IllegalStateException when this result carries materialized versions.
+   */
+  @NonNull
+  public long[] packedVersions() throws IllegalStateException {
+    if (this.packed == null) {
+      throw new IllegalStateException("Result carries materialized versions");
+    }
+
+    return this.packed;
+  }
+
+  /**
+   * Retrieves the total amount of elements.
+   *
+   * @return the amount of elements.
+   */
+  public int size() {
+    return this.errors.length;
+  }
+
+  /**
+   * Checks whether an element was parsed successfully.
+   *
+   * @param index the element index.
+   * @return {@code true} if successful, {@code false} otherwise.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of elements.
+   */
+  public boolean success(int index) {
+    return this.errors[index] == 0;
+  }
+
+  /**
+   * Retrieves a materialized element.
+   *
+   * <p>Packed results restore versions via {@link PackedSemanticVersion#unpack(long)} and thus do
+   * not retain their original extra and metadata bits.</p>
+   *
+   * @param index the element index.
+   * @return the version or {@code null} if the element failed to parse (or cannot be restored from
+   * its packed representation).
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of elements.
+   */
+  @Nullable
+  public SemanticVersion version(int index) {
+    if (this.versions != null) {
+      return this.versions[index];
+    }
+
+    long packed = this.packed[index];
+    return (packed == PackedSemanticVersion.UNPACKABLE ? null
+        : PackedSemanticVersion.unpack(packed));
+  }
+
+  /**
+   * Retrieves the backing array of materialized versions (failed elements are {@code null}).
+   *
+   * @return the versions.
+   * @throws IllegalStateException when this result carries packed versions.
+   */
+  @NonNull
+  public SemanticVersion[] versions() throws IllegalStateException {
+    if (this.versions == null) {
+      throw new IllegalStateException("Result carries packed versions");
+    }
+
+    return this.versions;
+  }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Provides a parser which splits large lists of version strings among the workers of a {@link
+ * ForkJoinPool}.
+ *
+ * <p>Each worker parses its share of the input via a private {@link ParseResult} and writes its
+ * output directly into the shared result arrays. Malformed elements do not abort the operation but
+ * are reported individually via {@link BulkParseResult#error(int)}. For instance:</p>
+ *
+ * <pre>
+ * BulkParseResult result = BulkParser.builder().build().parse(strings);
+ *
+ * for (int i = 0; i &lt; result.size(); ++i) {
+ *   if (!result.success(i)) {
+ *     log.warn("Skipping " + strings.get(i) + ": " + result.error(i));
+ *   }
+ * }
+ * </pre>
+ *
+ * <p>Instances are immutable and may be shared between threads.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class BulkParser {
+
+  /**
+   * Defines the default amount of elements below which a task is no longer split.
+   */
+  public static final int DEFAULT_THRESHOLD = 4096;
+
+  private final boolean java;
+  private final ForkJoinPool pool;
+  private final int threshold;
+
+  private BulkParser(@NonNull ForkJoinPool pool, int threshold, boolean java) {
+    this.pool = pool;
+    this.threshold = threshold;
+    this.java = java;
+  }
+
+  /**
+   * Retrieves a new {@link Builder}.
+   *
+   * @return the builder.
+   */
+  @NonNull
+  public static Builder builder() {
+    return (new Builder());
+  }
+
+  /**
+   * Converts an arbitrary list into a random access list (copying it if necessary).
+   */
+  @NonNull
+  private static List<? extends CharSequence> randomAccess(
+      @NonNull List<? extends CharSequence> versions) {
+    if (versions instanceof RandomAccess) {
+      return versions;
+    }
+
+    return Arrays.asList(versions.toArray(new CharSequence[0]));
+  }
+
+  /**
+   * Parses all versions within an array.
+   *
+   * @param versions the version strings.
+   * @return the result.
+   * @throws NullPointerException when one of the elements is {@code null}.
+   */
+  @NonNull
+  public BulkParseResult parse(@NonNull CharSequence[] versions) {
+    return this.parse(Arrays.asList(versions));
+  }
+
+  /**
+   * Parses all versions within a list.
+   *
+   * <p>Lists which do not permit random access are copied into an array first.</p>
+   *
+   * @param versions the version strings.
+   * @return the result.
+   * @throws NullPointerException when one of the elements is {@code null}.
+   */
+  @NonNull
+  public BulkParseResult parse(@NonNull List<? extends CharSequence> versions) {
+    List<? extends CharSequence> input = randomAccess(versions);
+    int size = input.size();
+
+    SemanticVersion[] output = (this.java ? new JavaVersion[size] : new SemanticVersion[size]);
+    byte[] errors = new byte[size];
+    int failureCount = this.pool.invoke(new ParseTask(input, output, null, errors, 0, size));
+
+    return (new BulkParseResult(output, null, errors, failureCount));
+  }
+
+  /**
+   * Parses all versions within an array into their packed representation.
+   *
+   * @param versions the version strings.
+   * @return the result.
+   * @throws NullPointerException when one of the elements is {@code null}.
+   * @see #parsePacked(List)
+   */
+  @NonNull
+  public BulkParseResult parsePacked(@NonNull CharSequence[] versions) {
+    return this.parsePacked(Arrays.asList(versions));
+  }
+
+  /**
+   * Parses all versions within a list into their packed representation.
+   *
+   * <p>Versions are never materialized and thus this method does not allocate any objects per
+   * element. Valid versions which do not fit within the packed representation are reported as
+   * {@link PackedSemanticVersion#UNPACKABLE} (but are not considered failures).</p>
+   *
+   * @param versions the version strings.
+   * @return the result.
+   * @throws NullPointerException when one of the elements is {@code null}.
+   */
+  @NonNull
+  public BulkParseResult parsePacked(@NonNull List<? extends CharSequence> versions) {
+    List<? extends CharSequence> input = randomAccess(versions);
+    int size = input.size();
+
+    long[] output = new long[size];
+    byte[] errors = new byte[size];
+    int failureCount = this.pool.invoke(new ParseTask(input, null, output, errors, 0, size));
+
+    return (new BulkParseResult(null, output, errors, failureCount));
+  }
+
+  /**
+   * Parses a slice of the input (splitting it further if it exceeds the configured threshold).
+   */
+  private final class ParseTask extends RecursiveTask<Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] errors;
+    private final int fromIndex;
+    private final List<? extends CharSequence> input;
+    private final long[] packed;
+    private final int toIndex;
+    private final SemanticVersion[] versions;
+
+    private ParseTask(@NonNull List<? extends CharSequence> input,
+        @Nullable SemanticVersion[] versions, @Nullable long[] packed, @NonNull byte[] errors,
+        int fromIndex, int toIndex) {
+      this.input = input;
+      this.versions = versions;
+      this.packed = packed;
+      this.errors = errors;
+      this.fromIndex = fromIndex;
+      this.toIndex = toIndex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Integer compute() {
+      if (this.toIndex - this.fromIndex > BulkParser.this.threshold) {
+        int middle = (this.fromIndex + this.toIndex) >>> 1;
+
+        ParseTask left = new ParseTask(this.input, this.versions, this.packed, this.errors,
+            this.fromIndex, middle);
+        ParseTask right = new ParseTask(this.input, this.versions, this.packed, this.errors,
+            middle, this.toIndex);
+
+        left.fork();
+        int failureCount = right.compute();
+        return failureCount + left.join();
+      }
+
+      ParseResult result = new ParseResult();
+      int failureCount = 0;
+
+      for (int i = this.fromIndex; i < this.toIndex; ++i) {
+        CharSequence version = this.input.get(i);
+
+        boolean success = (BulkParser.this.java ? result.parseJava(version, 0, version.length())
+            : result.parse(version, 0, version.length()));
+
+        if (!success) {
+          this.errors[i] = (byte) (result.error().ordinal() + 1);
+          ++failureCount;
+
+          if (this.packed != null) {
+            this.packed[i] = PackedSemanticVersion.UNPACKABLE;
+          }
+          continue;
+        }
+
+        if (this.packed != null) {
+          this.packed[i] = result.pack();
+        } else if (BulkParser.this.java) {
+          this.versions[i] = result.toJavaVersion();
+        } else {
+          this.versions[i] = result.toVersion();
+        }
+      }
+
+      // release the reference to the last element so that workers do not retain any input
+      result.reset();
+      return failureCount;
+    }
+  }
+
+  /**
+   * Provides a factory for {@link BulkParser} instances.
+   */
+  public static final class Builder {
+
+    private boolean java;
+    private ForkJoinPool pool;
+    private int threshold;
+
+    private Builder() {
+      this.reset();
+    }
+
+    /**
+     * Builds an instance of {@link BulkParser} and resets the builder.
+     *
+     * @return the parser.
+     */
+    @NonNull
+    public BulkParser build() {
+      try {
+        ForkJoinPool pool = (this.pool != null ? this.pool : ForkJoinPool.commonPool());
+        return (new BulkParser(pool, this.threshold, this.java));
+      } finally {
+        this.reset();
+      }
+    }
+
+    /**
+     * Checks whether versions are parsed as Java versions.
+     *
+     * @return {@code true} if parsed as Java versions, {@code false} otherwise.
+     */
+    public boolean java() {
+      return this.java;
+    }
+
+    /**
+     * Selects whether versions are parsed as Java versions (which may carry an update number).
+     *
+     * @param java {@code true} to parse {@link JavaVersion} instances.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder java(boolean java) {
+      this.java = java;
+      return this;
+    }
+
+    /**
+     * Retrieves the pool which executes parse operations.
+     *
+     * @return the pool or {@code null} if the common pool is used.
+     */
+    @Nullable
+    public ForkJoinPool pool() {
+      return this.pool;
+    }
+
+    /**
+     * Sets the pool which executes parse operations.
+     *
+     * @param pool the pool or {@code null} to use the common pool.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder pool(@Nullable ForkJoinPool pool) {
+      this.pool = pool;
+      return this;
+    }
+
+    /**
+     * Resets the builder to its default values.
+     *
+     * @return the builder.
+     */
+    @NonNull
+    public Builder reset() {
+      this.java = false;
+      this.pool = null;
+      this.threshold = DEFAULT_THRESHOLD;
+      return this;
+    }
+
+    /**
+     * Retrieves the amount of elements below which tasks are no longer split.
+     *
+     * @return the threshold.
+     */
+    public int threshold() {
+      return this.threshold;
+    }
+
+    /**
+     * Sets the amount of elements below which tasks are no longer split.
+     *
+     * @param threshold the threshold.
+     * @return the builder.
+     * @throws IllegalArgumentException when the threshold is smaller than one.
+     */
+    @NonNull
+    public Builder threshold(int threshold) throws IllegalArgumentException {
+      if (threshold < 1) {
+        throw new IllegalArgumentException("Threshold must be positive");
+      }
+
+      this.threshold = threshold;
+      return this;
+    }
+  }
+}
@@ -19,7 +19,8 @@ package com.torchmind.utility.version.semantic;
 import com.torchmind.utility.version.UnstableVersionType;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
-import java.util.Objects;
+import java.util.Arrays;
+import java.util.Optional;
 
 /**
  * Provides a wrapper around {@link SemanticVersion} for working with Java versions.
@@ -72,6 +73,29 @@ public final class JavaVersion extends SemanticVersion {
         .metadata(version.metadata());
   }
 
+  /**
+   * Retrieves a new {@link Builder} representing the values of {@code version}.
+   *
+   * <p>The update number is copied when {@code version} is a {@link JavaVersion} and left at
+   * zero otherwise.</p>
+   *
+   * @param version the version to copy from.
+   * @return the builder.
+   */
+  @NonNull
+  public static Builder builder(@NonNull SemanticVersion version) {
+    if (version instanceof JavaVersion) {
+      return builder((JavaVersion) version);
+    }
+
+    return builder()
+        .major(version.major())
+        .minor(version.minor())
+        .patch(version.patch())
+        .extra(version.extra())
+        .metadata(version.metadata());
+  }
+
   /**
    * Parses a version string and creates a {@link Builder} that represents the version.
    *
@@ -117,7 +141,109 @@ public final class JavaVersion extends SemanticVersion {
   @NonNull
   public static JavaVersion of(@NonNull String version)
       throws IllegalArgumentException {
-    return builder(version).build();
+    return of(version, 0, version.length());
+  }
+
+  /**
+   * Parses a Java version located within a character sequence.
+   *
+   * @param version the version sequence.
+   * @return the version.
+   * @throws IllegalArgumentException when the passed version has an invalid format.
+   * @throws NumberFormatException when one or more elements contain invalid numbers.
+   */
+  @NonNull
+  public static JavaVersion of(@NonNull CharSequence version)
+      throws IllegalArgumentException {
+    return of(version, 0, version.length());
+  }
+
+  /**
+   * Parses a Java version located within a region of a character sequence.
+   *
+   * @param version the version sequence.
+   * @param offset the index of the first character.
+   * @param length the amount of characters.
+   * @return the version.
+   * @throws IllegalArgumentException when the passed version has an invalid format.
+   * @throws IndexOutOfBoundsException when the region exceeds the sequence bounds.
+   * @throws NumberFormatException when one or more elements contain invalid numbers.
+   */
+  @NonNull
+  public static JavaVersion of(@NonNull CharSequence version, int offset, int length)
+      throws IllegalArgumentException {
+    ParseResult result = ParseResult.local();
+
+    try {
+      if (!result.parseJava(version, offset, length)) {
+        throw result.exception();
+      }
+
+      return result.toJavaVersion();
+    } finally {
+      result.reset();
+    }
+  }
+
+  /**
+   * Parses a Java version without throwing exceptions when it is malformed.
+   *
+   * <p>The returned version is always a {@link JavaVersion} but is declared as a {@link
+   * SemanticVersion} in order to retain the signature of {@link
+   * SemanticVersion#tryParse(CharSequence)}. Callers which require access to the update number
+   * may use {@link #tryParse(CharSequence, ParseResult)} and {@link ParseResult#toJavaVersion()}
+   * instead.</p>
+   *
+   * @param version the version sequence.
+   * @return the version or an empty optional if the sequence is not a valid version.
+   * @see #tryParse(CharSequence, int, int, ParseResult)
+   */
+  @NonNull
+  public static Optional<SemanticVersion> tryParse(@NonNull CharSequence version) {
+    ParseResult result = ParseResult.local();
+
+    try {
+      if (!result.parseJava(version, 0, version.length())) {
+        return Optional.empty();
+      }
+
+      return Optional.of(result.toJavaVersion());
+    } finally {
+      result.reset();
+    }
+  }
+
+  /**
+   * Parses a Java version into a reusable result without throwing exceptions when it is
+   * malformed.
+   *
+   * @param version the version sequence.
+   * @param result the result.
+   * @return {@code true} if successful, {@code false} otherwise.
+   * @see #tryParse(CharSequence, int, int, ParseResult)
+   */
+  public static boolean tryParse(@NonNull CharSequence version, @NonNull ParseResult result) {
+    return result.parseJava(version, 0, version.length());
+  }
+
+  /**
+   * Parses a Java version located within a region of a character sequence into a reusable
+   * result.
+   *
+   * <p>The update number (if any) is made available via {@link ParseResult#updateNumber()} and
+   * the result may be materialized via {@link ParseResult#toJavaVersion()}.</p>
+   *
+   * @param version the version sequence.
+   * @param offset the index of the first character.
+   * @param length the amount of characters.
+   * @param result the result.
+   * @return {@code true} if successful, {@code false} otherwise.
+   * @throws IndexOutOfBoundsException when the region exceeds the sequence bounds.
+   * @see SemanticVersion#tryParse(CharSequence, int, int, ParseResult)
+   */
+  public static boolean tryParse(@NonNull CharSequence version, int offset, int length,
+      @NonNull ParseResult result) {
+    return result.parseJava(version, offset, length);
   }
 
   /**
@@ -228,12 +354,34 @@ public final class JavaVersion extends SemanticVersion {
    */
   @NonNull
   @Override
-  public String toString() {
+  protected String createString() {
     if (this.updateNumber() != 0) {
-      return super.toString() + "_" + this.updateNumber();
+      return super.createString() + "_" + this.updateNumber();
     }
 
-    return super.toString();
+    return super.createString();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Keys of Java versions which carry an update number are suffixed with the number (encoded
+   * like the remaining bits) and thus order after the keys of their semantic counterparts. As
+   * {@link #compareTo(SemanticVersion)} ignores the update number when comparing against plain
+   * semantic versions, keys are only consistent with {@code compareTo} among Java versions.</p>
+   */
+  @NonNull
+  @Override
+  public byte[] sortKey() {
+    byte[] key = super.sortKey();
+
+    if (this.updateNumber == 0) {
+      return key;
+    }
+
+    key = Arrays.copyOf(key, SORT_KEY_LENGTH + 4);
+    writeSortKey(key, SORT_KEY_LENGTH, this.updateNumber);
+    return key;
   }
 
   /**
@@ -258,8 +406,8 @@ public final class JavaVersion extends SemanticVersion {
    * {@inheritDoc}
    */
   @Override
-  public int hashCode() {
-    return Objects.hash(super.hashCode(), this.updateNumber);
+  protected int createHashCode() {
+    return 31 * (31 + super.createHashCode()) + this.updateNumber;
   }
 
   /**
@@ -337,40 +485,33 @@ public final class JavaVersion extends SemanticVersion {
     @NonNull
     @Override
     protected Builder parse(@NonNull String version) {
-      int updateIndex = version.indexOf('_');
-
-      if (updateIndex != -1) {
-
-        int extraIndex = version.indexOf('-');
-        int metadataIndex = version.indexOf('+');
+      super.parse(version);
+      return this;
+    }
 
-        int endIndex;
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    protected Builder parse(@NonNull CharSequence version, int offset, int length) {
+      ParseResult result = ParseResult.local();
 
-        if (extraIndex != -1 && metadataIndex != -1) {
-          endIndex = Math.min(extraIndex, metadataIndex);
-        } else if (extraIndex == -1 && metadataIndex == -1) {
-          endIndex = version.length();
-        } else {
-          endIndex = Math.max(extraIndex, metadataIndex);
+      try {
+        if (!result.parseJava(version, offset, length)) {
+          throw result.exception();
         }
 
-        try {
-          this.updateNumber(
-              Integer.parseUnsignedInt(version.substring((updateIndex + 1), endIndex)));
-        } catch (NumberFormatException ex) {
-          this.updateNumber(0);
-        }
+        this.apply(result);
 
-        String tmp = version.substring(0, updateIndex);
-        if (endIndex != version.length()) {
-          tmp += version.substring(endIndex);
+        if (result.hasUpdateNumber()) {
+          this.updateNumber(result.updateNumber());
         }
 
-        version = tmp;
+        return this;
+      } finally {
+        result.reset();
       }
-
-      super.parse(version);
-      return this;
     }
 
     /**
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Provides a reader which parses newline delimited version files directly from memory mapped
+ * bytes.
+ *
+ * <p>Files are split into chunks of roughly {@link Builder#chunkSize(int) equal size} at line
+ * boundaries, each of which is mapped via {@link FileChannel#map(FileChannel.MapMode, long, long)}
+ * and parsed by a separate worker of a {@link ForkJoinPool}. Lines are presented to the parser via
+ * a flyweight view of the mapped (ASCII) bytes and are thus never decoded into strings unless the
+ * respective extra or metadata bits are materialized.</p>
+ *
+ * <p>Lines may be terminated by either {@code \n} or {@code \r\n} while empty lines are skipped
+ * entirely (element indices within the returned result thus refer to non-empty lines).</p>
+ *
+ * <p>Instances are immutable and may be shared between threads.</p>
+ *
+ * @author Johannes Donath
+ * @see BulkParser
+ */
+public final class MappedVersionReader {
+
+  /**
+   * Defines the default target size of a single chunk (in bytes).
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+  private static final int SCAN_BUFFER_SIZE = 4096;
+
+  private final int chunkSize;
+  private final boolean java;
+  private final ForkJoinPool pool;
+
+  private MappedVersionReader(@NonNull ForkJoinPool pool, int chunkSize, boolean java) {
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+    this.java = java;
+  }
+
+  /**
+   * Retrieves a new {@link Builder}.
+   *
+   * @return the builder.
+   */
+  @NonNull
+  public static Builder builder() {
+    return (new Builder());
+  }
+
+  /**
+   * Locates the index of the first byte following the line which contains {@code position}.
+   *
+   * @param channel the channel.
+   * @param position the position.
+   * @param size the channel size.
+   * @return the index of the next line (or the channel size if no further line is present).
+   * @throws IOException when reading from the channel fails.
+   */
+  private static long nextLine(@NonNull FileChannel channel, long position, long size)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+
+    while (position < size) {
+      buffer.clear();
+
+      int read = channel.read(buffer, position);
+      if (read == -1) {
+        break;
+      }
+
+      for (int i = 0; i < read; ++i) {
+        if (buffer.get(i) == '\n') {
+          return position + i + 1;
+        }
+      }
+
+      position += read;
+    }
+
+    return size;
+  }
+
+  /**
+   * Parses all versions within a file.
+   *
+   * @param path the file path.
+   * @return the result.
+   * @throws IOException when the file cannot be read or contains a line which exceeds the
+   * mappable region size.
+   */
+  @NonNull
+  public BulkParseResult read(@NonNull Path path) throws IOException {
+    return this.read(path, false);
+  }
+
+  /**
+   * Parses all versions within a file into their packed representation.
+   *
+   * @param path the file path.
+   * @return the result.
+   * @throws IOException when the file cannot be read or contains a line which exceeds the
+   * mappable region size.
+   * @see BulkParser#parsePacked(List)
+   */
+  @NonNull
+  public BulkParseResult readPacked(@NonNull Path path) throws IOException {
+    return this.read(path, true);
+  }
+
+  /**
+   * Splits a file into line aligned chunks and parses them in parallel.
+   */
+  @NonNull
+  private BulkParseResult read(@NonNull Path path, boolean packed) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+
+      List<ChunkTask> tasks = new ArrayList<>();
+      long start = 0;
+      while (start < size) {
+        long end = (size - start <= this.chunkSize ? size
+            : nextLine(channel, start + this.chunkSize - 1, size));
+
+        if (end - start > Integer.MAX_VALUE) {
+          throw new IOException("Line at offset " + start + " exceeds mappable region");
+        }
+
+        tasks.add(new ChunkTask(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start),
+            packed));
+        start = end;
+      }
+
+      this.pool.invoke(new RecursiveTask<Void>() {
+        @Override
+        protected Void compute() {
+          ForkJoinTask.invokeAll(tasks);
+          return null;
+        }
+      });
+
+      return this.merge(tasks, packed);
+    }
+  }
+
+  /**
+   * Concatenates the results of all chunks (in file order).
+   */
+  @NonNull
+  private BulkParseResult merge(@NonNull List<ChunkTask> tasks, boolean packed)
+      throws IOException {
+    long total = 0;
+    int failureCount = 0;
+
+    for (ChunkTask task : tasks) {
+      total += task.count;
+      failureCount += task.failureCount;
+    }
+
+    if (total > Integer.MAX_VALUE) {
+      throw new IOException("File exceeds maximum amount of versions: " + total);
+    }
+
+    int size = (int) total;
+    byte[] errors = new byte[size];
+    long[] packedVersions = (packed ? new long[size] : null);
+    SemanticVersion[] versions = (packed ? null
+        : this.java ? new JavaVersion[size] : new SemanticVersion[size]);
+
+    int offset = 0;
+    for (ChunkTask task : tasks) {
+      System.arraycopy(task.errors, 0, errors, offset, task.count);
+
+      if (packed) {
+        System.arraycopy(task.packed, 0, packedVersions, offset, task.count);
+      } else {
+        System.arraycopy(task.versions, 0, versions, offset, task.count);
+      }
+
+      offset += task.count;
+    }
+
+    return (new BulkParseResult(versions, packedVersions, errors, failureCount));
+  }
+
+  /**
+   * Provides a read-only character view of a region within a buffer of ASCII bytes.
+   *
+   * <p>A single instance is shared between all lines of a chunk and thus merely translates the
+   * indices which are passed by the parser. Sub-sequences are decoded into regular strings as they
+   * are only requested when bits are materialized.</p>
+   */
+  static final class AsciiSequence implements CharSequence {
+
+    private final ByteBuffer buffer;
+
+    AsciiSequence(@NonNull ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char charAt(int index) {
+      return (char) (this.buffer.get(index) & 0xFF);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int length() {
+      return this.buffer.limit();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      byte[] bytes = new byte[end - start];
+
+      for (int i = 0; i < bytes.length; ++i) {
+        bytes[i] = this.buffer.get(start + i);
+      }
+
+      return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public String toString() {
+      return this.subSequence(0, this.length()).toString();
+    }
+  }
+
+  /**
+   * Parses all lines within a single mapped chunk.
+   */
+  private final class ChunkTask extends RecursiveTask<Void> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final MappedByteBuffer buffer;
+    private final boolean packedOutput;
+
+    private int count;
+    private byte[] errors;
+    private int failureCount;
+    private long[] packed;
+    private SemanticVersion[] versions;
+
+    private ChunkTask(@NonNull MappedByteBuffer buffer, boolean packedOutput) {
+      this.buffer = buffer;
+      this.packedOutput = packedOutput;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Void compute() {
+      // versions typically occupy a few bytes each and thus the initial capacity is estimated
+      // accordingly (arrays grow on demand)
+      int capacity = Math.max(16, this.buffer.limit() / 8);
+      this.errors = new byte[capacity];
+      if (this.packedOutput) {
+        this.packed = new long[capacity];
+      } else {
+        this.versions = new SemanticVersion[capacity];
+      }
+
+      AsciiSequence sequence = new AsciiSequence(this.buffer);
+      ParseResult result = new ParseResult();
+      int limit = this.buffer.limit();
+      int lineStart = 0;
+
+      while (lineStart < limit) {
+        int lineEnd = lineStart;
+        while (lineEnd < limit && this.buffer.get(lineEnd) != '\n') {
+          ++lineEnd;
+        }
+
+        int next = lineEnd + 1;
+        if (lineEnd > lineStart && this.buffer.get(lineEnd - 1) == '\r') {
+          --lineEnd;
+        }
+
+        if (lineEnd > lineStart) {
+          this.append(sequence, result, lineStart, lineEnd - lineStart);
+        }
+
+        lineStart = next;
+      }
+
+      result.reset();
+      return null;
+    }
+
+    /**
+     * Parses a single line and appends its result.
+     */
+    private void append(@NonNull AsciiSequence sequence, @NonNull ParseResult result, int offset,
+        int length) {
+      if (this.count == this.errors.length) {
+        int capacity = this.count + (this.count >> 1);
+
+        this.errors = Arrays.copyOf(this.errors, capacity);
+        if (this.packedOutput) {
+          this.packed = Arrays.copyOf(this.packed, capacity);
+        } else {
+          this.versions = Arrays.copyOf(this.versions, capacity);
+        }
+      }
+
+      boolean java = MappedVersionReader.this.java;
+      boolean success = (java ? result.parseJava(sequence, offset, length)
+          : result.parse(sequence, offset, length));
+      int index = this.count++;
+
+      if (!success) {
+        this.errors[index] = (byte) (result.error().ordinal() + 1);
+        ++this.failureCount;
+
+        if (this.packedOutput) {
+          this.packed[index] = PackedSemanticVersion.UNPACKABLE;
+        }
+        return;
+      }
+
+      if (this.packedOutput) {
+        this.packed[index] = result.pack();
+      } else {
+        this.versions[index] = (java ? result.toJavaVersion() : result.toVersion());
+      }
+    }
+  }
+
+  /**
+   * Provides a factory for {@link MappedVersionReader} instances.
+   */
+  public static final class Builder {
+
+    private int chunkSize;
+    private boolean java;
+    private ForkJoinPool pool;
+
+    private Builder() {
+      this.reset();
+    }
+
+    /**
+     * Builds an instance of {@link MappedVersionReader} and resets the builder.
+     *
+     * @return the reader.
+     */
+    @NonNull
+    public MappedVersionReader build() {
+      try {
+        ForkJoinPool pool = (this.pool != null ? this.pool : ForkJoinPool.commonPool());
+        return (new MappedVersionReader(pool, this.chunkSize, this.java));
+      } finally {
+        this.reset();
+      }
+    }
+
+    /**
+     * Retrieves the target size of a single chunk.
+     *
+     * @return the size (in bytes).
+     */
+    public int chunkSize() {
+      return this.chunkSize;
+    }
+
+    /**
+     * Sets the target size of a single chunk (chunks are extended up to the end of their last
+     * line).
+     *
+     * @param chunkSize the size (in bytes).
+     * @return the builder.
+     * @throws IllegalArgumentException when the size is smaller than one.
+     */
+    @NonNull
+    public Builder chunkSize(int chunkSize) throws IllegalArgumentException {
+      if (chunkSize < 1) {
+        throw new IllegalArgumentException("Chunk size must be positive");
+      }
+
+      this.chunkSize = chunkSize;
+      return this;
+    }
+
+    /**
+     * Checks whether versions are parsed as Java versions.
+     *
+     * @return {@code true} if parsed as Java versions, {@code false} otherwise.
+     */
+    public boolean java() {
+      return this.java;
+    }
+
+    /**
+     * Selects whether versions are parsed as Java versions (which may carry an update number).
+     *
+     * @param java {@code true} to parse {@link JavaVersion} instances.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder java(boolean java) {
+      this.java = java;
+      return this;
+    }
+
+    /**
+     * Retrieves the pool which executes parse operations.
+     *
+     * @return the pool or {@code null} if the common pool is used.
+     */
+    @Nullable
+    public ForkJoinPool pool() {
+      return this.pool;
+    }
+
+    /**
+     * Sets the pool which executes parse operations.
+     *
+     * @param pool the pool or {@code null} to use the common pool.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder pool(@Nullable ForkJoinPool pool) {
+      this.pool = pool;
+      return this;
+    }
+
+    /**
+     * Resets the builder to its default values.
+     *
+     * @return the builder.
+     */
+    @NonNull
+    public Builder reset() {
+      this.chunkSize = DEFAULT_CHUNK_SIZE;
+      this.java = false;
+      this.pool = null;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.VersionRangeSet;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Provides a parser for version ranges which are expressed using the Maven range notation.
+ *
+ * <p>The following forms are understood (and may be combined into a union by separating them
+ * with commas):</p>
+ * <ul>
+ * <li>{@code 1.0} - A soft requirement which is treated as {@code x >= 1.0}</li>
+ * <li>{@code [1.0]} - Exactly {@code 1.0}</li>
+ * <li>{@code [1.0,2.0)} - An interval where square brackets denote inclusive and round brackets
+ * denote exclusive bounds</li>
+ * <li>{@code [1.0,)} or {@code (,1.0]} - An interval which extends infinitely in one
+ * direction</li>
+ * <li>{@code (,1.0],[1.2,)} - A union of multiple intervals</li>
+ * </ul>
+ *
+ * <p>Expressions are parsed in a single pass: Versions are parsed in place (without allocating
+ * intermediate substrings) and whitespace is permitted around all brackets and separators.
+ * Overlapping intervals are merged.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class MavenRangeParser {
+
+  private final int end;
+  private final ParseResult result = new ParseResult();
+  private final CharSequence sequence;
+
+  private int position;
+
+  private MavenRangeParser(@NonNull CharSequence sequence, int offset, int end) {
+    this.sequence = sequence;
+    this.position = offset;
+    this.end = end;
+  }
+
+  /**
+   * Parses a range expression.
+   *
+   * @param range the expression.
+   * @return the set of matching versions.
+   * @throws IllegalArgumentException when the expression or one of its versions is invalid.
+   * @throws NumberFormatException when one or more version bits are invalid.
+   */
+  @NonNull
+  public static VersionRangeSet<SemanticVersion> parse(@NonNull CharSequence range)
+      throws IllegalArgumentException {
+    return parse(range, 0, range.length());
+  }
+
+  /**
+   * Parses a range expression which is located within a region of a character sequence.
+   *
+   * @param range the expression sequence.
+   * @param offset the index of the first character.
+   * @param length the amount of characters.
+   * @return the set of matching versions.
+   * @throws IllegalArgumentException when the expression or one of its versions is invalid.
+   * @throws IndexOutOfBoundsException when the region exceeds the sequence bounds.
+   * @throws NumberFormatException when one or more version bits are invalid.
+   */
+  @NonNull
+  public static VersionRangeSet<SemanticVersion> parse(@NonNull CharSequence range, int offset,
+      int length) throws IllegalArgumentException {
+    if (offset < 0 || length < 0 || offset > range.length() - length) {
+      throw new IndexOutOfBoundsException(
+          "Region [" + offset + ", " + (offset + length) + ") exceeds sequence of length " + range
+              .length());
+    }
+
+    return (new MavenRangeParser(range, offset, offset + length)).parse();
+  }
+
+  /**
+   * Checks whether a character terminates a version within an expression.
+   */
+  private static boolean isDelimiter(char c) {
+    return c == ',' || c == '[' || c == ']' || c == '(' || c == ')' || Character.isWhitespace(c);
+  }
+
+  @NonNull
+  private VersionRangeSet<SemanticVersion> parse() {
+    this.skipWhitespace();
+    if (this.position == this.end) {
+      throw this.fail("Empty expression");
+    }
+
+    VersionRangeSet.Builder<SemanticVersion> builder = VersionRangeSet.builder();
+
+    char c = this.sequence.charAt(this.position);
+    if (c != '[' && c != '(') {
+      SemanticVersion version = this.version();
+      this.skipWhitespace();
+
+      if (version == null || this.position != this.end) {
+        throw this.fail("Expected '[' or '('");
+      }
+
+      return builder.add(version, true, null, false).build();
+    }
+
+    while (true) {
+      this.interval(builder);
+      this.skipWhitespace();
+
+      if (this.position == this.end) {
+        return builder.build();
+      }
+
+      this.expect(',');
+      this.skipWhitespace();
+    }
+  }
+
+  /**
+   * Parses a single bracketed interval and appends it to the builder.
+   */
+  private void interval(@NonNull VersionRangeSet.Builder<SemanticVersion> builder) {
+    int start = this.position;
+    boolean startInclusive = this.bracket('[', '(');
+
+    this.skipWhitespace();
+    SemanticVersion startBound = this.version();
+    this.skipWhitespace();
+
+    if (startInclusive && startBound != null && this.position < this.end
+        && this.sequence.charAt(this.position) == ']') {
+      ++this.position;
+      builder.add(startBound, true, startBound, true);
+      return;
+    }
+
+    this.expect(',');
+    this.skipWhitespace();
+    SemanticVersion endBound = this.version();
+    this.skipWhitespace();
+    boolean endInclusive = this.bracket(']', ')');
+
+    if (startBound != null && endBound != null) {
+      int comparison = startBound.compareTo(endBound);
+
+      if (comparison > 0 || (comparison == 0 && !(startInclusive && endInclusive))) {
+        this.position = start;
+        throw this.fail("Empty interval");
+      }
+    }
+
+    builder.add(startBound, startInclusive, endBound, endInclusive);
+  }
+
+  /**
+   * Consumes a bracket and evaluates whether it is the inclusive variant.
+   */
+  private boolean bracket(char inclusive, char exclusive) {
+    if (this.position < this.end) {
+      char c = this.sequence.charAt(this.position);
+
+      if (c == inclusive || c == exclusive) {
+        ++this.position;
+        return c == inclusive;
+      }
+    }
+
+    throw this.fail("Expected '" + inclusive + "' or '" + exclusive + "'");
+  }
+
+  /**
+   * Consumes an expected character.
+   */
+  private void expect(char expected) {
+    if (this.position == this.end || this.sequence.charAt(this.position) != expected) {
+      throw this.fail("Expected '" + expected + "'");
+    }
+
+    ++this.position;
+  }
+
+  /**
+   * Creates an exception which describes a syntax error at the current position.
+   */
+  @NonNull
+  private IllegalArgumentException fail(@NonNull String message) {
+    return new IllegalArgumentException(
+        "Invalid version range: " + message + " at index " + this.position);
+  }
+
+  private void skipWhitespace() {
+    while (this.position < this.end
+        && Character.isWhitespace(this.sequence.charAt(this.position))) {
+      ++this.position;
+    }
+  }
+
+  /**
+   * Parses the version at the current position (if any).
+   */
+  @Nullable
+  private SemanticVersion version() {
+    int start = this.position;
+    while (this.position < this.end && !isDelimiter(this.sequence.charAt(this.position))) {
+      ++this.position;
+    }
+
+    if (this.position == start) {
+      return null;
+    }
+    if (!this.result.parse(this.sequence, start, this.position - start)) {
+      throw this.result.exception();
+    }
+
+    return this.result.toVersion();
+  }
+}
@@ -0,0 +1,739 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.UnstableVersionType;
+import com.torchmind.utility.version.Version;
+import com.torchmind.utility.version.VersionRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+
+/**
+ * Provides a store which keeps semantic versions within fixed width records in direct (off-heap)
+ * memory.
+ *
+ * <p>Records are {@value #RECORD_SIZE} bytes wide and are distributed among equally sized pages of
+ * direct {@link ByteBuffer} instances (thus permitting stores to exceed the two gigabyte limit of
+ * a single buffer). Comparisons, range queries and sorting operate on the raw records and do not
+ * create any heap objects while individual records may be accessed via a reusable {@link
+ * Cursor}.</p>
+ *
+ * <p>Extra and metadata bits are not stored off-heap. Each distinct string is kept on the heap
+ * exactly once and records merely refer to it. Stores thus only remain compact while these bits
+ * repeat: when every record carries its own metadata (such as {@code +build1234}), the on-heap
+ * dictionary grows with the amount of records until {@link #clear()} is invoked.</p>
+ *
+ * <p>Memory is released once the store becomes unreachable (or when {@link #clear()} is invoked
+ * and the released pages are collected). Stores are not thread safe.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class OffHeapVersionStore {
+
+  /**
+   * Defines the width of a single record (in bytes).
+   */
+  public static final int RECORD_SIZE = 32;
+
+  /**
+   * Defines the default amount of records per page.
+   */
+  public static final int DEFAULT_PAGE_SIZE = 1 << 16;
+
+  private static final int MAJOR_OFFSET = 0;
+  private static final int MINOR_OFFSET = 4;
+  private static final int PATCH_OFFSET = 8;
+  private static final int REVISION_OFFSET = 12;
+  private static final int UPDATE_OFFSET = 16;
+  private static final int EXTRA_OFFSET = 20;
+  private static final int METADATA_OFFSET = 24;
+  private static final int TYPE_OFFSET = 28;
+
+  private static final int JAVA_FLAG = 0x80;
+  private static final int TYPE_MASK = 0x0F;
+  private static final UnstableVersionType[] TYPES = UnstableVersionType.values();
+
+  private final StringDictionary dictionary = new StringDictionary();
+  private final List<ByteBuffer> pages = new ArrayList<>();
+  private final int pageMask;
+  private final int pageShift;
+
+  private int size;
+  private boolean sorted = true;
+
+  /**
+   * Creates an empty store which allocates {@link #DEFAULT_PAGE_SIZE} records per page.
+   */
+  public OffHeapVersionStore() {
+    this(DEFAULT_PAGE_SIZE);
+  }
+
+  /**
+   * Creates an empty store.
+   *
+   * @param pageSize the amount of records per page.
+   * @throws IllegalArgumentException when the page size is not a power of two or exceeds the
+   * maximum buffer size.
+   */
+  public OffHeapVersionStore(int pageSize) throws IllegalArgumentException {
+    if (pageSize < 1 || Integer.bitCount(pageSize) != 1
+        || pageSize > Integer.MAX_VALUE / RECORD_SIZE) {
+      throw new IllegalArgumentException("Invalid page size: " + pageSize);
+    }
+
+    this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+    this.pageMask = pageSize - 1;
+  }
+
+  /**
+   * Appends a successfully parsed version without materializing it.
+   *
+   * <p>Results which carry an update number are appended as Java versions.</p>
+   *
+   * @param result the parse result.
+   * @return the record index.
+   * @throws IllegalStateException when the result does not represent a successfully parsed
+   * version or the store is full.
+   */
+  public int append(@NonNull ParseResult result) throws IllegalStateException {
+    if (!result.success()) {
+      throw new IllegalStateException("Cannot append failed parse result: " + result.error());
+    }
+
+    return this.append(result.major(), result.minor(), result.patch(),
+        result.unstableVersionType(), result.extraRevision(), result.extra(), result.metadata(),
+        result.hasUpdateNumber(), result.updateNumber());
+  }
+
+  /**
+   * Appends a version.
+   *
+   * @param version the version.
+   * @return the record index.
+   * @throws IllegalStateException when the store is full.
+   */
+  public int append(@NonNull SemanticVersion version) throws IllegalStateException {
+    boolean java = version instanceof JavaVersion;
+
+    return this.append(version.major(), version.minor(), version.patch(),
+        version.unstableVersionTypeOrNull(), version.extraRevision(), version.extra(),
+        version.metadata(), java, (java ? ((JavaVersion) version).updateNumber() : 0));
+  }
+
+  private int append(int major, int minor, int patch, @Nullable UnstableVersionType type,
+      int revision, @Nullable String extra, @Nullable String metadata, boolean java,
+      int updateNumber) {
+    if (this.size == Integer.MAX_VALUE) {
+      throw new IllegalStateException("Store is full");
+    }
+
+    int index = this.size;
+    if ((index >>> this.pageShift) == this.pages.size()) {
+      this.pages.add(ByteBuffer.allocateDirect((this.pageMask + 1) * RECORD_SIZE)
+          .order(ByteOrder.nativeOrder()));
+    }
+
+    ByteBuffer page = this.page(index);
+    int offset = this.offset(index);
+
+    page.putInt(offset + MAJOR_OFFSET, major);
+    page.putInt(offset + MINOR_OFFSET, minor);
+    page.putInt(offset + PATCH_OFFSET, patch);
+    page.putInt(offset + REVISION_OFFSET, revision);
+    page.putInt(offset + UPDATE_OFFSET, (java ? updateNumber : 0));
+    page.putInt(offset + EXTRA_OFFSET, this.dictionary.encode(extra));
+    page.putInt(offset + METADATA_OFFSET, this.dictionary.encode(metadata));
+    page.putInt(offset + TYPE_OFFSET,
+        (type == null ? 0 : type.ordinal() + 1) | (java ? JAVA_FLAG : 0));
+
+    this.size = index + 1;
+
+    if (this.sorted && index != 0 && this.compare(index - 1, index) > 0) {
+      this.sorted = false;
+    }
+
+    return index;
+  }
+
+  /**
+   * Removes all records and releases all pages.
+   */
+  public void clear() {
+    this.pages.clear();
+    this.dictionary.clear();
+    this.size = 0;
+    this.sorted = true;
+  }
+
+  /**
+   * Compares two records.
+   *
+   * @param index1 the first record index.
+   * @param index2 the second record index.
+   * @return a negative value, zero or a positive value if the first record is older than, equal
+   * to or newer than the second record.
+   * @throws IndexOutOfBoundsException when one of the indices exceeds the amount of records.
+   */
+  public int compare(int index1, int index2) {
+    this.checkIndex(index1);
+    this.checkIndex(index2);
+
+    ByteBuffer page1 = this.page(index1);
+    ByteBuffer page2 = this.page(index2);
+    int offset1 = this.offset(index1);
+    int offset2 = this.offset(index2);
+
+    int type1 = page1.getInt(offset1 + TYPE_OFFSET);
+    int type2 = page2.getInt(offset2 + TYPE_OFFSET);
+
+    int comparison = SemanticVersionTable.compare(page1.getInt(offset1 + MAJOR_OFFSET),
+        page1.getInt(offset1 + MINOR_OFFSET), page1.getInt(offset1 + PATCH_OFFSET),
+        type1 & TYPE_MASK, page1.getInt(offset1 + REVISION_OFFSET),
+        page2.getInt(offset2 + MAJOR_OFFSET), page2.getInt(offset2 + MINOR_OFFSET),
+        page2.getInt(offset2 + PATCH_OFFSET), type2 & TYPE_MASK,
+        page2.getInt(offset2 + REVISION_OFFSET));
+
+    if (comparison != 0 || (type1 & JAVA_FLAG) == 0 || (type2 & JAVA_FLAG) == 0) {
+      return comparison;
+    }
+
+    return Integer.signum(page1.getInt(offset1 + UPDATE_OFFSET)
+        - page2.getInt(offset2 + UPDATE_OFFSET));
+  }
+
+  /**
+   * Compares a record with a version.
+   *
+   * @param index the record index.
+   * @param version the version.
+   * @return a negative value, zero or a positive value if the record is older than, equal to or
+   * newer than the version.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of records.
+   */
+  public int compare(int index, @NonNull SemanticVersion version) {
+    this.checkIndex(index);
+
+    ByteBuffer page = this.page(index);
+    int offset = this.offset(index);
+    int type = page.getInt(offset + TYPE_OFFSET);
+    UnstableVersionType versionType = version.unstableVersionTypeOrNull();
+
+    int comparison = SemanticVersionTable.compare(page.getInt(offset + MAJOR_OFFSET),
+        page.getInt(offset + MINOR_OFFSET), page.getInt(offset + PATCH_OFFSET), type & TYPE_MASK,
+        page.getInt(offset + REVISION_OFFSET), version.major(), version.minor(), version.patch(),
+        (versionType == null ? 0 : versionType.ordinal() + 1), version.extraRevision());
+
+    if (comparison != 0 || (type & JAVA_FLAG) == 0 || !(version instanceof JavaVersion)) {
+      return comparison;
+    }
+
+    return Integer.signum(page.getInt(offset + UPDATE_OFFSET)
+        - ((JavaVersion) version).updateNumber());
+  }
+
+  /**
+   * Creates a new cursor which is positioned before the first record.
+   *
+   * <p>The cursor needs to be moved via {@link Cursor#next()} or {@link Cursor#position(int)}
+   * before its record may be accessed, thus permitting all records to be visited via {@code
+   * while (cursor.next())}.</p>
+   *
+   * @return the cursor.
+   */
+  @NonNull
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  /**
+   * Locates the index of the first record past {@code range} within a sorted store.
+   *
+   * @param range the range.
+   * @return the index.
+   * @throws IllegalStateException when the store is not sorted.
+   */
+  public int endIndex(@NonNull VersionRange<SemanticVersion> range) throws IllegalStateException {
+    this.checkSorted();
+    if (range.endBound() == null) {
+      return this.size;
+    }
+
+    return Math.max(this.startIndex(range),
+        this.lowerBound(range.endBound(), !range.endInclusive()));
+  }
+
+  /**
+   * Passes the index of each record which matches {@code range} to {@code consumer} (in
+   * ascending order).
+   *
+   * <p>Sorted stores locate the matching records via binary search while unsorted stores are
+   * scanned linearly.</p>
+   *
+   * @param range the range.
+   * @param consumer the consumer.
+   */
+  public void forEachMatching(@NonNull VersionRange<SemanticVersion> range,
+      @NonNull IntConsumer consumer) {
+    if (this.sorted) {
+      int endIndex = this.endIndex(range);
+
+      for (int i = this.startIndex(range); i < endIndex; ++i) {
+        consumer.accept(i);
+      }
+      return;
+    }
+
+    for (int i = 0; i < this.size; ++i) {
+      if (this.matches(i, range)) {
+        consumer.accept(i);
+      }
+    }
+  }
+
+  /**
+   * Materializes a record.
+   *
+   * @param index the record index.
+   * @return the version (or a {@link JavaVersion} if the record has been appended as such).
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of records.
+   */
+  @NonNull
+  public SemanticVersion get(int index) {
+    this.checkIndex(index);
+
+    ByteBuffer page = this.page(index);
+    int offset = this.offset(index);
+    int type = page.getInt(offset + TYPE_OFFSET);
+
+    int major = page.getInt(offset + MAJOR_OFFSET);
+    int minor = page.getInt(offset + MINOR_OFFSET);
+    int patch = page.getInt(offset + PATCH_OFFSET);
+    String extra = this.dictionary.decode(page.getInt(offset + EXTRA_OFFSET));
+    String metadata = this.dictionary.decode(page.getInt(offset + METADATA_OFFSET));
+    UnstableVersionType unstableVersionType = ((type & TYPE_MASK) == 0 ? null
+        : TYPES[(type & TYPE_MASK) - 1]);
+
+    if ((type & JAVA_FLAG) != 0) {
+      return new JavaVersion(major, minor, patch, extra, metadata, unstableVersionType,
+          page.getInt(offset + UPDATE_OFFSET));
+    }
+
+    return new SemanticVersion(major, minor, patch, extra, metadata, unstableVersionType);
+  }
+
+  /**
+   * Checks whether a record matches {@code range}.
+   *
+   * @param index the record index.
+   * @param range the range.
+   * @return {@code true} if matching, {@code false} otherwise.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of records.
+   */
+  public boolean matches(int index, @NonNull VersionRange<SemanticVersion> range) {
+    SemanticVersion startBound = range.startBound();
+    if (startBound != null) {
+      int start = this.compare(index, startBound);
+
+      if (start < 0 || (start == 0 && !range.startInclusive())) {
+        return false;
+      }
+    }
+
+    SemanticVersion endBound = range.endBound();
+    if (endBound == null) {
+      this.checkIndex(index);
+      return true;
+    }
+
+    int end = this.compare(index, endBound);
+    return end < 0 || (end == 0 && range.endInclusive());
+  }
+
+  /**
+   * Retrieves the amount of direct memory which is currently reserved by this store.
+   *
+   * @return the amount of bytes.
+   */
+  public long reservedBytes() {
+    return (long) this.pages.size() * (this.pageMask + 1) * RECORD_SIZE;
+  }
+
+  /**
+   * Retrieves the amount of records within this store.
+   *
+   * @return the amount of records.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Sorts all records in ascending version order.
+   *
+   * <p>Records are sorted in place via heap sort and thus neither allocate temporary memory nor
+   * retain the relative order of equal versions.</p>
+   */
+  public void sort() {
+    if (this.sorted) {
+      return;
+    }
+
+    for (int i = (this.size >>> 1) - 1; i >= 0; --i) {
+      this.siftDown(i, this.size);
+    }
+
+    for (int end = this.size - 1; end > 0; --end) {
+      this.swap(0, end);
+      this.siftDown(0, end);
+    }
+
+    this.sorted = true;
+  }
+
+  /**
+   * Checks whether all records are currently ordered in ascending version order.
+   *
+   * @return {@code true} if sorted, {@code false} otherwise.
+   */
+  public boolean sorted() {
+    return this.sorted;
+  }
+
+  /**
+   * Locates the index of the first record within {@code range} in a sorted store.
+   *
+   * @param range the range.
+   * @return the index.
+   * @throws IllegalStateException when the store is not sorted.
+   */
+  public int startIndex(@NonNull VersionRange<SemanticVersion> range)
+      throws IllegalStateException {
+    this.checkSorted();
+    if (range.startBound() == null) {
+      return 0;
+    }
+
+    return this.lowerBound(range.startBound(), range.startInclusive());
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+  }
+
+  private void checkSorted() {
+    if (!this.sorted) {
+      throw new IllegalStateException("Store is not sorted");
+    }
+  }
+
+  /**
+   * Locates the first record which is newer than (or equal to if {@code inclusive} is set)
+   * {@code version}.
+   */
+  private int lowerBound(@NonNull SemanticVersion version, boolean inclusive) {
+    int low = 0;
+    int high = this.size;
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      int comparison = this.compare(middle, version);
+
+      if (comparison < 0 || (comparison == 0 && !inclusive)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
+
+  private int offset(int index) {
+    return (index & this.pageMask) * RECORD_SIZE;
+  }
+
+  @NonNull
+  private ByteBuffer page(int index) {
+    return this.pages.get(index >>> this.pageShift);
+  }
+
+  private void siftDown(int index, int end) {
+    while (true) {
+      int child = (index << 1) + 1;
+      if (child >= end) {
+        return;
+      }
+
+      if (child + 1 < end && this.compare(child, child + 1) < 0) {
+        ++child;
+      }
+      if (this.compare(index, child) >= 0) {
+        return;
+      }
+
+      this.swap(index, child);
+      index = child;
+    }
+  }
+
+  private void swap(int index1, int index2) {
+    ByteBuffer page1 = this.page(index1);
+    ByteBuffer page2 = this.page(index2);
+    int offset1 = this.offset(index1);
+    int offset2 = this.offset(index2);
+
+    // records are swapped in word sized steps
+    for (int i = 0; i < RECORD_SIZE; i += 8) {
+      long value = page1.getLong(offset1 + i);
+      page1.putLong(offset1 + i, page2.getLong(offset2 + i));
+      page2.putLong(offset2 + i, value);
+    }
+  }
+
+  /**
+   * Provides a reusable read-only view of a single record.
+   *
+   * <p>Cursors do not copy any data and thus reflect the current contents of the record at their
+   * position (including changes caused by {@link #sort()}). Methods which would mutate a version
+   * return materialized copies instead.</p>
+   */
+  public final class Cursor implements Version<SemanticVersion> {
+
+    private ByteBuffer page;
+    private int index = -1;
+    private int offset;
+
+    private Cursor() {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(@Nullable SemanticVersion version) {
+      if (version == null) {
+        return 1;
+      }
+
+      return OffHeapVersionStore.this.compare(this.index, version);
+    }
+
+    /**
+     * Retrieves the extra bit of the current record.
+     *
+     * @return the bit or {@code null} if none is present.
+     */
+    @Nullable
+    public String extra() {
+      return OffHeapVersionStore.this.dictionary
+          .decode(this.page.getInt(this.offset + EXTRA_OFFSET));
+    }
+
+    /**
+     * Retrieves the extra revision of the current record.
+     *
+     * @return the revision.
+     */
+    public int extraRevision() {
+      return this.page.getInt(this.offset + REVISION_OFFSET);
+    }
+
+    /**
+     * Retrieves the index of the current record.
+     *
+     * @return the index or {@code -1} if the cursor has not been positioned yet.
+     */
+    public int index() {
+      return this.index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int major() {
+      return this.page.getInt(this.offset + MAJOR_OFFSET);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public SemanticVersion major(int value) {
+      return this.toVersion().major(value);
+    }
+
+    /**
+     * Retrieves the metadata bit of the current record.
+     *
+     * @return the bit or {@code null} if none is present.
+     */
+    @Nullable
+    public String metadata() {
+      return OffHeapVersionStore.this.dictionary
+          .decode(this.page.getInt(this.offset + METADATA_OFFSET));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int minor() {
+      return this.page.getInt(this.offset + MINOR_OFFSET);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public SemanticVersion minor(int value) {
+      return this.toVersion().minor(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean newerThan(@Nullable SemanticVersion version) {
+      return this.compareTo(version) > 0;
+    }
+
+    /**
+     * Moves this cursor to the next record.
+     *
+     * @return {@code true} if moved, {@code false} if the cursor is positioned at the last record.
+     */
+    public boolean next() {
+      if (this.index + 1 >= OffHeapVersionStore.this.size) {
+        return false;
+      }
+
+      this.position(this.index + 1);
+      return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean olderThan(@Nullable SemanticVersion version) {
+      return this.compareTo(version) < 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int patch() {
+      return this.page.getInt(this.offset + PATCH_OFFSET);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public SemanticVersion patch(int value) {
+      return this.toVersion().patch(value);
+    }
+
+    /**
+     * Moves this cursor to a record.
+     *
+     * @param index the record index.
+     * @return the cursor.
+     * @throws IndexOutOfBoundsException when the index exceeds the amount of records.
+     */
+    @NonNull
+    public Cursor position(int index) {
+      OffHeapVersionStore.this.checkIndex(index);
+
+      this.index = index;
+      this.page = OffHeapVersionStore.this.page(index);
+      this.offset = OffHeapVersionStore.this.offset(index);
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean stable() {
+      return this.type() == 0 && this.major() > 0;
+    }
+
+    /**
+     * Materializes the current record.
+     *
+     * @return the version.
+     */
+    @NonNull
+    public SemanticVersion toVersion() {
+      return OffHeapVersionStore.this.get(this.index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean unstable() {
+      return !this.stable();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public Optional<UnstableVersionType> unstableVersionType() {
+      int type = this.type();
+      return (type == 0 ? Optional.empty() : Optional.of(TYPES[type - 1]));
+    }
+
+    /**
+     * Retrieves the update number of the current record.
+     *
+     * @return the update number or zero if none is present.
+     */
+    public int updateNumber() {
+      return this.page.getInt(this.offset + UPDATE_OFFSET);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public String toString() {
+      return this.toVersion().toString();
+    }
+
+    private int type() {
+      return this.page.getInt(this.offset + TYPE_OFFSET) & TYPE_MASK;
+    }
+  }
+}
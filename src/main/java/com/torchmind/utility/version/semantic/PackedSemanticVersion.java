@@ -0,0 +1,388 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.UnstableVersionType;
+import com.torchmind.utility.version.VersionRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.LongBuffer;
+
+/**
+ * Provides a codec which packs the comparable bits of a {@link SemanticVersion} into a single
+ * {@code long}.
+ *
+ * <p>Packed values are always positive and order exactly like their respective versions do when
+ * compared via {@link SemanticVersion#compareTo(SemanticVersion)}, thus permitting them to be
+ * stored within primitive arrays and compared via {@link Long#compare(long, long)}. The extra and
+ * metadata strings themselves are not retained (only the version type and revision which are
+ * derived from the extra bit are encoded).</p>
+ *
+ * <p>The bits are laid out as follows (from most to least significant):</p>
+ * <ul>
+ * <li>1 bit (always zero)</li>
+ * <li>15 bits major</li>
+ * <li>16 bits minor</li>
+ * <li>16 bits patch</li>
+ * <li>1 bit stability flag</li>
+ * <li>3 bits version type rank (the type ordinal or {@code 5} when no type is present)</li>
+ * <li>12 bits extra revision</li>
+ * </ul>
+ *
+ * <p>Versions which exceed these bounds (as well as Java versions which carry an update number)
+ * cannot be packed and are reported as {@link #UNPACKABLE} by {@link #tryPack(SemanticVersion)}
+ * so that callers may fall back to their object representation.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class PackedSemanticVersion {
+
+  /**
+   * Indicates that a version does not fit within the packed representation.
+   */
+  public static final long UNPACKABLE = -1L;
+
+  /**
+   * Defines the largest permitted major bit.
+   */
+  public static final int MAX_MAJOR = (1 << 15) - 1;
+
+  /**
+   * Defines the largest permitted minor bit.
+   */
+  public static final int MAX_MINOR = (1 << 16) - 1;
+
+  /**
+   * Defines the largest permitted patch bit.
+   */
+  public static final int MAX_PATCH = (1 << 16) - 1;
+
+  /**
+   * Defines the largest permitted extra revision.
+   */
+  public static final int MAX_REVISION = (1 << 12) - 1;
+
+  private static final int MAJOR_SHIFT = 48;
+  private static final int MINOR_SHIFT = 32;
+  private static final int PATCH_SHIFT = 16;
+  private static final int STABLE_SHIFT = 15;
+  private static final int TYPE_SHIFT = 12;
+
+  private static final int TYPE_MASK = 0x7;
+  private static final int NO_TYPE = 5;
+
+  private static final UnstableVersionType[] TYPES = UnstableVersionType.values();
+
+  private PackedSemanticVersion() {
+  }
+
+  /**
+   * Compares two packed versions.
+   *
+   * @param version1 the first packed version.
+   * @param version2 the second packed version.
+   * @return a negative value, zero or a positive value if the first version is older than, equal
+   * to or newer than the second version.
+   */
+  public static int compare(long version1, long version2) {
+    return Long.compare(version1, version2);
+  }
+
+  /**
+   * Retrieves the extra revision of a packed version.
+   *
+   * @param version the packed version.
+   * @return the revision.
+   */
+  public static int extraRevision(long version) {
+    return (int) (version & MAX_REVISION);
+  }
+
+  /**
+   * Checks whether {@code version} fits within the packed representation.
+   *
+   * @param version the version.
+   * @return {@code true} if packable, {@code false} otherwise.
+   */
+  public static boolean fits(@NonNull SemanticVersion version) {
+    return tryPack(version) != UNPACKABLE;
+  }
+
+  /**
+   * Retrieves the major bit of a packed version.
+   *
+   * @param version the packed version.
+   * @return the bit.
+   */
+  public static int major(long version) {
+    return (int) (version >>> MAJOR_SHIFT);
+  }
+
+  /**
+   * Retrieves the minor bit of a packed version.
+   *
+   * @param version the packed version.
+   * @return the bit.
+   */
+  public static int minor(long version) {
+    return (int) (version >>> MINOR_SHIFT) & MAX_MINOR;
+  }
+
+  /**
+   * Retrieves a view of all packed versions within a sorted array that match {@code range}.
+   *
+   * <p>The bounds of the matching region are located via binary search and the returned buffer
+   * wraps the passed array (its position and limit reflect the indices of the first matching and
+   * the first succeeding element respectively). Infinite bounds are not searched for.</p>
+   *
+   * @param versions the sorted packed versions.
+   * @param range the range.
+   * @return the matching view.
+   * @throws IllegalArgumentException when one of the range bounds cannot be packed.
+   */
+  @NonNull
+  public static LongBuffer matching(@NonNull long[] versions,
+      @NonNull VersionRange<SemanticVersion> range) throws IllegalArgumentException {
+    int fromIndex = 0;
+    if (range.startBound() != null) {
+      long startBound = pack(range.startBound());
+      fromIndex = (range.startInclusive() ? lowerBound(versions, 0, startBound)
+          : upperBound(versions, 0, startBound));
+    }
+
+    int toIndex = versions.length;
+    if (range.endBound() != null) {
+      long endBound = pack(range.endBound());
+      toIndex = (range.endInclusive() ? upperBound(versions, fromIndex, endBound)
+          : lowerBound(versions, fromIndex, endBound));
+    }
+
+    return LongBuffer.wrap(versions, fromIndex, toIndex - fromIndex);
+  }
+
+  /**
+   * Locates the index of the first element within a sorted array that is greater than or equal
+   * to {@code key}.
+   *
+   * @param versions the sorted packed versions.
+   * @param fromIndex the index of the first element to consider.
+   * @param key the key.
+   * @return the index.
+   */
+  static int lowerBound(@NonNull long[] versions, int fromIndex, long key) {
+    int low = fromIndex;
+    int high = versions.length;
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+
+      if (versions[middle] < key) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
+
+  /**
+   * Locates the index of the first element within a sorted array that is greater than {@code
+   * key}.
+   *
+   * @param versions the sorted packed versions.
+   * @param fromIndex the index of the first element to consider.
+   * @param key the key.
+   * @return the index.
+   */
+  static int upperBound(@NonNull long[] versions, int fromIndex, long key) {
+    int low = fromIndex;
+    int high = versions.length;
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+
+      if (versions[middle] <= key) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
+
+  /**
+   * Packs a version.
+   *
+   * @param version the version.
+   * @return the packed version.
+   * @throws IllegalArgumentException when the version does not fit within the packed
+   * representation.
+   */
+  public static long pack(@NonNull SemanticVersion version) throws IllegalArgumentException {
+    long packed = tryPack(version);
+
+    if (packed == UNPACKABLE) {
+      throw new IllegalArgumentException("Version exceeds packed bounds: " + version);
+    }
+
+    return packed;
+  }
+
+  /**
+   * Packs a set of version bits.
+   *
+   * @param major the major bit.
+   * @param minor the minor bit.
+   * @param patch the patch bit.
+   * @param unstableVersionType the version type (if any).
+   * @param extraRevision the extra revision.
+   * @return the packed version or {@link #UNPACKABLE} if one or more bits exceed their bounds.
+   */
+  public static long tryPack(int major, int minor, int patch,
+      @Nullable UnstableVersionType unstableVersionType, int extraRevision) {
+    if (major < 0 || major > MAX_MAJOR || minor < 0 || minor > MAX_MINOR || patch < 0
+        || patch > MAX_PATCH) {
+      return UNPACKABLE;
+    }
+
+    // versions which lack a type are never compared by their revision and thus discard it in order
+    // to retain consistency with the object representation
+    int type = NO_TYPE;
+    int revision = 0;
+
+    if (unstableVersionType != null) {
+      if (extraRevision < 0 || extraRevision > MAX_REVISION) {
+        return UNPACKABLE;
+      }
+
+      type = unstableVersionType.ordinal();
+      revision = extraRevision;
+    }
+
+    long stable = (unstableVersionType == null && major > 0 ? 1 : 0);
+
+    return ((long) major << MAJOR_SHIFT)
+        | ((long) minor << MINOR_SHIFT)
+        | ((long) patch << PATCH_SHIFT)
+        | (stable << STABLE_SHIFT)
+        | ((long) type << TYPE_SHIFT)
+        | revision;
+  }
+
+  /**
+   * Packs a version.
+   *
+   * @param version the version.
+   * @return the packed version or {@link #UNPACKABLE} if the version does not fit within the
+   * packed representation.
+   */
+  public static long tryPack(@NonNull SemanticVersion version) {
+    if (version instanceof JavaVersion && ((JavaVersion) version).updateNumber() != 0) {
+      return UNPACKABLE;
+    }
+
+    return tryPack(version.major(), version.minor(), version.patch(),
+        version.unstableVersionTypeOrNull(), version.extraRevision());
+  }
+
+  /**
+   * Retrieves the patch bit of a packed version.
+   *
+   * @param version the packed version.
+   * @return the bit.
+   */
+  public static int patch(long version) {
+    return (int) (version >>> PATCH_SHIFT) & MAX_PATCH;
+  }
+
+  /**
+   * Checks whether a packed version is stable.
+   *
+   * @param version the packed version.
+   * @return {@code true} if stable, {@code false} otherwise.
+   */
+  public static boolean stable(long version) {
+    return ((version >>> STABLE_SHIFT) & 1) != 0;
+  }
+
+  /**
+   * Restores a version from its packed representation.
+   *
+   * <p>As the original extra bit is not retained, versions which carry a type are restored using
+   * the canonical alias of their type and their revision (for instance {@code 1.0-alpha.2}).</p>
+   *
+   * @param version the packed version.
+   * @return the version.
+   * @throws IllegalArgumentException when the value is not a valid packed version.
+   */
+  @NonNull
+  public static SemanticVersion unpack(long version) throws IllegalArgumentException {
+    if (version < 0) {
+      throw new IllegalArgumentException("Invalid packed version: " + version);
+    }
+
+    UnstableVersionType type = unstableVersionType(version);
+    String extra = null;
+
+    if (type != null) {
+      extra = alias(type);
+
+      int revision = extraRevision(version);
+      if (revision != 0) {
+        extra += "." + revision;
+      }
+    }
+
+    return new SemanticVersion(major(version), minor(version), patch(version), extra, null, type);
+  }
+
+  /**
+   * Retrieves the version type of a packed version (if any).
+   *
+   * @param version the packed version.
+   * @return the type or {@code null} if the version does not carry a type.
+   */
+  @Nullable
+  public static UnstableVersionType unstableVersionType(long version) {
+    int type = (int) (version >>> TYPE_SHIFT) & TYPE_MASK;
+    return (type < TYPES.length ? TYPES[type] : null);
+  }
+
+  /**
+   * Retrieves the canonical extra alias for a version type.
+   *
+   * @param type the type.
+   * @return the alias.
+   */
+  @NonNull
+  private static String alias(@NonNull UnstableVersionType type) {
+    switch (type) {
+      case SNAPSHOT:
+        return "snapshot";
+      case ALPHA:
+        return "alpha";
+      case BETA:
+        return "beta";
+      case RELEASE_CANDIDATE:
+        return "rc";
+      default:
+        return "unknown";
+    }
+  }
+}
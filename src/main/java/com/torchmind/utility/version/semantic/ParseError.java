@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+/**
+ * Provides a list of reasons for which a version string may be rejected by the parser.
+ *
+ * @author Johannes Donath
+ * @see ParseResult#error()
+ */
+public enum ParseError {
+
+  /**
+   * The extra bit contains a special character ({@code -} or {@code +}).
+   */
+  INVALID_EXTRA,
+
+  /**
+   * The metadata bit contains a special character ({@code -} or {@code +}).
+   */
+  INVALID_METADATA,
+
+  /**
+   * One or more numeric bits are empty, contain non-digit characters or exceed the unsigned
+   * 32-bit range.
+   */
+  INVALID_NUMBER
+}
@@ -0,0 +1,665 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.UnstableVersionType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Represents the outcome of parsing a version string without throwing exceptions.
+ *
+ * <p>Results are mutable and may be reused for an arbitrary amount of parse operations (each
+ * operation replaces the previous state entirely). Successful operations merely record the
+ * positions of all version bits within the parsed sequence while their respective strings are
+ * only materialized when requested (e.g. via {@link #extra()} or {@link #toVersion()}) thus
+ * permitting callers to validate, inspect or {@link #pack() pack} versions without allocating
+ * any objects.</p>
+ *
+ * <p>As results retain a reference to the parsed sequence, callers which reuse mutable
+ * sequences (such as {@link StringBuilder}) are expected to materialize the results they are
+ * interested in before modifying the sequence. Instances are not thread safe.</p>
+ *
+ * @author Johannes Donath
+ * @see SemanticVersion#tryParse(CharSequence, int, int, ParseResult)
+ * @see JavaVersion#tryParse(CharSequence, int, int, ParseResult)
+ */
+public final class ParseResult {
+
+  private static final ThreadLocal<ParseResult> LOCAL = ThreadLocal.withInitial(ParseResult::new);
+
+  private CharSequence sequence;
+  private ParseError error;
+  private int errorOffset;
+  private int errorEnd;
+
+  private int bitCount;
+  private int major;
+  private int minor;
+  private int patch;
+
+  private int extraOffset;
+  private int extraEnd;
+  private int extraDotOffset;
+  private UnstableVersionType unstableVersionType;
+  private int metadataOffset;
+  private int metadataEnd;
+
+  private int updateOffset;
+  private int updateNumber;
+
+  public ParseResult() {
+    this.reset();
+  }
+
+  /**
+   * Verifies that a region lies within the bounds of a sequence.
+   *
+   * @throws IndexOutOfBoundsException when the region exceeds the sequence bounds.
+   */
+  private static void checkRegion(@NonNull CharSequence version, int offset, int length) {
+    if (offset < 0 || length < 0 || offset > version.length() - length) {
+      throw new IndexOutOfBoundsException(
+          "Invalid region: offset " + offset + ", length " + length);
+    }
+  }
+
+  /**
+   * Retrieves a result which is exclusively owned by the calling thread.
+   *
+   * <p>This permits the throwing parser methods to scan versions without allocating a result
+   * upon every invocation. Callers are expected to materialize the parsed version (if any) and
+   * {@link #reset()} the result before returning in order to release the reference to the parsed
+   * sequence.</p>
+   *
+   * @return the result.
+   */
+  @NonNull
+  static ParseResult local() {
+    return LOCAL.get();
+  }
+
+  /**
+   * Parses an unsigned number (such as an extra revision or update number) located within a
+   * region of a sequence.
+   *
+   * <p>This method mirrors the behavior of {@link Integer#parseUnsignedInt(String)} (including
+   * an optional leading plus sign) but reports empty or malformed numbers as zero instead of
+   * throwing an exception.</p>
+   *
+   * @param sequence the sequence.
+   * @param offset the index of the first character.
+   * @param end the index of the first character past the number.
+   * @return the number or zero if the region does not contain a valid number.
+   */
+  static int parseNumber(@NonNull CharSequence sequence, int offset, int end) {
+    if (offset < end && sequence.charAt(offset) == '+') {
+      ++offset;
+    }
+
+    if (offset >= end) {
+      return 0;
+    }
+
+    long value = 0;
+    for (int i = offset; i < end; ++i) {
+      int digit = Character.digit(sequence.charAt(i), 10);
+
+      if (digit == -1) {
+        return 0;
+      }
+
+      value = value * 10 + digit;
+
+      if (value > 0xFFFFFFFFL) {
+        return 0;
+      }
+    }
+
+    return (int) value;
+  }
+
+  /**
+   * Retrieves the amount of numeric bits which were present within the parsed version.
+   *
+   * @return the amount of bits (up to three).
+   */
+  int bitCount() {
+    return this.bitCount;
+  }
+
+  /**
+   * Retrieves the reason for which the last parse operation failed.
+   *
+   * @return the error or {@code null} if the operation succeeded.
+   */
+  @Nullable
+  public ParseError error() {
+    return this.error;
+  }
+
+  /**
+   * Retrieves the index of the offending character (or the first character of the offending
+   * numeric bit) within the parsed sequence.
+   *
+   * @return the index or {@code -1} if the last parse operation succeeded.
+   */
+  public int errorIndex() {
+    return this.errorOffset;
+  }
+
+  /**
+   * Creates an exception which describes the error of a failed parse operation.
+   *
+   * <p>Messages match those which have historically been reported by the throwing parser
+   * methods.</p>
+   *
+   * @return the exception.
+   */
+  @NonNull
+  IllegalArgumentException exception() {
+    switch (this.error) {
+      case INVALID_EXTRA:
+        return new IllegalArgumentException(
+            "Invalid special character in extra bit: " + this.sequence.charAt(this.errorOffset));
+      case INVALID_METADATA:
+        return new IllegalArgumentException(
+            "Invalid special character in metadata bit: " + this.sequence
+                .charAt(this.errorOffset));
+      default:
+        return new NumberFormatException("For input string: \"" + this.sequence
+            .subSequence(this.errorOffset, this.errorEnd) + "\"");
+    }
+  }
+
+  /**
+   * Retrieves the extra version bit (if any).
+   *
+   * <p>Note that this method allocates a new string upon every invocation.</p>
+   *
+   * @return the bit or {@code null} if none is present.
+   */
+  @Nullable
+  public String extra() {
+    if (this.extraOffset == -1) {
+      return null;
+    }
+
+    return this.sequence.subSequence(this.extraOffset, this.extraEnd).toString();
+  }
+
+  /**
+   * Retrieves the version revision (part of the extra bit) or zero if none is present.
+   *
+   * @return the revision.
+   */
+  public int extraRevision() {
+    if (this.extraDotOffset == -1) {
+      return 0;
+    }
+
+    return parseNumber(this.sequence, this.extraDotOffset + 1, this.extraEnd);
+  }
+
+  /**
+   * Checks whether the parsed version carries an extra bit.
+   *
+   * @return {@code true} if present, {@code false} otherwise.
+   */
+  public boolean hasExtra() {
+    return this.extraOffset != -1;
+  }
+
+  /**
+   * Checks whether the parsed version carries a metadata bit.
+   *
+   * @return {@code true} if present, {@code false} otherwise.
+   */
+  public boolean hasMetadata() {
+    return this.metadataOffset != -1;
+  }
+
+  /**
+   * Checks whether the parsed version carries an update number.
+   *
+   * @return {@code true} if present, {@code false} otherwise.
+   */
+  boolean hasUpdateNumber() {
+    return this.updateOffset != -1;
+  }
+
+  /**
+   * Retrieves the major version bit.
+   *
+   * @return the bit.
+   */
+  public int major() {
+    return this.major;
+  }
+
+  /**
+   * Retrieves the metadata version bit (if any).
+   *
+   * <p>Note that this method allocates a new string upon every invocation.</p>
+   *
+   * @return the bit or {@code null} if none is present.
+   */
+  @Nullable
+  public String metadata() {
+    if (this.metadataOffset == -1) {
+      return null;
+    }
+
+    return this.sequence.subSequence(this.metadataOffset, this.metadataEnd).toString();
+  }
+
+  /**
+   * Retrieves the minor version bit.
+   *
+   * @return the bit.
+   */
+  public int minor() {
+    return this.minor;
+  }
+
+  /**
+   * Packs the parsed version without materializing it.
+   *
+   * @return the packed version or {@link PackedSemanticVersion#UNPACKABLE} if the last parse
+   * operation failed or the version does not fit within the packed representation.
+   * @see PackedSemanticVersion#tryPack(int, int, int, UnstableVersionType, int)
+   */
+  public long pack() {
+    if (this.sequence == null || this.error != null || this.updateNumber != 0) {
+      return PackedSemanticVersion.UNPACKABLE;
+    }
+
+    return PackedSemanticVersion.tryPack(this.major, this.minor, this.patch,
+        this.unstableVersionType, this.extraRevision());
+  }
+
+  /**
+   * Parses a version located within a region of a character sequence.
+   *
+   * @param version the sequence.
+   * @param offset the index of the first character.
+   * @param length the amount of characters.
+   * @return {@code true} if successful, {@code false} otherwise.
+   * @throws IndexOutOfBoundsException when the region exceeds the sequence bounds.
+   */
+  boolean parse(@NonNull CharSequence version, int offset, int length) {
+    checkRegion(version, offset, length);
+    return this.scan(version, offset, offset + length, -1, -1);
+  }
+
+  /**
+   * Parses a Java version (which may carry an update number following an underscore) located
+   * within a region of a character sequence.
+   *
+   * @param version the sequence.
+   * @param offset the index of the first character.
+   * @param length the amount of characters.
+   * @return {@code true} if successful, {@code false} otherwise.
+   * @throws IndexOutOfBoundsException when the region exceeds the sequence bounds.
+   */
+  boolean parseJava(@NonNull CharSequence version, int offset, int length) {
+    checkRegion(version, offset, length);
+
+    int end = offset + length;
+    int updateOffset = -1;
+    int updateEnd = end;
+
+    // the update number spans from the underscore up to the first extra or metadata separator
+    // and is simply skipped while the remaining version bits are parsed
+    for (int i = offset; i < end; ++i) {
+      char c = version.charAt(i);
+
+      if (c == '-' || c == '+') {
+        updateEnd = i;
+        break;
+      }
+      if (c == '_' && updateOffset == -1) {
+        updateOffset = i;
+      }
+    }
+
+    if (updateOffset == -1) {
+      return this.scan(version, offset, end, -1, -1);
+    }
+
+    if (!this.scan(version, offset, end, updateOffset, updateEnd)) {
+      return false;
+    }
+
+    // malformed update numbers are silently reported as zero
+    this.updateOffset = updateOffset;
+    this.updateNumber = parseNumber(version, updateOffset + 1, updateEnd);
+    return true;
+  }
+
+  /**
+   * Retrieves the patch version bit.
+   *
+   * @return the bit.
+   */
+  public int patch() {
+    return this.patch;
+  }
+
+  /**
+   * Resets this result to its initial state and releases the reference to the last parsed
+   * sequence.
+   *
+   * @return the result.
+   */
+  @NonNull
+  public ParseResult reset() {
+    this.sequence = null;
+    this.error = null;
+    this.errorOffset = -1;
+    this.errorEnd = -1;
+
+    this.bitCount = 0;
+    this.major = 0;
+    this.minor = 0;
+    this.patch = 0;
+
+    this.extraOffset = -1;
+    this.extraEnd = -1;
+    this.extraDotOffset = -1;
+    this.unstableVersionType = null;
+    this.metadataOffset = -1;
+    this.metadataEnd = -1;
+
+    this.updateOffset = -1;
+    this.updateNumber = 0;
+    return this;
+  }
+
+  /**
+   * Walks a region of a sequence exactly once and records the positions and values of all
+   * version bits.
+   *
+   * @param version the sequence.
+   * @param offset the index of the first character.
+   * @param end the index of the first character past the region.
+   * @param skipOffset the index of the first character which is to be skipped (or {@code -1}).
+   * @param skipEnd the index of the first character past the skipped window.
+   * @return {@code true} if successful, {@code false} otherwise.
+   */
+  private boolean scan(@NonNull CharSequence version, int offset, int end, int skipOffset,
+      int skipEnd) {
+    this.reset();
+    this.sequence = version;
+
+    // The string is walked exactly once: root version bits are accumulated in place until the
+    // first extra ("-") or metadata ("+") separator is encountered while the positions of all
+    // separators are recorded so that extra and metadata bits can be validated and extracted
+    // without any intermediate substrings.
+    // Note that numeric errors are deferred until the extra and metadata bits have been
+    // validated in order to report the same errors as previous implementations did.
+    int extraOffset = -1;
+    int extraDotOffset = -1;
+    int secondExtraOffset = -1;
+    int lastExtraOffset = -1;
+    int metadataOffset = -1;
+    int secondMetadataOffset = -1;
+    int lastMetadataOffset = -1;
+
+    long value = 0;
+    int bitOffset = offset;
+    int errorOffset = -1;
+    boolean numeric = true;
+
+    for (int i = offset; i < end; ++i) {
+      if (i == skipOffset) {
+        // bits which are interrupted by the skipped window simply resume after it
+        if (bitOffset == i) {
+          bitOffset = skipEnd;
+        }
+
+        i = skipEnd - 1;
+        continue;
+      }
+
+      char c = version.charAt(i);
+
+      if (c == '-' || c == '+') {
+        if (c == '-') {
+          if (extraOffset == -1) {
+            extraOffset = i;
+          } else if (secondExtraOffset == -1) {
+            secondExtraOffset = i;
+          }
+          lastExtraOffset = i;
+        } else {
+          if (metadataOffset == -1) {
+            metadataOffset = i;
+          } else if (secondMetadataOffset == -1) {
+            secondMetadataOffset = i;
+          }
+          lastMetadataOffset = i;
+        }
+
+        if (numeric) {
+          numeric = false;
+
+          if (errorOffset == -1 && this.bitCount < 3 && i != bitOffset) {
+            this.storeBit((int) value);
+          }
+        }
+
+        continue;
+      }
+
+      if (!numeric) {
+        if (c == '.' && extraDotOffset == -1 && extraOffset != -1) {
+          extraDotOffset = i;
+        }
+
+        continue;
+      }
+
+      // bits beyond the patch bit are silently ignored (as are the remains of any bit which
+      // failed to parse)
+      if (errorOffset != -1 || this.bitCount == 3) {
+        continue;
+      }
+
+      if (c == '.') {
+        if (i == bitOffset) {
+          errorOffset = bitOffset;
+          continue;
+        }
+
+        this.storeBit((int) value);
+
+        value = 0;
+        bitOffset = i + 1;
+        continue;
+      }
+
+      int digit = Character.digit(c, 10);
+      value = value * 10 + digit;
+
+      // numeric bits are parsed as unsigned integers and may thus occupy the full 32 bits
+      if (digit == -1 || value > 0xFFFFFFFFL) {
+        errorOffset = bitOffset;
+      }
+    }
+
+    if (numeric && errorOffset == -1 && this.bitCount < 3 && end != bitOffset) {
+      this.storeBit((int) value);
+    }
+
+    // Extra and metadata bits end where their respective counterpart begins (if it is located
+    // further down the string) and may not contain any further separators.
+    int extraEnd = (metadataOffset > extraOffset ? metadataOffset : end);
+    int metadataEnd = (extraOffset > metadataOffset ? extraOffset : end);
+
+    if (extraOffset != -1) {
+      if (secondExtraOffset != -1 && secondExtraOffset < extraEnd) {
+        return this.fail(ParseError.INVALID_EXTRA, secondExtraOffset, secondExtraOffset + 1);
+      }
+      if (lastMetadataOffset > extraOffset && lastMetadataOffset < extraEnd) {
+        return this.fail(ParseError.INVALID_EXTRA, lastMetadataOffset, lastMetadataOffset + 1);
+      }
+    }
+
+    if (metadataOffset != -1) {
+      if (lastExtraOffset > metadataOffset && lastExtraOffset < metadataEnd) {
+        return this.fail(ParseError.INVALID_METADATA, lastExtraOffset, lastExtraOffset + 1);
+      }
+      if (secondMetadataOffset != -1 && secondMetadataOffset < metadataEnd) {
+        return this.fail(ParseError.INVALID_METADATA, secondMetadataOffset,
+            secondMetadataOffset + 1);
+      }
+    }
+
+    if (errorOffset != -1) {
+      int errorEnd = errorOffset;
+      while (errorEnd < end && errorEnd != skipOffset && version.charAt(errorEnd) != '.'
+          && version.charAt(errorEnd) != '-' && version.charAt(errorEnd) != '+') {
+        ++errorEnd;
+      }
+
+      return this.fail(ParseError.INVALID_NUMBER, errorOffset, errorEnd);
+    }
+
+    // the version type is resolved directly from the original sequence so that no strings need
+    // to be materialized at this point
+    if (extraOffset != -1) {
+      boolean dotted = extraDotOffset != -1 && extraDotOffset < extraEnd;
+
+      this.extraOffset = extraOffset + 1;
+      this.extraEnd = extraEnd;
+      this.extraDotOffset = (dotted ? extraDotOffset : -1);
+      this.unstableVersionType = UnstableVersionType.byAlias(version, extraOffset + 1,
+          (dotted ? extraDotOffset : extraEnd));
+    }
+
+    if (metadataOffset != -1) {
+      this.metadataOffset = metadataOffset + 1;
+      this.metadataEnd = metadataEnd;
+    }
+
+    return true;
+  }
+
+  /**
+   * Stores a completed numeric bit in the next free position (major, minor and patch
+   * respectively).
+   */
+  private void storeBit(int value) {
+    switch (this.bitCount++) {
+      case 0:
+        this.major = value;
+        break;
+      case 1:
+        this.minor = value;
+        break;
+      default:
+        this.patch = value;
+        break;
+    }
+  }
+
+  /**
+   * Records a parse error.
+   *
+   * @return {@code false}.
+   */
+  private boolean fail(@NonNull ParseError error, int errorOffset, int errorEnd) {
+    this.bitCount = 0;
+    this.major = 0;
+    this.minor = 0;
+    this.patch = 0;
+
+    this.error = error;
+    this.errorOffset = errorOffset;
+    this.errorEnd = errorEnd;
+    return false;
+  }
+
+  /**
+   * Checks whether the last parse operation succeeded.
+   *
+   * @return {@code true} if successful, {@code false} otherwise.
+   */
+  public boolean success() {
+    return this.sequence != null && this.error == null;
+  }
+
+  /**
+   * Materializes the parsed Java version.
+   *
+   * @return the version.
+   * @throws IllegalStateException when the last parse operation failed.
+   */
+  @NonNull
+  public JavaVersion toJavaVersion() throws IllegalStateException {
+    this.checkSuccess();
+    return (new JavaVersion(this.major, this.minor, this.patch, this.extra(), this.metadata(),
+        this.unstableVersionType, this.updateNumber));
+  }
+
+  /**
+   * Materializes the parsed version.
+   *
+   * @return the version.
+   * @throws IllegalStateException when the last parse operation failed.
+   */
+  @NonNull
+  public SemanticVersion toVersion() throws IllegalStateException {
+    this.checkSuccess();
+    return (new SemanticVersion(this.major, this.minor, this.patch, this.extra(),
+        this.metadata(), this.unstableVersionType));
+  }
+
+  /**
+   * Retrieves the instability type (if any).
+   *
+   * @return the type or {@code null} if no extra bit is present.
+   */
+  @Nullable
+  public UnstableVersionType unstableVersionType() {
+    return this.unstableVersionType;
+  }
+
+  /**
+   * Retrieves the update number of a parsed Java version or zero if none is present.
+   *
+   * @return the number.
+   */
+  public int updateNumber() {
+    return this.updateNumber;
+  }
+
+  /**
+   * Verifies that the last parse operation succeeded.
+   *
+   * @throws IllegalStateException when no version has been parsed.
+   */
+  private void checkSuccess() {
+    if (this.sequence == null) {
+      throw new IllegalStateException("Missing version");
+    }
+    if (this.error != null) {
+      throw new IllegalStateException("Cannot materialize failed parse result: " + this.error);
+    }
+  }
+}
@@ -19,11 +19,10 @@ package com.torchmind.utility.version.semantic;
 import com.torchmind.utility.version.UnstableVersionType;
 import com.torchmind.utility.version.Version;
 import com.torchmind.utility.version.VersionRange;
+import com.torchmind.utility.version.VersionRangeSet;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.Optional;
-import java.util.function.BiFunction;
-import java.util.function.Consumer;
 
 /**
  * Represents a semantic version.
@@ -32,13 +31,27 @@ import java.util.function.Consumer;
  */
 public class SemanticVersion implements Version<SemanticVersion> {
 
+  /**
+   * Defines the length of the keys which are generated by {@link #sortKey()}.
+   */
+  static final int SORT_KEY_LENGTH = 17;
+
+  private static final byte SORT_KEY_NO_TYPE = (byte) (UnstableVersionType.values().length + 1);
+
   private final String extra;
+  private final int extraRevision;
   private final int major;
   private final String metadata;
   private final int minor;
   private final int patch;
+  private final boolean stable;
   private final UnstableVersionType unstableVersionType;
 
+  // both values are lazily computed and cached (racy single-check idiom) as versions are
+  // immutable and frequently used as map keys or passed to loggers
+  private int hash;
+  private String string;
+
   protected SemanticVersion(
       int major,
       int minor,
@@ -52,6 +65,9 @@ public class SemanticVersion implements Version<SemanticVersion> {
     this.extra = extra;
     this.metadata = metadata;
     this.unstableVersionType = unstableVersionType;
+
+    this.extraRevision = parseRevision(extra);
+    this.stable = (unstableVersionType == null && major > 0);
   }
 
   /**
@@ -105,10 +121,104 @@ public class SemanticVersion implements Version<SemanticVersion> {
   @NonNull
   public static SemanticVersion of(@NonNull String version)
       throws IllegalArgumentException {
-    // @formatter:off
-                return builder (version)
-                        .build ();
-                // @formatter:on
+    return of(version, 0, version.length());
+  }
+
+  /**
+   * Creates a new instance based on values found within a character sequence.
+   *
+   * @param version the version sequence.
+   * @return the version.
+   * @throws IllegalArgumentException when one or more bits are not within SemVer bounds.
+   * @throws NumberFormatException when one or more numeric bits have invalid values.
+   */
+  @NonNull
+  public static SemanticVersion of(@NonNull CharSequence version)
+      throws IllegalArgumentException {
+    return of(version, 0, version.length());
+  }
+
+  /**
+   * Creates a new instance based on values found within a region of a character sequence.
+   *
+   * @param version the version sequence.
+   * @param offset the index of the first character.
+   * @param length the amount of characters.
+   * @return the version.
+   * @throws IllegalArgumentException when one or more bits are not within SemVer bounds.
+   * @throws IndexOutOfBoundsException when the region exceeds the sequence bounds.
+   * @throws NumberFormatException when one or more numeric bits have invalid values.
+   */
+  @NonNull
+  public static SemanticVersion of(@NonNull CharSequence version, int offset, int length)
+      throws IllegalArgumentException {
+    ParseResult result = ParseResult.local();
+
+    try {
+      if (!result.parse(version, offset, length)) {
+        throw result.exception();
+      }
+
+      return result.toVersion();
+    } finally {
+      result.reset();
+    }
+  }
+
+  /**
+   * Parses a version without throwing exceptions when it is malformed.
+   *
+   * @param version the version sequence.
+   * @return the version or an empty optional if the sequence is not a valid version.
+   * @see #tryParse(CharSequence, int, int, ParseResult)
+   * @see JavaVersion#tryParse(CharSequence)
+   */
+  @NonNull
+  public static Optional<SemanticVersion> tryParse(@NonNull CharSequence version) {
+    ParseResult result = ParseResult.local();
+
+    try {
+      if (!result.parse(version, 0, version.length())) {
+        return Optional.empty();
+      }
+
+      return Optional.of(result.toVersion());
+    } finally {
+      result.reset();
+    }
+  }
+
+  /**
+   * Parses a version into a reusable result without throwing exceptions when it is malformed.
+   *
+   * @param version the version sequence.
+   * @param result the result.
+   * @return {@code true} if successful, {@code false} otherwise.
+   * @see #tryParse(CharSequence, int, int, ParseResult)
+   */
+  public static boolean tryParse(@NonNull CharSequence version, @NonNull ParseResult result) {
+    return result.parse(version, 0, version.length());
+  }
+
+  /**
+   * Parses a version located within a region of a character sequence into a reusable result.
+   *
+   * <p>Unlike {@link #of(CharSequence, int, int)} this method reports malformed versions via
+   * {@link ParseResult#error()} instead of throwing (and thus constructing) exceptions and does
+   * not allocate any objects unless the result is materialized. This makes it the preferred
+   * choice when scanning inputs which are expected to contain a significant amount of
+   * non-version strings.</p>
+   *
+   * @param version the version sequence.
+   * @param offset the index of the first character.
+   * @param length the amount of characters.
+   * @param result the result.
+   * @return {@code true} if successful, {@code false} otherwise.
+   * @throws IndexOutOfBoundsException when the region exceeds the sequence bounds.
+   */
+  public static boolean tryParse(@NonNull CharSequence version, int offset, int length,
+      @NonNull ParseResult result) {
+    return result.parse(version, offset, length);
   }
 
   /**
@@ -144,10 +254,14 @@ public class SemanticVersion implements Version<SemanticVersion> {
    * Creates a version range consisting of two  instances declared by a string utilizing the
    * interval notation.
    *
+   * <p>Either bound may be omitted in order to create a range which extends infinitely in the
+   * respective direction (for instance {@code [1.0,)} or {@code (,2.0)}).</p>
+   *
    * @param range the range string.
    * @return the range.
    * @throws IllegalArgumentException when the range or one of the version strings is invalid.
    * @throws NumberFormatException when one or more bits are invalid.
+   * @see #rangeSet(String)
    */
   @NonNull
   public static VersionRange<SemanticVersion> range(@NonNull String range)
@@ -159,30 +273,65 @@ public class SemanticVersion implements Version<SemanticVersion> {
       throw new IllegalArgumentException("Invalid version range: Missing separator");
     }
 
-    String startBound = range.substring(0, offset);
-    String endBound = range.substring((offset + 1));
-
-    if (startBound.startsWith("[")) {
+    if (range.startsWith("[")) {
       builder.startInclusive(true);
-    } else if (!startBound.startsWith("(")) {
+    } else if (!range.startsWith("(")) {
       throw new IllegalArgumentException("Invalid version range: Missing starting bound type");
     }
 
-    if (endBound.endsWith("]")) {
+    int end = range.length() - 1;
+    if (range.endsWith("]")) {
       builder.endInclusive(true);
-    } else if (!endBound.endsWith(")")) {
+    } else if (!range.endsWith(")")) {
       throw new IllegalArgumentException("Invalid version range: Missing ending bound type");
     }
 
-    startBound = startBound.substring(1);
-    endBound = endBound.substring(0, (endBound.length() - 1));
-
+    // both bounds are parsed in place rather than from substrings
     return builder
-        .startBound(of(startBound))
-        .endBound(of(endBound))
+        .startBound(offset == 1 ? null : of(range, 1, offset - 1))
+        .endBound(offset + 1 == end ? null : of(range, offset + 1, end - offset - 1))
         .build();
   }
 
+  /**
+   * Creates a set of versions declared by a string utilizing the Maven range notation.
+   *
+   * <p>Contrary to {@link #range(String)}, expressions may consist of multiple intervals (such as
+   * {@code [1.0,2.0),[3.0,)}) which may extend infinitely in either direction.</p>
+   *
+   * @param range the range string.
+   * @return the set.
+   * @throws IllegalArgumentException when the range or one of the version strings is invalid.
+   * @throws NumberFormatException when one or more bits are invalid.
+   * @see MavenRangeParser
+   */
+  @NonNull
+  public static VersionRangeSet<SemanticVersion> rangeSet(@NonNull String range)
+      throws IllegalArgumentException {
+    return MavenRangeParser.parse(range);
+  }
+
+  /**
+   * Compares two keys which have been generated via {@link #sortKey()} by their unsigned bytes.
+   *
+   * @param key1 the first key.
+   * @param key2 the second key.
+   * @return a negative value, zero or a positive value if the first key is smaller than, equal to
+   * or larger than the second key.
+   */
+  public static int compareSortKeys(@NonNull byte[] key1, @NonNull byte[] key2) {
+    int length = Math.min(key1.length, key2.length);
+
+    for (int i = 0; i < length; ++i) {
+      int comparison = (key1[i] & 0xFF) - (key2[i] & 0xFF);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+
+    return key1.length - key2.length;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -195,40 +344,42 @@ public class SemanticVersion implements Version<SemanticVersion> {
     if (version == null) {
       return 1;
     }
-    if (this.equals(version)) {
+    if (version == this) {
       return 0;
     }
 
     // the root version bits are first compared here as their checks are the fastest and do not require
     // any special voodoo or black magic.
-    if (this.major() > version.major()) {
+    // note that all bits are read directly from their respective fields in order to keep this path
+    // free of allocations (as this method is frequently invoked by sorting algorithms).
+    if (this.major > version.major) {
       return 1;
     }
-    if (this.major() < version.major()) {
+    if (this.major < version.major) {
       return -1;
     }
 
-    if (this.minor() > version.minor()) {
+    if (this.minor > version.minor) {
       return 1;
     }
-    if (this.minor() < version.minor()) {
+    if (this.minor < version.minor) {
       return -1;
     }
 
-    if (this.patch() > version.patch()) {
+    if (this.patch > version.patch) {
       return 1;
     }
-    if (this.patch() < version.patch()) {
+    if (this.patch < version.patch) {
       return -1;
     }
 
     // if one of the versions is unstable it is now assumed to be "lesser" (older) than this instance due
     // to the previous checks validating that the version is equal up to this point. This usually means that
     // a version carries an extra element and was thus marked as unstable.
-    if (!this.unstable() && version.unstable()) {
+    if (this.stable && !version.stable) {
       return 1;
     }
-    if (this.unstable() && !version.unstable()) {
+    if (!this.stable && version.stable) {
       return -1;
     }
 
@@ -236,33 +387,30 @@ public class SemanticVersion implements Version<SemanticVersion> {
     // Note that 0.X versions are always marked unstable so a non-present unstable version type will always
     // refer to such a release thus making versions that carry a specific extra flag "lesser" (older).
     // For example: 0.0 vs. 0.0-alpha
-    Optional<UnstableVersionType> thisVersionTypeWrapper = this.unstableVersionType();
-    Optional<UnstableVersionType> otherVersionTypeWrapper = version.unstableVersionType();
+    UnstableVersionType thisVersionType = this.unstableVersionType;
+    UnstableVersionType otherVersionType = version.unstableVersionType;
 
-    if (!thisVersionTypeWrapper.isPresent() && otherVersionTypeWrapper.isPresent()) {
+    if (thisVersionType == null && otherVersionType != null) {
       return 1;
     }
-    if (thisVersionTypeWrapper.isPresent() && !otherVersionTypeWrapper.isPresent()) {
+    if (thisVersionType != null && otherVersionType == null) {
       return -1;
     }
-    if (!thisVersionTypeWrapper.isPresent()) {
+    if (thisVersionType == null) {
       return 0;
     }
 
     // If both values are actually present, version types are compared to sort out version differences
     // between snapshot, alpha, beta and release candidate versions.
-    UnstableVersionType thisVersionType = thisVersionTypeWrapper.get();
-    UnstableVersionType otherVersionType = otherVersionTypeWrapper.get();
-
     int typeComparison = thisVersionType.compareTo(otherVersionType);
     if (typeComparison != 0) {
       return typeComparison;
     }
 
-    // If the versions are equal up to this point, the revision bit is extracted and compared to determine
-    // the end result. If both values are equal the version is assumed equal by SemVer standards.
+    // If the versions are equal up to this point, the revision bit is compared to determine the end
+    // result. If both values are equal the version is assumed equal by SemVer standards.
     // For example: 1.0-alpha vs. 1.0-alpha.1
-    return Math.max(-1, Math.min(1, (this.extraRevision() - version.extraRevision())));
+    return Math.max(-1, Math.min(1, (this.extraRevision - version.extraRevision)));
   }
 
   /**
@@ -290,44 +438,33 @@ public class SemanticVersion implements Version<SemanticVersion> {
 
     // Check for the root version bits first as they are the easiest to compare and shorten the code path
     // majorly when different.
-    if (this.major() != version.major()) {
+    if (this.major != version.major) {
       return false;
     }
-    if (this.minor() != version.minor()) {
+    if (this.minor != version.minor) {
       return false;
     }
-    if (this.patch() != version.patch()) {
+    if (this.patch != version.patch) {
       return false;
     }
 
-    if (this.unstable() != version.unstable()) {
+    if (this.stable != version.stable) {
       return false;
     }
 
-    // Compare the instability types first to avoid need of extracting extra version bit which is quite
-    // expensive at the moment.
-    // TODO: The extra revision may be cached to reduce load on frequent comparisons.
-    Optional<UnstableVersionType> thisVersionTypeWrapper = this.unstableVersionType();
-    Optional<UnstableVersionType> otherVersionTypeWrapper = version.unstableVersionType();
-
-    if (thisVersionTypeWrapper.isPresent() != otherVersionTypeWrapper.isPresent()) {
+    // Compare the instability types first as the revision is only relevant to versions which share
+    // the same type.
+    if (this.unstableVersionType != version.unstableVersionType) {
       return false;
     }
-    if (!thisVersionTypeWrapper.isPresent()) {
+    if (this.unstableVersionType == null) {
       return true;
     }
 
-    UnstableVersionType thisVersionType = thisVersionTypeWrapper.get();
-    UnstableVersionType otherVersionType = otherVersionTypeWrapper.get();
-
-    if (thisVersionType != otherVersionType) {
-      return false;
-    }
-
-    // In the worst case extraction of revision bits from the extra bit is required to determine absolute
-    // equality. This is only needed for versions that are equal up to this point.
+    // In the worst case the revision bits are compared to determine absolute equality. This is only
+    // needed for versions that are equal up to this point.
     // For example: 1.0-alpha vs. 1.0-alpha.1
-    return (this.extraRevision() == version.extraRevision());
+    return (this.extraRevision == version.extraRevision);
   }
 
   /**
@@ -359,8 +496,19 @@ public class SemanticVersion implements Version<SemanticVersion> {
    * @return the bit.
    */
   public int extraRevision() {
-    String extra = this.extra();
+    return this.extraRevision;
+  }
 
+  /**
+   * Extracts the revision (the unsigned number following the first dot) from an extra bit.
+   *
+   * <p>This method mirrors the behavior of {@link Integer#parseUnsignedInt(String)} but reports
+   * malformed revisions as zero instead of throwing an exception.</p>
+   *
+   * @param extra the extra bit (if any).
+   * @return the revision or zero if no valid revision is present.
+   */
+  private static int parseRevision(@Nullable String extra) {
     if (extra == null) {
       return 0;
     }
@@ -371,24 +519,40 @@ public class SemanticVersion implements Version<SemanticVersion> {
       return 0;
     }
 
-    try {
-      return Integer.parseUnsignedInt(extra.substring((index + 1)));
-    } catch (NumberFormatException ex) {
-      return 0;
-    }
+    return ParseResult.parseNumber(extra, index + 1, extra.length());
   }
 
+
   /**
    * {@inheritDoc}
    */
   @Override
   public int hashCode() {
+    int hash = this.hash;
+
+    if (hash == 0) {
+      hash = this.createHashCode();
+      this.hash = hash;
+    }
+
+    return hash;
+  }
+
+  /**
+   * Computes the hash code of this version.
+   *
+   * <p>This method is invoked once when {@link #hashCode()} is first called and its result is
+   * cached for all subsequent invocations.</p>
+   *
+   * @return the hash code.
+   */
+  protected int createHashCode() {
     int result = this.major;
     result = 31 * result + this.minor;
     result = 31 * result + this.patch;
     result =
         31 * result + (this.unstableVersionType != null ? this.unstableVersionType.ordinal() : 0);
-    result = 31 * result + this.extraRevision();
+    result = 31 * result + this.extraRevision;
     return result;
   }
 
@@ -458,7 +622,7 @@ public class SemanticVersion implements Version<SemanticVersion> {
    */
   @Override
   public boolean newerThan(@Nullable SemanticVersion version) {
-    return this.compareTo(version) == 1;
+    return this.compareTo(version) > 0;
   }
 
   /**
@@ -466,7 +630,7 @@ public class SemanticVersion implements Version<SemanticVersion> {
    */
   @Override
   public boolean olderThan(@Nullable SemanticVersion version) {
-    return this.compareTo(version) == -1;
+    return this.compareTo(version) < 0;
   }
 
   /**
@@ -488,12 +652,75 @@ public class SemanticVersion implements Version<SemanticVersion> {
         .build();
   }
 
+  /**
+   * Generates a binary key which preserves the order of this version.
+   *
+   * <p>Comparing two keys via {@link #compareSortKeys(byte[], byte[])} (or any other unsigned
+   * lexicographical byte comparison such as the ones employed by embedded key value stores)
+   * yields the same result as comparing their respective versions via {@link
+   * #compareTo(SemanticVersion)}. Keys are laid out as follows:</p>
+   * <ul>
+   * <li>4 bytes major, minor and patch bit each (big endian with an inverted sign bit)</li>
+   * <li>1 byte version type rank (the type ordinal plus one or {@code 6} when no type is
+   * present)</li>
+   * <li>4 bytes extra revision (zero when no type is present)</li>
+   * </ul>
+   *
+   * <p>As the extra and metadata strings are not retained, versions which are considered equal
+   * by {@link #compareTo(SemanticVersion)} map to identical keys.</p>
+   *
+   * <p>Keys are only guaranteed to be consistent with {@link #compareTo(SemanticVersion)} when
+   * both versions are of the same concrete type. Specifically, {@link JavaVersion#sortKey()}
+   * encodes the update number which is ignored when a Java version is compared to a plain
+   * semantic version (which in turn renders {@code compareTo} non-transitive for mixed inputs).
+   * Callers which mix both types will thus observe Java versions with an update number ordering
+   * after their semantic counterparts.</p>
+   *
+   * @return the key.
+   */
+  @NonNull
+  public byte[] sortKey() {
+    byte[] key = new byte[SORT_KEY_LENGTH];
+
+    writeSortKey(key, 0, this.major);
+    writeSortKey(key, 4, this.minor);
+    writeSortKey(key, 8, this.patch);
+
+    // stability does not need to be encoded separately as it is implied by the version type once
+    // the major bits are known to be equal
+    if (this.unstableVersionType == null) {
+      key[12] = SORT_KEY_NO_TYPE;
+      writeSortKey(key, 13, 0);
+    } else {
+      key[12] = (byte) (this.unstableVersionType.ordinal() + 1);
+      writeSortKey(key, 13, this.extraRevision);
+    }
+
+    return key;
+  }
+
+  /**
+   * Writes an order preserving representation of a signed int to a key.
+   *
+   * @param key the key.
+   * @param offset the index of the first byte.
+   * @param value the value.
+   */
+  static void writeSortKey(@NonNull byte[] key, int offset, int value) {
+    int unsigned = value ^ Integer.MIN_VALUE;
+
+    key[offset] = (byte) (unsigned >>> 24);
+    key[offset + 1] = (byte) (unsigned >>> 16);
+    key[offset + 2] = (byte) (unsigned >>> 8);
+    key[offset + 3] = (byte) unsigned;
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public boolean stable() {
-    return (this.unstableVersionType == null && this.major() > 0);
+    return this.stable;
   }
 
   /**
@@ -502,6 +729,26 @@ public class SemanticVersion implements Version<SemanticVersion> {
   @NonNull
   @Override
   public String toString() {
+    String string = this.string;
+
+    if (string == null) {
+      string = this.createString();
+      this.string = string;
+    }
+
+    return string;
+  }
+
+  /**
+   * Computes the string representation of this version.
+   *
+   * <p>This method is invoked once when {@link #toString()} is first called and its result is
+   * cached for all subsequent invocations.</p>
+   *
+   * @return the string.
+   */
+  @NonNull
+  protected String createString() {
     StringBuilder builder = new StringBuilder();
 
     // To unify versions and make them look sane to users of the software the minimum of present elements
@@ -547,6 +794,16 @@ public class SemanticVersion implements Version<SemanticVersion> {
     return Optional.ofNullable(this.unstableVersionType);
   }
 
+  /**
+   * Retrieves the instability type (if any) without wrapping it.
+   *
+   * @return the type or {@code null} if no type is present.
+   */
+  @Nullable
+  UnstableVersionType unstableVersionTypeOrNull() {
+    return this.unstableVersionType;
+  }
+
   /**
    * Provides a factory for {@link SemanticVersion} instances.
    */
@@ -709,66 +966,58 @@ public class SemanticVersion implements Version<SemanticVersion> {
      */
     @NonNull
     protected Builder parse(@NonNull String version) {
-      String extra = null;
-      String metadata = null;
-
-      // Due to their nature extra and metadata bits will be extracted first and removed from the version
-      // string to simplify further element extraction.
-      // Note that extra and metadata bits may not contain the special characters "-" and "+" as they might
-      // confuse further parsing.
-      {
-        int extraOffset = version.indexOf('-');
-        int metadataOffset = version.indexOf('+');
-
-        if (extraOffset != -1) {
-          extra = version.substring((extraOffset + 1));
-        }
+      return this.parse(version, 0, version.length());
+    }
 
-        if (metadataOffset != -1) {
-          metadata = version.substring((metadataOffset + 1));
-        }
+    /**
+     * Parses a version located within a region of a character sequence.
+     *
+     * @param version the sequence.
+     * @param offset the index of the first character.
+     * @param length the amount of characters.
+     * @return the builder.
+     * @throws IllegalArgumentException when one or more bits are not within SemVer bounds.
+     * @throws IndexOutOfBoundsException when the region exceeds the sequence bounds.
+     * @throws NumberFormatException when one or more numeric bits have invalid values.
+     */
+    @NonNull
+    protected Builder parse(@NonNull CharSequence version, int offset, int length) {
+      ParseResult result = ParseResult.local();
 
-        if (extra != null && metadataOffset > extraOffset) {
-          extra = extra.substring(0, extra.indexOf('+'));
-        } else if (metadata != null && extraOffset > metadataOffset) {
-          metadata = metadata.substring(0, metadata.indexOf('-'));
+      try {
+        if (!result.parse(version, offset, length)) {
+          throw result.exception();
         }
 
-        version = version.substring(0,
-            Math.min((extraOffset != -1 ? extraOffset : version.length()),
-                (metadataOffset != -1 ? metadataOffset : version.length())));
-
-        this
-            .extra(extra)
-            .metadata(metadata);
+        return this.apply(result);
+      } finally {
+        result.reset();
       }
+    }
 
-      // Next up the root version bits (major, minor, patch) are extracted from the remaining version string
-      // using a functional interface is declared here to simplify extraction further.
-      // Note that this method has not been extracted into a separate private method as it is only used within
-      // this specific context and would thus only pollute the overall object scope.
-      {
-        BiFunction<String, Consumer<Integer>, String> function = (i, c) -> {
-          if (i.isEmpty()) {
-            return i;
-          }
-
-          int offset = i.indexOf('.');
-
-          if (offset == -1) {
-            c.accept(Integer.parseUnsignedInt(i));
-            return "";
-          }
-
-          c.accept(Integer.parseUnsignedInt(i.substring(0, offset)));
-          return i.substring((offset + 1));
-        };
-
-        version = function.apply(version, this::major);
-        version = function.apply(version, this::minor);
-        function.apply(version, this::patch);
+    /**
+     * Copies all bits of a successfully parsed version into this builder (numeric bits which
+     * are not present within the parsed version retain their current values).
+     *
+     * @param result the result.
+     * @return the builder.
+     */
+    @NonNull
+    Builder apply(@NonNull ParseResult result) {
+      if (result.bitCount() > 0) {
+        this.major(result.major());
+      }
+      if (result.bitCount() > 1) {
+        this.minor(result.minor());
+      }
+      if (result.bitCount() > 2) {
+        this.patch(result.patch());
       }
 
+      // the version type has already been resolved by the parser and is thus passed along as-is
+      this.extra = result.extra();
+      this.unstableVersionType = result.unstableVersionType();
+      this.metadata = result.metadata();
       return this;
     }
 
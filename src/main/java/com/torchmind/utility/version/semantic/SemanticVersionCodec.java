@@ -0,0 +1,663 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.UnstableVersionType;
+import com.torchmind.utility.version.VersionRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Provides a compact binary encoding for semantic versions, Java versions and their ranges.
+ *
+ * <p>Versions are encoded as follows:</p>
+ * <ul>
+ * <li>1 byte flags (bit 0: extra present, bit 1: metadata present, bit 2: Java version, bits 3 to
+ * 5: version type ordinal plus one or zero if no type is present)</li>
+ * <li>major, minor and patch as unsigned variable length integers (7 bits per byte, least
+ * significant group first)</li>
+ * <li>the update number as unsigned variable length integer (Java versions only)</li>
+ * <li>extra and metadata bits (if present) as UTF-8 bytes prefixed by their variable length byte
+ * count</li>
+ * </ul>
+ *
+ * <p>Ranges are encoded as a single flags byte (bit 0: start inclusive, bit 1: end inclusive, bit
+ * 2: start unbounded, bit 3: end unbounded) followed by their starting and ending bound (bounds
+ * which are unbounded are omitted). Streams and buffers are expected to begin with a
+ * header (see {@link #writeHeader(DataOutput)}) which identifies the format and its revision so
+ * that future revisions may remain backwards compatible.</p>
+ *
+ * <p>As the version type is part of the encoding, decoding skips the alias lookup which is
+ * otherwise performed by the parser. Values are not validated beyond their structure.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class SemanticVersionCodec {
+
+  /**
+   * Defines the revision of the encoding which is produced by this implementation.
+   */
+  public static final int FORMAT_VERSION = 1;
+
+  private static final byte[] MAGIC = {'T', 'V', 'C'};
+
+  private static final int FLAG_EXTRA = 0x01;
+  private static final int FLAG_METADATA = 0x02;
+  private static final int FLAG_JAVA = 0x04;
+  private static final int TYPE_SHIFT = 3;
+  private static final int TYPE_MASK = 0x07;
+  private static final int VERSION_FLAGS = FLAG_EXTRA | FLAG_METADATA | FLAG_JAVA
+      | (TYPE_MASK << TYPE_SHIFT);
+
+  private static final int FLAG_START_INCLUSIVE = 0x01;
+  private static final int FLAG_END_INCLUSIVE = 0x02;
+  private static final int FLAG_START_UNBOUNDED = 0x04;
+  private static final int FLAG_END_UNBOUNDED = 0x08;
+  private static final int RANGE_FLAGS = FLAG_START_INCLUSIVE | FLAG_END_INCLUSIVE
+      | FLAG_START_UNBOUNDED | FLAG_END_UNBOUNDED;
+
+  private static final UnstableVersionType[] TYPES = UnstableVersionType.values();
+
+  /**
+   * Defines the initial capacity of the buffers into which strings are read from streams.
+   */
+  private static final int STRING_CHUNK_SIZE = 8192;
+
+  private SemanticVersionCodec() {
+  }
+
+  /**
+   * Decodes a version which has been encoded via {@link #encode(SemanticVersion)}.
+   *
+   * @param encoded the encoded version (including its header).
+   * @return the version.
+   * @throws IllegalArgumentException when the data is malformed or truncated.
+   */
+  @NonNull
+  public static SemanticVersion decode(@NonNull byte[] encoded) throws IllegalArgumentException {
+    ByteBuffer buffer = ByteBuffer.wrap(encoded);
+    readHeader(buffer);
+    SemanticVersion version = readVersion(buffer);
+
+    if (buffer.hasRemaining()) {
+      throw new IllegalArgumentException("Trailing data: " + buffer.remaining() + " bytes");
+    }
+
+    return version;
+  }
+
+  /**
+   * Encodes a version into a standalone byte array (including a header).
+   *
+   * @param version the version.
+   * @return the encoded version.
+   */
+  @NonNull
+  public static byte[] encode(@NonNull SemanticVersion version) {
+    ByteBuffer buffer = ByteBuffer.allocate(MAGIC.length + 1 + encodedSize(version));
+    writeHeader(buffer);
+    write(buffer, version);
+    return buffer.array();
+  }
+
+  /**
+   * Computes the amount of bytes which are required to encode a range (excluding the header).
+   *
+   * @param range the range.
+   * @return the amount of bytes.
+   */
+  public static int encodedSize(@NonNull VersionRange<SemanticVersion> range) {
+    return 1 + (range.startBound() == null ? 0 : encodedSize(range.startBound()))
+        + (range.endBound() == null ? 0 : encodedSize(range.endBound()));
+  }
+
+  /**
+   * Computes the amount of bytes which are required to encode a version (excluding the header).
+   *
+   * @param version the version.
+   * @return the amount of bytes.
+   */
+  public static int encodedSize(@NonNull SemanticVersion version) {
+    int size = 1 + varIntSize(version.major()) + varIntSize(version.minor())
+        + varIntSize(version.patch());
+
+    if (version instanceof JavaVersion) {
+      size += varIntSize(((JavaVersion) version).updateNumber());
+    }
+
+    return size + stringSize(version.extra()) + stringSize(version.metadata());
+  }
+
+  /**
+   * Reads and validates a format header.
+   *
+   * @param buffer the buffer.
+   * @return the format revision.
+   * @throws IllegalArgumentException when the header is malformed or refers to an unsupported
+   * revision.
+   * @throws java.nio.BufferUnderflowException when the buffer is exhausted.
+   */
+  public static int readHeader(@NonNull ByteBuffer buffer) throws IllegalArgumentException {
+    try {
+      return readHeader(new BufferSource(buffer));
+    } catch (IOException ex) {
+      throw new IllegalArgumentException(ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Reads and validates a format header.
+   *
+   * @param input the input.
+   * @return the format revision.
+   * @throws IOException when reading fails or the header is malformed or refers to an
+   * unsupported revision.
+   */
+  public static int readHeader(@NonNull DataInput input) throws IOException {
+    return readHeader(new InputSource(input));
+  }
+
+  /**
+   * Reads a range.
+   *
+   * @param buffer the buffer.
+   * @return the range.
+   * @throws IllegalArgumentException when the data is malformed.
+   * @throws java.nio.BufferUnderflowException when the buffer is exhausted.
+   */
+  @NonNull
+  public static VersionRange<SemanticVersion> readRange(@NonNull ByteBuffer buffer)
+      throws IllegalArgumentException {
+    try {
+      return readRange(new BufferSource(buffer));
+    } catch (IOException ex) {
+      throw new IllegalArgumentException(ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Reads a range.
+   *
+   * @param input the input.
+   * @return the range.
+   * @throws IOException when reading fails or the data is malformed.
+   */
+  @NonNull
+  public static VersionRange<SemanticVersion> readRange(@NonNull DataInput input)
+      throws IOException {
+    return readRange(new InputSource(input));
+  }
+
+  /**
+   * Reads a version.
+   *
+   * @param buffer the buffer.
+   * @return the version.
+   * @throws IllegalArgumentException when the data is malformed.
+   * @throws java.nio.BufferUnderflowException when the buffer is exhausted.
+   */
+  @NonNull
+  public static SemanticVersion readVersion(@NonNull ByteBuffer buffer)
+      throws IllegalArgumentException {
+    try {
+      return readVersion(new BufferSource(buffer));
+    } catch (IOException ex) {
+      throw new IllegalArgumentException(ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Reads a version.
+   *
+   * @param input the input.
+   * @return the version.
+   * @throws IOException when reading fails or the data is malformed.
+   */
+  @NonNull
+  public static SemanticVersion readVersion(@NonNull DataInput input) throws IOException {
+    return readVersion(new InputSource(input));
+  }
+
+  /**
+   * Writes a version.
+   *
+   * @param buffer the buffer.
+   * @param version the version.
+   * @throws java.nio.BufferOverflowException when the buffer lacks the required space (see
+   * {@link #encodedSize(SemanticVersion)}).
+   */
+  public static void write(@NonNull ByteBuffer buffer, @NonNull SemanticVersion version) {
+    try {
+      write(new BufferSink(buffer), version);
+    } catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Writes a version.
+   *
+   * @param output the output.
+   * @param version the version.
+   * @throws IOException when writing fails.
+   */
+  public static void write(@NonNull DataOutput output, @NonNull SemanticVersion version)
+      throws IOException {
+    write(new OutputSink(output), version);
+  }
+
+  /**
+   * Writes a format header.
+   *
+   * @param buffer the buffer.
+   * @throws java.nio.BufferOverflowException when the buffer lacks the required space.
+   */
+  public static void writeHeader(@NonNull ByteBuffer buffer) {
+    buffer.put(MAGIC);
+    buffer.put((byte) FORMAT_VERSION);
+  }
+
+  /**
+   * Writes a format header.
+   *
+   * @param output the output.
+   * @throws IOException when writing fails.
+   */
+  public static void writeHeader(@NonNull DataOutput output) throws IOException {
+    output.write(MAGIC);
+    output.writeByte(FORMAT_VERSION);
+  }
+
+  /**
+   * Writes a range.
+   *
+   * @param buffer the buffer.
+   * @param range the range.
+   * @throws java.nio.BufferOverflowException when the buffer lacks the required space (see
+   * {@link #encodedSize(VersionRange)}).
+   */
+  public static void writeRange(@NonNull ByteBuffer buffer,
+      @NonNull VersionRange<SemanticVersion> range) {
+    try {
+      writeRange(new BufferSink(buffer), range);
+    } catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Writes a range.
+   *
+   * @param output the output.
+   * @param range the range.
+   * @throws IOException when writing fails.
+   */
+  public static void writeRange(@NonNull DataOutput output,
+      @NonNull VersionRange<SemanticVersion> range) throws IOException {
+    writeRange(new OutputSink(output), range);
+  }
+
+  private static int readHeader(@NonNull Source source) throws IOException {
+    for (byte expected : MAGIC) {
+      if (source.readByte() != expected) {
+        throw new IOException("Invalid header: Magic mismatch");
+      }
+    }
+
+    int formatVersion = source.readByte() & 0xFF;
+    if (formatVersion < 1 || formatVersion > FORMAT_VERSION) {
+      throw new IOException("Unsupported format version: " + formatVersion);
+    }
+
+    return formatVersion;
+  }
+
+  @NonNull
+  private static VersionRange<SemanticVersion> readRange(@NonNull Source source)
+      throws IOException {
+    int flags = source.readByte() & 0xFF;
+    if ((flags & ~RANGE_FLAGS) != 0) {
+      throw new IOException("Invalid range flags: " + flags);
+    }
+
+    return VersionRange.<SemanticVersion>builder()
+        .startInclusive((flags & FLAG_START_INCLUSIVE) != 0)
+        .startBound((flags & FLAG_START_UNBOUNDED) != 0 ? null : readVersion(source))
+        .endInclusive((flags & FLAG_END_INCLUSIVE) != 0)
+        .endBound((flags & FLAG_END_UNBOUNDED) != 0 ? null : readVersion(source))
+        .build();
+  }
+
+  @Nullable
+  private static String readString(@NonNull Source source) throws IOException {
+    int length = readVarInt(source);
+    if (length < 0) {
+      throw new IOException("Invalid string length: " + (length & 0xFFFFFFFFL));
+    }
+
+    return source.readString(length);
+  }
+
+  private static int readVarInt(@NonNull Source source) throws IOException {
+    int value = 0;
+
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = source.readByte();
+      if (shift == 28 && (b & 0x70) != 0) {
+        break;
+      }
+
+      value |= (b & 0x7F) << shift;
+
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+
+    throw new IOException("Malformed variable length integer");
+  }
+
+  @NonNull
+  private static SemanticVersion readVersion(@NonNull Source source) throws IOException {
+    int flags = source.readByte() & 0xFF;
+    if ((flags & ~VERSION_FLAGS) != 0) {
+      throw new IOException("Invalid version flags: " + flags);
+    }
+
+    int type = (flags >>> TYPE_SHIFT) & TYPE_MASK;
+    if (type > TYPES.length || (type != 0 && (flags & FLAG_EXTRA) == 0)) {
+      throw new IOException("Invalid version type: " + type);
+    }
+
+    int major = readVarInt(source);
+    int minor = readVarInt(source);
+    int patch = readVarInt(source);
+    int updateNumber = ((flags & FLAG_JAVA) != 0 ? readVarInt(source) : 0);
+    String extra = ((flags & FLAG_EXTRA) != 0 ? readString(source) : null);
+    String metadata = ((flags & FLAG_METADATA) != 0 ? readString(source) : null);
+    UnstableVersionType unstableVersionType = (type == 0 ? null : TYPES[type - 1]);
+
+    if ((flags & FLAG_JAVA) != 0) {
+      return new JavaVersion(major, minor, patch, extra, metadata, unstableVersionType,
+          updateNumber);
+    }
+
+    return new SemanticVersion(major, minor, patch, extra, metadata, unstableVersionType);
+  }
+
+  private static int stringSize(@Nullable String value) {
+    if (value == null) {
+      return 0;
+    }
+
+    int length = utf8Length(value);
+    return varIntSize(length) + length;
+  }
+
+  /**
+   * Computes the amount of bytes which are occupied by the UTF-8 representation of a string
+   * (without encoding it).
+   */
+  private static int utf8Length(@NonNull String value) {
+    int length = 0;
+
+    for (int i = 0; i < value.length(); ++i) {
+      char c = value.charAt(i);
+
+      if (c < 0x80) {
+        ++length;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        length += 4;
+        ++i;
+      } else if (Character.isSurrogate(c)) {
+        // unpaired surrogates are replaced by a single question mark upon encoding
+        ++length;
+      } else {
+        length += 3;
+      }
+    }
+
+    return length;
+  }
+
+  private static int varIntSize(int value) {
+    int size = 1;
+
+    while ((value & ~0x7F) != 0) {
+      value >>>= 7;
+      ++size;
+    }
+
+    return size;
+  }
+
+  private static void write(@NonNull Sink sink, @NonNull SemanticVersion version)
+      throws IOException {
+    UnstableVersionType type = version.unstableVersionTypeOrNull();
+    boolean java = version instanceof JavaVersion;
+
+    int flags = (type == null ? 0 : (type.ordinal() + 1) << TYPE_SHIFT);
+    if (version.extra() != null) {
+      flags |= FLAG_EXTRA;
+    }
+    if (version.metadata() != null) {
+      flags |= FLAG_METADATA;
+    }
+    if (java) {
+      flags |= FLAG_JAVA;
+    }
+
+    sink.writeByte(flags);
+    writeVarInt(sink, version.major());
+    writeVarInt(sink, version.minor());
+    writeVarInt(sink, version.patch());
+
+    if (java) {
+      writeVarInt(sink, ((JavaVersion) version).updateNumber());
+    }
+
+    writeString(sink, version.extra());
+    writeString(sink, version.metadata());
+  }
+
+  private static void writeRange(@NonNull Sink sink, @NonNull VersionRange<SemanticVersion> range)
+      throws IOException {
+    int flags = 0;
+    if (range.startInclusive()) {
+      flags |= FLAG_START_INCLUSIVE;
+    }
+    if (range.endInclusive()) {
+      flags |= FLAG_END_INCLUSIVE;
+    }
+    if (range.startBound() == null) {
+      flags |= FLAG_START_UNBOUNDED;
+    }
+    if (range.endBound() == null) {
+      flags |= FLAG_END_UNBOUNDED;
+    }
+
+    sink.writeByte(flags);
+    if (range.startBound() != null) {
+      write(sink, range.startBound());
+    }
+    if (range.endBound() != null) {
+      write(sink, range.endBound());
+    }
+  }
+
+  private static void writeString(@NonNull Sink sink, @Nullable String value) throws IOException {
+    if (value == null) {
+      return;
+    }
+
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(sink, bytes.length);
+    sink.write(bytes);
+  }
+
+  private static void writeVarInt(@NonNull Sink sink, int value) throws IOException {
+    // values are treated as unsigned as numeric bits may occupy the full 32 bits
+    while ((value & ~0x7F) != 0) {
+      sink.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+
+    sink.writeByte(value);
+  }
+
+  /**
+   * Provides a common abstraction for encoding targets.
+   */
+  private interface Sink {
+
+    void write(@NonNull byte[] bytes) throws IOException;
+
+    void writeByte(int value) throws IOException;
+  }
+
+  /**
+   * Provides a common abstraction for decoding sources.
+   */
+  private interface Source {
+
+    byte readByte() throws IOException;
+
+    /**
+     * Reads a UTF-8 encoded string of the given (untrusted) byte length.
+     *
+     * <p>Implementations must not allocate more memory than the amount of data which is actually
+     * available as the length may originate from corrupted or malicious input.</p>
+     */
+    @NonNull
+    String readString(int length) throws IOException;
+  }
+
+  private static final class BufferSink implements Sink {
+
+    private final ByteBuffer buffer;
+
+    private BufferSink(@NonNull ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void write(@NonNull byte[] bytes) {
+      this.buffer.put(bytes);
+    }
+
+    @Override
+    public void writeByte(int value) {
+      this.buffer.put((byte) value);
+    }
+  }
+
+  private static final class BufferSource implements Source {
+
+    private final ByteBuffer buffer;
+
+    private BufferSource(@NonNull ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public byte readByte() {
+      return this.buffer.get();
+    }
+
+    @NonNull
+    @Override
+    public String readString(int length) throws IOException {
+      if (length > this.buffer.remaining()) {
+        throw new IOException("Truncated string: " + length + " bytes expected but only "
+            + this.buffer.remaining() + " bytes remaining");
+      }
+
+      if (this.buffer.hasArray()) {
+        int offset = this.buffer.arrayOffset() + this.buffer.position();
+        this.buffer.position(this.buffer.position() + length);
+        return new String(this.buffer.array(), offset, length, StandardCharsets.UTF_8);
+      }
+
+      byte[] bytes = new byte[length];
+      this.buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+
+  private static final class InputSource implements Source {
+
+    private final DataInput input;
+
+    private InputSource(@NonNull DataInput input) {
+      this.input = input;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+      return this.input.readByte();
+    }
+
+    @NonNull
+    @Override
+    public String readString(int length) throws IOException {
+      // the buffer only grows along with the data which has actually been read so that corrupted
+      // length prefixes fail with an EOFException rather than an excessive allocation
+      byte[] bytes = new byte[Math.min(length, STRING_CHUNK_SIZE)];
+      int offset = 0;
+
+      while (offset < length) {
+        if (offset == bytes.length) {
+          bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+        }
+
+        int count = bytes.length - offset;
+        this.input.readFully(bytes, offset, count);
+        offset += count;
+      }
+
+      return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+  }
+
+  private static final class OutputSink implements Sink {
+
+    private final DataOutput output;
+
+    private OutputSink(@NonNull DataOutput output) {
+      this.output = output;
+    }
+
+    @Override
+    public void write(@NonNull byte[] bytes) throws IOException {
+      this.output.write(bytes);
+    }
+
+    @Override
+    public void writeByte(int value) throws IOException {
+      this.output.writeByte(value);
+    }
+  }
+}
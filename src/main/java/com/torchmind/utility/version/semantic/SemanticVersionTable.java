@@ -0,0 +1,584 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.UnstableVersionType;
+import com.torchmind.utility.version.VersionRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Arrays;
+
+/**
+ * Provides a columnar (struct of arrays) container for large amounts of semantic versions.
+ *
+ * <p>Each version bit is stored within a primitive column while extra and metadata bits are
+ * dictionary encoded (each distinct string is stored exactly once, thus unique per-row metadata
+ * such as {@code +build1234} grows the dictionary along with the table). Compared to a list of
+ * version objects, tables occupy a fraction of the heap and permit scans (such as sorting and
+ * range filtering) to operate on densely packed primitive arrays. Versions are only materialized
+ * when requested via {@link #get(int)}.</p>
+ *
+ * <p>Comparisons follow the exact semantics of {@link SemanticVersion#compareTo(SemanticVersion)}
+ * (and {@link JavaVersion#compareTo(JavaVersion)} for rows which have been appended as Java
+ * versions). Tables are not thread safe.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class SemanticVersionTable {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private static final int JAVA_FLAG = 0x80;
+  private static final int TYPE_MASK = 0x0F;
+  private static final UnstableVersionType[] TYPES = UnstableVersionType.values();
+
+  private final StringDictionary dictionary = new StringDictionary();
+
+  private int[] extras;
+  private int[] majors;
+  private int[] metadata;
+  private int[] minors;
+  private int[] patches;
+  private int[] revisions;
+  private byte[] types;
+  private int[] updateNumbers;
+
+  private int size;
+  private boolean sorted = true;
+
+  /**
+   * Creates an empty table.
+   */
+  public SemanticVersionTable() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty table which is capable of holding {@code capacity} rows without growing.
+   *
+   * @param capacity the initial capacity.
+   * @throws IllegalArgumentException when the capacity is negative.
+   */
+  public SemanticVersionTable(int capacity) throws IllegalArgumentException {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity must not be negative");
+    }
+
+    this.majors = new int[capacity];
+    this.minors = new int[capacity];
+    this.patches = new int[capacity];
+    this.types = new byte[capacity];
+    this.revisions = new int[capacity];
+    this.extras = new int[capacity];
+    this.metadata = new int[capacity];
+  }
+
+  /**
+   * Appends a successfully parsed version without materializing it.
+   *
+   * <p>Results which carry an update number are appended as Java versions.</p>
+   *
+   * @param result the parse result.
+   * @return the row index.
+   * @throws IllegalStateException when the result does not represent a successfully parsed
+   * version.
+   */
+  public int append(@NonNull ParseResult result) throws IllegalStateException {
+    if (!result.success()) {
+      throw new IllegalStateException("Cannot append failed parse result: " + result.error());
+    }
+
+    return this.append(result.major(), result.minor(), result.patch(),
+        result.unstableVersionType(), result.extraRevision(), result.extra(), result.metadata(),
+        result.hasUpdateNumber(), result.updateNumber());
+  }
+
+  /**
+   * Appends a version.
+   *
+   * @param version the version.
+   * @return the row index.
+   */
+  public int append(@NonNull SemanticVersion version) {
+    boolean java = version instanceof JavaVersion;
+
+    return this.append(version.major(), version.minor(), version.patch(),
+        version.unstableVersionTypeOrNull(), version.extraRevision(), version.extra(),
+        version.metadata(), java, (java ? ((JavaVersion) version).updateNumber() : 0));
+  }
+
+  private int append(int major, int minor, int patch, @Nullable UnstableVersionType type,
+      int revision, @Nullable String extra, @Nullable String metadata, boolean java,
+      int updateNumber) {
+    if (this.size == this.majors.length) {
+      this.grow();
+    }
+
+    int index = this.size++;
+    this.majors[index] = major;
+    this.minors[index] = minor;
+    this.patches[index] = patch;
+    this.types[index] = (byte) ((type == null ? 0 : type.ordinal() + 1) | (java ? JAVA_FLAG : 0));
+    this.revisions[index] = revision;
+    this.extras[index] = this.dictionary.encode(extra);
+    this.metadata[index] = this.dictionary.encode(metadata);
+
+    if (java && updateNumber != 0) {
+      if (this.updateNumbers == null) {
+        this.updateNumbers = new int[this.majors.length];
+      }
+
+      this.updateNumbers[index] = updateNumber;
+    }
+
+    if (this.sorted && index != 0 && this.compare(index - 1, index) > 0) {
+      this.sorted = false;
+    }
+
+    return index;
+  }
+
+  /**
+   * Compares two rows.
+   *
+   * @param index1 the first row index.
+   * @param index2 the second row index.
+   * @return a negative value, zero or a positive value if the first row is older than, equal to
+   * or newer than the second row.
+   * @throws IndexOutOfBoundsException when one of the indices exceeds the amount of rows.
+   */
+  public int compare(int index1, int index2) {
+    this.checkIndex(index1);
+    this.checkIndex(index2);
+
+    int type1 = this.types[index1];
+    int type2 = this.types[index2];
+
+    int comparison = compare(this.majors[index1], this.minors[index1], this.patches[index1],
+        type1 & TYPE_MASK, this.revisions[index1], this.majors[index2], this.minors[index2],
+        this.patches[index2], type2 & TYPE_MASK, this.revisions[index2]);
+
+    if (comparison != 0 || (type1 & JAVA_FLAG) == 0 || (type2 & JAVA_FLAG) == 0) {
+      return comparison;
+    }
+
+    return Integer.signum(this.updateNumber(index1) - this.updateNumber(index2));
+  }
+
+  /**
+   * Compares a row with a version.
+   *
+   * @param index the row index.
+   * @param version the version.
+   * @return a negative value, zero or a positive value if the row is older than, equal to or
+   * newer than the version.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of rows.
+   */
+  public int compare(int index, @NonNull SemanticVersion version) {
+    this.checkIndex(index);
+
+    UnstableVersionType type = version.unstableVersionTypeOrNull();
+    int comparison = compare(this.majors[index], this.minors[index], this.patches[index],
+        this.types[index] & TYPE_MASK, this.revisions[index], version.major(), version.minor(),
+        version.patch(), (type == null ? 0 : type.ordinal() + 1), version.extraRevision());
+
+    if (comparison != 0 || (this.types[index] & JAVA_FLAG) == 0
+        || !(version instanceof JavaVersion)) {
+      return comparison;
+    }
+
+    return Integer.signum(this.updateNumber(index) - ((JavaVersion) version).updateNumber());
+  }
+
+  /**
+   * Compares two sets of version bits in accordance with {@link
+   * SemanticVersion#compareTo(SemanticVersion)}.
+   *
+   * <p>Types are passed as their ordinal plus one (or zero if no type is present).</p>
+   */
+  static int compare(int major1, int minor1, int patch1, int type1, int revision1,
+      int major2, int minor2, int patch2, int type2, int revision2) {
+    if (major1 != major2) {
+      return (major1 > major2 ? 1 : -1);
+    }
+    if (minor1 != minor2) {
+      return (minor1 > minor2 ? 1 : -1);
+    }
+    if (patch1 != patch2) {
+      return (patch1 > patch2 ? 1 : -1);
+    }
+
+    boolean stable1 = type1 == 0 && major1 > 0;
+    boolean stable2 = type2 == 0 && major2 > 0;
+    if (stable1 != stable2) {
+      return (stable1 ? 1 : -1);
+    }
+
+    // versions without a type are considered newer than their typed counterparts
+    if (type1 == 0 || type2 == 0) {
+      return (type1 == type2 ? 0 : type1 == 0 ? 1 : -1);
+    }
+    if (type1 != type2) {
+      return type1 - type2;
+    }
+
+    return Math.max(-1, Math.min(1, (revision1 - revision2)));
+  }
+
+  /**
+   * Retrieves the amount of distinct extra and metadata strings within this table.
+   *
+   * @return the dictionary size.
+   */
+  public int dictionarySize() {
+    return this.dictionary.size();
+  }
+
+  /**
+   * Retrieves the extra bit of a row.
+   *
+   * @param index the row index.
+   * @return the bit or {@code null} if none is present.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of rows.
+   */
+  @Nullable
+  public String extra(int index) {
+    this.checkIndex(index);
+    return this.dictionary.decode(this.extras[index]);
+  }
+
+  /**
+   * Retrieves the extra revision of a row.
+   *
+   * @param index the row index.
+   * @return the revision.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of rows.
+   */
+  public int extraRevision(int index) {
+    this.checkIndex(index);
+    return this.revisions[index];
+  }
+
+  /**
+   * Materializes a row.
+   *
+   * @param index the row index.
+   * @return the version (or a {@link JavaVersion} if the row has been appended as such).
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of rows.
+   */
+  @NonNull
+  public SemanticVersion get(int index) {
+    this.checkIndex(index);
+
+    if ((this.types[index] & JAVA_FLAG) != 0) {
+      return new JavaVersion(this.majors[index], this.minors[index], this.patches[index],
+          this.extra(index), this.metadata(index), this.unstableVersionType(index),
+          this.updateNumber(index));
+    }
+
+    return new SemanticVersion(this.majors[index], this.minors[index], this.patches[index],
+        this.extra(index), this.metadata(index), this.unstableVersionType(index));
+  }
+
+  /**
+   * Retrieves the major bit of a row.
+   *
+   * @param index the row index.
+   * @return the bit.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of rows.
+   */
+  public int major(int index) {
+    this.checkIndex(index);
+    return this.majors[index];
+  }
+
+  /**
+   * Locates all rows which match {@code range}.
+   *
+   * <p>Sorted tables locate the matching rows via binary search while unsorted tables are
+   * scanned linearly.</p>
+   *
+   * @param range the range.
+   * @return the indices of all matching rows (in ascending order).
+   */
+  @NonNull
+  public int[] matching(@NonNull VersionRange<SemanticVersion> range) {
+    if (this.sorted) {
+      int fromIndex = (range.startBound() == null ? 0
+          : this.lowerBound(range.startBound(), range.startInclusive()));
+      int toIndex = (range.endBound() == null ? this.size
+          : Math.max(fromIndex, this.lowerBound(range.endBound(), !range.endInclusive())));
+
+      int[] indices = new int[toIndex - fromIndex];
+      for (int i = 0; i < indices.length; ++i) {
+        indices[i] = fromIndex + i;
+      }
+
+      return indices;
+    }
+
+    int[] indices = new int[DEFAULT_CAPACITY];
+    int count = 0;
+
+    for (int i = 0; i < this.size; ++i) {
+      if (this.matches(i, range)) {
+        if (count == indices.length) {
+          indices = Arrays.copyOf(indices, count + (count >> 1));
+        }
+
+        indices[count++] = i;
+      }
+    }
+
+    return Arrays.copyOf(indices, count);
+  }
+
+  /**
+   * Checks whether a row matches {@code range}.
+   *
+   * @param index the row index.
+   * @param range the range.
+   * @return {@code true} if matching, {@code false} otherwise.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of rows.
+   */
+  public boolean matches(int index, @NonNull VersionRange<SemanticVersion> range) {
+    SemanticVersion startBound = range.startBound();
+    if (startBound != null) {
+      int start = this.compare(index, startBound);
+
+      if (start < 0 || (start == 0 && !range.startInclusive())) {
+        return false;
+      }
+    }
+
+    SemanticVersion endBound = range.endBound();
+    if (endBound == null) {
+      this.checkIndex(index);
+      return true;
+    }
+
+    int end = this.compare(index, endBound);
+    return end < 0 || (end == 0 && range.endInclusive());
+  }
+
+  /**
+   * Retrieves the metadata bit of a row.
+   *
+   * @param index the row index.
+   * @return the bit or {@code null} if none is present.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of rows.
+   */
+  @Nullable
+  public String metadata(int index) {
+    this.checkIndex(index);
+    return this.dictionary.decode(this.metadata[index]);
+  }
+
+  /**
+   * Retrieves the minor bit of a row.
+   *
+   * @param index the row index.
+   * @return the bit.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of rows.
+   */
+  public int minor(int index) {
+    this.checkIndex(index);
+    return this.minors[index];
+  }
+
+  /**
+   * Retrieves the patch bit of a row.
+   *
+   * @param index the row index.
+   * @return the bit.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of rows.
+   */
+  public int patch(int index) {
+    this.checkIndex(index);
+    return this.patches[index];
+  }
+
+  /**
+   * Retrieves the amount of rows within this table.
+   *
+   * @return the amount of rows.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Sorts all rows in ascending version order.
+   *
+   * <p>The sort is stable (equal versions retain their relative order) and operates on a
+   * permutation of row indices which is applied to each column once the order has been
+   * established.</p>
+   */
+  public void sort() {
+    if (this.sorted) {
+      return;
+    }
+
+    int[] permutation = new int[this.size];
+    for (int i = 0; i < this.size; ++i) {
+      permutation[i] = i;
+    }
+
+    this.mergeSort(permutation, permutation.clone(), 0, this.size);
+
+    this.majors = permute(this.majors, permutation);
+    this.minors = permute(this.minors, permutation);
+    this.patches = permute(this.patches, permutation);
+    this.revisions = permute(this.revisions, permutation);
+    this.extras = permute(this.extras, permutation);
+    this.metadata = permute(this.metadata, permutation);
+    if (this.updateNumbers != null) {
+      this.updateNumbers = permute(this.updateNumbers, permutation);
+    }
+
+    byte[] types = new byte[this.types.length];
+    for (int i = 0; i < this.size; ++i) {
+      types[i] = this.types[permutation[i]];
+    }
+    this.types = types;
+
+    this.sorted = true;
+  }
+
+  /**
+   * Checks whether all rows are currently ordered in ascending version order.
+   *
+   * @return {@code true} if sorted, {@code false} otherwise.
+   */
+  public boolean sorted() {
+    return this.sorted;
+  }
+
+  /**
+   * Retrieves the instability type of a row.
+   *
+   * @param index the row index.
+   * @return the type or {@code null} if none is present.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of rows.
+   */
+  @Nullable
+  public UnstableVersionType unstableVersionType(int index) {
+    this.checkIndex(index);
+
+    int type = this.types[index] & TYPE_MASK;
+    return (type == 0 ? null : TYPES[type - 1]);
+  }
+
+  /**
+   * Retrieves the update number of a row.
+   *
+   * @param index the row index.
+   * @return the update number or zero if the row does not carry one.
+   * @throws IndexOutOfBoundsException when the index exceeds the amount of rows.
+   */
+  public int updateNumber(int index) {
+    this.checkIndex(index);
+    return (this.updateNumbers == null ? 0 : this.updateNumbers[index]);
+  }
+
+  /**
+   * Applies a permutation to a column.
+   */
+  @NonNull
+  private static int[] permute(@NonNull int[] column, @NonNull int[] permutation) {
+    int[] result = new int[column.length];
+
+    for (int i = 0; i < permutation.length; ++i) {
+      result[i] = column[permutation[i]];
+    }
+
+    return result;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+  }
+
+  private void grow() {
+    int capacity = Math.max(DEFAULT_CAPACITY, this.majors.length + (this.majors.length >> 1));
+
+    this.majors = Arrays.copyOf(this.majors, capacity);
+    this.minors = Arrays.copyOf(this.minors, capacity);
+    this.patches = Arrays.copyOf(this.patches, capacity);
+    this.types = Arrays.copyOf(this.types, capacity);
+    this.revisions = Arrays.copyOf(this.revisions, capacity);
+    this.extras = Arrays.copyOf(this.extras, capacity);
+    this.metadata = Arrays.copyOf(this.metadata, capacity);
+    if (this.updateNumbers != null) {
+      this.updateNumbers = Arrays.copyOf(this.updateNumbers, capacity);
+    }
+  }
+
+  /**
+   * Locates the first row which is newer than (or equal to if {@code inclusive} is set) {@code
+   * version} within a sorted table.
+   */
+  private int lowerBound(@NonNull SemanticVersion version, boolean inclusive) {
+    int low = 0;
+    int high = this.size;
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      int comparison = this.compare(middle, version);
+
+      if (comparison < 0 || (comparison == 0 && !inclusive)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
+
+  /**
+   * Sorts a slice of a permutation (top-down merge sort which alternates between both buffers).
+   */
+  private void mergeSort(@NonNull int[] target, @NonNull int[] source, int fromIndex,
+      int toIndex) {
+    if (toIndex - fromIndex < 2) {
+      return;
+    }
+
+    int middle = (fromIndex + toIndex) >>> 1;
+    this.mergeSort(source, target, fromIndex, middle);
+    this.mergeSort(source, target, middle, toIndex);
+
+    // both halves are already ordered with respect to each other and can simply be copied
+    if (this.compare(source[middle - 1], source[middle]) <= 0) {
+      System.arraycopy(source, fromIndex, target, fromIndex, toIndex - fromIndex);
+      return;
+    }
+
+    int left = fromIndex;
+    int right = middle;
+    for (int i = fromIndex; i < toIndex; ++i) {
+      if (right >= toIndex || (left < middle && this.compare(source[left], source[right]) <= 0)) {
+        target[i] = source[left++];
+      } else {
+        target[i] = source[right++];
+      }
+    }
+  }
+}
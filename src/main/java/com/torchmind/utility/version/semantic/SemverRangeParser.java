@@ -0,0 +1,581 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.UnstableVersionType;
+import com.torchmind.utility.version.VersionCache;
+import com.torchmind.utility.version.VersionRangeSet;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Provides a parser for the comparator based range expressions which are used by npm and Cargo.
+ *
+ * <p>An expression consists of one or more comparator sets which are separated by {@code ||}
+ * where each set consists of comparators separated by whitespace or commas. A version matches an
+ * expression when it satisfies all comparators of at least one of its sets. The following
+ * comparators are understood:</p>
+ * <ul>
+ * <li>{@code <1.2.3}, {@code <=1.2.3}, {@code >1.2.3}, {@code >=1.2.3} and {@code =1.2.3} -
+ * Primitive comparisons</li>
+ * <li>{@code ^1.2.3} - Permits changes which do not modify the left-most non-zero bit ({@code
+ * >=1.2.3 <2.0.0-0}, {@code ^0.2.3} is equal to {@code >=0.2.3 <0.3.0-0})</li>
+ * <li>{@code ~1.2.3} - Permits patch level changes ({@code >=1.2.3 <1.3.0-0})</li>
+ * <li>{@code 1.x}, {@code 1.2.*} or {@code 1.2} - Permits any version with the specified
+ * prefix</li>
+ * <li>{@code 1.2.3 - 2.3} - An inclusive range ({@code >=1.2.3 <2.4.0-0})</li>
+ * <li>{@code *} or an empty set - Permits any version</li>
+ * </ul>
+ *
+ * <p>Exclusive upper bounds which are derived from partial versions refer to the lowest
+ * pre-release of the succeeding version (such as {@code 2.0.0-0}) and thus exclude its
+ * pre-releases as well. Versions may be prefixed with {@code v} and the interpretation of bare
+ * versions (without an operator) is controlled via {@link Dialect}.</p>
+ *
+ * <p>As the same expressions tend to recur across large amounts of manifests, parsed sets may be
+ * memoized via a cache which is created by {@link #cache(Dialect, int)}.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class SemverRangeParser {
+
+  private final Dialect dialect;
+  private final int end;
+  private final ParseResult result = new ParseResult();
+  private final CharSequence sequence;
+
+  private int position;
+
+  private SemanticVersion lowerBound;
+  private boolean lowerInclusive;
+  private SemanticVersion upperBound;
+  private boolean upperInclusive;
+  private boolean unsatisfiable;
+
+  private int bitCount;
+  private int major;
+  private int minor;
+  private int patch;
+  private SemanticVersion version;
+
+  private SemverRangeParser(@NonNull CharSequence sequence, int offset, int end,
+      @NonNull Dialect dialect) {
+    this.sequence = sequence;
+    this.position = offset;
+    this.end = end;
+    this.dialect = dialect;
+  }
+
+  /**
+   * Creates a cache which memoizes parsed expressions by their raw string.
+   *
+   * @param dialect the dialect.
+   * @param maximumSize the maximum amount of cached expressions.
+   * @return the cache.
+   * @throws IllegalArgumentException when the maximum size is not positive.
+   */
+  @NonNull
+  public static VersionCache<VersionRangeSet<SemanticVersion>> cache(@NonNull Dialect dialect,
+      int maximumSize) throws IllegalArgumentException {
+    return VersionCache.<VersionRangeSet<SemanticVersion>>builder()
+        .parser((expression) -> parse(expression, dialect))
+        .maximumSize(maximumSize)
+        .build();
+  }
+
+  /**
+   * Parses an expression using the npm dialect.
+   *
+   * @param range the expression.
+   * @return the set of matching versions.
+   * @throws IllegalArgumentException when the expression or one of its versions is invalid.
+   * @throws NumberFormatException when one or more version bits are invalid.
+   */
+  @NonNull
+  public static VersionRangeSet<SemanticVersion> parse(@NonNull CharSequence range)
+      throws IllegalArgumentException {
+    return parse(range, Dialect.NPM);
+  }
+
+  /**
+   * Parses an expression.
+   *
+   * @param range the expression.
+   * @param dialect the dialect.
+   * @return the set of matching versions.
+   * @throws IllegalArgumentException when the expression or one of its versions is invalid.
+   * @throws NumberFormatException when one or more version bits are invalid.
+   */
+  @NonNull
+  public static VersionRangeSet<SemanticVersion> parse(@NonNull CharSequence range,
+      @NonNull Dialect dialect) throws IllegalArgumentException {
+    return parse(range, 0, range.length(), dialect);
+  }
+
+  /**
+   * Parses an expression which is located within a region of a character sequence.
+   *
+   * @param range the expression sequence.
+   * @param offset the index of the first character.
+   * @param length the amount of characters.
+   * @param dialect the dialect.
+   * @return the set of matching versions.
+   * @throws IllegalArgumentException when the expression or one of its versions is invalid.
+   * @throws IndexOutOfBoundsException when the region exceeds the sequence bounds.
+   * @throws NumberFormatException when one or more version bits are invalid.
+   */
+  @NonNull
+  public static VersionRangeSet<SemanticVersion> parse(@NonNull CharSequence range, int offset,
+      int length, @NonNull Dialect dialect) throws IllegalArgumentException {
+    if (offset < 0 || length < 0 || offset > range.length() - length) {
+      throw new IndexOutOfBoundsException(
+          "Region [" + offset + ", " + (offset + length) + ") exceeds sequence of length " + range
+              .length());
+    }
+
+    return (new SemverRangeParser(range, offset, offset + length, dialect)).parse();
+  }
+
+  /**
+   * Checks whether a character terminates a version within an expression.
+   */
+  private static boolean isDelimiter(char c) {
+    return c == ',' || c == '|' || Character.isWhitespace(c);
+  }
+
+  /**
+   * Creates the lowest pre-release of a version (which precedes all other pre-releases).
+   */
+  @NonNull
+  private static SemanticVersion lowest(int major, int minor, int patch) {
+    return new SemanticVersion(major, minor, patch, "0", null, UnstableVersionType.UNKNOWN);
+  }
+
+  @NonNull
+  private VersionRangeSet<SemanticVersion> parse() {
+    VersionRangeSet.Builder<SemanticVersion> builder = VersionRangeSet.builder();
+
+    while (true) {
+      this.lowerBound = null;
+      this.lowerInclusive = false;
+      this.upperBound = null;
+      this.upperInclusive = false;
+      this.unsatisfiable = false;
+
+      this.skipSeparators();
+      while (this.position < this.end && this.sequence.charAt(this.position) != '|') {
+        this.comparator();
+        this.skipSeparators();
+      }
+
+      if (!this.unsatisfiable) {
+        builder.add(this.lowerBound, this.lowerInclusive, this.upperBound, this.upperInclusive);
+      }
+
+      if (this.position == this.end) {
+        return builder.build();
+      }
+
+      if (this.position + 1 == this.end || this.sequence.charAt(this.position + 1) != '|') {
+        throw this.fail("Expected '||'");
+      }
+      this.position += 2;
+    }
+  }
+
+  /**
+   * Parses a single comparator (or hyphen range) and restricts the current set accordingly.
+   */
+  private void comparator() {
+    char c = this.sequence.charAt(this.position);
+
+    if (c == '^' || c == '~') {
+      ++this.position;
+      if (c == '~' && this.position < this.end && this.sequence.charAt(this.position) == '>') {
+        ++this.position;
+      }
+
+      this.partial(true);
+      if (c == '^') {
+        this.caret();
+      } else {
+        this.tilde();
+      }
+      return;
+    }
+
+    if (c == '<' || c == '>') {
+      ++this.position;
+      boolean inclusive = this.position < this.end && this.sequence.charAt(this.position) == '=';
+      if (inclusive) {
+        ++this.position;
+      }
+
+      this.partial(true);
+      if (c == '<') {
+        this.lessThan(inclusive);
+      } else {
+        this.greaterThan(inclusive);
+      }
+      return;
+    }
+
+    if (c == '=') {
+      ++this.position;
+      this.partial(true);
+      this.exactly();
+      return;
+    }
+
+    this.partial(false);
+
+    // hyphen ranges are only recognized when the hyphen is surrounded by whitespace as it would
+    // otherwise denote the extra bit of the preceding version
+    int mark = this.position;
+    this.skipWhitespace();
+    if (this.position + 1 < this.end && this.sequence.charAt(this.position) == '-'
+        && Character.isWhitespace(this.sequence.charAt(this.position + 1))) {
+      ++this.position;
+      this.greaterThan(true);
+      this.partial(true);
+      this.lessThan(true);
+      return;
+    }
+    this.position = mark;
+
+    if (this.dialect == Dialect.CARGO) {
+      this.caret();
+    } else {
+      this.exactly();
+    }
+  }
+
+  /**
+   * Applies a caret comparator to the current partial version.
+   */
+  private void caret() {
+    if (this.bitCount == 0) {
+      return;
+    }
+
+    this.restrictLower(this.lower(), true);
+    if (this.major != 0 || this.bitCount == 1) {
+      this.restrictUpper(this.major == Integer.MAX_VALUE ? null : lowest(this.major + 1, 0, 0));
+    } else if (this.minor != 0 || this.bitCount == 2) {
+      this.restrictUpper(this.minor == Integer.MAX_VALUE ? null : lowest(0, this.minor + 1, 0));
+    } else {
+      this.restrictUpper(this.patch == Integer.MAX_VALUE ? null : lowest(0, 0, this.patch + 1));
+    }
+  }
+
+  /**
+   * Applies an equality comparator to the current partial version.
+   */
+  private void exactly() {
+    if (this.bitCount == 0) {
+      return;
+    }
+
+    if (this.bitCount == 3) {
+      this.restrictLower(this.version, true);
+      this.restrictUpper(this.version, true);
+      return;
+    }
+
+    this.restrictLower(this.lower(), true);
+    this.restrictUpper(this.successor());
+  }
+
+  /**
+   * Applies a greater than comparator to the current partial version.
+   */
+  private void greaterThan(boolean inclusive) {
+    if (this.bitCount == 0) {
+      this.unsatisfiable |= !inclusive;
+      return;
+    }
+
+    if (inclusive) {
+      this.restrictLower(this.lower(), true);
+    } else if (this.bitCount == 3) {
+      this.restrictLower(this.version, false);
+    } else {
+      SemanticVersion successor = this.successor();
+      if (successor == null) {
+        this.unsatisfiable = true;
+      } else {
+        this.restrictLower(new SemanticVersion(successor.major(), successor.minor(),
+            successor.patch(), null, null, null), true);
+      }
+    }
+  }
+
+  /**
+   * Applies a less than comparator to the current partial version.
+   */
+  private void lessThan(boolean inclusive) {
+    if (this.bitCount == 0) {
+      this.unsatisfiable |= !inclusive;
+      return;
+    }
+
+    if (this.bitCount == 3) {
+      this.restrictUpper(this.version, inclusive);
+    } else if (inclusive) {
+      this.restrictUpper(this.successor());
+    } else {
+      this.restrictUpper(lowest(this.major, this.minor, 0), false);
+    }
+  }
+
+  /**
+   * Applies a tilde comparator to the current partial version.
+   */
+  private void tilde() {
+    if (this.bitCount == 0) {
+      return;
+    }
+
+    this.restrictLower(this.lower(), true);
+    if (this.bitCount == 1) {
+      this.restrictUpper(this.major == Integer.MAX_VALUE ? null : lowest(this.major + 1, 0, 0));
+    } else {
+      this.restrictUpper(this.minor == Integer.MAX_VALUE ? null
+          : lowest(this.major, this.minor + 1, 0));
+    }
+  }
+
+  /**
+   * Retrieves the lowest version which is matched by the current partial version.
+   */
+  @NonNull
+  private SemanticVersion lower() {
+    if (this.bitCount == 3) {
+      return this.version;
+    }
+
+    return new SemanticVersion(this.major, this.minor, 0, null, null, null);
+  }
+
+  /**
+   * Retrieves the lowest pre-release which succeeds all versions that are matched by the current
+   * partial version (or {@code null} if no such version exists).
+   */
+  @Nullable
+  private SemanticVersion successor() {
+    if (this.bitCount == 1) {
+      return (this.major == Integer.MAX_VALUE ? null : lowest(this.major + 1, 0, 0));
+    }
+
+    return (this.minor == Integer.MAX_VALUE ? null : lowest(this.major, this.minor + 1, 0));
+  }
+
+  /**
+   * Restricts the lower bound of the current set unless it is already more restrictive.
+   */
+  private void restrictLower(@NonNull SemanticVersion bound, boolean inclusive) {
+    if (this.lowerBound != null) {
+      int comparison = bound.compareTo(this.lowerBound);
+
+      if (comparison < 0 || (comparison == 0 && (inclusive || !this.lowerInclusive))) {
+        return;
+      }
+    }
+
+    this.lowerBound = bound;
+    this.lowerInclusive = inclusive;
+  }
+
+  /**
+   * Restricts the upper bound to a version (exclusive) where {@code null} refers to an infinite
+   * bound.
+   */
+  private void restrictUpper(@Nullable SemanticVersion bound) {
+    if (bound != null) {
+      this.restrictUpper(bound, false);
+    }
+  }
+
+  /**
+   * Restricts the upper bound of the current set unless it is already more restrictive.
+   */
+  private void restrictUpper(@NonNull SemanticVersion bound, boolean inclusive) {
+    if (this.upperBound != null) {
+      int comparison = bound.compareTo(this.upperBound);
+
+      if (comparison > 0 || (comparison == 0 && (inclusive || !this.upperInclusive))) {
+        return;
+      }
+    }
+
+    this.upperBound = bound;
+    this.upperInclusive = inclusive;
+  }
+
+  /**
+   * Parses a (possibly partial) version at the current position.
+   *
+   * <p>The amount of specified numeric bits is stored within {@link #bitCount} where a count of
+   * three indicates a complete version which is stored within {@link #version}.</p>
+   *
+   * @param operator whether the version is preceded by an operator (in which case whitespace is
+   * skipped and a version is mandatory).
+   */
+  private void partial(boolean operator) {
+    if (operator) {
+      this.skipWhitespace();
+    }
+    if (this.position < this.end && (this.sequence.charAt(this.position) == 'v'
+        || this.sequence.charAt(this.position) == 'V')) {
+      ++this.position;
+    }
+
+    int start = this.position;
+    int tokenEnd = start;
+    while (tokenEnd < this.end && !isDelimiter(this.sequence.charAt(tokenEnd))) {
+      ++tokenEnd;
+    }
+
+    if (start == tokenEnd) {
+      throw this.fail("Expected version");
+    }
+
+    this.bitCount = 0;
+    this.major = 0;
+    this.minor = 0;
+    this.patch = 0;
+    this.version = null;
+
+    boolean wildcard = false;
+    for (int i = 0; i < 3; ++i) {
+      char c = this.sequence.charAt(this.position);
+
+      if (c == 'x' || c == 'X' || c == '*') {
+        wildcard = true;
+        ++this.position;
+      } else {
+        int value = this.number(tokenEnd);
+
+        if (!wildcard) {
+          ++this.bitCount;
+          if (i == 0) {
+            this.major = value;
+          } else if (i == 1) {
+            this.minor = value;
+          } else {
+            this.patch = value;
+          }
+        }
+      }
+
+      if (this.position + 1 >= tokenEnd || this.sequence.charAt(this.position) != '.') {
+        break;
+      }
+      ++this.position;
+    }
+
+    if (this.position == tokenEnd) {
+      if (this.bitCount == 3) {
+        this.version = new SemanticVersion(this.major, this.minor, this.patch, null, null, null);
+      }
+      return;
+    }
+
+    char c = this.sequence.charAt(this.position);
+    if (wildcard || (c != '-' && c != '+')) {
+      throw this.fail("Unexpected character '" + c + "'");
+    }
+
+    // versions which carry an extra or metadata bit are handed to the regular parser in order to
+    // retain their respective bits
+    if (!this.result.parse(this.sequence, start, tokenEnd - start)) {
+      throw this.result.exception();
+    }
+
+    this.position = tokenEnd;
+    this.bitCount = 3;
+    this.version = this.result.toVersion();
+  }
+
+  /**
+   * Parses an unsigned decimal number at the current position.
+   */
+  private int number(int tokenEnd) {
+    int start = this.position;
+    int value = 0;
+
+    while (this.position < tokenEnd) {
+      int digit = this.sequence.charAt(this.position) - '0';
+      if (digit < 0 || digit > 9) {
+        break;
+      }
+      if (value > (Integer.MAX_VALUE - digit) / 10) {
+        throw this.fail("Version bit exceeds range");
+      }
+
+      value = value * 10 + digit;
+      ++this.position;
+    }
+
+    if (this.position == start) {
+      throw this.fail("Expected version");
+    }
+
+    return value;
+  }
+
+  /**
+   * Creates an exception which describes a syntax error at the current position.
+   */
+  @NonNull
+  private IllegalArgumentException fail(@NonNull String message) {
+    return new IllegalArgumentException(
+        "Invalid version range: " + message + " at index " + this.position);
+  }
+
+  private void skipSeparators() {
+    while (this.position < this.end && (this.sequence.charAt(this.position) == ','
+        || Character.isWhitespace(this.sequence.charAt(this.position)))) {
+      ++this.position;
+    }
+  }
+
+  private void skipWhitespace() {
+    while (this.position < this.end
+        && Character.isWhitespace(this.sequence.charAt(this.position))) {
+      ++this.position;
+    }
+  }
+
+  /**
+   * Provides a list of supported expression dialects.
+   */
+  public enum Dialect {
+
+    /**
+     * Cargo expressions where bare versions are treated as caret comparators ({@code 1.2.3} is
+     * equal to {@code ^1.2.3}).
+     */
+    CARGO,
+
+    /**
+     * npm expressions where bare versions are treated as equality comparators ({@code 1.2.3} is
+     * equal to {@code =1.2.3}).
+     */
+    NPM
+  }
+}
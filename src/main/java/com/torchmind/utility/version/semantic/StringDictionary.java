@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the extra and metadata bits of stored versions to dense integer identifiers.
+ *
+ * <p>Every distinct string is kept on the heap exactly once (for as long as the dictionary is
+ * retained or until it is cleared). Dictionaries are not thread safe.</p>
+ *
+ * @author Johannes Donath
+ */
+final class StringDictionary {
+
+  /**
+   * Identifies the absence of a value.
+   */
+  static final int NONE = -1;
+
+  private final List<String> values = new ArrayList<>();
+  private final Map<String, Integer> index = new HashMap<>();
+
+  /**
+   * Removes all values from this dictionary.
+   */
+  void clear() {
+    this.values.clear();
+    this.index.clear();
+  }
+
+  /**
+   * Retrieves the value which has been assigned a given identifier.
+   *
+   * @param id an identifier (or {@link #NONE}).
+   * @return a value or, if {@link #NONE} has been passed, null.
+   */
+  @Nullable
+  String decode(int id) {
+    return (id == NONE ? null : this.values.get(id));
+  }
+
+  /**
+   * Retrieves the identifier of a value (assigning a new identifier when the value has not been
+   * encountered before).
+   *
+   * @param value a value or null.
+   * @return an identifier or, if null has been passed, {@link #NONE}.
+   */
+  int encode(@Nullable String value) {
+    if (value == null) {
+      return NONE;
+    }
+
+    Integer id = this.index.get(value);
+    if (id == null) {
+      id = this.values.size();
+      this.values.add(value);
+      this.index.put(value, id);
+    }
+
+    return id;
+  }
+
+  /**
+   * Retrieves the amount of distinct values within this dictionary.
+   *
+   * @return an amount of values.
+   */
+  int size() {
+    return this.values.size();
+  }
+}
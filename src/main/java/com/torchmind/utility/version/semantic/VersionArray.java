@@ -0,0 +1,259 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.VersionRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Provides the sorted array representation which backs {@link VersionMap} and {@link
+ * VersionSet}.
+ *
+ * <p>Versions are kept in ascending order alongside their packed representation (if all of them
+ * fit) so that lookups are answered via binary search over a primitive array. Additionally, the
+ * index of the latest stable version up to each position is retained in order to answer stability
+ * queries without scanning.</p>
+ *
+ * @author Johannes Donath
+ */
+final class VersionArray {
+
+  static final VersionArray EMPTY = new VersionArray(new SemanticVersion[0]);
+
+  private final int[] latestStable;
+  private final long[] packed;
+  private final SemanticVersion[] versions;
+
+  /**
+   * Creates a new array.
+   *
+   * @param versions a strictly ascending array of versions.
+   */
+  private VersionArray(@NonNull SemanticVersion[] versions) {
+    this.versions = versions;
+    this.latestStable = new int[versions.length];
+
+    long[] packed = new long[versions.length];
+    int latestStable = -1;
+
+    for (int i = 0; i < versions.length; ++i) {
+      if (versions[i].stable()) {
+        latestStable = i;
+      }
+      this.latestStable[i] = latestStable;
+
+      if (packed != null) {
+        packed[i] = PackedSemanticVersion.tryPack(versions[i]);
+
+        // a single unpackable version breaks the ordering of the primitive array and thus forces
+        // all lookups to fall back to their object representation
+        if (packed[i] == PackedSemanticVersion.UNPACKABLE) {
+          packed = null;
+        }
+      }
+    }
+
+    this.packed = packed;
+  }
+
+  /**
+   * Sorts a list of versions and creates a new array from them.
+   *
+   * <p>Versions which are considered equal by {@link SemanticVersion#compareTo(SemanticVersion)}
+   * are collapsed into the last of their occurrences.</p>
+   *
+   * @param versions the versions.
+   * @param order receives the index of the source element of each retained version.
+   * @return the array.
+   */
+  @NonNull
+  static VersionArray create(@NonNull List<SemanticVersion> versions, @NonNull int[] order) {
+    int size = versions.size();
+
+    // the original insertion order is retained for equal versions (Arrays.sort is stable for
+    // object arrays) so that later entries replace their predecessors
+    Integer[] indices = new Integer[size];
+    for (int i = 0; i < size; ++i) {
+      indices[i] = i;
+    }
+    Arrays.sort(indices, (a, b) -> versions.get(a).compareTo(versions.get(b)));
+
+    SemanticVersion[] sorted = new SemanticVersion[size];
+    int length = 0;
+
+    for (int i = 0; i < size; ++i) {
+      SemanticVersion version = versions.get(indices[i]);
+
+      if (length != 0 && sorted[length - 1].compareTo(version) == 0) {
+        --length;
+      }
+
+      sorted[length] = version;
+      order[length++] = indices[i];
+    }
+
+    return (new VersionArray(Arrays.copyOf(sorted, length)));
+  }
+
+  /**
+   * Locates the index of the smallest version which is greater than or equal to {@code
+   * version}.
+   *
+   * @return the index or {@code -1} if no such version exists.
+   */
+  int ceilingIndex(@NonNull SemanticVersion version) {
+    int index = this.lowerBound(version, true);
+    return (index == this.versions.length ? -1 : index);
+  }
+
+  /**
+   * Locates the index of the largest version which is smaller than or equal to {@code version}.
+   *
+   * @return the index or {@code -1} if no such version exists.
+   */
+  int floorIndex(@NonNull SemanticVersion version) {
+    return this.lowerBound(version, false) - 1;
+  }
+
+  @NonNull
+  SemanticVersion get(int index) {
+    return this.versions[index];
+  }
+
+  /**
+   * Locates the index of a version which is considered equal to {@code version}.
+   *
+   * @return the index or {@code -1} if no such version exists.
+   */
+  int indexOf(@Nullable SemanticVersion version) {
+    if (version == null) {
+      return -1;
+    }
+
+    int index = this.lowerBound(version, true);
+    if (index == this.versions.length || this.versions[index].compareTo(version) != 0) {
+      return -1;
+    }
+
+    return index;
+  }
+
+  /**
+   * Locates the index of the latest version within {@code range}.
+   *
+   * @return the index or {@code -1} if no version matches.
+   */
+  int latestIndexIn(@NonNull VersionRange<SemanticVersion> range) {
+    int index = this.endIndex(range) - 1;
+    if (index < 0 || index < this.startIndex(range)) {
+      return -1;
+    }
+
+    return index;
+  }
+
+  /**
+   * Locates the index of the latest stable version.
+   *
+   * @return the index or {@code -1} if no stable version exists.
+   */
+  int latestStableIndex() {
+    return (this.versions.length == 0 ? -1 : this.latestStable[this.versions.length - 1]);
+  }
+
+  /**
+   * Locates the index of the latest stable version within {@code range}.
+   *
+   * @return the index or {@code -1} if no stable version matches.
+   */
+  int latestStableIndexIn(@NonNull VersionRange<SemanticVersion> range) {
+    int index = this.endIndex(range) - 1;
+    if (index < 0) {
+      return -1;
+    }
+
+    index = this.latestStable[index];
+    if (index < 0 || index < this.startIndex(range)) {
+      return -1;
+    }
+
+    return index;
+  }
+
+  int size() {
+    return this.versions.length;
+  }
+
+  /**
+   * Retrieves an unmodifiable view of the versions.
+   */
+  @NonNull
+  List<SemanticVersion> versions() {
+    return Collections.unmodifiableList(Arrays.asList(this.versions));
+  }
+
+  /**
+   * Locates the index of the first version past {@code range}.
+   */
+  private int endIndex(@NonNull VersionRange<SemanticVersion> range) {
+    SemanticVersion bound = range.endBound();
+    return (bound == null ? this.versions.length : this.lowerBound(bound, !range.endInclusive()));
+  }
+
+  /**
+   * Locates the index of the first version within {@code range}.
+   */
+  private int startIndex(@NonNull VersionRange<SemanticVersion> range) {
+    SemanticVersion bound = range.startBound();
+    return (bound == null ? 0 : this.lowerBound(bound, range.startInclusive()));
+  }
+
+  /**
+   * Locates the index of the first version which is greater than (or equal to if {@code
+   * inclusive} is set) {@code version}.
+   */
+  private int lowerBound(@NonNull SemanticVersion version, boolean inclusive) {
+    if (this.packed != null) {
+      long key = PackedSemanticVersion.tryPack(version);
+
+      if (key != PackedSemanticVersion.UNPACKABLE) {
+        return (inclusive ? PackedSemanticVersion.lowerBound(this.packed, 0, key)
+            : PackedSemanticVersion.upperBound(this.packed, 0, key));
+      }
+    }
+
+    int low = 0;
+    int high = this.versions.length;
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      int comparison = this.versions[middle].compareTo(version);
+
+      if (comparison < 0 || (comparison == 0 && !inclusive)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.VersionRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Provides an immutable map which associates semantic versions with arbitrary values.
+ *
+ * <p>Keys are kept within a sorted array (alongside their packed representation where possible)
+ * rather than a tree of entry objects. All lookups are thus answered via a single binary search
+ * over a primitive array in {@code O(log n)} while the latest stable version up to each key is
+ * precomputed so that queries such as "newest stable version within a range" complete in {@code
+ * O(log n)} as well:</p>
+ *
+ * <pre>
+ * VersionMap&lt;Artifact&gt; artifacts = VersionMap.&lt;Artifact&gt;builder()
+ *     .put(SemanticVersion.of("1.0"), artifact1)
+ *     .put(SemanticVersion.of("1.1-rc.1"), artifact2)
+ *     .build();
+ *
+ * artifacts.latestStableIn(SemanticVersion.range("[1.0,2.0)")); // 1.0 =&gt; artifact1
+ * </pre>
+ *
+ * <p>Like {@link java.util.TreeMap}, keys are considered equal when {@link
+ * SemanticVersion#compareTo(SemanticVersion)} reports so. Instances may be shared freely between
+ * threads.</p>
+ *
+ * @param <V> the value type.
+ * @author Johannes Donath
+ */
+public final class VersionMap<V> {
+
+  private static final VersionMap<?> EMPTY = new VersionMap<>(VersionArray.EMPTY, new Object[0]);
+
+  private final VersionArray keys;
+  private final Object[] values;
+
+  private VersionMap(@NonNull VersionArray keys, @NonNull Object[] values) {
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /**
+   * Retrieves a new {@link Builder}.
+   *
+   * @param <V> the value type.
+   * @return the builder.
+   */
+  @NonNull
+  public static <V> Builder<V> builder() {
+    return (new Builder<>());
+  }
+
+  /**
+   * Retrieves an empty map.
+   *
+   * @param <V> the value type.
+   * @return the map.
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  public static <V> VersionMap<V> empty() {
+    return (VersionMap<V>) EMPTY;
+  }
+
+  /**
+   * Creates a map which contains all entries of {@code map}.
+   *
+   * @param map the map.
+   * @param <V> the value type.
+   * @return the map.
+   */
+  @NonNull
+  public static <V> VersionMap<V> of(@NonNull Map<? extends SemanticVersion, ? extends V> map) {
+    return VersionMap.<V>builder().putAll(map).build();
+  }
+
+  /**
+   * Retrieves the entry with the smallest key which is greater than or equal to {@code
+   * version}.
+   *
+   * @param version the version.
+   * @return the entry or an empty optional if no such key exists.
+   */
+  @NonNull
+  public Optional<Map.Entry<SemanticVersion, V>> ceiling(@NonNull SemanticVersion version) {
+    return this.entry(this.keys.ceilingIndex(version));
+  }
+
+  /**
+   * Locates the index of the smallest key which is greater than or equal to {@code version}.
+   *
+   * @param version the version.
+   * @return the index or {@code -1} if no such key exists.
+   */
+  public int ceilingIndex(@NonNull SemanticVersion version) {
+    return this.keys.ceilingIndex(version);
+  }
+
+  /**
+   * Checks whether this map contains a key which is equal to {@code version}.
+   *
+   * @param version the version.
+   * @return {@code true} if present, {@code false} otherwise.
+   */
+  public boolean containsKey(@Nullable SemanticVersion version) {
+    return this.keys.indexOf(version) != -1;
+  }
+
+  /**
+   * Retrieves the entry with the largest key which is smaller than or equal to {@code version}.
+   *
+   * @param version the version.
+   * @return the entry or an empty optional if no such key exists.
+   */
+  @NonNull
+  public Optional<Map.Entry<SemanticVersion, V>> floor(@NonNull SemanticVersion version) {
+    return this.entry(this.keys.floorIndex(version));
+  }
+
+  /**
+   * Locates the index of the largest key which is smaller than or equal to {@code version}.
+   *
+   * @param version the version.
+   * @return the index or {@code -1} if no such key exists.
+   */
+  public int floorIndex(@NonNull SemanticVersion version) {
+    return this.keys.floorIndex(version);
+  }
+
+  /**
+   * Retrieves the value which is associated with {@code version}.
+   *
+   * @param version the version.
+   * @return the value or {@code null} if no such key exists.
+   */
+  @Nullable
+  public V get(@Nullable SemanticVersion version) {
+    int index = this.keys.indexOf(version);
+    return (index == -1 ? null : this.value(index));
+  }
+
+  /**
+   * Checks whether this map is empty.
+   *
+   * @return {@code true} if empty, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return this.keys.size() == 0;
+  }
+
+  /**
+   * Retrieves the key at a given index.
+   *
+   * @param index the index (in ascending key order).
+   * @return the key.
+   * @throws IndexOutOfBoundsException when the index exceeds the map bounds.
+   */
+  @NonNull
+  public SemanticVersion key(int index) {
+    return this.keys.get(index);
+  }
+
+  /**
+   * Retrieves an unmodifiable list of all keys in ascending order.
+   *
+   * @return the keys.
+   */
+  @NonNull
+  public List<SemanticVersion> keys() {
+    return this.keys.versions();
+  }
+
+  /**
+   * Retrieves the entry with the latest key within {@code range}.
+   *
+   * @param range the range.
+   * @return the entry or an empty optional if no key matches.
+   */
+  @NonNull
+  public Optional<Map.Entry<SemanticVersion, V>> latestIn(
+      @NonNull VersionRange<SemanticVersion> range) {
+    return this.entry(this.keys.latestIndexIn(range));
+  }
+
+  /**
+   * Locates the index of the latest key within {@code range}.
+   *
+   * @param range the range.
+   * @return the index or {@code -1} if no key matches.
+   */
+  public int latestIndexIn(@NonNull VersionRange<SemanticVersion> range) {
+    return this.keys.latestIndexIn(range);
+  }
+
+  /**
+   * Retrieves the entry with the latest stable key.
+   *
+   * @return the entry or an empty optional if no stable key exists.
+   */
+  @NonNull
+  public Optional<Map.Entry<SemanticVersion, V>> latestStable() {
+    return this.entry(this.keys.latestStableIndex());
+  }
+
+  /**
+   * Retrieves the entry with the latest stable key within {@code range}.
+   *
+   * @param range the range.
+   * @return the entry or an empty optional if no stable key matches.
+   */
+  @NonNull
+  public Optional<Map.Entry<SemanticVersion, V>> latestStableIn(
+      @NonNull VersionRange<SemanticVersion> range) {
+    return this.entry(this.keys.latestStableIndexIn(range));
+  }
+
+  /**
+   * Locates the index of the latest stable key.
+   *
+   * @return the index or {@code -1} if no stable key exists.
+   */
+  public int latestStableIndex() {
+    return this.keys.latestStableIndex();
+  }
+
+  /**
+   * Locates the index of the latest stable key within {@code range}.
+   *
+   * @param range the range.
+   * @return the index or {@code -1} if no stable key matches.
+   */
+  public int latestStableIndexIn(@NonNull VersionRange<SemanticVersion> range) {
+    return this.keys.latestStableIndexIn(range);
+  }
+
+  /**
+   * Retrieves the amount of entries within this map.
+   *
+   * @return the amount of entries.
+   */
+  public int size() {
+    return this.keys.size();
+  }
+
+  /**
+   * Retrieves the value at a given index.
+   *
+   * @param index the index (in ascending key order).
+   * @return the value.
+   * @throws IndexOutOfBoundsException when the index exceeds the map bounds.
+   */
+  @SuppressWarnings("unchecked")
+  public V value(int index) {
+    return (V) this.values[index];
+  }
+
+  /**
+   * Retrieves an unmodifiable list of all values in ascending key order.
+   *
+   * @return the values.
+   */
+  @NonNull
+  @SuppressWarnings("unchecked")
+  public List<V> values() {
+    return Collections.unmodifiableList((List<V>) Arrays.asList(this.values));
+  }
+
+  @NonNull
+  private Optional<Map.Entry<SemanticVersion, V>> entry(int index) {
+    if (index == -1) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new AbstractMap.SimpleImmutableEntry<>(this.key(index), this.value(index)));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("{");
+
+    for (int i = 0; i < this.size(); ++i) {
+      if (i != 0) {
+        builder.append(", ");
+      }
+
+      builder.append(this.key(i)).append('=').append(this.value(i));
+    }
+
+    return builder.append('}').toString();
+  }
+
+  /**
+   * Provides a factory for {@link VersionMap} instances.
+   *
+   * @param <V> the value type.
+   */
+  public static final class Builder<V> {
+
+    private final List<SemanticVersion> keys = new ArrayList<>();
+    private final List<V> values = new ArrayList<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Builds an immutable map of all entries and resets the builder.
+     *
+     * <p>When multiple entries with equal keys have been added, the last of them is retained.</p>
+     *
+     * @return the map.
+     */
+    @NonNull
+    public VersionMap<V> build() {
+      try {
+        if (this.keys.isEmpty()) {
+          return VersionMap.empty();
+        }
+
+        int[] order = new int[this.keys.size()];
+        VersionArray keys = VersionArray.create(this.keys, order);
+
+        Object[] values = new Object[keys.size()];
+        for (int i = 0; i < values.length; ++i) {
+          values[i] = this.values.get(order[i]);
+        }
+
+        return (new VersionMap<>(keys, values));
+      } finally {
+        this.reset();
+      }
+    }
+
+    /**
+     * Adds an entry.
+     *
+     * @param version the key.
+     * @param value the value.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<V> put(@NonNull SemanticVersion version, @Nullable V value) {
+      this.keys.add(version);
+      this.values.add(value);
+      return this;
+    }
+
+    /**
+     * Adds all entries of a map.
+     *
+     * @param map the map.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<V> putAll(@NonNull Map<? extends SemanticVersion, ? extends V> map) {
+      map.forEach(this::put);
+      return this;
+    }
+
+    /**
+     * Removes all entries from this builder.
+     *
+     * @return the builder.
+     */
+    @NonNull
+    public Builder<V> reset() {
+      this.keys.clear();
+      this.values.clear();
+      return this;
+    }
+
+    /**
+     * Retrieves the amount of entries which have been added to this builder so far.
+     *
+     * @return the amount of entries.
+     */
+    public int size() {
+      return this.keys.size();
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.UnstableVersionType;
+import com.torchmind.utility.version.VersionRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Provides a predicate which has been specialized for matching versions against a single {@link
+ * VersionRange}.
+ *
+ * <p>When both bounds fit within the {@link PackedSemanticVersion packed} representation, the
+ * inclusivity of each bound is folded into a pair of inclusive packed limits so that matching a
+ * packable version costs exactly two primitive comparisons. Versions which cannot be packed (and
+ * ranges with unpackable bounds) are matched via at most two regular comparisons instead:</p>
+ *
+ * <pre>
+ * VersionRangeMatcher matcher = VersionRangeMatcher.compile(SemanticVersion.range("[1.0,2.0)"));
+ *
+ * versions.stream().filter(matcher)...
+ * Arrays.stream(packedVersions).filter(matcher.asLongPredicate())...
+ * </pre>
+ *
+ * <p>Instances are immutable and may be shared between threads.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class VersionRangeMatcher implements Predicate<SemanticVersion> {
+
+  private final VersionRange<SemanticVersion> range;
+  private final boolean packed;
+  private final long lowerLimit;
+  private final long upperLimit;
+
+  private VersionRangeMatcher(@NonNull VersionRange<SemanticVersion> range) {
+    this.range = range;
+
+    // infinite bounds are represented by the limits of the packed value range (packed values are
+    // never negative)
+    long startBound = (range.startBound() == null ? 0
+        : PackedSemanticVersion.tryPack(range.startBound()));
+    long endBound = (range.endBound() == null ? Long.MAX_VALUE
+        : PackedSemanticVersion.tryPack(range.endBound()));
+
+    this.packed = startBound != PackedSemanticVersion.UNPACKABLE
+        && endBound != PackedSemanticVersion.UNPACKABLE;
+
+    // packed versions are ordered like their integer values and thus exclusive bounds may simply
+    // be replaced with their direct (inclusive) neighbours
+    this.lowerLimit = (range.startInclusive() || range.startBound() == null ? startBound
+        : startBound + 1);
+    this.upperLimit = (range.endInclusive() || range.endBound() == null ? endBound
+        : endBound - 1);
+  }
+
+  /**
+   * Compiles a range into a matcher.
+   *
+   * @param range the range.
+   * @return the matcher.
+   */
+  @NonNull
+  public static VersionRangeMatcher compile(@NonNull VersionRange<SemanticVersion> range) {
+    return (new VersionRangeMatcher(range));
+  }
+
+  /**
+   * Compares the bits of a packed version with a version.
+   */
+  private static int compare(long version, @NonNull SemanticVersion other) {
+    UnstableVersionType type = PackedSemanticVersion.unstableVersionType(version);
+    UnstableVersionType otherType = other.unstableVersionTypeOrNull();
+
+    return SemanticVersionTable.compare(PackedSemanticVersion.major(version),
+        PackedSemanticVersion.minor(version), PackedSemanticVersion.patch(version),
+        (type == null ? 0 : type.ordinal() + 1), PackedSemanticVersion.extraRevision(version),
+        other.major(), other.minor(), other.patch(),
+        (otherType == null ? 0 : otherType.ordinal() + 1), other.extraRevision());
+  }
+
+  /**
+   * Retrieves a primitive predicate which matches packed versions against the range.
+   *
+   * @return the predicate.
+   * @see #test(long)
+   */
+  @NonNull
+  public LongPredicate asLongPredicate() {
+    return this::test;
+  }
+
+  /**
+   * Checks whether both bounds of the range fit within the packed representation (e.g. whether
+   * packable versions are matched via primitive comparisons).
+   *
+   * @return {@code true} if packed, {@code false} otherwise.
+   */
+  public boolean packed() {
+    return this.packed;
+  }
+
+  /**
+   * Retrieves the range which has been compiled into this matcher.
+   *
+   * @return the range.
+   */
+  @NonNull
+  public VersionRange<SemanticVersion> range() {
+    return this.range;
+  }
+
+  /**
+   * Checks whether a version matches the range.
+   *
+   * @param version the version.
+   * @return {@code true} if matching, {@code false} otherwise.
+   */
+  @Override
+  public boolean test(@Nullable SemanticVersion version) {
+    if (version == null) {
+      return false;
+    }
+
+    if (this.packed) {
+      long value = PackedSemanticVersion.tryPack(version);
+
+      if (value != PackedSemanticVersion.UNPACKABLE) {
+        return value >= this.lowerLimit && value <= this.upperLimit;
+      }
+    }
+
+    return this.range.matches(version);
+  }
+
+  /**
+   * Checks whether a packed version matches the range.
+   *
+   * <p>{@link PackedSemanticVersion#UNPACKABLE} never matches.</p>
+   *
+   * @param version the packed version.
+   * @return {@code true} if matching, {@code false} otherwise.
+   * @see PackedSemanticVersion
+   */
+  public boolean test(long version) {
+    if (version < 0) {
+      return false;
+    }
+    if (this.packed) {
+      return version >= this.lowerLimit && version <= this.upperLimit;
+    }
+
+    SemanticVersion startBound = this.range.startBound();
+    if (startBound != null) {
+      int start = compare(version, startBound);
+
+      if (start < 0 || (start == 0 && !this.range.startInclusive())) {
+        return false;
+      }
+    }
+
+    SemanticVersion endBound = this.range.endBound();
+    if (endBound == null) {
+      return true;
+    }
+
+    int end = compare(version, endBound);
+    return end < 0 || (end == 0 && this.range.endInclusive());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return this.range.toString();
+  }
+}
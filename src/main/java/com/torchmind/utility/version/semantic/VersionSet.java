@@ -0,0 +1,303 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.VersionRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Provides an immutable set of semantic versions which answers ordering queries in {@code
+ * O(log n)}.
+ *
+ * <p>Versions are kept within a sorted array (alongside their packed representation where
+ * possible) and thus do not require an entry object per element. Versions are considered equal
+ * when {@link SemanticVersion#compareTo(SemanticVersion)} reports so.</p>
+ *
+ * @author Johannes Donath
+ * @see VersionMap
+ */
+public final class VersionSet implements Iterable<SemanticVersion> {
+
+  private static final VersionSet EMPTY = new VersionSet(VersionArray.EMPTY);
+
+  private final VersionArray versions;
+
+  private VersionSet(@NonNull VersionArray versions) {
+    this.versions = versions;
+  }
+
+  /**
+   * Retrieves a new {@link Builder}.
+   *
+   * @return the builder.
+   */
+  @NonNull
+  public static Builder builder() {
+    return (new Builder());
+  }
+
+  /**
+   * Retrieves an empty set.
+   *
+   * @return the set.
+   */
+  @NonNull
+  public static VersionSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a set which contains all passed versions.
+   *
+   * @param versions the versions.
+   * @return the set.
+   */
+  @NonNull
+  public static VersionSet of(@NonNull SemanticVersion... versions) {
+    return of(Arrays.asList(versions));
+  }
+
+  /**
+   * Creates a set which contains all passed versions.
+   *
+   * @param versions the versions.
+   * @return the set.
+   */
+  @NonNull
+  public static VersionSet of(@NonNull Collection<? extends SemanticVersion> versions) {
+    return builder().addAll(versions).build();
+  }
+
+  /**
+   * Retrieves the smallest version which is greater than or equal to {@code version}.
+   *
+   * @param version the version.
+   * @return the version or an empty optional if no such version exists.
+   */
+  @NonNull
+  public Optional<SemanticVersion> ceiling(@NonNull SemanticVersion version) {
+    return this.find(this.versions.ceilingIndex(version));
+  }
+
+  /**
+   * Checks whether this set contains a version which is equal to {@code version}.
+   *
+   * @param version the version.
+   * @return {@code true} if present, {@code false} otherwise.
+   */
+  public boolean contains(@Nullable SemanticVersion version) {
+    return this.versions.indexOf(version) != -1;
+  }
+
+  /**
+   * Retrieves the largest version which is smaller than or equal to {@code version}.
+   *
+   * @param version the version.
+   * @return the version or an empty optional if no such version exists.
+   */
+  @NonNull
+  public Optional<SemanticVersion> floor(@NonNull SemanticVersion version) {
+    return this.find(this.versions.floorIndex(version));
+  }
+
+  /**
+   * Retrieves the version at a given index.
+   *
+   * @param index the index (in ascending order).
+   * @return the version.
+   * @throws IndexOutOfBoundsException when the index exceeds the set bounds.
+   */
+  @NonNull
+  public SemanticVersion get(int index) {
+    return this.versions.get(index);
+  }
+
+  /**
+   * Locates the index of a version within this set.
+   *
+   * @param version the version.
+   * @return the index or {@code -1} if no such version exists.
+   */
+  public int indexOf(@Nullable SemanticVersion version) {
+    return this.versions.indexOf(version);
+  }
+
+  /**
+   * Checks whether this set is empty.
+   *
+   * @return {@code true} if empty, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return this.versions.size() == 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @NonNull
+  @Override
+  public Iterator<SemanticVersion> iterator() {
+    return this.versions.versions().iterator();
+  }
+
+  /**
+   * Retrieves the latest version within {@code range}.
+   *
+   * @param range the range.
+   * @return the version or an empty optional if no version matches.
+   */
+  @NonNull
+  public Optional<SemanticVersion> latestIn(@NonNull VersionRange<SemanticVersion> range) {
+    return this.find(this.versions.latestIndexIn(range));
+  }
+
+  /**
+   * Retrieves the latest stable version.
+   *
+   * @return the version or an empty optional if no stable version exists.
+   */
+  @NonNull
+  public Optional<SemanticVersion> latestStable() {
+    return this.find(this.versions.latestStableIndex());
+  }
+
+  /**
+   * Retrieves the latest stable version within {@code range}.
+   *
+   * @param range the range.
+   * @return the version or an empty optional if no stable version matches.
+   */
+  @NonNull
+  public Optional<SemanticVersion> latestStableIn(@NonNull VersionRange<SemanticVersion> range) {
+    return this.find(this.versions.latestStableIndexIn(range));
+  }
+
+  /**
+   * Retrieves the amount of versions within this set.
+   *
+   * @return the amount of versions.
+   */
+  public int size() {
+    return this.versions.size();
+  }
+
+  /**
+   * Retrieves an unmodifiable list of all versions in ascending order.
+   *
+   * @return the versions.
+   */
+  @NonNull
+  public List<SemanticVersion> versions() {
+    return this.versions.versions();
+  }
+
+  @NonNull
+  private Optional<SemanticVersion> find(int index) {
+    return (index == -1 ? Optional.empty() : Optional.of(this.versions.get(index)));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return this.versions.versions().toString();
+  }
+
+  /**
+   * Provides a factory for {@link VersionSet} instances.
+   */
+  public static final class Builder {
+
+    private final List<SemanticVersion> versions = new ArrayList<>();
+
+    private Builder() {
+    }
+
+    /**
+     * Adds a version.
+     *
+     * @param version the version.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder add(@NonNull SemanticVersion version) {
+      this.versions.add(version);
+      return this;
+    }
+
+    /**
+     * Adds all passed versions.
+     *
+     * @param versions the versions.
+     * @return the builder.
+     */
+    @NonNull
+    public Builder addAll(@NonNull Collection<? extends SemanticVersion> versions) {
+      this.versions.addAll(versions);
+      return this;
+    }
+
+    /**
+     * Builds an immutable set of all versions and resets the builder.
+     *
+     * <p>When multiple equal versions have been added, the last of them is retained.</p>
+     *
+     * @return the set.
+     */
+    @NonNull
+    public VersionSet build() {
+      try {
+        if (this.versions.isEmpty()) {
+          return VersionSet.empty();
+        }
+
+        return (new VersionSet(VersionArray.create(this.versions,
+            new int[this.versions.size()])));
+      } finally {
+        this.reset();
+      }
+    }
+
+    /**
+     * Removes all versions from this builder.
+     *
+     * @return the builder.
+     */
+    @NonNull
+    public Builder reset() {
+      this.versions.clear();
+      return this;
+    }
+
+    /**
+     * Retrieves the amount of versions which have been added to this builder so far.
+     *
+     * @return the amount of versions.
+     */
+    public int size() {
+      return this.versions.size();
+    }
+  }
+}
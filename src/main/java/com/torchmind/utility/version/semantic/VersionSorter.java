@@ -0,0 +1,424 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Provides an LSD radix sort which orders versions in accordance with {@link
+ * SemanticVersion#compareTo(SemanticVersion)} without comparing them pairwise.
+ *
+ * <p>When all versions fit within the packed representation, their {@link
+ * PackedSemanticVersion packed} values are used as sort keys and ordered in (at most) eight byte
+ * wide passes. Otherwise the versions are ordered column by column (update number, revision,
+ * type rank, patch, minor and major bit) using the same per-byte passes on the sign adjusted
+ * values. Passes in which all elements share the same digit are skipped entirely.</p>
+ *
+ * <p>Sorting is stable. The parallel variants distribute histogram computation and scattering of
+ * each pass among the workers of a {@link ForkJoinPool}.</p>
+ *
+ * @author Johannes Donath
+ */
+public final class VersionSorter {
+
+  /**
+   * Defines the amount of elements below which versions are sorted via comparison instead.
+   */
+  static final int COMPARISON_THRESHOLD = 64;
+
+  /**
+   * Defines the minimum amount of elements which is assigned to a single parallel worker.
+   */
+  static final int MIN_CHUNK_SIZE = 1 << 13;
+
+  private static final int RADIX = 256;
+  private static final int COLUMN_COUNT = 6;
+  private static final int NO_TYPE_RANK = 6;
+
+  private VersionSorter() {
+  }
+
+  /**
+   * Sorts an array of versions using the common pool.
+   *
+   * @param versions the versions.
+   * @param <T> the version type.
+   * @throws NullPointerException when one of the elements is {@code null}.
+   */
+  public static <T extends SemanticVersion> void parallelSort(@NonNull T[] versions) {
+    parallelSort(versions, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Sorts an array of versions using the workers of a pool.
+   *
+   * @param versions the versions.
+   * @param pool the pool.
+   * @param <T> the version type.
+   * @throws NullPointerException when one of the elements is {@code null}.
+   */
+  public static <T extends SemanticVersion> void parallelSort(@NonNull T[] versions,
+      @NonNull ForkJoinPool pool) {
+    sort(versions, pool);
+  }
+
+  /**
+   * Sorts a list of versions using the common pool.
+   *
+   * @param versions the versions.
+   * @param <T> the version type.
+   * @throws NullPointerException when one of the elements is {@code null}.
+   * @throws UnsupportedOperationException when the list is not modifiable.
+   */
+  public static <T extends SemanticVersion> void parallelSort(@NonNull List<T> versions) {
+    parallelSort(versions, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Sorts a list of versions using the workers of a pool.
+   *
+   * @param versions the versions.
+   * @param pool the pool.
+   * @param <T> the version type.
+   * @throws NullPointerException when one of the elements is {@code null}.
+   * @throws UnsupportedOperationException when the list is not modifiable.
+   */
+  public static <T extends SemanticVersion> void parallelSort(@NonNull List<T> versions,
+      @NonNull ForkJoinPool pool) {
+    sort(versions, pool);
+  }
+
+  /**
+   * Sorts an array of versions.
+   *
+   * @param versions the versions.
+   * @param <T> the version type.
+   * @throws NullPointerException when one of the elements is {@code null}.
+   */
+  public static <T extends SemanticVersion> void sort(@NonNull T[] versions) {
+    sort(versions, null);
+  }
+
+  /**
+   * Sorts a list of versions.
+   *
+   * <p>Like {@link java.util.Collections#sort(List)}, the list is copied into an array which is
+   * written back once sorted.</p>
+   *
+   * @param versions the versions.
+   * @param <T> the version type.
+   * @throws NullPointerException when one of the elements is {@code null}.
+   * @throws UnsupportedOperationException when the list is not modifiable.
+   */
+  public static <T extends SemanticVersion> void sort(@NonNull List<T> versions) {
+    sort(versions, null);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T extends SemanticVersion> void sort(@NonNull List<T> versions,
+      ForkJoinPool pool) {
+    SemanticVersion[] elements = versions.toArray(new SemanticVersion[0]);
+    sort(elements, pool);
+
+    ListIterator<T> it = versions.listIterator();
+    for (SemanticVersion element : elements) {
+      it.next();
+      it.set((T) element);
+    }
+  }
+
+  private static void sort(@NonNull SemanticVersion[] versions, ForkJoinPool pool) {
+    if (versions.length < COMPARISON_THRESHOLD) {
+      Arrays.sort(versions);
+      return;
+    }
+
+    (new Sorter(versions, pool)).sort();
+  }
+
+  /**
+   * Retrieves the value of a key column for a given version.
+   *
+   * <p>Columns are numbered from least to most significant. Bits which are not considered by
+   * {@link SemanticVersion#compareTo(SemanticVersion)} are reported as zero.</p>
+   */
+  private static int column(@NonNull SemanticVersion version, int column) {
+    switch (column) {
+      case 0:
+        return (version instanceof JavaVersion ? ((JavaVersion) version).updateNumber() : 0);
+      case 1:
+        return (version.unstableVersionTypeOrNull() == null ? 0 : version.extraRevision());
+      case 2:
+        // versions without a type are newer than all typed versions (stability is implied by the
+        // major bit which has already been compared at this point)
+        return (version.unstableVersionTypeOrNull() == null ? NO_TYPE_RANK
+            : version.unstableVersionTypeOrNull().ordinal() + 1);
+      case 3:
+        return version.patch();
+      case 4:
+        return version.minor();
+      default:
+        return version.major();
+    }
+  }
+
+  /**
+   * Encapsulates the state of a single sort operation.
+   */
+  private static final class Sorter {
+
+    private final int chunkSize;
+    private final int chunks;
+    private final int[][] counts;
+    private final int length;
+    private final ForkJoinPool pool;
+    private final SemanticVersion[] versions;
+
+    private long[] keys;
+    private int[] order;
+    private long[] swapKeys;
+    private int[] swapOrder;
+
+    private Sorter(@NonNull SemanticVersion[] versions, ForkJoinPool pool) {
+      this.versions = versions;
+      this.length = versions.length;
+
+      int chunks = 1;
+      if (pool != null) {
+        chunks = Math.max(1, Math.min(pool.getParallelism(), this.length / MIN_CHUNK_SIZE));
+      }
+
+      this.chunks = chunks;
+      this.chunkSize = (this.length + chunks - 1) / chunks;
+      this.pool = (chunks == 1 ? null : pool);
+      this.counts = new int[chunks][RADIX];
+    }
+
+    /**
+     * Computes the scatter offsets of each chunk for the current pass.
+     *
+     * @return {@code false} if all elements share the same digit (e.g. the pass may be skipped).
+     */
+    private boolean offsets() {
+      int offset = 0;
+
+      for (int digit = 0; digit < RADIX; ++digit) {
+        int total = 0;
+        for (int chunk = 0; chunk < this.chunks; ++chunk) {
+          total += this.counts[chunk][digit];
+        }
+        if (total == this.length) {
+          return false;
+        }
+
+        for (int chunk = 0; chunk < this.chunks; ++chunk) {
+          int count = this.counts[chunk][digit];
+          this.counts[chunk][digit] = offset;
+          offset += count;
+        }
+      }
+
+      return true;
+    }
+
+    /**
+     * Orders the elements by a single byte of an int column.
+     */
+    private void passColumn(@NonNull int[] column, int shift) {
+      this.run((chunk) -> {
+        int[] counts = this.counts[chunk];
+        Arrays.fill(counts, 0);
+
+        for (int i = this.start(chunk), end = this.end(chunk); i < end; ++i) {
+          ++counts[(column[this.order[i]] >>> shift) & 0xFF];
+        }
+      });
+
+      if (!this.offsets()) {
+        return;
+      }
+
+      this.run((chunk) -> {
+        int[] offsets = this.counts[chunk];
+
+        for (int i = this.start(chunk), end = this.end(chunk); i < end; ++i) {
+          int index = this.order[i];
+          this.swapOrder[offsets[(column[index] >>> shift) & 0xFF]++] = index;
+        }
+      });
+
+      int[] order = this.order;
+      this.order = this.swapOrder;
+      this.swapOrder = order;
+    }
+
+    /**
+     * Orders the elements by a single byte of their packed keys.
+     */
+    private void passPacked(int shift) {
+      this.run((chunk) -> {
+        int[] counts = this.counts[chunk];
+        Arrays.fill(counts, 0);
+
+        for (int i = this.start(chunk), end = this.end(chunk); i < end; ++i) {
+          ++counts[(int) (this.keys[i] >>> shift) & 0xFF];
+        }
+      });
+
+      if (!this.offsets()) {
+        return;
+      }
+
+      this.run((chunk) -> {
+        int[] offsets = this.counts[chunk];
+
+        for (int i = this.start(chunk), end = this.end(chunk); i < end; ++i) {
+          long key = this.keys[i];
+          int target = offsets[(int) (key >>> shift) & 0xFF]++;
+
+          this.swapKeys[target] = key;
+          this.swapOrder[target] = this.order[i];
+        }
+      });
+
+      long[] keys = this.keys;
+      this.keys = this.swapKeys;
+      this.swapKeys = keys;
+
+      int[] order = this.order;
+      this.order = this.swapOrder;
+      this.swapOrder = order;
+    }
+
+    /**
+     * Executes an operation for each chunk (in parallel if a pool has been assigned).
+     */
+    private void run(@NonNull IntConsumer operation) {
+      if (this.pool == null) {
+        for (int chunk = 0; chunk < this.chunks; ++chunk) {
+          operation.accept(chunk);
+        }
+        return;
+      }
+
+      this.pool.invoke(new ChunkAction(operation, 0, this.chunks));
+    }
+
+    private void sort() {
+      this.order = new int[this.length];
+      this.swapOrder = new int[this.length];
+      this.keys = new long[this.length];
+
+      boolean[] unpackable = new boolean[this.chunks];
+      this.run((chunk) -> {
+        for (int i = this.start(chunk), end = this.end(chunk); i < end; ++i) {
+          long key = PackedSemanticVersion.tryPack(this.versions[i]);
+
+          this.keys[i] = key;
+          this.order[i] = i;
+          unpackable[chunk] |= key == PackedSemanticVersion.UNPACKABLE;
+        }
+      });
+
+      boolean packed = true;
+      for (boolean value : unpackable) {
+        packed &= !value;
+      }
+
+      if (packed) {
+        this.swapKeys = new long[this.length];
+
+        // the most significant bit of packed keys is always unset and thus requires no adjustment
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+          this.passPacked(shift);
+        }
+      } else {
+        this.keys = null;
+        int[] values = new int[this.length];
+
+        for (int column = 0; column < COLUMN_COUNT; ++column) {
+          int index = column;
+
+          // flipping the sign bit permits signed values to be ordered by their unsigned digits
+          this.run((chunk) -> {
+            for (int i = this.start(chunk), end = this.end(chunk); i < end; ++i) {
+              values[i] = column(this.versions[i], index) ^ Integer.MIN_VALUE;
+            }
+          });
+
+          for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            this.passColumn(values, shift);
+          }
+        }
+      }
+
+      SemanticVersion[] copy = this.versions.clone();
+      this.run((chunk) -> {
+        for (int i = this.start(chunk), end = this.end(chunk); i < end; ++i) {
+          this.versions[i] = copy[this.order[i]];
+        }
+      });
+    }
+
+    private int end(int chunk) {
+      return Math.min(this.length, this.start(chunk) + this.chunkSize);
+    }
+
+    private int start(int chunk) {
+      return chunk * this.chunkSize;
+    }
+  }
+
+  /**
+   * Executes an operation for a range of chunks (forking one task per chunk).
+   */
+  private static final class ChunkAction extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int fromChunk;
+    private final IntConsumer operation;
+    private final int toChunk;
+
+    private ChunkAction(@NonNull IntConsumer operation, int fromChunk, int toChunk) {
+      this.operation = operation;
+      this.fromChunk = fromChunk;
+      this.toChunk = toChunk;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void compute() {
+      if (this.toChunk - this.fromChunk == 1) {
+        this.operation.accept(this.fromChunk);
+        return;
+      }
+
+      int middle = (this.fromChunk + this.toChunk) >>> 1;
+      invokeAll(new ChunkAction(this.operation, this.fromChunk, middle),
+          new ChunkAction(this.operation, middle, this.toChunk));
+    }
+  }
+}
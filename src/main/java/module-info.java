@@ -6,6 +6,7 @@
  */
 module com.torchmind.utility.version {
   exports com.torchmind.utility.version;
+  exports com.torchmind.utility.version.resolver;
   exports com.torchmind.utility.version.semantic;
 
   requires static com.github.spotbugs.annotations;
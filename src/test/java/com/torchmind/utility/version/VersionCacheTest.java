@@ -0,0 +1,165 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version;
+
+import com.torchmind.utility.version.semantic.JavaVersion;
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link VersionCache}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class VersionCacheTest {
+
+  /**
+   * Tests {@link VersionCache#of(String)}.
+   */
+  @Test
+  public void testIntern() {
+    VersionCache<SemanticVersion> cache = VersionCache.<SemanticVersion>builder()
+        .parser(SemanticVersion::of)
+        .build();
+
+    SemanticVersion version = cache.of("1.0.0-alpha.1");
+
+    Assert.assertSame(version, cache.of("1.0.0-alpha.1"));
+    Assert.assertEquals(SemanticVersion.of("1.0.0-alpha.1"), version);
+    Assert.assertNotSame(version, cache.of("1.0-alpha.1"));
+    Assert.assertEquals(2, cache.size());
+
+    VersionCache.Statistics statistics = cache.statistics();
+    Assert.assertEquals(1, statistics.hits());
+    Assert.assertEquals(2, statistics.misses());
+    Assert.assertEquals(3, statistics.requests());
+    Assert.assertEquals(0, statistics.evictions());
+
+    cache.clear();
+    Assert.assertEquals(0, cache.size());
+
+    VersionCache<JavaVersion> javaCache = VersionCache.<JavaVersion>builder()
+        .parser(JavaVersion::of)
+        .build();
+    Assert.assertSame(javaCache.of("1.8.0_151"), javaCache.of("1.8.0_151"));
+  }
+
+  /**
+   * Tests {@link VersionCache.EvictionPolicy#LEAST_RECENTLY_USED} and {@link
+   * VersionCache.EvictionPolicy#FIRST_IN_FIRST_OUT}.
+   */
+  @Test
+  public void testEviction() {
+    VersionCache<SemanticVersion> lru = VersionCache.<SemanticVersion>builder()
+        .parser(SemanticVersion::of)
+        .maximumSize(2)
+        .concurrencyLevel(1)
+        .evictionPolicy(VersionCache.EvictionPolicy.LEAST_RECENTLY_USED)
+        .build();
+
+    SemanticVersion version = lru.of("1.0");
+    lru.of("2.0");
+    lru.of("1.0");
+    lru.of("3.0");
+
+    Assert.assertEquals(2, lru.size());
+    Assert.assertEquals(1, lru.statistics().evictions());
+    Assert.assertSame(version, lru.of("1.0"));
+
+    VersionCache<SemanticVersion> fifo = VersionCache.<SemanticVersion>builder()
+        .parser(SemanticVersion::of)
+        .maximumSize(2)
+        .concurrencyLevel(1)
+        .evictionPolicy(VersionCache.EvictionPolicy.FIRST_IN_FIRST_OUT)
+        .build();
+
+    version = fifo.of("1.0");
+    fifo.of("2.0");
+    fifo.of("1.0");
+    fifo.of("3.0");
+
+    Assert.assertEquals(2, fifo.size());
+    Assert.assertNotSame(version, fifo.of("1.0"));
+
+    VersionCache<SemanticVersion> bounded = VersionCache.<SemanticVersion>builder()
+        .parser(SemanticVersion::of)
+        .maximumSize(3)
+        .concurrencyLevel(16)
+        .build();
+
+    for (int i = 0; i < 100; ++i) {
+      bounded.of("1." + i);
+      Assert.assertTrue(bounded.size() <= 3);
+    }
+  }
+
+  /**
+   * Tests {@link VersionCache#of(String)} when accessed by multiple threads.
+   */
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    VersionCache<SemanticVersion> cache = VersionCache.<SemanticVersion>builder()
+        .parser(SemanticVersion::of)
+        .maximumSize(1024)
+        .build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<SemanticVersion[]>> futures = new ArrayList<>();
+
+      for (int i = 0; i < 4; ++i) {
+        futures.add(executor.submit(() -> {
+          SemanticVersion[] versions = new SemanticVersion[32];
+          for (int j = 0; j < 1000; ++j) {
+            versions[j % 32] = cache.of("1." + (j % 32));
+          }
+          return versions;
+        }));
+      }
+
+      SemanticVersion[] expected = futures.get(0).get();
+      for (Future<SemanticVersion[]> future : futures) {
+        SemanticVersion[] versions = future.get();
+
+        for (int i = 0; i < versions.length; ++i) {
+          Assert.assertSame(expected[i], versions[i]);
+        }
+      }
+
+      Assert.assertEquals(4000, cache.statistics().requests());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Tests {@link VersionCache.Builder#build()} without a parser.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testMissingParser() {
+    VersionCache.builder().build();
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version;
+
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link VersionRangeIndex}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class VersionRangeIndexTest {
+
+  private static SemanticVersion randomVersion(Random random) {
+    return SemanticVersion.builder()
+        .major(1 + random.nextInt(4))
+        .minor(random.nextInt(5))
+        .build();
+  }
+
+  private static VersionRange<SemanticVersion> randomRange(Random random) {
+    SemanticVersion start = randomVersion(random);
+    SemanticVersion end = randomVersion(random);
+
+    if (start.newerThan(end)) {
+      SemanticVersion tmp = start;
+      start = end;
+      end = tmp;
+    }
+
+    return VersionRange.<SemanticVersion>builder()
+        .startBound(start)
+        .startInclusive(random.nextBoolean())
+        .endBound(end)
+        .endInclusive(random.nextBoolean())
+        .build();
+  }
+
+  /**
+   * Tests {@link VersionRangeIndex#containing(Version)}.
+   */
+  @Test
+  public void testContaining() {
+    VersionRangeIndex<SemanticVersion, String> index = VersionRangeIndex
+        .<SemanticVersion, String>builder()
+        .put(SemanticVersion.range("[1.0,2.0)"), "a")
+        .put(SemanticVersion.range("[1.5,3.0]"), "b")
+        .put(SemanticVersion.range("(2.0,2.5)"), "c")
+        .put(SemanticVersion.range("[1.0,2.0)"), "d")
+        .build();
+
+    Assert.assertEquals(4, index.size());
+    Assert.assertEquals(Arrays.asList("a", "d"),
+        index.containing(SemanticVersion.of("1.0")));
+    Assert.assertEquals(Arrays.asList("a", "d", "b"),
+        index.containing(SemanticVersion.of("1.5")));
+    Assert.assertEquals(Arrays.asList("b"), index.containing(SemanticVersion.of("2.0")));
+    Assert.assertEquals(Arrays.asList("b", "c"),
+        index.containing(SemanticVersion.of("2.1")));
+    Assert.assertTrue(index.containing(SemanticVersion.of("3.1")).isEmpty());
+    Assert.assertTrue(VersionRangeIndex.<SemanticVersion, String>empty()
+        .containing(SemanticVersion.of("1.0")).isEmpty());
+  }
+
+  /**
+   * Tests {@link VersionRangeIndex} with ranges which lack one or both of their bounds.
+   */
+  @Test
+  public void testUnbounded() {
+    VersionRangeIndex<SemanticVersion, String> index = VersionRangeIndex
+        .<SemanticVersion, String>builder()
+        .put(SemanticVersion.range("[2.0,)"), "a")
+        .put(SemanticVersion.range("(,1.0]"), "b")
+        .put(SemanticVersion.range("(,)"), "c")
+        .put(SemanticVersion.range("[1.5,1.6)"), "d")
+        .build();
+
+    Assert.assertEquals(Arrays.asList("b", "c"), index.containing(SemanticVersion.of("0.1")));
+    Assert.assertEquals(Arrays.asList("c", "d"), index.containing(SemanticVersion.of("1.5")));
+    Assert.assertEquals(Arrays.asList("c", "a"),
+        index.containing(SemanticVersion.of("9000.0")));
+    Assert.assertEquals(Arrays.asList("b", "c", "d"),
+        index.overlapping(SemanticVersion.range("(,1.5]")));
+    Assert.assertEquals(Arrays.asList("c", "a"),
+        index.overlapping(SemanticVersion.range("(1.6,)")));
+    Assert.assertEquals(Arrays.asList("b", "c", "d", "a"),
+        index.overlapping(VersionRange.any()));
+  }
+
+  /**
+   * Tests {@link VersionRangeIndex#containing(Version)} and {@link
+   * VersionRangeIndex#overlapping(VersionRange)} against a linear scan.
+   */
+  @Test
+  public void testLinearScan() {
+    Random random = new Random(42);
+    List<VersionRange<SemanticVersion>> ranges = new ArrayList<>();
+    VersionRangeIndex.Builder<SemanticVersion, Integer> builder = VersionRangeIndex.builder();
+
+    for (int i = 0; i < 200; ++i) {
+      VersionRange<SemanticVersion> range = randomRange(random);
+      ranges.add(range);
+      builder.put(range, i);
+    }
+
+    VersionRangeIndex<SemanticVersion, Integer> index = builder.build();
+    Assert.assertEquals(0, builder.size());
+
+    for (int i = 0; i < 100; ++i) {
+      SemanticVersion version = randomVersion(random);
+
+      List<Integer> expected = new ArrayList<>();
+      for (int j = 0; j < ranges.size(); ++j) {
+        if (ranges.get(j).matches(version)) {
+          expected.add(j);
+        }
+      }
+
+      List<Integer> actual = index.containing(version);
+      actual.sort(Integer::compare);
+      Assert.assertEquals(version.toString(), expected, actual);
+    }
+
+    for (int i = 0; i < 100; ++i) {
+      VersionRange<SemanticVersion> query = randomRange(random);
+
+      List<Integer> expected = new ArrayList<>();
+      for (int j = 0; j < ranges.size(); ++j) {
+        VersionRange<SemanticVersion> range = ranges.get(j);
+
+        VersionRangeSet<SemanticVersion> intersection = VersionRangeSet.of(range)
+            .intersection(VersionRangeSet.of(query));
+        if (!intersection.isEmpty()) {
+          expected.add(j);
+        }
+      }
+
+      List<Integer> actual = index.overlapping(query);
+      actual.sort(Integer::compare);
+      Assert.assertEquals(expected, actual);
+    }
+  }
+
+  /**
+   * Tests {@link VersionRangeIndex#builder(VersionRangeIndex)}.
+   */
+  @Test
+  public void testSnapshot() {
+    VersionRangeIndex<SemanticVersion, String> index = VersionRangeIndex
+        .<SemanticVersion, String>builder()
+        .put(SemanticVersion.range("[1.0,2.0)"), "a")
+        .build();
+    VersionRangeIndex<SemanticVersion, String> snapshot = VersionRangeIndex.builder(index)
+        .put(SemanticVersion.range("[0.5,1.5]"), "b")
+        .build();
+
+    Assert.assertEquals(1, index.size());
+    Assert.assertEquals(2, snapshot.size());
+    Assert.assertEquals("b", snapshot.payload(0));
+    Assert.assertEquals(SemanticVersion.range("[1.0,2.0)"), snapshot.range(1));
+    Assert.assertEquals(Arrays.asList("b", "a"),
+        snapshot.overlapping(SemanticVersion.range("[1.0,1.0]")));
+    Assert.assertTrue(snapshot.overlapping(SemanticVersion.range("(2.0,1.0)")).isEmpty());
+  }
+}
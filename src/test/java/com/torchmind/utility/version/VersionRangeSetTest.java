@@ -0,0 +1,210 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version;
+
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Predicate;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link VersionRangeSet}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class VersionRangeSetTest {
+
+  private static final String[] VERSIONS = {
+      "0.0", "0.1", "0.9", "1.0-alpha", "1.0-rc.1", "1.0", "1.0.1", "1.5", "2.0-snapshot", "2.0",
+      "2.1", "2.5", "3.0", "3.0.1", "4.0", "10.0"
+  };
+
+  private static SemanticVersion version(String value) {
+    return SemanticVersion.of(value);
+  }
+
+  private static VersionRangeSet<SemanticVersion> set(String... ranges) {
+    VersionRangeSet<SemanticVersion> set = VersionRangeSet.empty();
+
+    for (String range : ranges) {
+      set = set.union(VersionRangeSet.of(SemanticVersion.range(range)));
+    }
+
+    return set;
+  }
+
+  /**
+   * Verifies that {@code set} matches exactly the versions for which {@code expected} evaluates
+   * to {@code true}.
+   */
+  private static void assertMatches(VersionRangeSet<SemanticVersion> set,
+      Predicate<SemanticVersion> expected) {
+    for (String value : VERSIONS) {
+      SemanticVersion version = version(value);
+      Assert.assertEquals(set + " contains " + value, expected.test(version), set.matches(version));
+    }
+  }
+
+  /**
+   * Tests {@link VersionRangeSet.Builder}.
+   */
+  @Test
+  public void testBuilder() {
+    VersionRangeSet.Builder<SemanticVersion> builder = VersionRangeSet.<SemanticVersion>builder()
+        .add(version("3.0"), true, null, false)
+        .add(SemanticVersion.range("[1.0,2.0)"))
+        .add(null, false, version("0.5"), true)
+        .add(version("2.0"), false, version("1.0"), true)
+        .add(version("3.5"), true, version("4.0"), false);
+
+    Assert.assertEquals(4, builder.size());
+
+    VersionRangeSet<SemanticVersion> set = builder.build();
+    Assert.assertEquals("(,0.5],[1.0,2.0),[3.0,)", set.toString());
+    Assert.assertEquals(0, builder.size());
+    Assert.assertTrue(builder.build().isEmpty());
+    Assert.assertEquals(VersionRangeSet.all(), VersionRangeSet.<SemanticVersion>builder()
+        .add(null, true, null, true)
+        .build());
+  }
+
+  /**
+   * Tests {@link VersionRangeSet#ranges()}.
+   */
+  @Test
+  public void testRanges() {
+    VersionRangeSet<SemanticVersion> set = set("(,1.0]", "[1.2,2.0)", "[3.0,)");
+
+    Assert.assertEquals(Arrays.asList(VersionRange.atMost(version("1.0")),
+        SemanticVersion.range("[1.2,2.0)"), VersionRange.atLeast(version("3.0"))), set.ranges());
+    Assert.assertEquals(VersionRange.atLeast(version("3.0")), set.range(2));
+    Assert.assertEquals(Collections.singletonList(VersionRange.any()),
+        VersionRangeSet.<SemanticVersion>all().ranges());
+    Assert.assertTrue(VersionRangeSet.<SemanticVersion>empty().ranges().isEmpty());
+  }
+
+  /**
+   * Tests {@link VersionRangeSet#of(VersionRange[])}.
+   */
+  @Test
+  public void testNormalize() {
+    VersionRangeSet<SemanticVersion> set = VersionRangeSet.of(
+        SemanticVersion.range("[3.0,4.0)"),
+        SemanticVersion.range("[1.0,2.0)"),
+        SemanticVersion.range("[2.0,2.5]"),
+        SemanticVersion.range("(1.5,1.6)"),
+        SemanticVersion.range("(4.0,5.0)"),
+        SemanticVersion.range("(2.0,1.0)"));
+
+    Assert.assertEquals(3, set.size());
+    Assert.assertEquals("[1.0,2.5],[3.0,4.0),(4.0,5.0)", set.toString());
+    Assert.assertEquals(version("1.0"), set.startBound(0));
+    Assert.assertTrue(set.startInclusive(0));
+    Assert.assertEquals(version("2.5"), set.endBound(0));
+    Assert.assertTrue(set.endInclusive(0));
+
+    Assert.assertEquals(set, VersionRangeSet.of(SemanticVersion.range("(4.0,5.0)"),
+        SemanticVersion.range("[1.0,2.5]"), SemanticVersion.range("[3.0,4.0)")));
+    Assert.assertTrue(VersionRangeSet.of(SemanticVersion.range("(1.0,1.0)")).isEmpty());
+    Assert.assertEquals(1, VersionRangeSet.of(SemanticVersion.range("[1.0,1.0]")).size());
+  }
+
+  /**
+   * Tests {@link VersionRangeSet#matches(Version)}.
+   */
+  @Test
+  public void testMatches() {
+    VersionRangeSet<SemanticVersion> set = set("[0.1,1.0)", "(2.0,3.0]", "[4.0,4.0]");
+
+    assertMatches(set, (v) -> SemanticVersion.range("[0.1,1.0)").matches(v)
+        || SemanticVersion.range("(2.0,3.0]").matches(v) || v.equals(version("4.0")));
+    assertMatches(VersionRangeSet.empty(), (v) -> false);
+    assertMatches(VersionRangeSet.all(), (v) -> true);
+    assertMatches(VersionRangeSet.atLeast(version("2.0")), (v) -> !v.olderThan(version("2.0")));
+    assertMatches(VersionRangeSet.greaterThan(version("2.0")), (v) -> v.newerThan(version("2.0")));
+    assertMatches(VersionRangeSet.atMost(version("2.0")), (v) -> !v.newerThan(version("2.0")));
+    assertMatches(VersionRangeSet.lessThan(version("2.0")), (v) -> v.olderThan(version("2.0")));
+    assertMatches(VersionRangeSet.exactly(version("2.0")), (v) -> v.equals(version("2.0")));
+  }
+
+  /**
+   * Tests {@link VersionRangeSet#union(VersionRangeSet)}.
+   */
+  @Test
+  public void testUnion() {
+    VersionRangeSet<SemanticVersion> set1 = set("[0.1,1.0)", "[3.0,4.0]");
+    VersionRangeSet<SemanticVersion> set2 = set("[1.0,2.0)", "(4.0,10.0)");
+
+    VersionRangeSet<SemanticVersion> union = set1.union(set2);
+    Assert.assertEquals("[0.1,2.0),[3.0,10.0)", union.toString());
+    assertMatches(union, (v) -> set1.matches(v) || set2.matches(v));
+
+    VersionRangeSet<SemanticVersion> disjoint = set("(0.1,1.0)").union(set("(1.0,2.0)"));
+    Assert.assertEquals(2, disjoint.size());
+    Assert.assertFalse(disjoint.matches(version("1.0")));
+
+    Assert.assertSame(VersionRangeSet.all(), VersionRangeSet.lessThan(version("1.0"))
+        .union(VersionRangeSet.atLeast(version("1.0"))));
+    Assert.assertSame(set1, set1.union(VersionRangeSet.empty()));
+  }
+
+  /**
+   * Tests {@link VersionRangeSet#intersection(VersionRangeSet)}.
+   */
+  @Test
+  public void testIntersection() {
+    VersionRangeSet<SemanticVersion> set1 = set("[0.1,2.0)", "[3.0,4.0]");
+    VersionRangeSet<SemanticVersion> set2 = set("[1.0,3.0]", "(4.0,10.0)");
+
+    VersionRangeSet<SemanticVersion> intersection = set1.intersection(set2);
+    Assert.assertEquals("[1.0,2.0),[3.0,3.0]", intersection.toString());
+    assertMatches(intersection, (v) -> set1.matches(v) && set2.matches(v));
+
+    Assert.assertTrue(set("[1.0,2.0)").intersection(set("[2.0,3.0]")).isEmpty());
+    Assert.assertTrue(set1.intersection(VersionRangeSet.empty()).isEmpty());
+    Assert.assertSame(set1, set1.intersection(VersionRangeSet.all()));
+    Assert.assertEquals(set("[2.0,3.0)"), VersionRangeSet.atLeast(version("2.0"))
+        .intersection(VersionRangeSet.lessThan(version("3.0"))));
+  }
+
+  /**
+   * Tests {@link VersionRangeSet#complement()} and {@link VersionRangeSet#difference(
+   * VersionRangeSet)}.
+   */
+  @Test
+  public void testComplement() {
+    VersionRangeSet<SemanticVersion> set = set("[0.1,1.0)", "(2.0,3.0]");
+
+    VersionRangeSet<SemanticVersion> complement = set.complement();
+    Assert.assertEquals("(,0.1),[1.0,2.0],(3.0,)", complement.toString());
+    assertMatches(complement, (v) -> !set.matches(v));
+    Assert.assertEquals(set, complement.complement());
+
+    Assert.assertSame(VersionRangeSet.all(), VersionRangeSet.empty().complement());
+    Assert.assertTrue(VersionRangeSet.all().complement().isEmpty());
+
+    VersionRangeSet<SemanticVersion> other = set("[0.9,2.5]");
+    VersionRangeSet<SemanticVersion> difference = set.difference(other);
+    Assert.assertEquals("[0.1,0.9),(2.5,3.0]", difference.toString());
+    assertMatches(difference, (v) -> set.matches(v) && !other.matches(v));
+  }
+}
@@ -17,7 +17,9 @@
 package com.torchmind.utility.version;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.junit.Assert;
 import org.junit.Before;
@@ -90,6 +92,18 @@ public class VersionRangeTest {
         .thenReturn(false);
     Mockito.when(this.endBound.olderThan(this.newerVersion))
         .thenReturn(true);
+
+    Mockito.when(this.startBound.compareTo(this.olderVersion)).thenReturn(1);
+    Mockito.when(this.startBound.compareTo(this.startBound)).thenReturn(0);
+    Mockito.when(this.startBound.compareTo(this.containedVersion)).thenReturn(-1);
+    Mockito.when(this.startBound.compareTo(this.endBound)).thenReturn(-1);
+    Mockito.when(this.startBound.compareTo(this.newerVersion)).thenReturn(-1);
+
+    Mockito.when(this.endBound.compareTo(this.olderVersion)).thenReturn(1);
+    Mockito.when(this.endBound.compareTo(this.startBound)).thenReturn(1);
+    Mockito.when(this.endBound.compareTo(this.containedVersion)).thenReturn(1);
+    Mockito.when(this.endBound.compareTo(this.endBound)).thenReturn(0);
+    Mockito.when(this.endBound.compareTo(this.newerVersion)).thenReturn(-1);
   }
 
   /**
@@ -118,6 +132,7 @@ public class VersionRangeTest {
       Assert.assertFalse(range00.matches(this.newerVersion));
 
       Assert.assertTrue(range00.matches(this.endBound));
+      Assert.assertFalse(range00.matches(null));
     }
 
     {
@@ -218,6 +233,97 @@ public class VersionRangeTest {
     }
   }
 
+  /**
+   * Tests {@link VersionRange#matchingSorted(java.util.List)}.
+   */
+  @Test
+  public void testMatchingSorted() {
+    VersionRange<TestVersion> range00 = VersionRange.<TestVersion>builder()
+        .startBound(this.startBound).startInclusive(true).endBound(this.endBound).endInclusive(true)
+        .build();
+    VersionRange<TestVersion> range01 = VersionRange.<TestVersion>builder()
+        .startBound(this.startBound).startInclusive(false).endBound(this.endBound)
+        .endInclusive(true).build();
+    VersionRange<TestVersion> range02 = VersionRange.<TestVersion>builder()
+        .startBound(this.startBound).startInclusive(true).endBound(this.endBound)
+        .endInclusive(false).build();
+    VersionRange<TestVersion> range03 = VersionRange.<TestVersion>builder()
+        .startBound(this.startBound).startInclusive(false).endBound(this.endBound)
+        .endInclusive(false).build();
+
+    TestVersion[] versions = {this.olderVersion, this.startBound, this.containedVersion,
+        this.endBound, this.newerVersion};
+    List<TestVersion> versionList = Arrays.asList(versions);
+
+    Assert.assertEquals(Arrays.asList(this.startBound, this.containedVersion, this.endBound),
+        range00.matchingSorted(versionList));
+    Assert.assertEquals(Arrays.asList(this.containedVersion, this.endBound),
+        range01.matchingSorted(versionList));
+    Assert.assertEquals(Arrays.asList(this.startBound, this.containedVersion),
+        range02.matchingSorted(versions));
+    Assert.assertEquals(Collections.singletonList(this.containedVersion),
+        range03.matchingSorted(versions));
+
+    Assert.assertTrue(range00.matchingSorted(Collections.emptyList()).isEmpty());
+    Assert.assertTrue(range00.matchingSorted(Arrays.asList(this.olderVersion)).isEmpty());
+    Assert.assertTrue(range00.matchingSorted(Arrays.asList(this.newerVersion)).isEmpty());
+  }
+
+  /**
+   * Tests {@link VersionRange} instances which lack one or both of their bounds.
+   */
+  @Test
+  public void testUnbounded() {
+    VersionRange<TestVersion> atLeast = VersionRange.atLeast(this.startBound);
+    VersionRange<TestVersion> greaterThan = VersionRange.greaterThan(this.startBound);
+    VersionRange<TestVersion> atMost = VersionRange.atMost(this.endBound);
+    VersionRange<TestVersion> lessThan = VersionRange.lessThan(this.endBound);
+    VersionRange<TestVersion> any = VersionRange.any();
+
+    Assert.assertFalse(atLeast.matches(this.olderVersion));
+    Assert.assertTrue(atLeast.matches(this.startBound));
+    Assert.assertTrue(atLeast.matches(this.newerVersion));
+    Assert.assertFalse(greaterThan.matches(this.startBound));
+    Assert.assertTrue(greaterThan.matches(this.containedVersion));
+
+    Assert.assertTrue(atMost.matches(this.olderVersion));
+    Assert.assertTrue(atMost.matches(this.endBound));
+    Assert.assertFalse(atMost.matches(this.newerVersion));
+    Assert.assertFalse(lessThan.matches(this.endBound));
+    Assert.assertTrue(lessThan.matches(this.containedVersion));
+
+    Assert.assertTrue(any.matches(this.olderVersion));
+    Assert.assertTrue(any.matches(this.newerVersion));
+
+    Assert.assertFalse(any.matches(null));
+    Assert.assertFalse(atLeast.matches(null));
+    Assert.assertFalse(atMost.matches(null));
+    Assert.assertFalse(lessThan.matches(null));
+
+    Assert.assertNull(atLeast.endBound());
+    Assert.assertFalse(atLeast.endInclusive());
+    Assert.assertFalse(atLeast.bounded());
+    Assert.assertFalse(any.bounded());
+    Assert.assertEquals("(,)", any.toString());
+
+    VersionRange<TestVersion> built = VersionRange.<TestVersion>builder()
+        .endBound(this.endBound).endInclusive(true).startInclusive(true).build();
+    Assert.assertNull(built.startBound());
+    Assert.assertFalse(built.startInclusive());
+    Assert.assertEquals(atMost, built);
+    Assert.assertEquals(atMost.hashCode(), built.hashCode());
+    Assert.assertNotEquals(atMost, lessThan);
+    Assert.assertEquals(any, VersionRange.<TestVersion>builder().build());
+
+    TestVersion[] versions = {this.olderVersion, this.startBound, this.containedVersion,
+        this.endBound, this.newerVersion};
+    Assert.assertEquals(Arrays.asList(this.containedVersion, this.endBound, this.newerVersion),
+        greaterThan.matchingSorted(versions));
+    Assert.assertEquals(Arrays.asList(this.olderVersion, this.startBound, this.containedVersion),
+        lessThan.matchingSorted(versions));
+    Assert.assertEquals(Arrays.asList(versions), any.matchingSorted(versions));
+  }
+
   /**
    * Provides an interface for testing purposes.
    */
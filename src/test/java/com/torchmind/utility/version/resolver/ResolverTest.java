@@ -0,0 +1,307 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.resolver;
+
+import com.torchmind.utility.version.VersionRangeSet;
+import com.torchmind.utility.version.semantic.SemanticVersion;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link Resolver}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ResolverTest {
+
+  /**
+   * Creates a dependency map from pairs of artifacts and ranges.
+   */
+  static Map<String, VersionRangeSet<SemanticVersion>> dependencies(String... pairs) {
+    Map<String, VersionRangeSet<SemanticVersion>> dependencies = new LinkedHashMap<>();
+
+    for (int i = 0; i < pairs.length; i += 2) {
+      dependencies.put(pairs[i], VersionRangeSet.of(SemanticVersion.range(pairs[i + 1])));
+    }
+
+    return dependencies;
+  }
+
+  /**
+   * Asserts that a resolution was successful and satisfies all dependencies of its selection.
+   */
+  static void assertConsistent(Catalog catalog, Resolution resolution) {
+    Assert.assertTrue(resolution.failure().orElse(null), resolution.success());
+
+    resolution.selection().forEach((artifact, version) -> {
+      Map<String, VersionRangeSet<SemanticVersion>> dependencies = catalog
+          .dependencies(artifact, version);
+      if (dependencies == null) {
+        return;
+      }
+
+      dependencies.forEach((dependency, range) -> {
+        SemanticVersion selected = resolution.selection().get(dependency);
+
+        Assert.assertNotNull(artifact + " " + version + " -> " + dependency, selected);
+        Assert.assertTrue(artifact + " " + version + " -> " + dependency + " " + selected,
+            range.matches(selected));
+      });
+    });
+  }
+
+  /**
+   * Creates a catalog which contains a large layered graph (every artifact only depends on
+   * artifacts with a larger index). Version 1.1 of each artifact does not declare any
+   * dependencies and is accepted by all ranges, thus guaranteeing that the graph is resolvable.
+   */
+  static Catalog generate(int artifacts, long seed) {
+    String[] versions = {"1.0", "1.1", "2.0", "2.1", "3.0"};
+    String[] ranges = {"[1.0,2.0)", "[1.1,3.0]", "[1.0,4.0)", "[1.1,2.1]"};
+
+    Random random = new Random(seed);
+    Catalog.Builder builder = Catalog.builder();
+
+    for (int i = 0; i < artifacts; ++i) {
+      for (String version : versions) {
+        Map<String, VersionRangeSet<SemanticVersion>> dependencies = new HashMap<>();
+
+        if (!"1.1".equals(version)) {
+          for (int j = 0; j < 3 && i + 1 < artifacts; ++j) {
+            int dependency = i + 1 + random.nextInt(Math.min(50, artifacts - i - 1));
+            dependencies.put("artifact" + dependency,
+                VersionRangeSet.of(SemanticVersion.range(ranges[random.nextInt(ranges.length)])));
+          }
+        }
+
+        builder.add("artifact" + i, SemanticVersion.of(version), dependencies);
+      }
+    }
+
+    return builder.build();
+  }
+
+  private static Resolution resolve(Catalog catalog, String... requirements) {
+    return Resolver.builder()
+        .catalog(catalog)
+        .build()
+        .resolve(dependencies(requirements));
+  }
+
+  /**
+   * Tests resolution of a graph which does not require any backtracking.
+   */
+  @Test
+  public void testSimple() {
+    Catalog catalog = Catalog.builder()
+        .add("a", SemanticVersion.of("1.0"), dependencies("aa", "[1.0,2.0)", "ab", "[1.0,2.0)"))
+        .add("b", SemanticVersion.of("1.0"), dependencies("ba", "[1.0,2.0)", "bb", "[1.0,2.0)"))
+        .add("aa", SemanticVersion.of("1.0"))
+        .add("ab", SemanticVersion.of("1.0"))
+        .add("ba", SemanticVersion.of("1.0"))
+        .add("bb", SemanticVersion.of("1.0"))
+        .add("bb", SemanticVersion.of("1.1"))
+        .add("bb", SemanticVersion.of("2.0"))
+        .build();
+
+    Resolution resolution = Resolver.builder().catalog(catalog).build()
+        .resolve("a", SemanticVersion.of("1.0"));
+    assertConsistent(catalog, resolution);
+    Assert.assertEquals("{a=1.0, aa=1.0, ab=1.0}",
+        new TreeMap<>(resolution.selection()).toString());
+
+    resolution = resolve(catalog, "a", "[1.0,2.0)", "b", "[1.0,2.0)");
+    assertConsistent(catalog, resolution);
+    Assert.assertEquals(6, resolution.selection().size());
+    Assert.assertEquals("1.1", resolution.selection().get("bb").toString());
+    Assert.assertEquals(0, resolution.conflictCount());
+  }
+
+  /**
+   * Tests resolution of a graph in which a conflict is avoided during decision making.
+   */
+  @Test
+  public void testAvoidConflict() {
+    Catalog catalog = Catalog.builder()
+        .add("foo", SemanticVersion.of("1.0"))
+        .add("foo", SemanticVersion.of("1.1"), dependencies("bar", "[2.0,3.0)"))
+        .add("bar", SemanticVersion.of("1.0"))
+        .add("bar", SemanticVersion.of("1.1"))
+        .add("bar", SemanticVersion.of("2.0"))
+        .build();
+
+    Resolution resolution = resolve(catalog, "foo", "[1.0,2.0)", "bar", "[1.0,2.0)");
+    assertConsistent(catalog, resolution);
+    Assert.assertEquals("1.0", resolution.selection().get("foo").toString());
+    Assert.assertEquals("1.1", resolution.selection().get("bar").toString());
+  }
+
+  /**
+   * Tests resolution of a graph which requires conflict resolution.
+   */
+  @Test
+  public void testConflictResolution() {
+    Catalog catalog = Catalog.builder()
+        .add("foo", SemanticVersion.of("1.0"))
+        .add("foo", SemanticVersion.of("2.0"), dependencies("bar", "[1.0,2.0)"))
+        .add("bar", SemanticVersion.of("1.0"), dependencies("foo", "[1.0,2.0)"))
+        .build();
+
+    Resolution resolution = resolve(catalog, "foo", "[1.0,100.0)");
+    assertConsistent(catalog, resolution);
+    Assert.assertEquals("{foo=1.0}", resolution.selection().toString());
+    Assert.assertEquals(1, resolution.conflictCount());
+  }
+
+  /**
+   * Tests resolution of a graph which requires conflict resolution with a partial satisfier.
+   */
+  @Test
+  public void testPartialSatisfier() {
+    Catalog catalog = Catalog.builder()
+        .add("foo", SemanticVersion.of("1.0"))
+        .add("foo", SemanticVersion.of("1.1"), dependencies("left", "[1.0,2.0)", "right",
+            "[1.0,2.0)"))
+        .add("left", SemanticVersion.of("1.0"), dependencies("shared", "[1.0,100.0)"))
+        .add("right", SemanticVersion.of("1.0"), dependencies("shared", "[0.0,2.0)"))
+        .add("shared", SemanticVersion.of("2.0"))
+        .add("shared", SemanticVersion.of("1.0"), dependencies("target", "[1.0,2.0)"))
+        .add("target", SemanticVersion.of("2.0"))
+        .add("target", SemanticVersion.of("1.0"))
+        .build();
+
+    Resolution resolution = resolve(catalog, "foo", "[1.0,2.0)", "target", "[2.0,3.0)");
+    assertConsistent(catalog, resolution);
+    Assert.assertEquals("{foo=1.0, target=2.0}",
+        new TreeMap<>(resolution.selection()).toString());
+  }
+
+  /**
+   * Tests resolution of an unsatisfiable graph.
+   */
+  @Test
+  public void testFailure() {
+    Catalog catalog = Catalog.builder()
+        .add("foo", SemanticVersion.of("1.0"), dependencies("bar", "[2.0,3.0)"))
+        .add("bar", SemanticVersion.of("2.0"), dependencies("baz", "[3.0,4.0)"))
+        .add("baz", SemanticVersion.of("1.0"))
+        .add("baz", SemanticVersion.of("3.0"))
+        .build();
+
+    Resolution resolution = resolve(catalog, "foo", "[1.0,2.0)", "baz", "[1.0,2.0)");
+    Assert.assertFalse(resolution.success());
+    Assert.assertTrue(resolution.failure().get(),
+        resolution.failure().get().contains("bar [2.0,2.0] depends on baz [3.0,4.0)"));
+
+    try {
+      resolution.selection();
+      Assert.fail("Expected IllegalStateException");
+    } catch (IllegalStateException ignore) {
+    }
+
+    resolution = resolve(catalog, "missing", "[1.0,2.0)");
+    Assert.assertFalse(resolution.success());
+    Assert.assertTrue(resolution.failure().get(),
+        resolution.failure().get().contains("no versions of missing [1.0,2.0) are available"));
+  }
+
+  /**
+   * Tests resolution of a large generated graph.
+   */
+  @Test
+  public void testLargeGraph() {
+    Catalog catalog = generate(5000, 0);
+    Resolution resolution = resolve(catalog, "artifact0", "[1.0,4.0)");
+
+    assertConsistent(catalog, resolution);
+    Assert.assertTrue(resolution.selection().size() > 100);
+  }
+
+  /**
+   * Tests {@link Resolver#resolveAll(Map, ForkJoinPool)}.
+   */
+  @Test
+  public void testResolveAll() {
+    Catalog catalog = generate(2000, 1);
+    Resolver resolver = Resolver.builder()
+        .catalog(catalog)
+        .build();
+
+    Map<String, Map<String, VersionRangeSet<SemanticVersion>>> roots = new LinkedHashMap<>();
+    for (int i = 0; i < 64; ++i) {
+      roots.put("module" + i, dependencies("artifact" + (i % 8), "[1.0,4.0)",
+          "artifact" + (i % 5 + 8), "[1.1,2.1]"));
+    }
+    roots.put("broken", dependencies("missing", "[1.0,2.0)"));
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    BatchResolution batch;
+    try {
+      batch = resolver.resolveAll(roots, pool);
+    } finally {
+      pool.shutdown();
+    }
+
+    Assert.assertEquals(roots.keySet(), batch.resolutions().keySet());
+    Assert.assertFalse(batch.success());
+    Assert.assertEquals(Collections.singleton("broken"), batch.failures());
+    Assert.assertTrue(batch.cacheHits() > 0);
+    Assert.assertTrue(batch.cacheHitRate() > 0 && batch.cacheHitRate() < 1);
+    Assert.assertTrue(batch.cacheSize() > 0);
+
+    roots.forEach((root, requirements) -> {
+      Resolution expected = resolver.resolve(requirements);
+      Resolution actual = batch.resolution(root).get();
+
+      Assert.assertEquals(root, expected.failure(), actual.failure());
+      if (expected.success()) {
+        assertConsistent(catalog, actual);
+        Assert.assertEquals(root, expected.selection(), actual.selection());
+      }
+    });
+    Assert.assertFalse(batch.resolution("unknown").isPresent());
+  }
+
+  /**
+   * Tests {@link Resolver.Builder#build()}.
+   */
+  @Test
+  public void testBuild() {
+    try {
+      Resolver.builder().build();
+      Assert.fail("Expected IllegalStateException");
+    } catch (IllegalStateException ignore) {
+    }
+
+    try {
+      Resolver.builder().catalog(Catalog.builder().build()).build()
+          .resolve("foo", SemanticVersion.of("1.0"));
+      Assert.fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException ignore) {
+    }
+  }
+}
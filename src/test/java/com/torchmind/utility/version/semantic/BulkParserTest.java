@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link BulkParser}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BulkParserTest {
+
+  private static List<String> corpus() {
+    List<String> versions = new ArrayList<>();
+
+    for (int i = 0; i < 5000; ++i) {
+      switch (i % 5) {
+        case 0:
+          versions.add(i + ".0");
+          break;
+        case 1:
+          versions.add("1." + i + ".2-alpha." + (i % 7));
+          break;
+        case 2:
+          versions.add("v" + i);
+          break;
+        case 3:
+          versions.add("40000." + i);
+          break;
+        default:
+          versions.add("1.0-rc-" + i);
+          break;
+      }
+    }
+
+    return versions;
+  }
+
+  /**
+   * Tests {@link BulkParser#parse(List)}.
+   */
+  @Test
+  public void testParse() {
+    List<String> versions = corpus();
+    ForkJoinPool pool = new ForkJoinPool(4);
+
+    try {
+      BulkParseResult result = BulkParser.builder()
+          .pool(pool)
+          .threshold(64)
+          .build()
+          .parse(versions);
+
+      Assert.assertFalse(result.packed());
+      Assert.assertEquals(versions.size(), result.size());
+      Assert.assertEquals(2000, result.failureCount());
+
+      for (int i = 0; i < versions.size(); ++i) {
+        ParseResult expected = new ParseResult();
+
+        if (SemanticVersion.tryParse(versions.get(i), expected)) {
+          Assert.assertTrue(result.success(i));
+          Assert.assertNull(result.error(i));
+          Assert.assertEquals(SemanticVersion.of(versions.get(i)), result.version(i));
+          Assert.assertSame(result.versions()[i], result.version(i));
+        } else {
+          Assert.assertFalse(result.success(i));
+          Assert.assertEquals(expected.error(), result.error(i));
+          Assert.assertNull(result.version(i));
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    BulkParseResult result = BulkParser.builder().build().parse(new LinkedList<>(versions));
+    Assert.assertEquals(2000, result.failureCount());
+    Assert.assertEquals(0, BulkParser.builder().build().parse(new String[0]).size());
+  }
+
+  /**
+   * Tests {@link BulkParser#parsePacked(List)}.
+   */
+  @Test
+  public void testParsePacked() {
+    List<String> versions = corpus();
+    BulkParseResult result = BulkParser.builder()
+        .threshold(100)
+        .build()
+        .parsePacked(versions);
+
+    Assert.assertTrue(result.packed());
+    Assert.assertEquals(2000, result.failureCount());
+
+    for (int i = 0; i < versions.size(); ++i) {
+      if (!result.success(i)) {
+        Assert.assertEquals(PackedSemanticVersion.UNPACKABLE, result.packed(i));
+        continue;
+      }
+
+      SemanticVersion version = SemanticVersion.of(versions.get(i));
+      Assert.assertEquals(PackedSemanticVersion.tryPack(version), result.packedVersions()[i]);
+    }
+
+    Assert.assertEquals(PackedSemanticVersion.UNPACKABLE, result.packed(3));
+    Assert.assertTrue(result.success(3));
+
+    try {
+      result.versions();
+      Assert.fail("Expected IllegalStateException");
+    } catch (IllegalStateException ignore) {
+    }
+  }
+
+  /**
+   * Tests {@link BulkParser.Builder#java(boolean)}.
+   */
+  @Test
+  public void testParseJava() {
+    String[] versions = {"1.8.0_151", "9-ea", "1.x_2", "1.7.0"};
+    BulkParseResult result = BulkParser.builder()
+        .java(true)
+        .build()
+        .parse(versions);
+
+    Assert.assertEquals(1, result.failureCount());
+    Assert.assertEquals(ParseError.INVALID_NUMBER, result.error(2));
+    Assert.assertTrue(result.version(0) instanceof JavaVersion);
+    Assert.assertEquals(JavaVersion.of("1.8.0_151"), result.version(0));
+    Assert.assertEquals(JavaVersion.JAVA_1_7, result.version(3));
+  }
+}
@@ -16,6 +16,7 @@
  */
 package com.torchmind.utility.version.semantic;
 
+import java.nio.CharBuffer;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -220,4 +221,103 @@ public class JavaVersionTest {
       Assert.assertNotEquals(current, version05);
     }
   }
+
+  /**
+   * Tests {@link JavaVersion#hashCode()} and {@link JavaVersion#toString()}.
+   */
+  @Test
+  public void testRepresentation() {
+    JavaVersion version00 = JavaVersion.of("1.8.0_151");
+    JavaVersion version01 = JavaVersion.of("1.8.0_151");
+    JavaVersion version02 = JavaVersion.of("1.8.0");
+
+    Assert.assertEquals(version00.hashCode(), version01.hashCode());
+    Assert.assertEquals(version00.hashCode(), version00.hashCode());
+    Assert.assertEquals(java.util.Objects.hash(SemanticVersion.of("1.8.0").hashCode(), 151),
+        version00.hashCode());
+    Assert.assertNotEquals(version00.hashCode(), version02.hashCode());
+
+    Assert.assertEquals("1.8_151", version00.toString());
+    Assert.assertSame(version00.toString(), version00.toString());
+    Assert.assertEquals("1.8", version02.toString());
+  }
+
+  /**
+   * Tests {@link JavaVersion#sortKey()}.
+   */
+  @Test
+  public void testSortKey() {
+    JavaVersion[] versions = {JavaVersion.of("1.7.0_80"), JavaVersion.of("1.8.0-ea"),
+        JavaVersion.of("1.8.0"), JavaVersion.of("1.8.0_5"), JavaVersion.of("1.8.0_20"),
+        JavaVersion.of("1.8.0_151"), JavaVersion.of("9"), JavaVersion.of("10.0.1")};
+
+    for (JavaVersion version1 : versions) {
+      for (JavaVersion version2 : versions) {
+        Assert.assertEquals(version1 + " <=> " + version2,
+            Integer.signum(version1.compareTo(version2)),
+            Integer.signum(SemanticVersion.compareSortKeys(version1.sortKey(),
+                version2.sortKey())));
+      }
+    }
+
+    Assert.assertArrayEquals(SemanticVersion.of("1.8.0").sortKey(),
+        JavaVersion.of("1.8.0").sortKey());
+
+    // update numbers are ignored by compareTo when mixing types but remain part of the key
+    Assert.assertEquals(0, JavaVersion.of("1.8.0_151").compareTo(SemanticVersion.of("1.8.0")));
+    Assert.assertTrue(SemanticVersion.compareSortKeys(JavaVersion.of("1.8.0_151").sortKey(),
+        SemanticVersion.of("1.8.0").sortKey()) > 0);
+  }
+
+  /**
+   * Tests {@link JavaVersion#tryParse(CharSequence, int, int, ParseResult)}.
+   */
+  @Test
+  public void testTryParse() {
+    String[] valid = {"1.8.0", "1.8.0_151", "1.8.0_151-ea", "1.8.0_151+b12", "9-ea", "1.8._151",
+        "1.8.0_x", "10.0.1+10"};
+
+    ParseResult result = new ParseResult();
+    for (String value : valid) {
+      Assert.assertTrue(value, JavaVersion.tryParse(value, result));
+      Assert.assertEquals(value, JavaVersion.of(value), result.toJavaVersion());
+      Assert.assertEquals(value, JavaVersion.of(value).toString(),
+          result.toJavaVersion().toString());
+      Assert.assertEquals(value, JavaVersion.of(value).updateNumber(), result.updateNumber());
+      Assert.assertEquals(value, JavaVersion.of(value),
+          JavaVersion.tryParse(value).orElse(null));
+    }
+
+    Assert.assertTrue(JavaVersion.tryParse("java 1.8.0_151-b12", 5, 13, result));
+    Assert.assertEquals(151, result.updateNumber());
+    Assert.assertEquals("b12", result.extra());
+    Assert.assertEquals(PackedSemanticVersion.UNPACKABLE, result.pack());
+
+    Assert.assertFalse(JavaVersion.tryParse("1.x.0_151", result));
+    Assert.assertEquals(ParseError.INVALID_NUMBER, result.error());
+    Assert.assertEquals(0, result.updateNumber());
+    Assert.assertTrue(JavaVersion.tryParse("1.8.0_151").map(SemanticVersion::stable).orElse(false));
+    Assert.assertFalse(JavaVersion.tryParse("1.8.0_151-a-b").isPresent());
+  }
+
+  /**
+   * Tests {@link JavaVersion#of(CharSequence)}, {@link JavaVersion#of(CharSequence, int, int)}
+   * and {@link JavaVersion#tryParse(CharSequence)} with arbitrary character sequences.
+   */
+  @Test
+  public void testCharSequence() {
+    JavaVersion expected = JavaVersion.of("1.8.0_151");
+    StringBuilder builder = new StringBuilder("java 1.8.0_151");
+
+    Assert.assertEquals(expected, JavaVersion.of(new StringBuilder("1.8.0_151")));
+    Assert.assertEquals(151, JavaVersion.of(builder, 5, 9).updateNumber());
+    Assert.assertEquals(expected, JavaVersion.tryParse(CharBuffer.wrap("1.8.0_151")).get());
+    Assert.assertTrue(JavaVersion.tryParse("1.8.0_151").get() instanceof JavaVersion);
+    Assert.assertFalse(JavaVersion.tryParse(new StringBuilder("1.8.0_151-a-b")).isPresent());
+
+    JavaVersion copy = JavaVersion.builder((SemanticVersion) expected).build();
+    Assert.assertEquals(expected, copy);
+    Assert.assertEquals(0, JavaVersion.builder(SemanticVersion.of("1.8.0")).build()
+        .updateNumber());
+  }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link MappedVersionReader}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MappedVersionReaderTest {
+
+  /**
+   * Writes a temporary version file.
+   */
+  private static Path write(String contents) throws IOException {
+    Path path = Files.createTempFile("versions", ".txt");
+    Files.write(path, contents.getBytes(StandardCharsets.US_ASCII));
+    return path;
+  }
+
+  /**
+   * Tests {@link MappedVersionReader#read(Path)}.
+   */
+  @Test
+  public void testRead() throws IOException {
+    List<String> versions = new ArrayList<>();
+    StringBuilder contents = new StringBuilder();
+
+    for (int i = 0; i < 2000; ++i) {
+      String version = (i % 10 == 3 ? "x" + i : "1." + i + "-beta." + (i % 13) + "+build" + i);
+      versions.add(version);
+
+      contents.append(version).append(i % 2 == 0 ? "\r\n" : "\n");
+      if (i % 100 == 0) {
+        contents.append('\n');
+      }
+    }
+    contents.setLength(contents.length() - 1);
+
+    Path path = write(contents.toString());
+    try {
+      BulkParseResult expected = BulkParser.builder().build().parse(versions);
+
+      for (int chunkSize : new int[]{1, 17, 4096, MappedVersionReader.DEFAULT_CHUNK_SIZE}) {
+        MappedVersionReader reader = MappedVersionReader.builder()
+            .chunkSize(chunkSize)
+            .build();
+
+        BulkParseResult result = reader.read(path);
+        Assert.assertEquals(versions.size(), result.size());
+        Assert.assertEquals(200, result.failureCount());
+
+        for (int i = 0; i < versions.size(); ++i) {
+          Assert.assertEquals(expected.error(i), result.error(i));
+          Assert.assertEquals(expected.version(i), result.version(i));
+
+          if (expected.success(i)) {
+            Assert.assertEquals(versions.get(i), result.version(i).toString());
+          }
+        }
+
+        BulkParseResult packed = reader.readPacked(path);
+        for (int i = 0; i < versions.size(); ++i) {
+          Assert.assertEquals(expected.packed(i), packed.packed(i));
+        }
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  /**
+   * Tests {@link MappedVersionReader.Builder#java(boolean)}.
+   */
+  @Test
+  public void testReadJava() throws IOException {
+    Path path = write("1.8.0_151\n9-ea\n\n1.7.0");
+
+    try {
+      BulkParseResult result = MappedVersionReader.builder()
+          .java(true)
+          .build()
+          .read(path);
+
+      Assert.assertEquals(3, result.size());
+      Assert.assertEquals(JavaVersion.of("1.8.0_151"), result.version(0));
+      Assert.assertEquals(JavaVersion.of("9-ea"), result.version(1));
+      Assert.assertEquals(JavaVersion.JAVA_1_7, result.version(2));
+    } finally {
+      Files.delete(path);
+    }
+
+    path = write("");
+    try {
+      Assert.assertEquals(0, MappedVersionReader.builder().build().read(path).size());
+    } finally {
+      Files.delete(path);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.VersionRangeSet;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link MavenRangeParser}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MavenRangeParserTest {
+
+  private static void assertInvalid(String range, String message) {
+    try {
+      MavenRangeParser.parse(range);
+      Assert.fail("Expected IllegalArgumentException for " + range);
+    } catch (IllegalArgumentException ex) {
+      Assert.assertEquals(range, message, ex.getMessage());
+    }
+  }
+
+  /**
+   * Tests {@link MavenRangeParser#parse(CharSequence)}.
+   */
+  @Test
+  public void testParse() {
+    String[][] ranges = {
+        {"1.0", "[1.0,)"},
+        {"[1.0]", "[1.0,1.0]"},
+        {"[1.0,2.0)", "[1.0,2.0)"},
+        {"(1.0-alpha,2.0]", "(1.0-alpha,2.0]"},
+        {"[1.5,)", "[1.5,)"},
+        {"(,1.0]", "(,1.0]"},
+        {"(,)", "(,)"},
+        {"[,1.0]", "(,1.0]"},
+        {"(,1.0],[1.2,)", "(,1.0],[1.2,)"},
+        {"(,1.1),(1.1,)", "(,1.1),(1.1,)"},
+        {"[1.0,2.0),[3.0,)", "[1.0,2.0),[3.0,)"},
+        {"[3.0,4.0),[1.0,2.0),[1.5,3.0)", "[1.0,4.0)"},
+        {" [ 1.0 , 2.0 ) , ( 3.0 , ) ", "[1.0,2.0),(3.0,)"},
+        {"[1.0+build.5,1.1]", "[1.0+build.5,1.1]"}
+    };
+
+    for (String[] range : ranges) {
+      Assert.assertEquals(range[0], range[1], MavenRangeParser.parse(range[0]).toString());
+    }
+
+    VersionRangeSet<SemanticVersion> set = SemanticVersion.rangeSet("(,1.0],[1.2,)");
+    Assert.assertTrue(set.matches(SemanticVersion.of("0.5")));
+    Assert.assertTrue(set.matches(SemanticVersion.of("1.0")));
+    Assert.assertFalse(set.matches(SemanticVersion.of("1.1")));
+    Assert.assertTrue(set.matches(SemanticVersion.of("1.2")));
+    Assert.assertTrue(set.matches(SemanticVersion.of("20.0")));
+    Assert.assertEquals(VersionRangeSet.all(), MavenRangeParser.parse("(,)"));
+  }
+
+  /**
+   * Tests {@link MavenRangeParser#parse(CharSequence, int, int)}.
+   */
+  @Test
+  public void testParseRegion() {
+    String value = "<dependency version=\"[1.0,2.0),[3.0,)\"/>";
+    int offset = value.indexOf('"') + 1;
+
+    Assert.assertEquals("[1.0,2.0),[3.0,)", MavenRangeParser
+        .parse(value, offset, value.lastIndexOf('"') - offset).toString());
+
+    try {
+      MavenRangeParser.parse(value, offset, value.length());
+      Assert.fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException ignore) {
+    }
+  }
+
+  /**
+   * Tests {@link MavenRangeParser#parse(CharSequence)} with malformed expressions.
+   */
+  @Test
+  public void testParseInvalid() {
+    assertInvalid("", "Invalid version range: Empty expression at index 0");
+    assertInvalid("  ", "Invalid version range: Empty expression at index 2");
+    assertInvalid("[1.0,2.0", "Invalid version range: Expected ']' or ')' at index 8");
+    assertInvalid("[1.0", "Invalid version range: Expected ',' at index 4");
+    assertInvalid("(1.0]", "Invalid version range: Expected ',' at index 4");
+    assertInvalid("1.0,2.0", "Invalid version range: Expected '[' or '(' at index 3");
+    assertInvalid("[1.0,2.0)[3.0,)", "Invalid version range: Expected ',' at index 9");
+    assertInvalid("[1.0,2.0),", "Invalid version range: Expected '[' or '(' at index 10");
+    assertInvalid("[2.0,1.0]", "Invalid version range: Empty interval at index 0");
+    assertInvalid("[1.0,2.0),(1.0,1.0)", "Invalid version range: Empty interval at index 10");
+
+    try {
+      MavenRangeParser.parse("[1.0,2.a)");
+      Assert.fail("Expected NumberFormatException");
+    } catch (NumberFormatException ignore) {
+    }
+  }
+}
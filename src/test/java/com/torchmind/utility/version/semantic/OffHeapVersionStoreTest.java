@@ -0,0 +1,207 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.UnstableVersionType;
+import com.torchmind.utility.version.VersionRange;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link OffHeapVersionStore}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class OffHeapVersionStoreTest {
+
+  /**
+   * Creates a store (spanning multiple pages) which contains all test versions in reverse order.
+   */
+  private static OffHeapVersionStore createStore(List<SemanticVersion> versions) {
+    OffHeapVersionStore store = new OffHeapVersionStore(4);
+    for (String value : PackedSemanticVersionTest.VERSIONS) {
+      versions.add(SemanticVersion.of(value));
+    }
+    versions.add(JavaVersion.of("1.8.0_151"));
+    versions.add(JavaVersion.of("1.8.0_20"));
+    Collections.reverse(versions);
+
+    for (SemanticVersion version : versions) {
+      store.append(version);
+    }
+
+    return store;
+  }
+
+  /**
+   * Tests {@link OffHeapVersionStore#compare(int, int)} and {@link
+   * OffHeapVersionStore#get(int)}.
+   */
+  @Test
+  public void testCompare() {
+    List<SemanticVersion> versions = new ArrayList<>();
+    OffHeapVersionStore store = createStore(versions);
+
+    Assert.assertEquals(versions.size(), store.size());
+    Assert.assertFalse(store.sorted());
+
+    for (int i = 0; i < versions.size(); ++i) {
+      Assert.assertEquals(versions.get(i), store.get(i));
+      Assert.assertEquals(versions.get(i).getClass(), store.get(i).getClass());
+
+      for (int j = 0; j < versions.size(); ++j) {
+        String message = versions.get(i) + " <=> " + versions.get(j);
+
+        Assert.assertEquals(message, Integer.signum(versions.get(i).compareTo(versions.get(j))),
+            Integer.signum(store.compare(i, j)));
+        Assert.assertEquals(message, Integer.signum(versions.get(i).compareTo(versions.get(j))),
+            Integer.signum(store.compare(i, versions.get(j))));
+      }
+    }
+  }
+
+  /**
+   * Tests {@link OffHeapVersionStore.Cursor}.
+   */
+  @Test
+  public void testCursor() {
+    OffHeapVersionStore store = new OffHeapVersionStore();
+    store.append(SemanticVersion.of("1.0-alpha.2+build"));
+    store.append(JavaVersion.of("1.8.0_151"));
+
+    OffHeapVersionStore.Cursor cursor = store.cursor().position(0);
+    Assert.assertEquals(1, cursor.major());
+    Assert.assertEquals(0, cursor.minor());
+    Assert.assertEquals(0, cursor.patch());
+    Assert.assertEquals("alpha.2", cursor.extra());
+    Assert.assertEquals("build", cursor.metadata());
+    Assert.assertEquals(2, cursor.extraRevision());
+    Assert.assertEquals(UnstableVersionType.ALPHA, cursor.unstableVersionType().orElse(null));
+    Assert.assertTrue(cursor.unstable());
+    Assert.assertTrue(cursor.olderThan(SemanticVersion.of("1.0")));
+    Assert.assertEquals("1.0-alpha.2+build", cursor.toString());
+    Assert.assertEquals(SemanticVersion.of("2.0-alpha.2+build"), cursor.major(2));
+
+    Assert.assertTrue(cursor.next());
+    Assert.assertEquals(1, cursor.index());
+    Assert.assertEquals(151, cursor.updateNumber());
+    Assert.assertTrue(cursor.stable());
+    Assert.assertTrue(cursor.newerThan(JavaVersion.of("1.8.0_20")));
+    Assert.assertEquals(JavaVersion.of("1.8.0_151"), cursor.toVersion());
+    Assert.assertFalse(cursor.next());
+
+    try {
+      cursor.position(2);
+      Assert.fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException ignore) {
+    }
+  }
+
+  /**
+   * Tests iteration via {@link OffHeapVersionStore.Cursor#next()}.
+   */
+  @Test
+  public void testCursorIteration() {
+    OffHeapVersionStore empty = new OffHeapVersionStore();
+    Assert.assertEquals(-1, empty.cursor().index());
+    Assert.assertFalse(empty.cursor().next());
+
+    List<SemanticVersion> versions = new ArrayList<>();
+    OffHeapVersionStore store = createStore(versions);
+    OffHeapVersionStore.Cursor cursor = store.cursor();
+    Assert.assertEquals(-1, cursor.index());
+
+    List<SemanticVersion> visited = new ArrayList<>();
+    while (cursor.next()) {
+      Assert.assertEquals(visited.size(), cursor.index());
+      visited.add(cursor.toVersion());
+    }
+
+    Assert.assertEquals(versions, visited);
+  }
+
+  /**
+   * Tests {@link OffHeapVersionStore#sort()} and the range queries.
+   */
+  @Test
+  public void testSort() {
+    List<SemanticVersion> versions = new ArrayList<>();
+    OffHeapVersionStore store = createStore(versions);
+    String[] ranges = {"[1.0-alpha,1.0]", "(1.0-alpha,1.0)", "[1.0,1.0]", "(1.0,1.0)",
+        "[0.0,32767.65535.65535]", "(1.0-rc.1,2.0-snapshot]", "[5.0,6.0]", "[1.0,)",
+        "(,1.0-alpha]", "(,)"};
+
+    for (String value : ranges) {
+      VersionRange<SemanticVersion> range = SemanticVersion.range(value);
+      List<Integer> matching = new ArrayList<>();
+      store.forEachMatching(range, matching::add);
+
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < versions.size(); ++i) {
+        if (range.matches(versions.get(i))) {
+          expected.add(i);
+        }
+      }
+      Assert.assertEquals(value, expected, matching);
+    }
+
+    try {
+      store.startIndex(SemanticVersion.range("[1.0,2.0]"));
+      Assert.fail("Expected IllegalStateException");
+    } catch (IllegalStateException ignore) {
+    }
+
+    store.sort();
+    Assert.assertTrue(store.sorted());
+
+    SemanticVersion[] sorted = versions.toArray(new SemanticVersion[0]);
+    Arrays.sort(sorted);
+
+    for (int i = 0; i < sorted.length; ++i) {
+      Assert.assertEquals(0, store.compare(i, sorted[i]));
+      if (i != 0) {
+        Assert.assertTrue(store.compare(i - 1, i) <= 0);
+      }
+    }
+
+    for (String value : ranges) {
+      VersionRange<SemanticVersion> range = SemanticVersion.range(value);
+      int count = 0;
+      for (SemanticVersion version : sorted) {
+        if (range.matches(version)) {
+          ++count;
+        }
+      }
+
+      Assert.assertEquals(value, count, store.endIndex(range) - store.startIndex(range));
+      for (int i = store.startIndex(range); i < store.endIndex(range); ++i) {
+        Assert.assertTrue(value, range.matches(store.get(i)));
+      }
+    }
+
+    store.clear();
+    Assert.assertEquals(0, store.size());
+    Assert.assertEquals(0, store.reservedBytes());
+  }
+}
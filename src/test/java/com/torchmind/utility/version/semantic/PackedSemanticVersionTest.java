@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.UnstableVersionType;
+import com.torchmind.utility.version.VersionRange;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link PackedSemanticVersion}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PackedSemanticVersionTest {
+
+  static final String[] VERSIONS = {
+      "0.0", "0.0-a", "0.0-snapshot.2", "0.1", "0.1.1-rc.1", "0.1.1", "1.0-unknown", "1.0-0",
+      "1.0-snapshot", "1.0-snapshot.1", "1.0-alpha", "1.0-a.1", "1.0-alpha.2", "1.0-beta",
+      "1.0-beta.3", "1.0-rc", "1.0-rc.1", "1.0-rc.10", "1.0", "1.0+metadata", "1.0.1-b",
+      "1.0.1", "1.1", "1.10", "2.0-snapshot", "2.0", "10.0.65535", "32767.65535.65535"
+  };
+
+  /**
+   * Tests {@link PackedSemanticVersion#compare(long, long)}.
+   */
+  @Test
+  public void testCompare() {
+    for (String first : VERSIONS) {
+      for (String second : VERSIONS) {
+        SemanticVersion version1 = SemanticVersion.of(first);
+        SemanticVersion version2 = SemanticVersion.of(second);
+
+        Assert.assertEquals(first + " <=> " + second,
+            Integer.signum(version1.compareTo(version2)),
+            Integer.signum(PackedSemanticVersion.compare(PackedSemanticVersion.pack(version1),
+                PackedSemanticVersion.pack(version2))));
+      }
+    }
+  }
+
+  /**
+   * Tests {@link PackedSemanticVersion#matching(long[], VersionRange)}.
+   */
+  @Test
+  public void testMatching() {
+    long[] versions = new long[VERSIONS.length];
+    for (int i = 0; i < VERSIONS.length; ++i) {
+      versions[i] = PackedSemanticVersion.pack(SemanticVersion.of(VERSIONS[i]));
+    }
+    Arrays.sort(versions);
+
+    String[] ranges = {"[1.0-alpha,1.0]", "(1.0-alpha,1.0)", "[1.0,1.0]", "(1.0,1.0)",
+        "[0.0,32767.65535.65535]", "(1.0-rc.1,2.0-snapshot]", "[5.0,6.0]", "[1.0,)",
+        "(,1.0-alpha]", "(,)"};
+
+    for (String value : ranges) {
+      VersionRange<SemanticVersion> range = SemanticVersion.range(value);
+      LongBuffer buffer = PackedSemanticVersion.matching(versions, range);
+
+      int expectedStart = -1;
+      int expectedCount = 0;
+      for (int i = 0; i < versions.length; ++i) {
+        if (range.matches(PackedSemanticVersion.unpack(versions[i]))) {
+          if (expectedStart == -1) {
+            expectedStart = i;
+          }
+          ++expectedCount;
+        }
+      }
+
+      Assert.assertEquals(value, expectedCount, buffer.remaining());
+      if (expectedCount != 0) {
+        Assert.assertEquals(value, expectedStart, buffer.position());
+      }
+    }
+  }
+
+  /**
+   * Tests {@link PackedSemanticVersion#tryPack(SemanticVersion)} with versions which exceed the
+   * packed bounds.
+   */
+  @Test
+  public void testUnpackable() {
+    Assert.assertEquals(PackedSemanticVersion.UNPACKABLE,
+        PackedSemanticVersion.tryPack(SemanticVersion.of("32768.0")));
+    Assert.assertEquals(PackedSemanticVersion.UNPACKABLE,
+        PackedSemanticVersion.tryPack(SemanticVersion.of("1.65536")));
+    Assert.assertEquals(PackedSemanticVersion.UNPACKABLE,
+        PackedSemanticVersion.tryPack(SemanticVersion.of("1.0.65536")));
+    Assert.assertEquals(PackedSemanticVersion.UNPACKABLE,
+        PackedSemanticVersion.tryPack(SemanticVersion.of("1.0-alpha.4096")));
+    Assert.assertEquals(PackedSemanticVersion.UNPACKABLE,
+        PackedSemanticVersion.tryPack(SemanticVersion.of("3000000000.0")));
+    Assert.assertEquals(PackedSemanticVersion.UNPACKABLE,
+        PackedSemanticVersion.tryPack(JavaVersion.of("1.8.0_151")));
+
+    Assert.assertFalse(PackedSemanticVersion.fits(SemanticVersion.of("20180101.0")));
+    Assert.assertTrue(PackedSemanticVersion.fits(JavaVersion.of("1.8.0")));
+
+    try {
+      PackedSemanticVersion.pack(SemanticVersion.of("32768.0"));
+      Assert.fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException ignore) {
+    }
+  }
+
+  /**
+   * Tests {@link PackedSemanticVersion#unpack(long)}.
+   */
+  @Test
+  public void testUnpack() {
+    for (String value : VERSIONS) {
+      SemanticVersion version = SemanticVersion.of(value);
+      long packed = PackedSemanticVersion.pack(version);
+      SemanticVersion unpacked = PackedSemanticVersion.unpack(packed);
+
+      Assert.assertEquals(value, version, unpacked);
+      Assert.assertEquals(value, packed, PackedSemanticVersion.pack(unpacked));
+      Assert.assertEquals(version.major(), PackedSemanticVersion.major(packed));
+      Assert.assertEquals(version.minor(), PackedSemanticVersion.minor(packed));
+      Assert.assertEquals(version.patch(), PackedSemanticVersion.patch(packed));
+      Assert.assertEquals(version.stable(), PackedSemanticVersion.stable(packed));
+      Assert.assertEquals(version.unstableVersionType().orElse(null),
+          PackedSemanticVersion.unstableVersionType(packed));
+    }
+
+    Assert.assertEquals("1.0-alpha.2",
+        PackedSemanticVersion.unpack(PackedSemanticVersion.tryPack(1, 0, 0,
+            UnstableVersionType.ALPHA, 2)).toString());
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.VersionRange;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link SemanticVersionCodec}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SemanticVersionCodecTest {
+
+  private static final SemanticVersion[] VERSIONS = {
+      SemanticVersion.of("0.0"),
+      SemanticVersion.of("1.2.3"),
+      SemanticVersion.of("1.0-alpha.2"),
+      SemanticVersion.of("1.0-rc.1+build.42"),
+      SemanticVersion.of("2.0+metadata"),
+      SemanticVersion.of("3000000000.128.16384-ümlaut"),
+      SemanticVersion.of("1.0-custom"),
+      JavaVersion.of("1.8.0_151"),
+      JavaVersion.of("9-ea"),
+      JavaVersion.JAVA_1_7
+  };
+
+  /**
+   * Asserts that two versions are identical (including their representation and type).
+   */
+  private static void assertIdentical(SemanticVersion expected, SemanticVersion actual) {
+    Assert.assertEquals(expected.getClass(), actual.getClass());
+    Assert.assertEquals(expected, actual);
+    Assert.assertEquals(expected.toString(), actual.toString());
+    Assert.assertEquals(expected.extra(), actual.extra());
+    Assert.assertEquals(expected.metadata(), actual.metadata());
+    Assert.assertEquals(expected.unstableVersionType(), actual.unstableVersionType());
+    Assert.assertEquals(expected.extraRevision(), actual.extraRevision());
+  }
+
+  /**
+   * Tests {@link SemanticVersionCodec#write(ByteBuffer, SemanticVersion)} and {@link
+   * SemanticVersionCodec#readVersion(ByteBuffer)}.
+   */
+  @Test
+  public void testBuffer() {
+    int size = 4;
+    for (SemanticVersion version : VERSIONS) {
+      size += SemanticVersionCodec.encodedSize(version);
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    SemanticVersionCodec.writeHeader(buffer);
+    for (SemanticVersion version : VERSIONS) {
+      SemanticVersionCodec.write(buffer, version);
+    }
+    Assert.assertFalse(buffer.hasRemaining());
+
+    buffer.flip();
+    Assert.assertEquals(SemanticVersionCodec.FORMAT_VERSION,
+        SemanticVersionCodec.readHeader(buffer));
+    for (SemanticVersion version : VERSIONS) {
+      assertIdentical(version, SemanticVersionCodec.readVersion(buffer));
+    }
+    Assert.assertFalse(buffer.hasRemaining());
+
+    Assert.assertEquals(4, SemanticVersionCodec.encodedSize(SemanticVersion.of("1.0")));
+    Assert.assertEquals(11, SemanticVersionCodec.encode(SemanticVersion.of("1.0-rc")).length);
+    assertIdentical(SemanticVersion.of("1.0-rc"),
+        SemanticVersionCodec.decode(SemanticVersionCodec.encode(SemanticVersion.of("1.0-rc"))));
+  }
+
+  /**
+   * Tests {@link SemanticVersionCodec#write(java.io.DataOutput, SemanticVersion)} and {@link
+   * SemanticVersionCodec#readVersion(java.io.DataInput)}.
+   */
+  @Test
+  public void testStream() throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(outputStream);
+
+    SemanticVersionCodec.writeHeader(output);
+    for (SemanticVersion version : VERSIONS) {
+      SemanticVersionCodec.write(output, version);
+    }
+
+    VersionRange<SemanticVersion> range = SemanticVersion.range("(1.0-alpha,2.0+build]");
+    SemanticVersionCodec.writeRange(output, range);
+    output.flush();
+
+    DataInputStream input = new DataInputStream(
+        new ByteArrayInputStream(outputStream.toByteArray()));
+    Assert.assertEquals(1, SemanticVersionCodec.readHeader(input));
+    for (SemanticVersion version : VERSIONS) {
+      assertIdentical(version, SemanticVersionCodec.readVersion(input));
+    }
+
+    VersionRange<SemanticVersion> decoded = SemanticVersionCodec.readRange(input);
+    Assert.assertEquals(range, decoded);
+    Assert.assertFalse(decoded.startInclusive());
+    Assert.assertTrue(decoded.endInclusive());
+    Assert.assertEquals(-1, input.read());
+
+    ByteBuffer buffer = ByteBuffer.allocate(SemanticVersionCodec.encodedSize(range));
+    SemanticVersionCodec.writeRange(buffer, range);
+    buffer.flip();
+    Assert.assertEquals(range, SemanticVersionCodec.readRange(buffer));
+  }
+
+  /**
+   * Tests {@link SemanticVersionCodec#writeRange(ByteBuffer, VersionRange)} with unbounded
+   * ranges.
+   */
+  @Test
+  public void testUnboundedRange() {
+    String[] values = {"[1.0-alpha,)", "(,2.0+build]", "(,)"};
+
+    for (String value : values) {
+      VersionRange<SemanticVersion> range = SemanticVersion.range(value);
+      ByteBuffer buffer = ByteBuffer.allocate(SemanticVersionCodec.encodedSize(range));
+      SemanticVersionCodec.writeRange(buffer, range);
+      Assert.assertFalse(value, buffer.hasRemaining());
+
+      buffer.flip();
+      VersionRange<SemanticVersion> decoded = SemanticVersionCodec.readRange(buffer);
+      Assert.assertEquals(value, range, decoded);
+      Assert.assertEquals(value, range.startInclusive(), decoded.startInclusive());
+      Assert.assertEquals(value, range.endInclusive(), decoded.endInclusive());
+    }
+
+    Assert.assertEquals(1, SemanticVersionCodec.encodedSize(VersionRange.any()));
+  }
+
+  /**
+   * Tests decoding of malformed data.
+   */
+  @Test
+  public void testMalformed() {
+    byte[][] malformed = {
+        {'X', 'V', 'C', 1},
+        {'T', 'V', 'C', 2},
+        {'T', 'V', 'C', 1, (byte) 0x80, 1, 0, 0},
+        {'T', 'V', 'C', 1, 0x08, 1, 0, 0},
+        {'T', 'V', 'C', 1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F, 0, 0},
+        {'T', 'V', 'C', 1, 0, 1, 0, 0, 0}
+    };
+
+    for (byte[] data : malformed) {
+      try {
+        SemanticVersionCodec.decode(data);
+        Assert.fail("Expected IllegalArgumentException");
+      } catch (IllegalArgumentException ignore) {
+      }
+    }
+
+    try {
+      SemanticVersionCodec.decode(new byte[]{'T', 'V', 'C', 1, 0, 1});
+      Assert.fail("Expected BufferUnderflowException");
+    } catch (java.nio.BufferUnderflowException ignore) {
+    }
+  }
+
+  /**
+   * Tests decoding of strings with a corrupted length prefix.
+   */
+  @Test
+  public void testCorruptedStringLength() throws IOException {
+    byte[] encoded = SemanticVersionCodec.encode(SemanticVersion.of("1.0-alpha"));
+    Assert.assertEquals(5, encoded[8]);
+
+    // replaces the length of the extra bit with the largest permitted variable length integer
+    byte[] corrupted = new byte[encoded.length + 4];
+    System.arraycopy(encoded, 0, corrupted, 0, 8);
+    System.arraycopy(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}, 0,
+        corrupted, 8, 5);
+    System.arraycopy(encoded, 9, corrupted, 13, encoded.length - 9);
+
+    try {
+      SemanticVersionCodec.decode(corrupted);
+      Assert.fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException ignore) {
+    }
+
+    DataInputStream input = new DataInputStream(new ByteArrayInputStream(corrupted));
+    SemanticVersionCodec.readHeader(input);
+    try {
+      SemanticVersionCodec.readVersion(input);
+      Assert.fail("Expected EOFException");
+    } catch (EOFException ignore) {
+    }
+
+    // strings which exceed the initial read chunk are still decoded in their entirety
+    char[] metadata = new char[20000];
+    Arrays.fill(metadata, 'x');
+    SemanticVersion large = SemanticVersion.of("1.0+" + new String(metadata));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    SemanticVersionCodec.write(new DataOutputStream(outputStream), large);
+    assertIdentical(large, SemanticVersionCodec.readVersion(
+        new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()))));
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.VersionRange;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link SemanticVersionTable}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SemanticVersionTableTest {
+
+  private static List<SemanticVersion> corpus() {
+    List<SemanticVersion> versions = new ArrayList<>();
+    Random random = new Random(7);
+
+    for (int i = 0; i < 500; ++i) {
+      versions.add(SemanticVersion.of(
+          PackedSemanticVersionTest.VERSIONS[random.nextInt(PackedSemanticVersionTest.VERSIONS
+              .length)]));
+    }
+    versions.add(JavaVersion.of("1.8.0_151"));
+    versions.add(JavaVersion.of("1.8.0_20"));
+    versions.add(JavaVersion.of("1.8.0"));
+
+    return versions;
+  }
+
+  /**
+   * Tests {@link SemanticVersionTable#append(SemanticVersion)} and {@link
+   * SemanticVersionTable#get(int)}.
+   */
+  @Test
+  public void testAppend() {
+    List<SemanticVersion> versions = corpus();
+    SemanticVersionTable table = new SemanticVersionTable(0);
+
+    for (SemanticVersion version : versions) {
+      table.append(version);
+    }
+
+    Assert.assertEquals(versions.size(), table.size());
+    Assert.assertTrue(table.dictionarySize() < 30);
+
+    for (int i = 0; i < versions.size(); ++i) {
+      SemanticVersion version = versions.get(i);
+      SemanticVersion row = table.get(i);
+
+      Assert.assertEquals(version.getClass(), row.getClass());
+      Assert.assertEquals(version, row);
+      Assert.assertEquals(version.toString(), row.toString());
+      Assert.assertEquals(version.major(), table.major(i));
+      Assert.assertEquals(version.extra(), table.extra(i));
+      Assert.assertEquals(version.metadata(), table.metadata(i));
+      Assert.assertEquals(version.extraRevision(), table.extraRevision(i));
+      Assert.assertEquals(version.unstableVersionType().orElse(null),
+          table.unstableVersionType(i));
+    }
+
+    ParseResult result = new ParseResult();
+    Assert.assertTrue(JavaVersion.tryParse("1.8.0_151-b12", result));
+    Assert.assertEquals(JavaVersion.of("1.8.0_151-b12"), table.get(table.append(result)));
+
+    try {
+      table.get(table.size());
+      Assert.fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException ignore) {
+    }
+  }
+
+  /**
+   * Tests {@link SemanticVersionTable#sort()}.
+   */
+  @Test
+  public void testSort() {
+    List<SemanticVersion> versions = corpus();
+    SemanticVersionTable table = new SemanticVersionTable();
+    versions.forEach(table::append);
+
+    Assert.assertFalse(table.sorted());
+    table.sort();
+    Assert.assertTrue(table.sorted());
+
+    versions.sort(SemanticVersion::compareTo);
+    for (int i = 0; i < versions.size(); ++i) {
+      Assert.assertEquals(versions.get(i), table.get(i));
+      Assert.assertEquals(versions.get(i).toString(), table.get(i).toString());
+
+      if (i != 0) {
+        Assert.assertTrue(table.compare(i - 1, i) <= 0);
+      }
+    }
+  }
+
+  /**
+   * Tests {@link SemanticVersionTable#matching(VersionRange)}.
+   */
+  @Test
+  public void testMatching() {
+    List<SemanticVersion> versions = corpus();
+    SemanticVersionTable table = new SemanticVersionTable();
+    versions.forEach(table::append);
+
+    String[] ranges = {"[1.0-alpha,1.0]", "(1.0-alpha,1.0)", "[1.0,1.0]", "(1.0,1.0)",
+        "[0.0,32767.65535.65535]", "(1.0-rc.1,2.0-snapshot]", "[5.0,6.0]", "[1.8,1.8.1)",
+        "[1.0,)", "(,1.0-alpha]", "(,)"};
+
+    for (int pass = 0; pass < 2; ++pass) {
+      for (String value : ranges) {
+        VersionRange<SemanticVersion> range = SemanticVersion.range(value);
+        int[] matching = table.matching(range);
+
+        int count = 0;
+        for (int i = 0; i < table.size(); ++i) {
+          SemanticVersion version = table.get(i);
+          Assert.assertEquals(value, range.matches(version), table.matches(i, range));
+
+          if (range.matches(version)) {
+            Assert.assertEquals(value, i, matching[count++]);
+          }
+        }
+
+        Assert.assertEquals(value, count, matching.length);
+      }
+
+      table.sort();
+    }
+  }
+}
@@ -16,9 +16,11 @@
  */
 package com.torchmind.utility.version.semantic;
 
+import com.torchmind.utility.version.UnstableVersionType;
 import com.torchmind.utility.version.VersionRange;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.util.Optional;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -2134,6 +2136,38 @@ public class SemanticVersionTest {
     }
   }
 
+  /**
+   * Tests that {@link SemanticVersion#hashCode()} and {@link SemanticVersion#toString()} are
+   * stable across invocations.
+   */
+  @Test
+  public void testCachedRepresentation() {
+    SemanticVersion version = SemanticVersion.of("1.2.3-beta.4+metadata");
+
+    Assert.assertSame(version.toString(), version.toString());
+    Assert.assertEquals("1.2.3-beta.4+metadata", version.toString());
+    Assert.assertEquals(version.hashCode(), version.hashCode());
+    Assert.assertEquals(SemanticVersion.of("1.2.3-beta.4").hashCode(), version.hashCode());
+    Assert.assertEquals(0, SemanticVersion.of("0.0").hashCode());
+  }
+
+  /**
+   * Tests {@link SemanticVersion#extraRevision()}.
+   */
+  @Test
+  public void testExtraRevision() {
+    Assert.assertEquals(0, SemanticVersion.of("1.0").extraRevision());
+    Assert.assertEquals(0, SemanticVersion.of("1.0-alpha").extraRevision());
+    Assert.assertEquals(0, SemanticVersion.of("1.0-alpha.").extraRevision());
+    Assert.assertEquals(0, SemanticVersion.of("1.0-alpha.x").extraRevision());
+    Assert.assertEquals(0, SemanticVersion.of("1.0-alpha.1.2").extraRevision());
+    Assert.assertEquals(0, SemanticVersion.of("1.0-alpha.4294967296").extraRevision());
+    Assert.assertEquals(1, SemanticVersion.of("1.0-alpha.1").extraRevision());
+    Assert.assertEquals(42, SemanticVersion.of("1.0-rc.042").extraRevision());
+    Assert.assertEquals(42, SemanticVersion.of("1.0-rc.42").extra("rc.42").extraRevision());
+    Assert.assertEquals(-1, SemanticVersion.of("1.0-rc.4294967295").extraRevision());
+  }
+
   /**
    * Tests {@link SemanticVersion#hashCode()}.
    */
@@ -2545,6 +2579,129 @@ public class SemanticVersionTest {
     this.assertVersion(SemanticVersion.of("1.1.1"), 1, 1, 1, null, null);
   }
 
+  /**
+   * Tests {@link SemanticVersion#of(CharSequence)} and {@link SemanticVersion#of(CharSequence, int,
+   * int)}.
+   */
+  @Test
+  public void testParseSequence() {
+    this.assertVersion(SemanticVersion.of(new StringBuilder("1.2.3")), 1, 2, 3, null, null);
+    this.assertVersion(SemanticVersion.of(new StringBuilder("1.2.3.4")), 1, 2, 3, null, null);
+    this.assertVersion(SemanticVersion.of(new StringBuilder("1.")), 1, 0, 0, null, null);
+    this.assertVersion(SemanticVersion.of(new StringBuilder("")), 0, 0, 0, null, null);
+    this.assertVersion(SemanticVersion.of(new StringBuilder("1.0-")), 1, 0, 0, "", null);
+    this.assertVersion(SemanticVersion.of(new StringBuilder("1.0-rc.2+build.5")), 1, 0, 0, "rc.2",
+        "build.5");
+    this.assertVersion(SemanticVersion.of(new StringBuilder("1.0+build.5-rc.2")), 1, 0, 0, "rc.2",
+        "build.5");
+
+    this.assertVersion(SemanticVersion.of("[1.1.1-beta.3+metadata]", 1, 21), 1, 1, 1, "beta.3",
+        "metadata");
+    this.assertVersion(SemanticVersion.of("1.0,2.0", 4, 3), 2, 0, 0, null, null);
+
+    Assert.assertEquals(SemanticVersion.of("1.0-alpha.2"),
+        SemanticVersion.of(new StringBuilder("1.0-alpha.2")));
+    Assert.assertEquals(2, SemanticVersion.of(new StringBuilder("1.0-alpha.2")).extraRevision());
+    Assert.assertTrue(SemanticVersion.of(new StringBuilder("1.0-b.2")).unstableVersionType()
+        .map((t) -> t == com.torchmind.utility.version.UnstableVersionType.BETA).orElse(false));
+    Assert.assertEquals(-1294967296, SemanticVersion.of("3000000000.0").major());
+
+    this.assertFailure(IllegalArgumentException.class, "1.0-alpha-1");
+    this.assertFailure(IllegalArgumentException.class, "1.0-alpha+meta+data");
+    this.assertFailure(IllegalArgumentException.class, "1.0+meta-alpha+1");
+    this.assertFailure(IllegalArgumentException.class, "1.0-alpha+meta-data");
+    this.assertFailure(IllegalArgumentException.class, "1.x-alpha-1");
+    this.assertFailure(NumberFormatException.class, "1..0");
+    this.assertFailure(NumberFormatException.class, ".1");
+    this.assertFailure(NumberFormatException.class, "1.x");
+    this.assertFailure(NumberFormatException.class, "4294967296.0");
+
+    try {
+      SemanticVersion.of("1.0", 2, 2);
+      Assert.fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException ignore) {
+    }
+  }
+
+  /**
+   * Tests {@link SemanticVersion#tryParse(CharSequence, int, int, ParseResult)}.
+   */
+  @Test
+  public void testTryParse() {
+    String[] valid = {"1.0", "1.0.1-alpha.2+metadata", "0.0-rc", "2.1+meta.data", "1.2.3.4",
+        "3000000000.0", "1.0-b.x"};
+    String[] invalid = {"1.0-alpha-1", "1.0-alpha+meta+data", "1.0+meta-alpha+1", "1..0", ".1",
+        "1.x", "4294967296.0", "not a version"};
+
+    ParseResult result = new ParseResult();
+    for (String value : valid) {
+      Assert.assertTrue(value, SemanticVersion.tryParse(value, result));
+      Assert.assertTrue(value, result.success());
+      Assert.assertNull(value, result.error());
+      Assert.assertEquals(value, SemanticVersion.of(value), result.toVersion());
+      Assert.assertEquals(value, SemanticVersion.of(value).toString(),
+          result.toVersion().toString());
+      Assert.assertEquals(value, SemanticVersion.tryParse(value),
+          Optional.of(SemanticVersion.of(value)));
+    }
+
+    Optional<SemanticVersion> parsed = SemanticVersion.tryParse(new StringBuilder("1.0"));
+    Assert.assertEquals(SemanticVersion.of("1.0"), parsed.orElse(null));
+
+    for (String value : invalid) {
+      Assert.assertFalse(value, SemanticVersion.tryParse(value, result));
+      Assert.assertFalse(value, result.success());
+      Assert.assertNotNull(value, result.error());
+      Assert.assertFalse(value, SemanticVersion.tryParse(value).isPresent());
+
+      try {
+        result.toVersion();
+        Assert.fail("Expected IllegalStateException");
+      } catch (IllegalStateException ignore) {
+      }
+    }
+
+    Assert.assertFalse(SemanticVersion.tryParse("1.0-alpha-1", result));
+    Assert.assertEquals(ParseError.INVALID_EXTRA, result.error());
+    Assert.assertEquals(9, result.errorIndex());
+    Assert.assertFalse(SemanticVersion.tryParse("1.0+meta+data", result));
+    Assert.assertEquals(ParseError.INVALID_METADATA, result.error());
+    Assert.assertFalse(SemanticVersion.tryParse("1.x", result));
+    Assert.assertEquals(ParseError.INVALID_NUMBER, result.error());
+    Assert.assertEquals(2, result.errorIndex());
+
+    Assert.assertTrue(SemanticVersion.tryParse("[1.2.3-beta.4+meta]", 1, 17, result));
+    Assert.assertEquals(1, result.major());
+    Assert.assertEquals(2, result.minor());
+    Assert.assertEquals(3, result.patch());
+    Assert.assertTrue(result.hasExtra());
+    Assert.assertEquals("beta.4", result.extra());
+    Assert.assertEquals(UnstableVersionType.BETA, result.unstableVersionType());
+    Assert.assertEquals(4, result.extraRevision());
+    Assert.assertTrue(result.hasMetadata());
+    Assert.assertEquals("meta", result.metadata());
+    Assert.assertEquals(PackedSemanticVersion.pack(SemanticVersion.of("1.2.3-beta.4")),
+        result.pack());
+
+    Assert.assertFalse(result.reset().success());
+    Assert.assertEquals(PackedSemanticVersion.UNPACKABLE, result.pack());
+  }
+
+  /**
+   * Asserts that parsing a version string fails with a certain exception type.
+   *
+   * @param type the expected exception type.
+   * @param version the version string.
+   */
+  private void assertFailure(@NonNull Class<? extends Exception> type, @NonNull String version) {
+    try {
+      SemanticVersion.of(new StringBuilder(version));
+      Assert.fail("Expected " + type.getSimpleName() + " for \"" + version + "\"");
+    } catch (Exception ex) {
+      Assert.assertEquals(type, ex.getClass());
+    }
+  }
+
   /**
    * Tests {@link SemanticVersion#range(String)}.
    */
@@ -2582,6 +2739,54 @@ public class SemanticVersionTest {
       Assert.assertTrue(range3.startInclusive());
       Assert.assertTrue(range3.endInclusive());
     }
+
+    {
+      VersionRange<SemanticVersion> range = SemanticVersion.range("[1.0,)");
+      Assert.assertEquals(SemanticVersion.of("1.0"), range.startBound());
+      Assert.assertTrue(range.startInclusive());
+      Assert.assertNull(range.endBound());
+      Assert.assertFalse(range.endInclusive());
+      Assert.assertEquals(VersionRange.atLeast(SemanticVersion.of("1.0")), range);
+    }
+
+    {
+      VersionRange<SemanticVersion> range = SemanticVersion.range("(,2.0)");
+      Assert.assertNull(range.startBound());
+      Assert.assertFalse(range.startInclusive());
+      Assert.assertEquals(SemanticVersion.of("2.0"), range.endBound());
+      Assert.assertFalse(range.endInclusive());
+      Assert.assertEquals(VersionRange.lessThan(SemanticVersion.of("2.0")), range);
+    }
+
+    Assert.assertEquals(VersionRange.any(), SemanticVersion.range("(,)"));
+  }
+
+  /**
+   * Tests {@link SemanticVersion#sortKey()}.
+   */
+  @Test
+  public void testSortKey() {
+    String[] values = {"0.0", "0.0-a", "0.0-snapshot.2", "0.1", "0.1.1-rc.1", "1.0-unknown",
+        "1.0-snapshot", "1.0-snapshot.1", "1.0-alpha", "1.0-a.1", "1.0-beta.3", "1.0-rc.10",
+        "1.0", "1.0+metadata", "1.0.1", "1.10", "2.0-snapshot", "2.0", "20180101.0",
+        "2147483647.0"};
+
+    for (String first : values) {
+      for (String second : values) {
+        SemanticVersion version1 = SemanticVersion.of(first);
+        SemanticVersion version2 = SemanticVersion.of(second);
+
+        Assert.assertEquals(first + " <=> " + second,
+            Integer.signum(version1.compareTo(version2)),
+            Integer.signum(SemanticVersion.compareSortKeys(version1.sortKey(),
+                version2.sortKey())));
+      }
+    }
+
+    Assert.assertEquals(SemanticVersion.SORT_KEY_LENGTH,
+        SemanticVersion.of("1.0").sortKey().length);
+    Assert.assertArrayEquals(SemanticVersion.of("1.0-alpha.1").sortKey(),
+        SemanticVersion.of("1.0-a.1+build").sortKey());
   }
 
   /**
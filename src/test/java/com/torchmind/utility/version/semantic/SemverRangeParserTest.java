@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.VersionCache;
+import com.torchmind.utility.version.VersionRangeSet;
+import com.torchmind.utility.version.semantic.SemverRangeParser.Dialect;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link SemverRangeParser}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SemverRangeParserTest {
+
+  private static void assertInvalid(String range, String message) {
+    try {
+      SemverRangeParser.parse(range);
+      Assert.fail("Expected IllegalArgumentException for " + range);
+    } catch (IllegalArgumentException ex) {
+      Assert.assertEquals(range, message, ex.getMessage());
+    }
+  }
+
+  private static void assertParse(Dialect dialect, String[][] ranges) {
+    for (String[] range : ranges) {
+      Assert.assertEquals(range[0], range[1],
+          SemverRangeParser.parse(range[0], dialect).toString());
+    }
+  }
+
+  /**
+   * Tests {@link SemverRangeParser#parse(CharSequence)}.
+   */
+  @Test
+  public void testParse() {
+    assertParse(Dialect.NPM, new String[][]{
+        {"1.2.3", "[1.2.3,1.2.3]"},
+        {"=1.2.3", "[1.2.3,1.2.3]"},
+        {"v1.2.3", "[1.2.3,1.2.3]"},
+        {"1.2", "[1.2,1.3-0)"},
+        {"1.x", "[1.0,2.0-0)"},
+        {"1.2.*", "[1.2,1.3-0)"},
+        {"*", "(,)"},
+        {"", "(,)"},
+        {"^1.2.3", "[1.2.3,2.0-0)"},
+        {"^0.2.3", "[0.2.3,0.3-0)"},
+        {"^0.0.3", "[0.0.3,0.0.4-0)"},
+        {"^1.2.x", "[1.2,2.0-0)"},
+        {"^0.0.x", "[0.0,0.1-0)"},
+        {"^0.x", "[0.0,1.0-0)"},
+        {"^1.2.3-beta.2", "[1.2.3-beta.2,2.0-0)"},
+        {"~1.2.3", "[1.2.3,1.3-0)"},
+        {"~1.2", "[1.2,1.3-0)"},
+        {"~1", "[1.0,2.0-0)"},
+        {"~>1.2.3", "[1.2.3,1.3-0)"},
+        {">1.2.3", "(1.2.3,)"},
+        {">1.2", "[1.3,)"},
+        {">=1.2", "[1.2,)"},
+        {"<1.2", "(,1.2-0)"},
+        {"<=1.2", "(,1.3-0)"},
+        {"<=1.2.3", "(,1.2.3]"},
+        {"<*", ""},
+        {">=*", "(,)"},
+        {">=1.0 <2.0", "[1.0,2.0-0)"},
+        {">=1.0.0 <2.0.0", "[1.0,2.0)"},
+        {">= 1.0, < 2.0", "[1.0,2.0-0)"},
+        {">=1.0 >=1.5 <3.0 <=2.0", "[1.5,2.1-0)"},
+        {">2.0 <1.0", ""},
+        {"1.2.3 - 2.3.4", "[1.2.3,2.3.4]"},
+        {"1.2 - 2.3", "[1.2,2.4-0)"},
+        {"1.2.3 - 2", "[1.2.3,3.0-0)"},
+        {">=1.0 <2.0 || 3.x", "[1.0,2.0-0),[3.0,4.0-0)"},
+        {"1.x || >=1.5 <2.5", "[1.0,2.5-0)"},
+        {"<1.0 || >=2.0", "(,1.0-0),[2.0,)"},
+        {"1.x ||", "(,)"},
+        {"1.2.3-alpha+build.1", "[1.2.3-alpha+build.1,1.2.3-alpha+build.1]"}
+    });
+  }
+
+  /**
+   * Tests {@link SemverRangeParser#parse(CharSequence, Dialect)} using the Cargo dialect.
+   */
+  @Test
+  public void testParseCargo() {
+    assertParse(Dialect.CARGO, new String[][]{
+        {"1.2.3", "[1.2.3,2.0-0)"},
+        {"0.4", "[0.4,0.5-0)"},
+        {"=1.2.3", "[1.2.3,1.2.3]"},
+        {"~0.4", "[0.4,0.5-0)"},
+        {">= 1.2.0, < 1.5", "[1.2,1.5-0)"},
+        {"*", "(,)"}
+    });
+  }
+
+  /**
+   * Tests matching of versions against parsed expressions.
+   */
+  @Test
+  public void testMatches() {
+    VersionRangeSet<SemanticVersion> set = SemverRangeParser.parse("^1.2.3 || ~3.1");
+
+    Assert.assertFalse(set.matches(SemanticVersion.of("1.2.2")));
+    Assert.assertTrue(set.matches(SemanticVersion.of("1.2.3")));
+    Assert.assertTrue(set.matches(SemanticVersion.of("1.9.0")));
+    Assert.assertFalse(set.matches(SemanticVersion.of("2.0.0-alpha")));
+    Assert.assertFalse(set.matches(SemanticVersion.of("2.0.0")));
+    Assert.assertTrue(set.matches(SemanticVersion.of("3.1.7")));
+    Assert.assertFalse(set.matches(SemanticVersion.of("3.2.0-rc.1")));
+  }
+
+  /**
+   * Tests {@link SemverRangeParser#parse(CharSequence, int, int, Dialect)}.
+   */
+  @Test
+  public void testParseRegion() {
+    String value = "\"lodash\": \"^4.17.0\",";
+    int offset = value.indexOf('^');
+
+    Assert.assertEquals("[4.17,5.0-0)", SemverRangeParser
+        .parse(value, offset, value.lastIndexOf('"') - offset, Dialect.NPM).toString());
+
+    try {
+      SemverRangeParser.parse(value, offset, value.length(), Dialect.NPM);
+      Assert.fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException ignore) {
+    }
+  }
+
+  /**
+   * Tests {@link SemverRangeParser#parse(CharSequence)} with malformed expressions.
+   */
+  @Test
+  public void testParseInvalid() {
+    assertInvalid("^", "Invalid version range: Expected version at index 1");
+    assertInvalid(">= ", "Invalid version range: Expected version at index 3");
+    assertInvalid("1.0 | 2.0", "Invalid version range: Expected '||' at index 4");
+    assertInvalid("1.a", "Invalid version range: Expected version at index 2");
+    assertInvalid("1.", "Invalid version range: Unexpected character '.' at index 1");
+    assertInvalid("1.x-beta", "Invalid version range: Unexpected character '-' at index 3");
+    assertInvalid("99999999999", "Invalid version range: Version bit exceeds range at index 9");
+    assertInvalid("1.2.3 -", "Invalid version range: Expected version at index 6");
+  }
+
+  /**
+   * Tests {@link SemverRangeParser#cache(Dialect, int)}.
+   */
+  @Test
+  public void testCache() {
+    VersionCache<VersionRangeSet<SemanticVersion>> cache = SemverRangeParser
+        .cache(Dialect.NPM, 16);
+
+    VersionRangeSet<SemanticVersion> set = cache.of(">=1.0 <2.0 || 3.x");
+    Assert.assertSame(set, cache.of(">=1.0 <2.0 || 3.x"));
+    Assert.assertEquals(SemverRangeParser.parse(">=1.0 <2.0 || 3.x"), set);
+    Assert.assertEquals(1, cache.statistics().hits());
+    Assert.assertEquals(1, cache.statistics().misses());
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link VersionMap}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class VersionMapTest {
+
+  /**
+   * Tests the queries of {@link VersionMap}.
+   */
+  @Test
+  public void testQueries() {
+    Map<SemanticVersion, String> entries = new LinkedHashMap<>();
+    entries.put(SemanticVersion.of("2.0"), "2.0");
+    entries.put(SemanticVersion.of("1.0"), "1.0");
+    entries.put(SemanticVersion.of("1.1-rc.1"), "1.1-rc.1");
+    entries.put(SemanticVersion.of("1.0.1"), "1.0.1");
+    entries.put(SemanticVersion.of("2.1-beta"), "2.1-beta");
+
+    VersionMap<String> map = VersionMap.of(entries);
+
+    Assert.assertEquals(5, map.size());
+    Assert.assertEquals("{1.0=1.0, 1.0.1=1.0.1, 1.1-rc.1=1.1-rc.1, 2.0=2.0, 2.1-beta=2.1-beta}",
+        map.toString());
+    Assert.assertEquals("1.0.1", map.get(SemanticVersion.of("1.0.1")));
+    Assert.assertNull(map.get(SemanticVersion.of("1.0.2")));
+    Assert.assertTrue(map.containsKey(SemanticVersion.of("2.1-beta")));
+
+    Assert.assertEquals("1.1-rc.1", map.floor(SemanticVersion.of("1.1")).get().getValue());
+    Assert.assertEquals("1.0.1", map.floor(SemanticVersion.of("1.1-alpha")).get().getValue());
+    Assert.assertEquals("2.0", map.ceiling(SemanticVersion.of("1.1")).get().getValue());
+    Assert.assertEquals(1, map.floorIndex(SemanticVersion.of("1.1-alpha")));
+    Assert.assertEquals(2, map.ceilingIndex(SemanticVersion.of("1.1-alpha")));
+
+    Assert.assertEquals("2.0", map.latestStable().get().getValue());
+    Assert.assertEquals(3, map.latestStableIndex());
+    Assert.assertEquals("1.1-rc.1",
+        map.latestIn(SemanticVersion.range("[1.0,2.0)")).get().getValue());
+    Assert.assertEquals("1.0.1",
+        map.latestStableIn(SemanticVersion.range("[1.0,2.0)")).get().getValue());
+    Assert.assertEquals(-1, map.latestStableIndexIn(SemanticVersion.range("(2.0,3.0)")));
+    Assert.assertEquals(4, map.latestIndexIn(SemanticVersion.range("(2.0,3.0)")));
+  }
+
+  /**
+   * Tests {@link VersionMap.Builder#put(SemanticVersion, Object)} with equal keys.
+   */
+  @Test
+  public void testReplace() {
+    VersionMap.Builder<Integer> builder = VersionMap.<Integer>builder()
+        .put(SemanticVersion.of("1.0+a"), 1)
+        .put(SemanticVersion.of("1.0-alpha"), 2)
+        .put(SemanticVersion.of("1.0+b"), 3);
+    Assert.assertEquals(3, builder.size());
+
+    VersionMap<Integer> map = builder.build();
+    Assert.assertEquals(0, builder.size());
+
+    Assert.assertEquals(2, map.size());
+    Assert.assertEquals(Integer.valueOf(3), map.get(SemanticVersion.of("1.0")));
+    Assert.assertEquals("1.0+b", map.key(1).toString());
+    Assert.assertEquals(2, (int) map.values().get(0));
+
+    Assert.assertSame(VersionMap.empty(), builder.build());
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.VersionRange;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link VersionRangeMatcher}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class VersionRangeMatcherTest {
+
+  /**
+   * Ranges with packable bounds (exclusive bounds are folded into their direct neighbours within
+   * the packed representation).
+   */
+  private static final String[] PACKED_RANGES = {"[1.0-alpha,1.0]", "(1.0-alpha,1.0)",
+      "(1.0,1.0)", "(1.0-rc.9,1.0-rc.11)", "(1.0,1.0.1)", "(1.0-alpha.4095,1.0-beta)",
+      "[1.0-alpha.4095,1.0-beta)", "(1.0-alpha.4095,1.0-beta]", "(0.0,0.1)", "(0.0-a,0.1.1]",
+      "(1.0-unknown,1.0-0]", "(32767.65535.65535,)", "[0.0,32767.65535.65535)", "(1.0-rc.1,)",
+      "(,1.0]", "(,)"};
+
+  /**
+   * Ranges with at least one bound which exceeds the packed representation.
+   */
+  private static final String[] UNPACKABLE_RANGES = {"[1.0,40000.0)", "(1.0-alpha.5000,2.0]",
+      "(1.0-alpha.4095,1.0-alpha.4096)", "(1.0,1.0.65536)", "(,40000.0)", "[2147483647.0,)"};
+
+  /**
+   * Versions which are located directly next to (or beyond) the bounds used within the ranges
+   * above.
+   */
+  private static final String[] EDGE_VERSIONS = {"1.0-rc.9", "1.0-rc.11", "1.0.1-0",
+      "1.0-alpha.4095", "1.0-alpha.4096", "1.0-beta.1", "1.0-0", "1.0.65535", "1.0.65536",
+      "40000.0", "1.0-alpha.4999", "1.0-alpha.5000", "1.0-alpha.5001", "20180101.0-rc.1",
+      "2147483647.0"};
+
+  /**
+   * Compares the results of a matcher with those of its range (packed values are compared with
+   * their unpacked semantic counterparts as they do not retain the type of their source).
+   */
+  private static void assertMatches(String message, VersionRange<SemanticVersion> range,
+      VersionRangeMatcher matcher, SemanticVersion version) {
+    Assert.assertEquals(message, range.matches(version), matcher.test(version));
+
+    long packed = PackedSemanticVersion.tryPack(version);
+    if (packed != PackedSemanticVersion.UNPACKABLE) {
+      Assert.assertEquals(message, range.matches(PackedSemanticVersion.unpack(packed)),
+          matcher.asLongPredicate().test(packed));
+    }
+  }
+
+  /**
+   * Tests {@link VersionRangeMatcher#test(SemanticVersion)} and {@link
+   * VersionRangeMatcher#test(long)}.
+   */
+  @Test
+  public void testMatches() {
+    for (String[] ranges : new String[][]{PACKED_RANGES, UNPACKABLE_RANGES}) {
+      for (String value : ranges) {
+        VersionRange<SemanticVersion> range = SemanticVersion.range(value);
+        VersionRangeMatcher matcher = VersionRangeMatcher.compile(range);
+
+        Assert.assertEquals(value, ranges == PACKED_RANGES, matcher.packed());
+        Assert.assertEquals(value, matcher.toString());
+        Assert.assertSame(range, matcher.range());
+
+        for (String[] versions : new String[][]{PackedSemanticVersionTest.VERSIONS,
+            EDGE_VERSIONS}) {
+          for (String version : versions) {
+            assertMatches(value + " ~ " + version, range, matcher, SemanticVersion.of(version));
+          }
+        }
+
+        Assert.assertFalse(matcher.test(PackedSemanticVersion.UNPACKABLE));
+        Assert.assertFalse(matcher.test(null));
+      }
+    }
+
+    // the revision field overflows into the version type when folding these bounds
+    VersionRangeMatcher matcher = VersionRangeMatcher.compile(
+        SemanticVersion.range("(1.0-alpha.4095,1.0-beta)"));
+    Assert.assertFalse(matcher.test(SemanticVersion.of("1.0-alpha.4095")));
+    Assert.assertFalse(matcher.test(SemanticVersion.of("1.0-beta")));
+  }
+
+  /**
+   * Tests {@link VersionRangeMatcher#test(SemanticVersion)} with Java versions.
+   */
+  @Test
+  public void testJava() {
+    JavaVersion[] bounds = {JavaVersion.of("1.8.0_20"), JavaVersion.of("1.8.0_151"),
+        JavaVersion.of("1.8.0"), JavaVersion.of("9")};
+    SemanticVersion[] versions = {JavaVersion.of("1.7.0_80"), JavaVersion.of("1.8.0-ea"),
+        JavaVersion.of("1.8.0"), JavaVersion.of("1.8.0_5"), JavaVersion.of("1.8.0_20"),
+        JavaVersion.of("1.8.0_21"), JavaVersion.of("1.8.0_151"), JavaVersion.of("9"),
+        SemanticVersion.of("1.8.0"), SemanticVersion.of("1.8.1"), SemanticVersion.of("9.0")};
+
+    for (JavaVersion start : bounds) {
+      for (JavaVersion end : bounds) {
+        for (int inclusivity = 0; inclusivity < 4; ++inclusivity) {
+          VersionRange<SemanticVersion> range = VersionRange.<SemanticVersion>builder()
+              .startBound(start)
+              .startInclusive((inclusivity & 1) != 0)
+              .endBound(end)
+              .endInclusive((inclusivity & 2) != 0)
+              .build();
+          VersionRangeMatcher matcher = VersionRangeMatcher.compile(range);
+
+          Assert.assertEquals(range.toString(), start.updateNumber() == 0
+              && end.updateNumber() == 0, matcher.packed());
+
+          for (SemanticVersion version : versions) {
+            assertMatches(range + " ~ " + version, range, matcher, version);
+          }
+        }
+      }
+    }
+
+    VersionRangeMatcher matcher = VersionRangeMatcher.compile(
+        VersionRange.<SemanticVersion>builder()
+            .startBound(JavaVersion.of("1.8.0_20"))
+            .startInclusive(true)
+            .endBound(JavaVersion.of("9"))
+            .build());
+
+    Assert.assertFalse(matcher.packed());
+    Assert.assertFalse(matcher.test(JavaVersion.of("1.8.0_5")));
+    Assert.assertTrue(matcher.test(JavaVersion.of("1.8.0_20")));
+    Assert.assertTrue(matcher.test(JavaVersion.of("1.8.0_151")));
+    Assert.assertFalse(matcher.test(JavaVersion.of("9")));
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import com.torchmind.utility.version.VersionRange;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link VersionSet}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class VersionSetTest {
+
+  private static final String[] RANGES = {"[1.0-alpha,1.0]", "(1.0-alpha,1.0)", "[1.0,1.0]",
+      "(1.0,1.0)", "[0.0,32767.65535.65535]", "(1.0-rc.1,2.0-snapshot]", "[5.0,6.0]",
+      "[0.0,1.0)", "[0.0,0.1.1]", "[1.0,1.0.1)"};
+
+  /**
+   * Sorts a list of versions and collapses equal versions into the last of their occurrences.
+   */
+  private static List<SemanticVersion> collapse(List<SemanticVersion> versions) {
+    List<SemanticVersion> sorted = new ArrayList<>(versions);
+    Collections.sort(sorted);
+
+    List<SemanticVersion> collapsed = new ArrayList<>();
+    for (SemanticVersion version : sorted) {
+      int last = collapsed.size() - 1;
+
+      if (last != -1 && collapsed.get(last).compareTo(version) == 0) {
+        collapsed.set(last, version);
+      } else {
+        collapsed.add(version);
+      }
+    }
+
+    return collapsed;
+  }
+
+  /**
+   * Asserts that the set answers all queries like a linear scan over a sorted list does.
+   */
+  private static void assertQueries(List<SemanticVersion> sorted, VersionSet set) {
+    Assert.assertEquals(sorted, set.versions());
+
+    for (SemanticVersion version : sorted) {
+      Assert.assertTrue(set.contains(version));
+      Assert.assertEquals(version, set.floor(version).orElse(null));
+      Assert.assertEquals(version, set.ceiling(version).orElse(null));
+    }
+
+    for (String value : RANGES) {
+      VersionRange<SemanticVersion> range = SemanticVersion.range(value);
+      SemanticVersion latest = null;
+      SemanticVersion latestStable = null;
+
+      for (SemanticVersion version : sorted) {
+        if (range.matches(version)) {
+          latest = version;
+          if (version.stable()) {
+            latestStable = version;
+          }
+        }
+      }
+
+      Assert.assertEquals(value, latest, set.latestIn(range).orElse(null));
+      Assert.assertEquals(value, latestStable, set.latestStableIn(range).orElse(null));
+    }
+  }
+
+  /**
+   * Tests the queries of sets with packable versions.
+   */
+  @Test
+  public void testQueries() {
+    List<SemanticVersion> versions = new ArrayList<>();
+    for (String value : PackedSemanticVersionTest.VERSIONS) {
+      versions.add(SemanticVersion.of(value));
+    }
+
+    Collections.reverse(versions);
+    VersionSet set = VersionSet.of(versions);
+
+    // 1.0+metadata is considered equal to 1.0 and is replaced by it as it has been added first
+    List<SemanticVersion> sorted = collapse(versions);
+    Assert.assertEquals(sorted.size(), set.size());
+    Assert.assertEquals("1.0", set.get(set.indexOf(SemanticVersion.of("1.0"))).toString());
+
+    assertQueries(sorted, set);
+
+    Assert.assertEquals("32767.65535.65535", set.latestStable().get().toString());
+    Assert.assertEquals("1.0.1", set.floor(SemanticVersion.of("1.0.2")).get().toString());
+    Assert.assertEquals("1.1", set.ceiling(SemanticVersion.of("1.0.2")).get().toString());
+    Assert.assertFalse(set.ceiling(SemanticVersion.of("40000.0")).isPresent());
+    Assert.assertFalse(set.floor(SemanticVersion.of("0.0-snapshot")).isPresent());
+    Assert.assertFalse(set.contains(SemanticVersion.of("1.2")));
+
+    // queries which cannot be packed fall back to their object representation
+    Assert.assertEquals("32767.65535.65535",
+        set.floor(SemanticVersion.of("40000.0")).get().toString());
+  }
+
+  /**
+   * Tests the queries of sets with unpackable versions.
+   */
+  @Test
+  public void testUnpackable() {
+    List<SemanticVersion> versions = new ArrayList<>();
+    for (String value : PackedSemanticVersionTest.VERSIONS) {
+      if (!value.contains("+")) {
+        versions.add(SemanticVersion.of(value));
+      }
+    }
+    versions.add(SemanticVersion.of("20180101.0"));
+    versions.add(SemanticVersion.of("20180101.0-rc.1"));
+
+    VersionSet set = VersionSet.of(versions);
+    assertQueries(collapse(versions), set);
+    Assert.assertEquals("20180101.0", set.latestStable().get().toString());
+  }
+
+  /**
+   * Tests {@link VersionSet#empty()}.
+   */
+  @Test
+  public void testEmpty() {
+    VersionSet set = VersionSet.builder().build();
+
+    Assert.assertSame(VersionSet.empty(), set);
+    Assert.assertTrue(set.isEmpty());
+    Assert.assertFalse(set.latestStable().isPresent());
+    Assert.assertFalse(set.latestIn(SemanticVersion.range("[1.0,2.0]")).isPresent());
+    Assert.assertFalse(set.floor(SemanticVersion.of("1.0")).isPresent());
+  }
+}
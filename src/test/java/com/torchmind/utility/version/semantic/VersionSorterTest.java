@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.utility.version.semantic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link VersionSorter}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class VersionSorterTest {
+
+  private static final String[] EXTRAS = {null, "alpha", "beta.2", "rc.1", "snapshot", "0",
+      "alpha.12"};
+
+  /**
+   * Generates a list of random semantic versions (including duplicates which differ in their
+   * metadata bit only).
+   */
+  private static SemanticVersion[] generate(int count, int maximumMajor, long seed) {
+    Random random = new Random(seed);
+    SemanticVersion[] versions = new SemanticVersion[count];
+
+    for (int i = 0; i < count; ++i) {
+      SemanticVersion.Builder builder = SemanticVersion.builder()
+          .major(random.nextInt(maximumMajor))
+          .minor(random.nextInt(4))
+          .patch(random.nextInt(3))
+          .extra(EXTRAS[random.nextInt(EXTRAS.length)]);
+
+      if (random.nextBoolean()) {
+        builder.metadata("build" + i);
+      }
+
+      versions[i] = builder.build();
+    }
+
+    return versions;
+  }
+
+  /**
+   * Asserts that the radix sort produces the same order as the (stable) comparison sort.
+   */
+  private static void assertSorted(SemanticVersion[] versions, SemanticVersion[] sorted) {
+    SemanticVersion[] expected = versions.clone();
+    Arrays.sort(expected);
+
+    Assert.assertEquals(expected.length, sorted.length);
+    for (int i = 0; i < expected.length; ++i) {
+      Assert.assertSame("Index " + i, expected[i], sorted[i]);
+    }
+  }
+
+  /**
+   * Tests {@link VersionSorter#sort(SemanticVersion[])} with packable and unpackable versions.
+   */
+  @Test
+  public void testSort() {
+    for (int maximumMajor : new int[]{3, 1 << 20, Integer.MAX_VALUE}) {
+      SemanticVersion[] versions = generate(5000, maximumMajor, maximumMajor);
+      SemanticVersion[] sorted = versions.clone();
+
+      VersionSorter.sort(sorted);
+      assertSorted(versions, sorted);
+    }
+
+    SemanticVersion[] small = generate(10, 3, 42);
+    SemanticVersion[] sorted = small.clone();
+    VersionSorter.sort(sorted);
+    assertSorted(small, sorted);
+  }
+
+  /**
+   * Tests {@link VersionSorter#sort(List)} with Java versions.
+   */
+  @Test
+  public void testSortJava() {
+    Random random = new Random(7);
+    List<JavaVersion> versions = new LinkedList<>();
+
+    for (int i = 0; i < 1000; ++i) {
+      versions.add(JavaVersion.builder()
+          .major(1)
+          .minor(6 + random.nextInt(3))
+          .updateNumber(random.nextInt(200))
+          .build());
+    }
+
+    List<JavaVersion> expected = new ArrayList<>(versions);
+    expected.sort(null);
+
+    VersionSorter.sort(versions);
+    Assert.assertEquals(expected, versions);
+  }
+
+  /**
+   * Tests {@link VersionSorter#parallelSort(SemanticVersion[], ForkJoinPool)}.
+   */
+  @Test
+  public void testParallelSort() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+
+    try {
+      for (int maximumMajor : new int[]{40, Integer.MAX_VALUE}) {
+        SemanticVersion[] versions = generate(VersionSorter.MIN_CHUNK_SIZE * 5, maximumMajor, 1);
+        SemanticVersion[] sorted = versions.clone();
+
+        VersionSorter.parallelSort(sorted, pool);
+        assertSorted(versions, sorted);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+}